@@ -87,6 +87,16 @@ TRUNCATE: [Tt][Rr][Uu][Nn][Cc][Aa][Tt][Ee];
 RESTART: [Rr][Ee][Ss][Tt][Aa][Rr][Tt];
 CONTINUE: [Cc][Oo][Nn][Tt][Ii][Nn][Uu][Ee];
 IDENTITY: [Ii][Dd][Ee][Nn][Tt][Ii][Tt][Yy];
+COPY: [Cc][Oo][Pp][Yy];
+STDIN: [Ss][Tt][Dd][Ii][Nn];
+STDOUT: [Ss][Tt][Dd][Oo][Uu][Tt];
+DECLARE: [Dd][Ee][Cc][Ll][Aa][Rr][Ee];
+CURSOR: [Cc][Uu][Rr][Ss][Oo][Rr];
+FETCH: [Ff][Ee][Tt][Cc][Hh];
+FORWARD: [Ff][Oo][Rr][Ww][Aa][Rr][Dd];
+CLOSE: [Cc][Ll][Oo][Ss][Ee];
+HOLD: [Hh][Oo][Ll][Dd];
+WITHOUT: [Ww][Ii][Tt][Hh][Oo][Uu][Tt];
 AUTO_INCREMENT: [Aa][Uu][Tt][Oo]'_'[Ii][Nn][Cc][Rr][Ee][Mm][Ee][Nn][Tt];
 NOMINVALUE: [Nn][Oo][Mm][Ii][Nn][Vv][Aa][Ll][Uu][Ee];
 NOMAXVALUE: [Nn][Oo][Mm][Aa][Xx][Vv][Aa][Ll][Uu][Ee];
@@ -17,6 +17,10 @@ statement
     | alterTableStatement
     | dropTableStatement
     | truncateTableStatement
+    | copyStatement
+    | declareCursorStatement
+    | fetchStatement
+    | closeCursorStatement
     | createViewStatement
     | dropViewStatement
     | createMaterializedViewStatement
@@ -213,6 +217,50 @@ identityOption
     | RESTART IDENTITY      # restartIdentityOption
     ;
 
+// COPY statement for bulk load and export
+copyStatement
+    : COPY tableName (LPAREN columnList RPAREN)? FROM (STRING | STDIN) copyOptions?
+    | COPY tableName (LPAREN columnList RPAREN)? TO (STRING | STDOUT) copyOptions?
+    ;
+
+copyOptions
+    : WITH? LPAREN copyOption (COMMA copyOption)* RPAREN
+    ;
+
+copyOption
+    : (identifier | NULL) copyOptionValue?
+    ;
+
+copyOptionValue
+    : STRING
+    | identifier
+    | TEXT
+    | BINARY
+    | TRUE
+    | FALSE
+    | INTEGER_LITERAL
+    ;
+
+// Cursors over the rows of a query, fetched in batches
+declareCursorStatement
+    : DECLARE identifier CURSOR ((WITH | WITHOUT) HOLD)? FOR selectStatement
+    ;
+
+fetchStatement
+    : FETCH fetchCount? (FROM | IN)? identifier
+    ;
+
+fetchCount
+    : NEXT
+    | ALL
+    | FORWARD (INTEGER_LITERAL | ALL)?
+    | INTEGER_LITERAL
+    ;
+
+closeCursorStatement
+    : CLOSE (identifier | ALL)
+    ;
+
 // CREATE VIEW statement
 createViewStatement
     : CREATE (OR REPLACE)? (FORCE)? VIEW (IF NOT EXISTS)? viewName (LPAREN columnNameList RPAREN)? AS selectStatement
@@ -272,29 +320,45 @@ expression
     | functionCall                                      # functionCallExpression
     | LPAREN expression RPAREN                         # parenthesizedExpression
     | LPAREN selectStatement RPAREN                    # subqueryExpression
-    | expression binaryOperator expression             # binaryExpression
-    | NOT expression                                    # notExpression
+    | CASE whenClause+ (ELSE expression)? END          # caseExpression
+    | EXISTS LPAREN selectStatement RPAREN             # existsExpression
+    // ? in operand position is a prepared statement placeholder, between operands the JSONB operator
+    | JSONB_EXISTS                                      # parameterExpression
+    // Binary operators, from tightest to loosest binding
+    | <assoc=right> expression op=EXPONENT expression  # binaryExpression
+    | expression op=(MULTIPLY | DIVIDE | MODULO) expression # binaryExpression
+    | expression op=(PLUS | MINUS) expression          # binaryExpression
+    | expression op=(CONCAT
+                    | JSONB_CONTAINS | JSONB_CONTAINED | JSONB_EXISTS
+                    | JSONB_EXTRACT | JSONB_EXTRACT_TEXT
+                    | JSONB_PATH_EXTRACT | JSONB_PATH_EXTRACT_TEXT) expression # binaryExpression
     | expression IS (NOT)? NULL                        # isNullExpression
     | expression (NOT)? IN LPAREN expressionList RPAREN # inExpression
     | expression (NOT)? IN LPAREN selectStatement RPAREN # inSubqueryExpression
     | expression (NOT)? LIKE expression                # likeExpression
-    | expression (NOT)? BETWEEN expression AND expression # betweenExpression
-    | CASE whenClause+ (ELSE expression)? END          # caseExpression
-    | EXISTS LPAREN selectStatement RPAREN             # existsExpression
+    | expression (NOT)? BETWEEN betweenBound AND betweenBound # betweenExpression
+    | expression op=(EQ | NE | LT | LE | GT | GE) expression # binaryExpression
+    | NOT expression                                    # notExpression
+    | expression op=AND expression                     # binaryExpression
+    | expression op=OR expression                      # binaryExpression
     ;
 
 whenClause
     : WHEN expression THEN expression
     ;
 
-binaryOperator
-    : EQ | NE | LT | LE | GT | GE
-    | PLUS | MINUS | MULTIPLY | DIVIDE | MODULO | EXPONENT
-    | AND | OR
-    | CONCAT
-    | JSONB_CONTAINS | JSONB_CONTAINED | JSONB_EXISTS
-    | JSONB_EXTRACT | JSONB_EXTRACT_TEXT
-    | JSONB_PATH_EXTRACT | JSONB_PATH_EXTRACT_TEXT
+// BETWEEN bounds cannot contain boolean operators, so the AND that separates them
+// is never absorbed into the lower bound
+betweenBound
+    : literal                                           # literalBound
+    | columnReference                                   # columnReferenceBound
+    | functionCall                                      # functionCallBound
+    | LPAREN expression RPAREN                         # parenthesizedBound
+    | JSONB_EXISTS                                      # parameterBound
+    | <assoc=right> betweenBound op=EXPONENT betweenBound # binaryBound
+    | betweenBound op=(MULTIPLY | DIVIDE | MODULO) betweenBound # binaryBound
+    | betweenBound op=(PLUS | MINUS) betweenBound      # binaryBound
+    | betweenBound op=CONCAT betweenBound              # binaryBound
     ;
 
 // Literals
@@ -611,7 +675,6 @@ callParameterList
 
 callParameter
     : expression
-    | JSONB_EXISTS  // Parameter placeholder (reusing ? token)
     ;
 
 // CREATE SCHEMA statement
@@ -663,4 +726,19 @@ functionName
 identifier
     : IDENTIFIER
     | QUOTED_IDENTIFIER
+    | nonReservedKeyword
+    ;
+
+// Keywords that remain usable as names, as they are unreserved in PostgreSQL
+nonReservedKeyword
+    : COPY
+    | STDIN
+    | STDOUT
+    | DECLARE
+    | CURSOR
+    | FETCH
+    | FORWARD
+    | CLOSE
+    | HOLD
+    | WITHOUT
     ;
\ No newline at end of file
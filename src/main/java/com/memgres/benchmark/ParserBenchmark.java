@@ -0,0 +1,71 @@
+package com.memgres.benchmark;
+
+import com.memgres.sql.parser.SqlParseException;
+import com.memgres.sql.parser.SqlParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares parsing the common DML shapes with the fast-path parser against the ANTLR grammar.
+ * Each shape is parsed with a fresh literal per iteration, as an application without prepared
+ * statements would send it, so the statement cache plays no part. The two parsers are
+ * reported as two "databases" of a {@link BenchmarkReport}.
+ */
+public class ParserBenchmark {
+
+    private static final Map<String, String> SHAPES = new LinkedHashMap<>();
+
+    static {
+        SHAPES.put("INSERT VALUES", "INSERT INTO users (id, name, email, active) VALUES (%d, 'user_%1$d', 'user_%1$d@example.com', TRUE)");
+        SHAPES.put("SELECT by key", "SELECT id, name, email FROM users WHERE id = %d");
+        SHAPES.put("UPDATE by key", "UPDATE users SET name = 'renamed_%d', active = FALSE WHERE id = %1$d");
+        SHAPES.put("DELETE by key", "DELETE FROM users WHERE id = %d");
+    }
+
+    private final int iterations;
+    private final int warmupIterations;
+
+    public ParserBenchmark(int iterations, int warmupIterations) {
+        this.iterations = iterations;
+        this.warmupIterations = warmupIterations;
+    }
+
+    /**
+     * Parse every shape with both parsers.
+     */
+    public BenchmarkReport run() throws SqlParseException {
+        Map<String, List<BenchmarkResult>> results = new HashMap<>();
+        results.put("fast path", runParser("fast path", new SqlParser(true)));
+        results.put("grammar", runParser("grammar", new SqlParser(false)));
+        return new BenchmarkReport(results);
+    }
+
+    private List<BenchmarkResult> runParser(String name, SqlParser parser) throws SqlParseException {
+        List<BenchmarkResult> results = new ArrayList<>();
+        for (Map.Entry<String, String> shape : SHAPES.entrySet()) {
+            for (int i = 0; i < warmupIterations; i++) {
+                parser.parse(String.format(shape.getValue(), i));
+            }
+            List<Long> times = new ArrayList<>(iterations);
+            long start = System.currentTimeMillis();
+            for (int i = 0; i < iterations; i++) {
+                String sql = String.format(shape.getValue(), i);
+                long operationStart = System.nanoTime();
+                parser.parse(sql);
+                times.add(System.nanoTime() - operationStart);
+            }
+            results.add(new BenchmarkResult(shape.getKey(), name, iterations, 0,
+                System.currentTimeMillis() - start, times));
+        }
+        return results;
+    }
+
+    public static void main(String[] args) throws SqlParseException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        new ParserBenchmark(iterations, iterations / 10).run().printSummary();
+    }
+}
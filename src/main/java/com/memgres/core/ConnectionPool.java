@@ -8,27 +8,47 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Connection pool implementation for MemGres database.
  * Provides efficient connection reuse and management for high-throughput applications.
+ * 
+ * <p>Connections are kept in a concurrent bag rather than a blocking queue, so that borrowing
+ * and returning take no lock:</p>
+ * <ul>
+ *   <li>a thread first tries the connection it returned last, which under steady load is
+ *       usually still free</li>
+ *   <li>otherwise it claims any free connection from the shared list, or creates one while
+ *       the pool is below its maximum size</li>
+ *   <li>when none is free it waits on a hand-off queue, to which a returning thread passes
+ *       its connection directly</li>
+ * </ul>
+ * A connection is claimed by compare-and-set on its state, and borrow and return validation
+ * checks state flags instead of making a call through the connection.
  */
 public class ConnectionPool {
     private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
     
     private final MemGresEngine engine;
-    private final BlockingQueue<PooledConnection> availableConnections;
+    private final CopyOnWriteArrayList<PooledConnection> connections;
+    private final ThreadLocal<PooledConnection> lastUsedConnection;
+    private final SynchronousQueue<PooledConnection> handoffQueue;
+    private final AtomicInteger waiters;
     private final AtomicInteger activeConnections;
     private final AtomicInteger totalConnections;
     private final AtomicLong totalConnectionsCreated;
     private final AtomicLong totalConnectionsDestroyed;
     private final AtomicLong totalConnectionsAcquired;
     private final AtomicLong totalConnectionsReleased;
+    private final LatencyHistogram acquireLatency;
     private final PerformanceMonitor performanceMonitor;
     
     // Pool configuration
@@ -39,8 +59,8 @@ public class ConnectionPool {
     private final boolean testOnBorrow;
     private final boolean testOnReturn;
     
-    private volatile boolean initialized;
-    private volatile boolean shutdown;
+    private final AtomicBoolean initialized;
+    private final AtomicBoolean shutdown;
     
     /**
      * Create a connection pool with default configuration.
@@ -61,14 +81,20 @@ public class ConnectionPool {
         this.testOnBorrow = config.isTestOnBorrow();
         this.testOnReturn = config.isTestOnReturn();
         
-        this.availableConnections = new ArrayBlockingQueue<>(maxPoolSize);
+        this.connections = new CopyOnWriteArrayList<>();
+        this.lastUsedConnection = new ThreadLocal<>();
+        this.handoffQueue = new SynchronousQueue<>(true);
+        this.waiters = new AtomicInteger(0);
         this.activeConnections = new AtomicInteger(0);
         this.totalConnections = new AtomicInteger(0);
         this.totalConnectionsCreated = new AtomicLong(0);
         this.totalConnectionsDestroyed = new AtomicLong(0);
         this.totalConnectionsAcquired = new AtomicLong(0);
         this.totalConnectionsReleased = new AtomicLong(0);
+        this.acquireLatency = new LatencyHistogram();
         this.performanceMonitor = PerformanceMonitor.getInstance();
+        this.initialized = new AtomicBoolean(false);
+        this.shutdown = new AtomicBoolean(false);
         
         logger.info("Created connection pool: min={}, max={}, timeout={}ms", 
                 minPoolSize, maxPoolSize, connectionTimeoutMs);
@@ -77,20 +103,18 @@ public class ConnectionPool {
     /**
      * Initialize the connection pool by creating minimum connections.
      */
-    public synchronized void initialize() throws SQLException {
-        if (initialized) {
+    public void initialize() throws SQLException {
+        if (!initialized.compareAndSet(false, true)) {
             return;
         }
         
         logger.info("Initializing connection pool with {} minimum connections", minPoolSize);
         
-        for (int i = 0; i < minPoolSize; i++) {
-            PooledConnection connection = createPooledConnection();
-            availableConnections.offer(connection);
+        for (int i = 0; i < minPoolSize && reserveConnectionSlot(); i++) {
+            requite(createPooledConnection(PooledConnection.STATE_NOT_IN_USE));
         }
         
-        initialized = true;
-        logger.info("Connection pool initialized with {} connections", availableConnections.size());
+        logger.info("Connection pool initialized with {} connections", connections.size());
     }
     
     /**
@@ -104,66 +128,119 @@ public class ConnectionPool {
      * Get a connection from the pool with timeout.
      */
     public Connection getConnection(long timeoutMs) throws SQLException {
-        if (shutdown) {
+        if (shutdown.get()) {
             throw new SQLException("Connection pool has been shutdown");
         }
         
-        if (!initialized) {
+        if (!initialized.get()) {
             initialize();
         }
         
-        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
         
-        try {
-            // Try to get an existing connection first
-            PooledConnection pooledConnection = availableConnections.poll(timeoutMs, TimeUnit.MILLISECONDS);
-            
-            // If no connection available, try to create a new one
-            if (pooledConnection == null && totalConnections.get() < maxPoolSize) {
-                pooledConnection = createPooledConnection();
-                logger.debug("Created new connection, total: {}", totalConnections.get());
-            }
-            
-            // If still no connection, wait for one to become available
-            if (pooledConnection == null) {
-                long remainingTime = timeoutMs - (System.currentTimeMillis() - startTime);
-                if (remainingTime > 0) {
-                    pooledConnection = availableConnections.poll(remainingTime, TimeUnit.MILLISECONDS);
-                }
-            }
-            
+        while (true) {
+            PooledConnection pooledConnection = borrow(deadlineNanos);
             if (pooledConnection == null) {
                 throw new SQLException("Connection timeout: unable to get connection within " + timeoutMs + "ms");
             }
             
-            // Test connection if required
-            if (testOnBorrow && !isConnectionValid(pooledConnection)) {
-                logger.debug("Connection failed validation test, creating new one");
-                destroyPooledConnection(pooledConnection);
-                return getConnection(timeoutMs - (System.currentTimeMillis() - startTime));
+            // Retire a connection that is no longer usable or has been idle too long
+            boolean idleTooLong = maxConnectionIdleMs > 0 
+                    && System.currentTimeMillis() - pooledConnection.getLastAccessTime() > maxConnectionIdleMs;
+            if ((testOnBorrow && !pooledConnection.isUsable()) || idleTooLong) {
+                logger.debug("Connection failed validation or exceeded max idle time, destroying");
+                if (pooledConnection.compareAndSetState(PooledConnection.STATE_IN_USE, PooledConnection.STATE_REMOVED)) {
+                    removePooledConnection(pooledConnection);
+                }
+                continue;
             }
             
             // Mark connection as active
             activeConnections.incrementAndGet();
             totalConnectionsAcquired.incrementAndGet();
             pooledConnection.markAsAcquired();
+            acquireLatency.record(System.nanoTime() - startNanos);
             
-            logger.debug("Connection acquired: active={}, available={}", 
-                    activeConnections.get(), availableConnections.size());
+            logger.debug("Connection acquired: active={}, total={}", 
+                    activeConnections.get(), totalConnections.get());
             
             return pooledConnection;
+        }
+    }
+    
+    /**
+     * Claim a connection: the one this thread used last, a free one from the shared list or a
+     * new one, or else the next one handed off by a returning thread.
+     * 
+     * @return the connection, in use by the caller, or null if none became free in time
+     */
+    private PooledConnection borrow(long deadlineNanos) throws SQLException {
+        PooledConnection lastUsed = lastUsedConnection.get();
+        if (lastUsed != null && lastUsed.compareAndSetState(PooledConnection.STATE_NOT_IN_USE, PooledConnection.STATE_IN_USE)) {
+            return lastUsed;
+        }
+        
+        // Count as a waiter before scanning, so that a connection returned meanwhile is handed off
+        waiters.incrementAndGet();
+        try {
+            for (PooledConnection candidate : connections) {
+                if (candidate.compareAndSetState(PooledConnection.STATE_NOT_IN_USE, PooledConnection.STATE_IN_USE)) {
+                    return candidate;
+                }
+            }
+            
+            if (reserveConnectionSlot()) {
+                PooledConnection created = createPooledConnection(PooledConnection.STATE_IN_USE);
+                logger.debug("Created new connection, total: {}", totalConnections.get());
+                return created;
+            }
+            
+            long remainingNanos;
+            while ((remainingNanos = deadlineNanos - System.nanoTime()) > 0) {
+                PooledConnection handedOff = handoffQueue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                if (handedOff == null) {
+                    return null;
+                }
+                // Another borrower may have claimed it from the shared list first
+                if (handedOff.compareAndSetState(PooledConnection.STATE_NOT_IN_USE, PooledConnection.STATE_IN_USE)) {
+                    return handedOff;
+                }
+            }
+            return null;
             
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new SQLException("Interrupted while waiting for connection", e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+    
+    /**
+     * Make a free connection available: hand it to a waiting borrower if there is one, or
+     * else keep it as this thread's last used connection.
+     */
+    private void requite(PooledConnection connection) {
+        for (int i = 0; waiters.get() > 0; i++) {
+            if (connection.getState() != PooledConnection.STATE_NOT_IN_USE || handoffQueue.offer(connection)) {
+                return;
+            }
+            // The waiters are still scanning the shared list; give them time to reach the queue
+            if ((i & 0xff) == 0xff) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+            } else {
+                Thread.yield();
+            }
         }
+        lastUsedConnection.set(connection);
     }
     
     /**
      * Return a connection to the pool.
      */
     public void returnConnection(Connection connection) {
-        if (connection == null || shutdown) {
+        if (connection == null) {
             return;
         }
         
@@ -180,53 +257,66 @@ public class ConnectionPool {
         }
         
         try {
-            // Test connection if required
-            if (testOnReturn && !isConnectionValid(pooledConnection)) {
-                logger.debug("Connection failed return validation test, destroying");
-                destroyPooledConnection(pooledConnection);
-                return;
+            // Test connection if required; after shutdown every returned connection is destroyed
+            boolean destroy = shutdown.get() || (testOnReturn && !pooledConnection.isUsable());
+            pooledConnection.markAsReturned();
+            // Reset while the connection is still in use, before another thread can claim it
+            if (pooledConnection.getState() == PooledConnection.STATE_IN_USE) {
+                pooledConnection.resetSession();
             }
-            
-            // Check if connection is too old
-            if (maxConnectionIdleMs > 0 && pooledConnection.getIdleTime() > maxConnectionIdleMs) {
-                logger.debug("Connection exceeded max idle time, destroying");
-                destroyPooledConnection(pooledConnection);
+            if (!pooledConnection.compareAndSetState(PooledConnection.STATE_IN_USE, 
+                    destroy ? PooledConnection.STATE_REMOVED : PooledConnection.STATE_NOT_IN_USE)) {
+                logger.debug("Connection {} was already returned", pooledConnection.getConnectionId());
                 return;
             }
-            
-            // Return to pool
-            pooledConnection.markAsReturned();
             activeConnections.decrementAndGet();
             totalConnectionsReleased.incrementAndGet();
             
-            if (!availableConnections.offer(pooledConnection)) {
-                logger.warn("Unable to return connection to pool, destroying");
-                destroyPooledConnection(pooledConnection);
-            } else {
-                logger.debug("Connection returned: active={}, available={}", 
-                        activeConnections.get(), availableConnections.size());
+            if (destroy) {
+                logger.debug("Connection failed return validation test or pool is shut down, destroying");
+                removePooledConnection(pooledConnection);
+                return;
             }
             
+            requite(pooledConnection);
+            logger.debug("Connection returned: active={}, total={}", 
+                    activeConnections.get(), totalConnections.get());
+            
         } catch (Exception e) {
             logger.error("Error returning connection to pool", e);
-            try {
-                destroyPooledConnection(pooledConnection);
-            } catch (Exception destroyError) {
-                logger.error("Error destroying connection during return failure", destroyError);
+            if (pooledConnection.compareAndSetState(PooledConnection.STATE_NOT_IN_USE, PooledConnection.STATE_REMOVED)) {
+                removePooledConnection(pooledConnection);
             }
         }
     }
     
     /**
-     * Create a new pooled connection.
+     * Reserve room for one more connection, if the pool is below its maximum size.
      */
-    private PooledConnection createPooledConnection() throws SQLException {
+    private boolean reserveConnectionSlot() {
+        int total;
+        do {
+            total = totalConnections.get();
+            if (total >= maxPoolSize) {
+                return false;
+            }
+        } while (!totalConnections.compareAndSet(total, total + 1));
+        return true;
+    }
+    
+    /**
+     * Create a new pooled connection in a slot already reserved, and add it to the pool.
+     * 
+     * @param initialState the state to add it in; STATE_IN_USE for the thread creating it
+     */
+    private PooledConnection createPooledConnection(int initialState) throws SQLException {
         try {
             SqlExecutionEngine sqlEngine = new SqlExecutionEngine(engine);
             Connection rawConnection = new MemGresTestConnection(engine, sqlEngine);
             PooledConnection pooledConnection = new PooledConnection(rawConnection, this);
+            pooledConnection.compareAndSetState(PooledConnection.STATE_NOT_IN_USE, initialState);
+            connections.add(pooledConnection);
             
-            totalConnections.incrementAndGet();
             totalConnectionsCreated.incrementAndGet();
             
             // Record connection creation
@@ -236,61 +326,57 @@ public class ConnectionPool {
             
             return pooledConnection;
         } catch (Exception e) {
+            totalConnections.decrementAndGet();
             throw new SQLException("Failed to create pooled connection", e);
         }
     }
     
     /**
-     * Destroy a pooled connection.
+     * Close a connection already moved to STATE_REMOVED and drop it from the pool. Its slot is
+     * refilled at once if borrowers are waiting.
      */
-    private void destroyPooledConnection(PooledConnection connection) {
+    private void removePooledConnection(PooledConnection connection) {
+        connections.remove(connection);
         try {
             connection.reallyClose();
-            totalConnections.decrementAndGet();
-            totalConnectionsDestroyed.incrementAndGet();
-            // Only decrement active connections if the connection was active
-            if (connection.isFromThisPool(this)) {
-                // Connection is being destroyed, so it's no longer active
-            }
-            
-            logger.debug("Connection destroyed: total={}", totalConnections.get());
-            
-            // Record connection destruction
-            performanceMonitor.recordConnectionEvent(
-                PerformanceMonitor.ConnectionEvent.CLOSED,
-                "Pool connection " + connection.getConnectionId());
         } catch (Exception e) {
             logger.error("Error destroying pooled connection", e);
         }
-    }
-    
-    /**
-     * Test if a connection is valid.
-     */
-    private boolean isConnectionValid(PooledConnection connection) {
-        try {
-            return connection.isValid(1); // 1 second timeout
-        } catch (Exception e) {
-            logger.debug("Connection validation failed", e);
-            return false;
+        totalConnections.decrementAndGet();
+        totalConnectionsDestroyed.incrementAndGet();
+        
+        logger.debug("Connection destroyed: total={}", totalConnections.get());
+        
+        // Record connection destruction
+        performanceMonitor.recordConnectionEvent(
+            PerformanceMonitor.ConnectionEvent.CLOSED,
+            "Pool connection " + connection.getConnectionId());
+        
+        if (waiters.get() > 0 && !shutdown.get() && reserveConnectionSlot()) {
+            try {
+                requite(createPooledConnection(PooledConnection.STATE_NOT_IN_USE));
+            } catch (SQLException e) {
+                logger.error("Error replacing destroyed connection", e);
+            }
         }
     }
     
     /**
-     * Shutdown the connection pool.
+     * Shutdown the connection pool. Free connections are closed now, and connections in use
+     * when they are returned.
      */
-    public synchronized void shutdown() {
-        if (shutdown) {
+    public void shutdown() {
+        if (!shutdown.compareAndSet(false, true)) {
             return;
         }
         
-        shutdown = true;
         logger.info("Shutting down connection pool");
         
         // Close all available connections
-        PooledConnection connection;
-        while ((connection = availableConnections.poll()) != null) {
-            destroyPooledConnection(connection);
+        for (PooledConnection connection : connections) {
+            if (connection.compareAndSetState(PooledConnection.STATE_NOT_IN_USE, PooledConnection.STATE_REMOVED)) {
+                removePooledConnection(connection);
+            }
         }
         
         logger.info("Connection pool shutdown complete. Statistics: created={}, destroyed={}, acquired={}, released={}", 
@@ -302,19 +388,55 @@ public class ConnectionPool {
      * Get pool statistics.
      */
     public PoolStatistics getStatistics() {
+        int available = 0;
+        for (PooledConnection connection : connections) {
+            if (connection.getState() == PooledConnection.STATE_NOT_IN_USE) {
+                available++;
+            }
+        }
         return new PoolStatistics(
                 activeConnections.get(),
-                availableConnections.size(),
+                available,
                 totalConnections.get(),
                 totalConnectionsCreated.get(),
                 totalConnectionsDestroyed.get(),
                 totalConnectionsAcquired.get(),
                 totalConnectionsReleased.get(),
                 maxPoolSize,
-                minPoolSize
+                minPoolSize,
+                acquireLatency.snapshot()
         );
     }
     
+    /**
+     * Histogram of latencies in power-of-two microsecond buckets, recorded without contention
+     * between threads.
+     */
+    private static class LatencyHistogram {
+        private final LongAdder[] buckets = new LongAdder[PoolStatistics.LATENCY_BUCKETS];
+        
+        LatencyHistogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+        
+        void record(long latencyNanos) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+            // Bucket i holds latencies of at most 2^i microseconds
+            int bucket = micros <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(micros - 1);
+            buckets[Math.min(bucket, buckets.length - 1)].increment();
+        }
+        
+        long[] snapshot() {
+            long[] counts = new long[buckets.length];
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+            }
+            return counts;
+        }
+    }
+    
     /**
      * Pool configuration class.
      */
@@ -361,6 +483,9 @@ public class ConnectionPool {
      * Pool statistics class.
      */
     public static class PoolStatistics {
+        /** Number of acquire-latency buckets; bucket i counts latencies of at most 2^i microseconds */
+        public static final int LATENCY_BUCKETS = 32;
+        
         private final int activeConnections;
         private final int availableConnections;
         private final int totalConnections;
@@ -370,11 +495,21 @@ public class ConnectionPool {
         private final long totalConnectionsReleased;
         private final int maxPoolSize;
         private final int minPoolSize;
+        private final long[] acquireLatencyCounts;
         
         public PoolStatistics(int activeConnections, int availableConnections, int totalConnections,
                             long totalConnectionsCreated, long totalConnectionsDestroyed,
                             long totalConnectionsAcquired, long totalConnectionsReleased,
                             int maxPoolSize, int minPoolSize) {
+            this(activeConnections, availableConnections, totalConnections, totalConnectionsCreated,
+                    totalConnectionsDestroyed, totalConnectionsAcquired, totalConnectionsReleased,
+                    maxPoolSize, minPoolSize, new long[LATENCY_BUCKETS]);
+        }
+        
+        public PoolStatistics(int activeConnections, int availableConnections, int totalConnections,
+                            long totalConnectionsCreated, long totalConnectionsDestroyed,
+                            long totalConnectionsAcquired, long totalConnectionsReleased,
+                            int maxPoolSize, int minPoolSize, long[] acquireLatencyCounts) {
             this.activeConnections = activeConnections;
             this.availableConnections = availableConnections;
             this.totalConnections = totalConnections;
@@ -384,6 +519,7 @@ public class ConnectionPool {
             this.totalConnectionsReleased = totalConnectionsReleased;
             this.maxPoolSize = maxPoolSize;
             this.minPoolSize = minPoolSize;
+            this.acquireLatencyCounts = acquireLatencyCounts.clone();
         }
         
         // Getters
@@ -397,16 +533,49 @@ public class ConnectionPool {
         public int getMaxPoolSize() { return maxPoolSize; }
         public int getMinPoolSize() { return minPoolSize; }
         
+        /**
+         * Get the acquire-latency histogram: element i is the number of acquisitions that took
+         * at most 2^i microseconds and more than half that.
+         */
+        public long[] getAcquireLatencyHistogram() { return acquireLatencyCounts.clone(); }
+        
+        /**
+         * Get an upper bound of the given percentile of acquire latency.
+         * 
+         * @param percentile the percentile, from 0 to 100
+         * @return the upper bound of the histogram bucket holding the percentile, in microseconds,
+         *         or 0 if no connection was acquired
+         */
+        public long getAcquireLatencyPercentileMicros(double percentile) {
+            long total = 0;
+            for (long count : acquireLatencyCounts) {
+                total += count;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+            long seen = 0;
+            for (int i = 0; i < acquireLatencyCounts.length; i++) {
+                seen += acquireLatencyCounts[i];
+                if (seen >= rank) {
+                    return 1L << i;
+                }
+            }
+            return 1L << (acquireLatencyCounts.length - 1);
+        }
+        
         @Override
         public String toString() {
             return String.format(
                 "PoolStatistics{active=%d, available=%d, total=%d, " +
                 "created=%d, destroyed=%d, acquired=%d, released=%d, " +
-                "maxSize=%d, minSize=%d}",
+                "maxSize=%d, minSize=%d, acquireP50<=%dus, acquireP99<=%dus}",
                 activeConnections, availableConnections, totalConnections,
                 totalConnectionsCreated, totalConnectionsDestroyed,
                 totalConnectionsAcquired, totalConnectionsReleased,
-                maxPoolSize, minPoolSize
+                maxPoolSize, minPoolSize,
+                getAcquireLatencyPercentileMicros(50), getAcquireLatencyPercentileMicros(99)
             );
         }
     }
@@ -2,6 +2,9 @@ package com.memgres.core;
 
 import com.memgres.memory.MemoryManager;
 import com.memgres.memory.MemoryOptimizer;
+import com.memgres.sql.execution.PlanCache;
+import com.memgres.sql.execution.StatementCache;
+import com.memgres.sql.parser.SqlParser;
 import com.memgres.storage.Schema;
 import com.memgres.storage.Sequence;
 import com.memgres.storage.Table;
@@ -11,6 +14,8 @@ import com.memgres.sql.procedure.ProcedureRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -24,14 +29,34 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 public class MemGresEngine {
     private static final Logger logger = LoggerFactory.getLogger(MemGresEngine.class);
     
+    /** Default per-operator work memory for sorts and hash aggregations: 64 MB. */
+    public static final long DEFAULT_WORK_MEMORY_BYTES = 64L * 1024 * 1024;
+    
+    /** Default maximum number of iterations of a recursive CTE. */
+    public static final int DEFAULT_MAX_RECURSIVE_ITERATIONS = 100_000;
+    
+    /** Default maximum number of rows a recursive CTE may produce. */
+    public static final long DEFAULT_MAX_RECURSIVE_ROWS = 10_000_000L;
+    
+    /** Default number of parsed SQL statements kept in the statement cache. */
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 1_000;
+    
     private final ConcurrentMap<String, Schema> schemas;
     private final TransactionManager transactionManager;
     private final TriggerManager triggerManager;
     private final ProcedureRegistry procedureRegistry;
     private final MemoryManager memoryManager;
     private final MemoryOptimizer memoryOptimizer;
+    private final StatementCache statementCache;
+    private final PlanCache planCache;
     private final ReadWriteLock engineLock;
     private volatile boolean initialized;
+    private volatile long workMemoryBytes = DEFAULT_WORK_MEMORY_BYTES;
+    private volatile Path spillDirectory = Paths.get(System.getProperty("java.io.tmpdir"), "memgres-spill");
+    private volatile int maxRecursiveIterations = DEFAULT_MAX_RECURSIVE_ITERATIONS;
+    private volatile long maxRecursiveRows = DEFAULT_MAX_RECURSIVE_ROWS;
+    private volatile int statementCacheSize = DEFAULT_STATEMENT_CACHE_SIZE;
+    private volatile boolean parserWarmUpEnabled;
     
     public MemGresEngine() {
         this.schemas = new ConcurrentHashMap<>();
@@ -40,6 +65,8 @@ public class MemGresEngine {
         this.procedureRegistry = new ProcedureRegistry();
         this.memoryManager = MemoryManager.getInstance();
         this.memoryOptimizer = new MemoryOptimizer(this);
+        this.statementCache = new StatementCache(DEFAULT_STATEMENT_CACHE_SIZE);
+        this.planCache = new PlanCache(DEFAULT_STATEMENT_CACHE_SIZE);
         this.engineLock = new ReentrantReadWriteLock();
         this.initialized = false;
         logger.info("MemGres Engine created");
@@ -62,6 +89,8 @@ public class MemGresEngine {
         this.procedureRegistry = new ProcedureRegistry();
         this.memoryManager = MemoryManager.getInstance();
         this.memoryOptimizer = new MemoryOptimizer(this);
+        this.statementCache = new StatementCache(DEFAULT_STATEMENT_CACHE_SIZE);
+        this.planCache = new PlanCache(DEFAULT_STATEMENT_CACHE_SIZE);
         this.engineLock = new ReentrantReadWriteLock();
         this.initialized = false;
     }
@@ -102,6 +131,11 @@ public class MemGresEngine {
                 }
             });
             
+            if (parserWarmUpEnabled) {
+                int parsed = SqlParser.warmUp();
+                logger.info("SQL parser warmed up with {} statements", parsed);
+            }
+            
             initialized = true;
             logger.info("MemGres Engine initialized successfully");
         } finally {
@@ -323,6 +357,129 @@ public class MemGresEngine {
         return memoryOptimizer;
     }
     
+    /**
+     * Get the work memory available to each sort or hash aggregation of a query before it
+     * spills to temporary files.
+     */
+    public long getWorkMemoryBytes() {
+        return workMemoryBytes;
+    }
+    
+    /**
+     * Set the work memory available to each sort or hash aggregation of a query.
+     * @param workMemoryBytes the budget in bytes; must be positive
+     */
+    public void setWorkMemoryBytes(long workMemoryBytes) {
+        if (workMemoryBytes <= 0) {
+            throw new IllegalArgumentException("Work memory must be positive: " + workMemoryBytes);
+        }
+        this.workMemoryBytes = workMemoryBytes;
+    }
+    
+    /**
+     * Get the directory where queries write spill files.
+     */
+    public Path getSpillDirectory() {
+        return spillDirectory;
+    }
+    
+    /**
+     * Set the directory where queries write spill files. It is created when first needed.
+     */
+    public void setSpillDirectory(Path spillDirectory) {
+        if (spillDirectory == null) {
+            throw new IllegalArgumentException("Spill directory cannot be null");
+        }
+        this.spillDirectory = spillDirectory;
+    }
+    
+    /**
+     * Get the maximum number of iterations of a recursive CTE before its query fails.
+     */
+    public int getMaxRecursiveIterations() {
+        return maxRecursiveIterations;
+    }
+    
+    /**
+     * Set the maximum number of iterations of a recursive CTE before its query fails.
+     * @param maxRecursiveIterations the limit; must be positive
+     */
+    public void setMaxRecursiveIterations(int maxRecursiveIterations) {
+        if (maxRecursiveIterations <= 0) {
+            throw new IllegalArgumentException("Recursive iteration limit must be positive: " + maxRecursiveIterations);
+        }
+        this.maxRecursiveIterations = maxRecursiveIterations;
+    }
+    
+    /**
+     * Get the maximum number of rows a recursive CTE may produce before its query fails.
+     */
+    public long getMaxRecursiveRows() {
+        return maxRecursiveRows;
+    }
+    
+    /**
+     * Set the maximum number of rows a recursive CTE may produce before its query fails.
+     * @param maxRecursiveRows the limit; must be positive
+     */
+    public void setMaxRecursiveRows(long maxRecursiveRows) {
+        if (maxRecursiveRows <= 0) {
+            throw new IllegalArgumentException("Recursive row limit must be positive: " + maxRecursiveRows);
+        }
+        this.maxRecursiveRows = maxRecursiveRows;
+    }
+    
+    /**
+     * Get the cache of parsed SQL statements shared by this engine's connections.
+     */
+    public StatementCache getStatementCache() {
+        return statementCache;
+    }
+    
+    /**
+     * Get the cache of query rewrites shared by this engine's connections.
+     */
+    public PlanCache getPlanCache() {
+        return planCache;
+    }
+    
+    /**
+     * Get the maximum number of parsed SQL statements kept in the statement cache, which also
+     * bounds the number of cached query rewrites.
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+    
+    /**
+     * Set the maximum number of parsed SQL statements kept in the statement cache, and of
+     * query rewrites kept in the plan cache.
+     * @param statementCacheSize the limit; zero disables caching
+     */
+    public void setStatementCacheSize(int statementCacheSize) {
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("Statement cache size cannot be negative: " + statementCacheSize);
+        }
+        this.statementCacheSize = statementCacheSize;
+        statementCache.setMaximumSize(statementCacheSize);
+        planCache.setMaximumSize(statementCacheSize);
+    }
+    
+    /**
+     * Check whether {@link #initialize()} warms up the SQL parser.
+     */
+    public boolean isParserWarmUpEnabled() {
+        return parserWarmUpEnabled;
+    }
+    
+    /**
+     * Set whether {@link #initialize()} parses a set of representative statements, so that the
+     * first queries of the application do not pay for filling the parser's prediction cache.
+     */
+    public void setParserWarmUpEnabled(boolean parserWarmUpEnabled) {
+        this.parserWarmUpEnabled = parserWarmUpEnabled;
+    }
+    
     /**
      * Check if WAL (Write-Ahead Logging) is enabled.
      */
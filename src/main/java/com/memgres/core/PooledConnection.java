@@ -1,5 +1,6 @@
 package com.memgres.core;
 
+import com.memgres.testing.MemGresTestConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -7,23 +8,33 @@ import java.sql.*;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Wrapper around a real Connection that manages pooling lifecycle.
  * When close() is called, the connection is returned to the pool instead of being closed.
+ * 
+ * <p>The pool claims and releases a connection by compare-and-set on its state, so a
+ * connection is handed to one borrower at a time without locking, and returning it twice
+ * has no effect.</p>
  */
 public class PooledConnection implements Connection {
     private static final Logger logger = LoggerFactory.getLogger(PooledConnection.class);
     private static final AtomicLong CONNECTION_ID_GENERATOR = new AtomicLong(0);
     
+    // Pool states of a connection
+    static final int STATE_NOT_IN_USE = 0;
+    static final int STATE_IN_USE = 1;
+    static final int STATE_REMOVED = -1;
+    
     private final Connection realConnection;
     private final ConnectionPool pool;
     private final long connectionId;
     private final long createdTime;
     
+    private final AtomicInteger state;
     private volatile long lastAccessTime;
-    private volatile boolean acquired;
     private volatile boolean closed;
     
     public PooledConnection(Connection realConnection, ConnectionPool pool) {
@@ -32,7 +43,7 @@ public class PooledConnection implements Connection {
         this.connectionId = CONNECTION_ID_GENERATOR.incrementAndGet();
         this.createdTime = System.currentTimeMillis();
         this.lastAccessTime = createdTime;
-        this.acquired = false;
+        this.state = new AtomicInteger(STATE_NOT_IN_USE);
         this.closed = false;
     }
     
@@ -40,7 +51,6 @@ public class PooledConnection implements Connection {
      * Mark this connection as acquired from the pool.
      */
     public void markAsAcquired() {
-        this.acquired = true;
         this.lastAccessTime = System.currentTimeMillis();
     }
     
@@ -48,10 +58,51 @@ public class PooledConnection implements Connection {
      * Mark this connection as returned to the pool.
      */
     public void markAsReturned() {
-        this.acquired = false;
         this.lastAccessTime = System.currentTimeMillis();
     }
     
+    /**
+     * Atomically move this connection from one pool state to another.
+     * 
+     * @return false if the connection was not in the expected state
+     */
+    boolean compareAndSetState(int expectedState, int newState) {
+        return state.compareAndSet(expectedState, newState);
+    }
+    
+    int getState() {
+        return state.get();
+    }
+    
+    /**
+     * Get the time this connection was last used.
+     */
+    long getLastAccessTime() {
+        return lastAccessTime;
+    }
+    
+    /**
+     * Check that this connection can still be used, from its state flags alone and without
+     * a round trip through the connection.
+     */
+    boolean isUsable() {
+        try {
+            return !closed && state.get() != STATE_REMOVED && !realConnection.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Release the session state of the last borrower, such as its declared cursors, before the
+     * connection is lent again.
+     */
+    void resetSession() {
+        if (realConnection instanceof MemGresTestConnection) {
+            ((MemGresTestConnection) realConnection).closeCursors();
+        }
+    }
+    
     /**
      * Check if this connection belongs to the given pool.
      */
@@ -63,7 +114,7 @@ public class PooledConnection implements Connection {
      * Get the time this connection has been idle.
      */
     public long getIdleTime() {
-        return acquired ? 0 : System.currentTimeMillis() - lastAccessTime;
+        return state.get() == STATE_IN_USE ? 0 : System.currentTimeMillis() - lastAccessTime;
     }
     
     /**
@@ -426,6 +477,6 @@ public class PooledConnection implements Connection {
     @Override
     public String toString() {
         return String.format("PooledConnection{id=%d, acquired=%s, age=%dms, idle=%dms}",
-                connectionId, acquired, getAge(), getIdleTime());
+                connectionId, state.get() == STATE_IN_USE, getAge(), getIdleTime());
     }
 }
\ No newline at end of file
@@ -37,6 +37,15 @@ public class PerformanceMonitor {
     private final LongAdder memoryAllocations = new LongAdder();
     private final LongAdder memoryDeallocations = new LongAdder();
     
+    // Statement Cache Metrics
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    
+    // Plan Cache Metrics
+    private final LongAdder planCacheHits = new LongAdder();
+    private final LongAdder planCacheMisses = new LongAdder();
+    private final LongAdder planCacheInvalidations = new LongAdder();
+    
     // Query Type Counters
     private final Map<String, LongAdder> queryTypeCounters = new ConcurrentHashMap<>();
     
@@ -179,6 +188,37 @@ public class PerformanceMonitor {
         }
     }
     
+    /**
+     * Record a lookup of SQL text in the statement cache.
+     */
+    public void recordStatementCacheEvent(StatementCacheEvent event) {
+        switch (event) {
+            case HIT:
+                statementCacheHits.increment();
+                break;
+            case MISS:
+                statementCacheMisses.increment();
+                break;
+        }
+    }
+    
+    /**
+     * Record a lookup of a query's rewrite in the plan cache.
+     */
+    public void recordPlanCacheEvent(PlanCacheEvent event) {
+        switch (event) {
+            case HIT:
+                planCacheHits.increment();
+                break;
+            case MISS:
+                planCacheMisses.increment();
+                break;
+            case INVALIDATED:
+                planCacheInvalidations.increment();
+                break;
+        }
+    }
+    
     /**
      * Get comprehensive performance statistics.
      */
@@ -196,6 +236,11 @@ public class PerformanceMonitor {
             rolledBackTransactions.sum(),
             memoryAllocations.sum(),
             memoryDeallocations.sum(),
+            statementCacheHits.sum(),
+            statementCacheMisses.sum(),
+            planCacheHits.sum(),
+            planCacheMisses.sum(),
+            planCacheInvalidations.sum(),
             new ConcurrentHashMap<>(queryTypeCounters).entrySet().stream()
                 .collect(java.util.stream.Collectors.toMap(
                     Map.Entry::getKey,
@@ -238,6 +283,15 @@ public class PerformanceMonitor {
             freeMemory / (1024 * 1024),
             maxMemory / (1024 * 1024));
         
+        logger.info("  Statement cache: {} hits, {} misses",
+            stats.getStatementCacheHits(),
+            stats.getStatementCacheMisses());
+        
+        logger.info("  Plan cache: {} hits, {} misses, {} invalidated",
+            stats.getPlanCacheHits(),
+            stats.getPlanCacheMisses(),
+            stats.getPlanCacheInvalidations());
+        
         logger.info("  Query Types: {}", stats.getQueryTypeCounts());
     }
     
@@ -265,6 +319,11 @@ public class PerformanceMonitor {
         rolledBackTransactions.reset();
         memoryAllocations.reset();
         memoryDeallocations.reset();
+        statementCacheHits.reset();
+        statementCacheMisses.reset();
+        planCacheHits.reset();
+        planCacheMisses.reset();
+        planCacheInvalidations.reset();
         
         queryTypeCounters.values().forEach(LongAdder::reset);
         
@@ -313,4 +372,12 @@ public class PerformanceMonitor {
     public enum MemoryEvent {
         ALLOCATED, DEALLOCATED
     }
+    
+    public enum StatementCacheEvent {
+        HIT, MISS
+    }
+    
+    public enum PlanCacheEvent {
+        HIT, MISS, INVALIDATED
+    }
 }
\ No newline at end of file
@@ -18,12 +18,19 @@ public class PerformanceStatistics {
     private final long rolledBackTransactions;
     private final long memoryAllocations;
     private final long memoryDeallocations;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long planCacheHits;
+    private final long planCacheMisses;
+    private final long planCacheInvalidations;
     private final Map<String, Long> queryTypeCounts;
     
     public PerformanceStatistics(long totalQueries, long totalQueryTime, long slowQueries,
                                long longestQueryTime, long totalConnections, long activeConnections,
                                long connectionErrors, long totalTransactions, long committedTransactions,
                                long rolledBackTransactions, long memoryAllocations, long memoryDeallocations,
+                               long statementCacheHits, long statementCacheMisses,
+                               long planCacheHits, long planCacheMisses, long planCacheInvalidations,
                                Map<String, Long> queryTypeCounts) {
         this.totalQueries = totalQueries;
         this.totalQueryTime = totalQueryTime;
@@ -37,6 +44,11 @@ public class PerformanceStatistics {
         this.rolledBackTransactions = rolledBackTransactions;
         this.memoryAllocations = memoryAllocations;
         this.memoryDeallocations = memoryDeallocations;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.planCacheHits = planCacheHits;
+        this.planCacheMisses = planCacheMisses;
+        this.planCacheInvalidations = planCacheInvalidations;
         this.queryTypeCounts = Map.copyOf(queryTypeCounts);
     }
     
@@ -53,6 +65,11 @@ public class PerformanceStatistics {
     public long getRolledBackTransactions() { return rolledBackTransactions; }
     public long getMemoryAllocations() { return memoryAllocations; }
     public long getMemoryDeallocations() { return memoryDeallocations; }
+    public long getStatementCacheHits() { return statementCacheHits; }
+    public long getStatementCacheMisses() { return statementCacheMisses; }
+    public long getPlanCacheHits() { return planCacheHits; }
+    public long getPlanCacheMisses() { return planCacheMisses; }
+    public long getPlanCacheInvalidations() { return planCacheInvalidations; }
     public Map<String, Long> getQueryTypeCounts() { return queryTypeCounts; }
     
     // Calculated metrics
@@ -69,6 +86,11 @@ public class PerformanceStatistics {
         return totalCompleted > 0 ? (double) committedTransactions / totalCompleted * 100.0 : 0.0;
     }
     
+    public double getStatementCacheHitRate() {
+        long lookups = statementCacheHits + statementCacheMisses;
+        return lookups > 0 ? (double) statementCacheHits / lookups * 100.0 : 0.0;
+    }
+    
     public double getConnectionErrorRate() {
         return totalConnections > 0 ? (double) connectionErrors / totalConnections * 100.0 : 0.0;
     }
@@ -79,11 +101,15 @@ public class PerformanceStatistics {
             "PerformanceStatistics{totalQueries=%d, avgQueryTime=%.2fms, slowQueries=%d, " +
             "totalConnections=%d, activeConnections=%d, connectionErrors=%d, " +
             "totalTransactions=%d, committedTransactions=%d, rolledBackTransactions=%d, " +
-            "memoryAllocations=%d, memoryDeallocations=%d}",
+            "memoryAllocations=%d, memoryDeallocations=%d, " +
+            "statementCacheHits=%d, statementCacheMisses=%d, " +
+            "planCacheHits=%d, planCacheMisses=%d, planCacheInvalidations=%d}",
             totalQueries, getAverageQueryTime(), slowQueries,
             totalConnections, activeConnections, connectionErrors,
             totalTransactions, committedTransactions, rolledBackTransactions,
-            memoryAllocations, memoryDeallocations
+            memoryAllocations, memoryDeallocations,
+            statementCacheHits, statementCacheMisses,
+            planCacheHits, planCacheMisses, planCacheInvalidations
         );
     }
 }
\ No newline at end of file
@@ -28,6 +28,10 @@ public interface AstVisitor<T, C> {
     T visitDropMaterializedViewStatement(DropMaterializedViewStatement node, C context) throws Exception;
     T visitRefreshMaterializedViewStatement(RefreshMaterializedViewStatement node, C context) throws Exception;
     T visitTruncateTableStatement(TruncateTableStatement node, C context) throws Exception;
+    T visitCopyStatement(CopyStatement node, C context) throws Exception;
+    T visitDeclareCursorStatement(DeclareCursorStatement node, C context) throws Exception;
+    T visitFetchStatement(FetchStatement node, C context) throws Exception;
+    T visitCloseCursorStatement(CloseCursorStatement node, C context) throws Exception;
     T visitCreateIndexStatement(CreateIndexStatement node, C context) throws Exception;
     T visitDropIndexStatement(DropIndexStatement node, C context) throws Exception;
     T visitCreateSequenceStatement(CreateSequenceStatement node, C context) throws Exception;
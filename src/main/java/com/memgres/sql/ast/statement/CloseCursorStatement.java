@@ -0,0 +1,32 @@
+package com.memgres.sql.ast.statement;
+
+import com.memgres.sql.ast.AstVisitor;
+
+import java.util.Optional;
+
+/**
+ * AST node representing a CLOSE statement, which releases a cursor.
+ * 
+ * Syntax:
+ * CLOSE {cursorName | ALL}
+ */
+public class CloseCursorStatement extends Statement {
+    
+    private final Optional<String> cursorName;
+    
+    /**
+     * @param cursorName the cursor to close, or empty to close all cursors
+     */
+    public CloseCursorStatement(Optional<String> cursorName) {
+        this.cursorName = cursorName;
+    }
+    
+    public Optional<String> getCursorName() {
+        return cursorName;
+    }
+    
+    @Override
+    public <T, C> T accept(AstVisitor<T, C> visitor, C context) throws Exception {
+        return visitor.visitCloseCursorStatement(this, context);
+    }
+}
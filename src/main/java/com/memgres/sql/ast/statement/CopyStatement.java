@@ -0,0 +1,80 @@
+package com.memgres.sql.ast.statement;
+
+import com.memgres.sql.ast.AstVisitor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * AST node representing a COPY statement.
+ *
+ * Syntax: COPY tableName [(column, ...)] FROM {'file' | STDIN} | TO {'file' | STDOUT}
+ *         [[WITH] (option [value], ...)]
+ */
+public class CopyStatement extends Statement {
+    private final String tableName;
+    private final Optional<List<String>> columns;
+    private final Direction direction;
+    private final Optional<String> fileName;
+    private final Map<String, String> options;
+
+    /**
+     * @param fileName the server-side file, or empty for STDIN/STDOUT
+     * @param options the options by lower-case name; an option given without a value maps to "true"
+     */
+    public CopyStatement(String tableName, Optional<List<String>> columns, Direction direction,
+                         Optional<String> fileName, Map<String, String> options) {
+        this.tableName = tableName;
+        this.columns = columns;
+        this.direction = direction;
+        this.fileName = fileName;
+        this.options = Collections.unmodifiableMap(options);
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public Optional<List<String>> getColumns() {
+        return columns;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public Optional<String> getFileName() {
+        return fileName;
+    }
+
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    @Override
+    public <T, C> T accept(AstVisitor<T, C> visitor, C context) throws Exception {
+        return visitor.visitCopyStatement(this, context);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("COPY ").append(tableName);
+        columns.ifPresent(c -> sb.append(" (").append(String.join(", ", c)).append(")"));
+        sb.append(direction == Direction.FROM ? " FROM " : " TO ");
+        sb.append(fileName.map(f -> "'" + f + "'").orElse(direction == Direction.FROM ? "STDIN" : "STDOUT"));
+        if (!options.isEmpty()) {
+            sb.append(" WITH ").append(options);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Whether rows are loaded into the table or exported from it.
+     */
+    public enum Direction {
+        FROM,
+        TO
+    }
+}
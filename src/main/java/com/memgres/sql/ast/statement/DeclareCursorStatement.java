@@ -0,0 +1,46 @@
+package com.memgres.sql.ast.statement;
+
+import com.memgres.sql.ast.AstVisitor;
+
+/**
+ * AST node representing a DECLARE CURSOR statement.
+ * 
+ * Syntax:
+ * DECLARE cursorName CURSOR [ { WITH | WITHOUT } HOLD ] FOR selectStatement
+ */
+public class DeclareCursorStatement extends Statement {
+    
+    private final String cursorName;
+    private final SelectStatement query;
+    private final boolean holdable;
+    
+    public DeclareCursorStatement(String cursorName, SelectStatement query) {
+        this(cursorName, query, false);
+    }
+    
+    public DeclareCursorStatement(String cursorName, SelectStatement query, boolean holdable) {
+        this.cursorName = cursorName;
+        this.query = query;
+        this.holdable = holdable;
+    }
+    
+    public String getCursorName() {
+        return cursorName;
+    }
+    
+    public SelectStatement getQuery() {
+        return query;
+    }
+    
+    /**
+     * @return true for WITH HOLD: the cursor stays open when the transaction ends
+     */
+    public boolean isHoldable() {
+        return holdable;
+    }
+    
+    @Override
+    public <T, C> T accept(AstVisitor<T, C> visitor, C context) throws Exception {
+        return visitor.visitDeclareCursorStatement(this, context);
+    }
+}
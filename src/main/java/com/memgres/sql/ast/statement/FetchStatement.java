@@ -0,0 +1,43 @@
+package com.memgres.sql.ast.statement;
+
+import com.memgres.sql.ast.AstVisitor;
+
+/**
+ * AST node representing a FETCH statement, which returns the next rows of a cursor.
+ * 
+ * Syntax:
+ * FETCH [NEXT | ALL | FORWARD [count | ALL] | count] [FROM | IN] cursorName
+ */
+public class FetchStatement extends Statement {
+    
+    /** Row count of FETCH ALL */
+    public static final int ALL = -1;
+    
+    private final String cursorName;
+    private final int count;
+    
+    /**
+     * @param count the number of rows to fetch, or {@link #ALL}
+     */
+    public FetchStatement(String cursorName, int count) {
+        this.cursorName = cursorName;
+        this.count = count;
+    }
+    
+    public String getCursorName() {
+        return cursorName;
+    }
+    
+    public int getCount() {
+        return count;
+    }
+    
+    public boolean isAll() {
+        return count == ALL;
+    }
+    
+    @Override
+    public <T, C> T accept(AstVisitor<T, C> visitor, C context) throws Exception {
+        return visitor.visitFetchStatement(this, context);
+    }
+}
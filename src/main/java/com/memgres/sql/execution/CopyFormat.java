@@ -0,0 +1,424 @@
+package com.memgres.sql.execution;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The options of a COPY statement and the row encoding they describe, in PostgreSQL's text
+ * and CSV formats:
+ * <ul>
+ *   <li>{@code FORMAT text | csv}, text by default</li>
+ *   <li>{@code DELIMITER 'c'}, a tab for text and a comma for CSV</li>
+ *   <li>{@code NULL 'string'}, {@code \N} for text and an unquoted empty field for CSV</li>
+ *   <li>{@code HEADER [true | false]}, whether the first line holds the column names</li>
+ *   <li>{@code QUOTE 'c'} and {@code ESCAPE 'c'} for CSV, both a double quote by default</li>
+ *   <li>{@code ENCODING 'name'} of files and byte streams, UTF-8 by default</li>
+ * </ul>
+ * Rows are read from and written to character streams field by field, so a COPY never holds
+ * more than the rows of one insert batch.
+ */
+final class CopyFormat {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    enum Format {
+        TEXT,
+        CSV
+    }
+
+    private final Format format;
+    private final char delimiter;
+    private final String nullString;
+    private final char quote;
+    private final char escape;
+    private final boolean header;
+    private final Charset encoding;
+
+    private CopyFormat(Format format, char delimiter, String nullString, char quote, char escape,
+                       boolean header, Charset encoding) {
+        this.format = format;
+        this.delimiter = delimiter;
+        this.nullString = nullString;
+        this.quote = quote;
+        this.escape = escape;
+        this.header = header;
+        this.encoding = encoding;
+    }
+
+    /**
+     * Interpret the options of a COPY statement.
+     *
+     * @param options the options by lower-case name
+     * @throws SqlExecutionException if an option is unknown or has an invalid value
+     */
+    static CopyFormat of(Map<String, String> options) throws SqlExecutionException {
+        Format format = Format.TEXT;
+        String formatName = options.get("format");
+        if (formatName != null) {
+            switch (formatName.toLowerCase()) {
+                case "text":
+                    break;
+                case "csv":
+                    format = Format.CSV;
+                    break;
+                case "binary":
+                    throw new SqlExecutionException(SqlErrorCode.FEATURE_NOT_SUPPORTED, "COPY FORMAT binary");
+                default:
+                    throw new SqlExecutionException("COPY format \"" + formatName + "\" not recognized");
+            }
+        }
+
+        char delimiter = format == Format.CSV ? ',' : '\t';
+        String nullString = format == Format.CSV ? "" : "\\N";
+        char quote = '"';
+        Character escape = null;
+        boolean header = false;
+        Charset encoding = StandardCharsets.UTF_8;
+        for (Map.Entry<String, String> option : options.entrySet()) {
+            String value = option.getValue();
+            switch (option.getKey()) {
+                case "format":
+                    break;
+                case "delimiter":
+                    delimiter = singleCharacter(option.getKey(), value);
+                    break;
+                case "null":
+                    nullString = value;
+                    break;
+                case "header":
+                    header = parseBoolean(value);
+                    break;
+                case "quote":
+                    requireCsv(format, option.getKey());
+                    quote = singleCharacter(option.getKey(), value);
+                    break;
+                case "escape":
+                    requireCsv(format, option.getKey());
+                    escape = singleCharacter(option.getKey(), value);
+                    break;
+                case "encoding":
+                    try {
+                        encoding = Charset.forName(value);
+                    } catch (IllegalArgumentException e) {
+                        throw new SqlExecutionException("COPY encoding \"" + value + "\" not recognized");
+                    }
+                    break;
+                default:
+                    throw new SqlExecutionException("COPY option \"" + option.getKey() + "\" not recognized");
+            }
+        }
+        if (format == Format.TEXT && (delimiter == '\\' || delimiter == '\n' || delimiter == '\r')) {
+            throw new SqlExecutionException("COPY delimiter cannot be " + printable(delimiter));
+        }
+        if (format == Format.CSV && delimiter == quote) {
+            throw new SqlExecutionException("COPY delimiter and quote must be different");
+        }
+        return new CopyFormat(format, delimiter, nullString, quote, escape != null ? escape : quote, header, encoding);
+    }
+
+    private static char singleCharacter(String option, String value) throws SqlExecutionException {
+        if (value.length() != 1) {
+            throw new SqlExecutionException("COPY " + option + " must be a single character");
+        }
+        return value.charAt(0);
+    }
+
+    private static boolean parseBoolean(String value) throws SqlExecutionException {
+        switch (value.toLowerCase()) {
+            case "true":
+            case "on":
+            case "1":
+                return true;
+            case "false":
+            case "off":
+            case "0":
+                return false;
+            default:
+                throw new SqlExecutionException("COPY header requires a Boolean value");
+        }
+    }
+
+    private static void requireCsv(Format format, String option) throws SqlExecutionException {
+        if (format != Format.CSV) {
+            throw new SqlExecutionException("COPY " + option + " available only in CSV mode");
+        }
+    }
+
+    private static String printable(char c) {
+        return c == '\n' ? "newline" : c == '\r' ? "carriage return" : "\"" + c + "\"";
+    }
+
+    boolean hasHeader() {
+        return header;
+    }
+
+    Charset getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Start reading rows from a character stream.
+     */
+    RowReader reader(Reader in) {
+        return new RowReader(in);
+    }
+
+    /**
+     * Write one row, converting each value with {@link String#valueOf(Object)}.
+     */
+    void writeRow(Writer out, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(delimiter);
+            }
+            if (values[i] == null) {
+                out.write(nullString);
+            } else if (format == Format.CSV) {
+                writeCsvValue(out, String.valueOf(values[i]));
+            } else {
+                writeTextValue(out, String.valueOf(values[i]));
+            }
+        }
+        out.write('\n');
+    }
+
+    private void writeTextValue(Writer out, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if (c == delimiter) {
+                        out.write('\\');
+                    }
+                    out.write(c);
+            }
+        }
+    }
+
+    private void writeCsvValue(Writer out, String value) throws IOException {
+        boolean needsQuotes = value.equals(nullString) || value.startsWith("\\.");
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == delimiter || c == quote || c == escape || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            out.write(value);
+            return;
+        }
+        out.write(quote);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == quote || c == escape) {
+                out.write(escape);
+            }
+            out.write(c);
+        }
+        out.write(quote);
+    }
+
+    /**
+     * Reads the rows of a character stream through a reusable buffer.
+     */
+    final class RowReader {
+        private final Reader in;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private final StringBuilder line = new StringBuilder();
+        private final StringBuilder field = new StringBuilder();
+        private int position;
+        private int limit;
+        private long lineNumber;
+
+        private RowReader(Reader in) {
+            this.in = in;
+        }
+
+        /**
+         * @return the number of the line the last row started on
+         */
+        long getLineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * Read the fields of the next row, with null for the null string.
+         *
+         * @return the fields, or null at the end of the data
+         * @throws SqlExecutionException if the row is malformed
+         */
+        List<String> next() throws IOException, SqlExecutionException {
+            return format == Format.CSV ? nextCsv() : nextText();
+        }
+
+        private List<String> nextText() throws IOException, SqlExecutionException {
+            if (!readLine()) {
+                return null;
+            }
+            if (line.length() == 2 && line.charAt(0) == '\\' && line.charAt(1) == '.') {
+                // End-of-data marker
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            int start = 0;
+            for (int i = 0; i <= line.length(); i++) {
+                if (i == line.length() || line.charAt(i) == delimiter) {
+                    fields.add(textField(start, i));
+                    start = i + 1;
+                } else if (line.charAt(i) == '\\') {
+                    i++;
+                }
+            }
+            return fields;
+        }
+
+        private String textField(int start, int end) throws SqlExecutionException {
+            if (end - start == nullString.length() && line.indexOf(nullString, start) == start) {
+                return null;
+            }
+            field.setLength(0);
+            for (int i = start; i < end; i++) {
+                char c = line.charAt(i);
+                if (c != '\\') {
+                    field.append(c);
+                    continue;
+                }
+                if (++i == end) {
+                    throw new SqlExecutionException("COPY line " + lineNumber + ": unterminated backslash escape");
+                }
+                char escaped = line.charAt(i);
+                switch (escaped) {
+                    case 'b': field.append('\b'); break;
+                    case 'f': field.append('\f'); break;
+                    case 'n': field.append('\n'); break;
+                    case 'r': field.append('\r'); break;
+                    case 't': field.append('\t'); break;
+                    case 'v': field.append('\u000B'); break;
+                    default: field.append(escaped);
+                }
+            }
+            return field.toString();
+        }
+
+        /**
+         * Read up to the next line feed, dropping a preceding carriage return.
+         *
+         * @return false at the end of the stream
+         */
+        private boolean readLine() throws IOException {
+            line.setLength(0);
+            int c = read();
+            if (c == -1) {
+                return false;
+            }
+            lineNumber++;
+            while (c != -1 && c != '\n') {
+                line.append((char) c);
+                c = read();
+            }
+            if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+                line.setLength(line.length() - 1);
+            }
+            return true;
+        }
+
+        private List<String> nextCsv() throws IOException, SqlExecutionException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            lineNumber++;
+            long startLine = lineNumber;
+            List<String> fields = new ArrayList<>();
+            field.setLength(0);
+            boolean quoted = false;
+            while (true) {
+                if (c == -1 || c == '\n' || (c == '\r' && peek() == '\n')) {
+                    if (c == '\r') {
+                        read();
+                    }
+                    fields.add(csvField(quoted));
+                    if (fields.size() == 1 && !quoted && field.length() == 2
+                            && field.charAt(0) == '\\' && field.charAt(1) == '.') {
+                        // End-of-data marker
+                        return null;
+                    }
+                    return fields;
+                } else if (c == delimiter) {
+                    fields.add(csvField(quoted));
+                    field.setLength(0);
+                    quoted = false;
+                } else if (c == quote) {
+                    quoted = true;
+                    readQuoted(startLine);
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private void readQuoted(long startLine) throws IOException, SqlExecutionException {
+            while (true) {
+                int c = read();
+                if (c == -1) {
+                    throw new SqlExecutionException("COPY line " + startLine + ": unterminated CSV quoted field");
+                }
+                if (c == escape && peek() == quote) {
+                    field.append((char) read());
+                } else if (c == escape && escape != quote && peek() == escape) {
+                    field.append((char) read());
+                } else if (c == quote) {
+                    return;
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            }
+        }
+
+        private String csvField(boolean quoted) {
+            String value = field.toString();
+            return !quoted && value.equals(nullString) ? null : value;
+        }
+
+        private int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++];
+        }
+
+        private int peek() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position];
+        }
+
+        private boolean fill() throws IOException {
+            int count = in.read(buffer, 0, buffer.length);
+            position = 0;
+            limit = Math.max(count, 0);
+            return count > 0;
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.memgres.sql.execution;
 
+import com.memgres.sql.ast.expression.Expression;
 import com.memgres.storage.Table;
 import com.memgres.types.Column;
 import com.memgres.types.Row;
 
 import java.sql.Connection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -22,9 +24,19 @@ public class ExecutionContext {
     private List<String> tableOrder;
     private Connection connection;
     
+    // Values bound to the statement's parameter placeholders, in position order
+    private List<Object> parameters = List.of();
+    
     // CTE support - store temporary result sets
     private Map<String, CTEResult> cteResults = new HashMap<>();
     
+    // Subquery lookups of the statement execution, keyed by the identity of their AST node;
+    // shared with the contexts of nested subqueries
+    private Map<Expression, SubqueryDecorrelator.Lookup> subqueryLookups = new IdentityHashMap<>();
+    
+    // Whether the next SELECT executed returns its rows through a cursor; taken by that SELECT
+    private boolean cursorRequested;
+    
     public Row getCurrentRow() {
         return currentRow;
     }
@@ -81,6 +93,30 @@ public class ExecutionContext {
         this.connection = connection;
     }
     
+    public boolean isCursorRequested() {
+        return cursorRequested;
+    }
+    
+    public void setCursorRequested(boolean cursorRequested) {
+        this.cursorRequested = cursorRequested;
+    }
+    
+    public void setParameters(List<Object> parameters) {
+        this.parameters = parameters;
+    }
+    
+    /**
+     * The value bound to a parameter placeholder.
+     * @param position 1-based position of the placeholder in the statement
+     * @throws IllegalStateException if no value was bound to it
+     */
+    public Object getParameter(int position) {
+        if (position < 1 || position > parameters.size()) {
+            throw new IllegalStateException("No value specified for parameter " + position);
+        }
+        return parameters.get(position - 1);
+    }
+    
     // CTE support methods
     public void addCTEResult(String cteName, List<Column> columns, List<Row> rows) {
         cteResults.put(cteName.toLowerCase(), new CTEResult(columns, rows));
@@ -98,6 +134,40 @@ public class ExecutionContext {
         cteResults.clear();
     }
     
+    /**
+     * Create a context for executing a subquery on its own: it sees this context's CTEs,
+     * parameter values and subquery lookups but none of its row state.
+     */
+    ExecutionContext createSubqueryContext() {
+        ExecutionContext subqueryContext = new ExecutionContext();
+        subqueryContext.connection = connection;
+        subqueryContext.parameters = parameters;
+        subqueryContext.cteResults.putAll(cteResults);
+        subqueryContext.subqueryLookups = subqueryLookups;
+        return subqueryContext;
+    }
+    
+    // Subquery lookup support methods; a null lookup means the subquery is executed per row
+    boolean hasSubqueryLookup(Expression subquery) {
+        return subqueryLookups.containsKey(subquery);
+    }
+    
+    SubqueryDecorrelator.Lookup getSubqueryLookup(Expression subquery) {
+        return subqueryLookups.get(subquery);
+    }
+    
+    void putSubqueryLookup(Expression subquery, SubqueryDecorrelator.Lookup lookup) {
+        subqueryLookups.put(subquery, lookup);
+    }
+    
+    /**
+     * Forget the subquery lookups built so far, for example because a CTE they may read has
+     * changed. They are rebuilt when next needed.
+     */
+    void clearSubqueryLookups() {
+        subqueryLookups.clear();
+    }
+    
     /**
      * Result of a Common Table Expression execution.
      */
@@ -14,6 +14,7 @@ import com.memgres.sql.ast.expression.FunctionCall;
 import com.memgres.sql.ast.expression.InSubqueryExpression;
 import com.memgres.sql.ast.expression.LiteralExpression;
 import com.memgres.sql.ast.expression.NextValueForExpression;
+import com.memgres.sql.ast.expression.ParameterExpression;
 import com.memgres.sql.ast.expression.OverClause;
 import com.memgres.sql.ast.expression.SubqueryExpression;
 import com.memgres.sql.ast.expression.UnaryExpression;
@@ -43,6 +44,7 @@ public class ExpressionEvaluator {
     
     private static final Logger logger = LoggerFactory.getLogger(ExpressionEvaluator.class);
     private final MemGresEngine engine;
+    private SubqueryDecorrelator subqueryDecorrelator;
     
     public ExpressionEvaluator(MemGresEngine engine) {
         this.engine = engine;
@@ -58,6 +60,9 @@ public class ExpressionEvaluator {
         else if (expression instanceof ColumnReference) {
             return evaluateColumnReference((ColumnReference) expression, context);
         }
+        else if (expression instanceof ParameterExpression) {
+            return context.getParameter(((ParameterExpression) expression).getPosition());
+        }
         else if (expression instanceof BinaryExpression) {
             return evaluateBinaryExpression((BinaryExpression) expression, context);
         }
@@ -588,11 +593,26 @@ public class ExpressionEvaluator {
         return Math.random();
     }
     
+    /**
+     * The decorrelator for this evaluator's subqueries, created on first use since it needs a
+     * StatementExecutor, which in turn creates an ExpressionEvaluator.
+     */
+    private SubqueryDecorrelator subqueryDecorrelator() {
+        if (subqueryDecorrelator == null) {
+            subqueryDecorrelator = new SubqueryDecorrelator(engine, new StatementExecutor(engine));
+        }
+        return subqueryDecorrelator;
+    }
+    
     private Object evaluateSubqueryExpression(SubqueryExpression subquery, ExecutionContext context) {
+        SubqueryDecorrelator.Lookup lookup = subqueryDecorrelator().lookup(subquery, context);
+        if (lookup != null) {
+            return lookup.evaluate(this, context);
+        }
         try {
-            // Execute the subquery using StatementExecutor with current execution context for correlated subqueries
+            // Execute the subquery using StatementExecutor
             StatementExecutor executor = new StatementExecutor(engine);
-            SqlExecutionResult result = executor.execute(subquery.getSelectStatement(), context);
+            SqlExecutionResult result = executor.execute(subquery.getSelectStatement(), context.createSubqueryContext());
             
             if (result.getType() != SqlExecutionResult.ResultType.SELECT) {
                 throw new IllegalStateException("Subquery must return a SELECT result");
@@ -620,10 +640,14 @@ public class ExpressionEvaluator {
     }
     
     private Object evaluateExistsExpression(ExistsExpression exists, ExecutionContext context) {
+        SubqueryDecorrelator.Lookup lookup = subqueryDecorrelator().lookup(exists, context);
+        if (lookup != null) {
+            return lookup.evaluate(this, context);
+        }
         try {
             // Execute the subquery using StatementExecutor
             StatementExecutor executor = new StatementExecutor(engine);
-            SqlExecutionResult result = executor.execute(exists.getSubquery());
+            SqlExecutionResult result = executor.execute(exists.getSubquery(), context.createSubqueryContext());
             
             if (result.getType() != SqlExecutionResult.ResultType.SELECT) {
                 throw new IllegalStateException("EXISTS subquery must return a SELECT result");
@@ -637,13 +661,18 @@ public class ExpressionEvaluator {
     }
     
     private Object evaluateInSubqueryExpression(InSubqueryExpression inSubquery, ExecutionContext context) {
+        SubqueryDecorrelator.Lookup lookup = subqueryDecorrelator().lookup(inSubquery, context);
+        if (lookup != null) {
+            return lookup.evaluate(this, context);
+        }
+        
         // First evaluate the left-hand expression
         Object leftValue = evaluate(inSubquery.getExpression(), context);
         
         try {
             // Execute the subquery using StatementExecutor
             StatementExecutor executor = new StatementExecutor(engine);
-            SqlExecutionResult result = executor.execute(inSubquery.getSubquery());
+            SqlExecutionResult result = executor.execute(inSubquery.getSubquery(), context.createSubqueryContext());
             
             if (result.getType() != SqlExecutionResult.ResultType.SELECT) {
                 throw new IllegalStateException("IN subquery must return a SELECT result");
@@ -790,6 +819,11 @@ public class ExpressionEvaluator {
         if (left == null) return -1;
         if (right == null) return 1;
         
+        // Compare mixed numeric types (e.g. INTEGER column vs BIGINT literal) by value
+        if (left instanceof Number && right instanceof Number && left.getClass() != right.getClass()) {
+            return Double.compare(((Number) left).doubleValue(), ((Number) right).doubleValue());
+        }
+        
         if (left instanceof Comparable && right instanceof Comparable) {
             try {
                 return ((Comparable) left).compareTo(right);
@@ -0,0 +1,252 @@
+package com.memgres.sql.execution;
+
+import com.memgres.types.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Stable sort of rows by precomputed sort keys that stays within a work-memory budget.
+ *
+ * <p>Rows are buffered together with their keys until the estimated footprint of the buffer
+ * exceeds the budget; the buffer is then sorted and written to a {@link SpillFile} as a
+ * sorted run. {@link #finish()} sorts whatever is still buffered and, if runs were spilled,
+ * k-way merges them with the in-memory tail. Ties are broken by run order, and runs hold
+ * consecutive slices of the input, so the result is the same as a stable in-memory sort.
+ *
+ * <p>The merge is lazy: while rows are read back, the sort holds the in-memory tail and one
+ * row per spilled run, and rows read from a run are fresh copies. Spilling therefore only
+ * lowers peak heap if the caller releases its own references to the rows it added, and
+ * consumes the result as it is produced rather than collecting it.
+ *
+ * <p>Keys are evaluated once per row by the caller instead of once per comparison.
+ */
+final class ExternalSort implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExternalSort.class);
+
+    /** Per-entry overhead on top of the key and row estimates. */
+    private static final long ENTRY_OVERHEAD = 48;
+
+    private final Comparator<Object[]> keyComparator;
+    private final long memoryBudget;
+    private final Path spillDirectory;
+    private final List<Entry> buffer = new ArrayList<>();
+    private final List<SpillFile> runs = new ArrayList<>();
+    private long bufferedBytes;
+    private int keyCount = -1;
+    private int rowCount;
+
+    /**
+     * @param keyComparator ordering of the key arrays passed to {@link #add}
+     * @param memoryBudget bytes of buffered rows and keys before a run is spilled
+     * @param spillDirectory where sorted runs are written
+     */
+    ExternalSort(Comparator<Object[]> keyComparator, long memoryBudget, Path spillDirectory) {
+        this.keyComparator = keyComparator;
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Add a row with its sort keys. Every row must have the same number of keys.
+     */
+    void add(Object[] keys, Row row) throws IOException {
+        keyCount = keys.length;
+        rowCount++;
+        buffer.add(new Entry(keys, row));
+        bufferedBytes += SpillFile.estimateRowBytes(keys) + SpillFile.estimateRowBytes(row.getData()) + ENTRY_OVERHEAD;
+        if (bufferedBytes > memoryBudget) {
+            spillRun();
+        }
+    }
+
+    int getSpilledRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * @return the number of rows added
+     */
+    int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Return all added rows in key order. The rows are merged as the iterator is advanced, so
+     * the sort must stay open until the iterator is exhausted. Reading a spilled run may throw
+     * {@link java.io.UncheckedIOException}.
+     */
+    Iterator<Row> finish() throws IOException {
+        buffer.sort((a, b) -> keyComparator.compare(a.keys, b.keys));
+        if (runs.isEmpty()) {
+            Iterator<Entry> entries = readBuffer();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return entries.hasNext();
+                }
+
+                @Override
+                public Row next() {
+                    return entries.next().row;
+                }
+            };
+        }
+
+        logger.debug("Merging {} spilled sort runs and {} buffered rows", runs.size(), buffer.size());
+        List<Iterator<Entry>> sources = new ArrayList<>(runs.size() + 1);
+        for (SpillFile run : runs) {
+            sources.add(readRun(run));
+        }
+        sources.add(readBuffer());
+        return merge(sources);
+    }
+
+    private Iterator<Row> merge(List<Iterator<Entry>> sources) {
+        PriorityQueue<Cursor> queue = new PriorityQueue<>((a, b) -> {
+            int comparison = keyComparator.compare(a.current.keys, b.current.keys);
+            return comparison != 0 ? comparison : Integer.compare(a.source, b.source);
+        });
+        for (int i = 0; i < sources.size(); i++) {
+            if (sources.get(i).hasNext()) {
+                queue.add(new Cursor(i, sources.get(i)));
+            }
+        }
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !queue.isEmpty();
+            }
+
+            @Override
+            public Row next() {
+                Cursor cursor = queue.poll();
+                if (cursor == null) {
+                    throw new NoSuchElementException();
+                }
+                Row row = cursor.current.row;
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+                return row;
+            }
+        };
+    }
+
+    /**
+     * Iterate over the sorted buffer, releasing each entry as it is read.
+     */
+    private Iterator<Entry> readBuffer() {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < buffer.size();
+            }
+
+            @Override
+            public Entry next() {
+                if (index >= buffer.size()) {
+                    throw new NoSuchElementException();
+                }
+                return buffer.set(index++, null);
+            }
+        };
+    }
+
+    private void spillRun() throws IOException {
+        buffer.sort((a, b) -> keyComparator.compare(a.keys, b.keys));
+        SpillFile run = SpillFile.create(spillDirectory);
+        runs.add(run);
+        for (Entry entry : buffer) {
+            // Keys and row data share one record: keys first, then the row's columns
+            Object[] data = entry.row.getData();
+            Object[] record = Arrays.copyOf(entry.keys, keyCount + data.length);
+            System.arraycopy(data, 0, record, keyCount, data.length);
+            run.write(new Row(entry.row.getId(), record));
+        }
+        run.finishWriting();
+        logger.debug("Spilled sort run of {} rows (~{} bytes) to {}", buffer.size(), bufferedBytes, run.getPath());
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+
+    private Iterator<Entry> readRun(SpillFile run) throws IOException {
+        Iterator<Row> rows = run.rows();
+        int keys = keyCount;
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Entry next() {
+                Row record = rows.next();
+                Object[] data = record.getData();
+                return new Entry(Arrays.copyOf(data, keys),
+                                 new Row(record.getId(), Arrays.copyOfRange(data, keys, data.length)));
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (SpillFile run : runs) {
+            try {
+                run.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        runs.clear();
+        buffer.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static final class Entry {
+        final Object[] keys;
+        final Row row;
+
+        Entry(Object[] keys, Row row) {
+            this.keys = keys;
+            this.row = row;
+        }
+    }
+
+    private static final class Cursor {
+        final int source;
+        final Iterator<Entry> entries;
+        Entry current;
+
+        Cursor(int source, Iterator<Entry> entries) {
+            this.source = source;
+            this.entries = entries;
+            this.current = entries.next();
+        }
+
+        boolean advance() {
+            if (entries.hasNext()) {
+                current = entries.next();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.memgres.sql.execution;
+
+import com.memgres.sql.ast.expression.AggregateFunction;
+import com.memgres.types.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hash aggregation with running accumulators.
+ *
+ * <p>Groups are keyed on typed value tuples rather than strings, so {@code 1} and {@code '1'}
+ * form different groups while numerically equal values of different Java types (an INTEGER
+ * and a BIGINT 1) form the same group, as they do in SQL. NULL keys group together.
+ *
+ * <p>Each group keeps one accumulator per aggregate plus the first row it saw (used for the
+ * non-aggregate select items), so memory is O(groups) instead of O(rows) and every input row
+ * is visited exactly once. Groups are returned in first-seen order.
+ *
+ * <p>With a work-memory budget the aggregation becomes a hybrid hash aggregation: once the
+ * estimated footprint of the groups exceeds the budget, rows of groups that are already in
+ * memory keep being aggregated, while rows of new groups are written to one of
+ * {@link #SPILL_PARTITIONS} spill files by key hash. Each spilled partition holds complete
+ * groups and is aggregated afterwards by a fresh aggregation one level deeper, whose groups
+ * follow those of this one.
+ */
+final class HashAggregation implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HashAggregation.class);
+
+    /** Number of spill files rows of new groups are distributed over once memory is full. */
+    static final int SPILL_PARTITIONS = 16;
+
+    /** Recursion depth beyond which a partition is aggregated in memory regardless of size. */
+    static final int MAX_SPILL_DEPTH = 4;
+
+    /** Estimated bytes per group besides its key, first row and accumulators. */
+    private static final long GROUP_OVERHEAD = 96;
+    private static final long ACCUMULATOR_OVERHEAD = 32;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final AggregateFunction[] aggregates;
+    private final Comparator<Object> valueComparator;
+    private final Map<Object, Group> groups = new LinkedHashMap<>();
+    private final long memoryBudget;
+    private final Path spillDirectory;
+    private final int depth;
+    private final SpillFile[] partitions = new SpillFile[SPILL_PARTITIONS];
+    private long memoryUsed;
+    private long spilledRows;
+
+    /**
+     * @param aggregates one entry per output column: the aggregate computed for it, or null
+     *                   for columns taken from the group's first row
+     * @param valueComparator ordering used by MIN and MAX
+     */
+    HashAggregation(AggregateFunction[] aggregates, Comparator<Object> valueComparator) {
+        this(aggregates, valueComparator, Long.MAX_VALUE, null, 0);
+    }
+
+    /**
+     * @param aggregates one entry per output column, as for the unbounded constructor
+     * @param valueComparator ordering used by MIN and MAX
+     * @param memoryBudget estimated bytes of group state before new groups are spilled
+     * @param spillDirectory where spill partitions are written
+     * @param depth 0 for the top-level aggregation, incremented for each spilled partition
+     */
+    HashAggregation(AggregateFunction[] aggregates, Comparator<Object> valueComparator,
+                    long memoryBudget, Path spillDirectory, int depth) {
+        this.aggregates = aggregates;
+        this.valueComparator = valueComparator;
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+        this.depth = depth;
+    }
+
+    /**
+     * Find or create the group for the given key values.
+     * @param keyValues the evaluated GROUP BY expressions
+     * @param row the input row, remembered if it is the first of a new group
+     * @return the group, or null if the row belongs to a new group and was spilled instead
+     */
+    Group group(Object[] keyValues, Row row) throws IOException {
+        Object key = groupKey(keyValues);
+        Group group = groups.get(key);
+        if (group == null) {
+            if (memoryUsed > memoryBudget && depth < MAX_SPILL_DEPTH) {
+                spill(key, row);
+                return null;
+            }
+            group = new Group(row);
+            groups.put(key, group);
+            memoryUsed += GROUP_OVERHEAD + SpillFile.estimateRowBytes(keyValues)
+                + SpillFile.estimateRowBytes(row.getData()) + ACCUMULATOR_OVERHEAD * aggregates.length;
+        }
+        return group;
+    }
+
+    private void spill(Object key, Row row) throws IOException {
+        // Each level partitions on a different slice of the hash bits, so a partition's
+        // rows spread out again when it is itself spilled
+        long hash = key.hashCode() * HASH_MULTIPLIER;
+        int partition = (int) (hash >>> (60 - 4 * depth)) & (SPILL_PARTITIONS - 1);
+        if (partitions[partition] == null) {
+            partitions[partition] = SpillFile.create(spillDirectory);
+        }
+        partitions[partition].write(row);
+        spilledRows++;
+    }
+
+    /**
+     * Spill files holding the input rows of groups that did not fit in memory; each one is
+     * to be aggregated separately, with a depth one greater than this aggregation's.
+     */
+    List<SpillFile> spilledPartitions() throws IOException {
+        List<SpillFile> spilled = new ArrayList<>();
+        for (SpillFile partition : partitions) {
+            if (partition != null) {
+                partition.finishWriting();
+                spilled.add(partition);
+            }
+        }
+        if (!spilled.isEmpty()) {
+            logger.debug("Hash aggregation at depth {} kept {} groups (~{} bytes) in memory and spilled {} rows to {} partitions",
+                         depth, groups.size(), memoryUsed, spilledRows, spilled.size());
+        }
+        return spilled;
+    }
+
+    int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Get the single group of an aggregation without GROUP BY. It exists even for empty
+     * input, where the aggregates produce their empty-set values.
+     * @param firstRow the first input row, or null when there is none
+     */
+    Group singleGroup(Row firstRow) {
+        return groups.computeIfAbsent(GroupKey.EMPTY, k -> new Group(firstRow));
+    }
+
+    Collection<Group> groups() {
+        return groups.values();
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (int i = 0; i < partitions.length; i++) {
+            if (partitions[i] != null) {
+                try {
+                    partitions[i].close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+                partitions[i] = null;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Hashable key for a tuple of values: equal for values that SQL treats as the same
+     * group, including NULLs.
+     */
+    static Object groupKey(Object[] keyValues) {
+        if (keyValues.length == 1) {
+            Object key = PartitionedHashJoin.normalizeKey(keyValues[0]);
+            return key != null ? key : GroupKey.NULL;
+        }
+        Object[] normalized = new Object[keyValues.length];
+        for (int i = 0; i < keyValues.length; i++) {
+            normalized[i] = PartitionedHashJoin.normalizeKey(keyValues[i]);
+        }
+        return new GroupKey(normalized);
+    }
+
+    /**
+     * Multi-column group key with value-based equality.
+     */
+    private static final class GroupKey {
+        static final GroupKey EMPTY = new GroupKey(new Object[0]);
+        static final GroupKey NULL = new GroupKey(new Object[]{null});
+
+        private final Object[] values;
+        private final int hash;
+
+        GroupKey(Object[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof GroupKey && Arrays.equals(values, ((GroupKey) obj).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Running state of one group.
+     */
+    final class Group {
+        private final Row firstRow;
+        private final Accumulator[] accumulators;
+
+        private Group(Row firstRow) {
+            this.firstRow = firstRow;
+            this.accumulators = new Accumulator[aggregates.length];
+            for (int i = 0; i < aggregates.length; i++) {
+                if (aggregates[i] != null) {
+                    accumulators[i] = newAccumulator(aggregates[i]);
+                }
+            }
+        }
+
+        /**
+         * The first input row of the group, or null for an ungrouped aggregation of no rows.
+         */
+        Row getFirstRow() {
+            return firstRow;
+        }
+
+        /**
+         * Add an input value to the aggregate of the given output column.
+         * @param column the output column index
+         * @param value the evaluated aggregate argument (ignored for COUNT(*))
+         */
+        void accumulate(int column, Object value) {
+            if (accumulators[column].add(value)) {
+                memoryUsed += SpillFile.estimateValueBytes(value) + ACCUMULATOR_OVERHEAD;
+            }
+        }
+
+        Object result(int column) {
+            return accumulators[column].result();
+        }
+    }
+
+    private Accumulator newAccumulator(AggregateFunction aggregate) {
+        switch (aggregate.getAggregateType()) {
+            case COUNT:
+                return aggregate.isCountStar() ? new CountStarAccumulator() : new CountAccumulator();
+            case COUNT_DISTINCT:
+                return new CountDistinctAccumulator();
+            case SUM:
+                return new SumAccumulator();
+            case AVG:
+                return new AvgAccumulator();
+            case MIN:
+                return new ExtremeAccumulator(valueComparator, -1);
+            case MAX:
+                return new ExtremeAccumulator(valueComparator, 1);
+            default:
+                throw new IllegalArgumentException("Unsupported aggregate function: " + aggregate.getAggregateType());
+        }
+    }
+
+    private interface Accumulator {
+        /**
+         * @return true if the accumulator retained the value, growing its state
+         */
+        boolean add(Object value);
+
+        Object result();
+    }
+
+    private static final class CountStarAccumulator implements Accumulator {
+        private long count;
+
+        @Override
+        public boolean add(Object value) {
+            count++;
+            return false;
+        }
+
+        @Override
+        public Object result() {
+            return count;
+        }
+    }
+
+    private static final class CountAccumulator implements Accumulator {
+        private long count;
+
+        @Override
+        public boolean add(Object value) {
+            if (value != null) {
+                count++;
+            }
+            return false;
+        }
+
+        @Override
+        public Object result() {
+            return count;
+        }
+    }
+
+    private static final class CountDistinctAccumulator implements Accumulator {
+        private final Set<Object> values = new HashSet<>();
+
+        @Override
+        public boolean add(Object value) {
+            return value != null && values.add(value);
+        }
+
+        @Override
+        public Object result() {
+            return (long) values.size();
+        }
+    }
+
+    private static final class SumAccumulator implements Accumulator {
+        private double sum;
+
+        @Override
+        public boolean add(Object value) {
+            if (value instanceof Number) {
+                sum += ((Number) value).doubleValue();
+            }
+            return false;
+        }
+
+        @Override
+        public Object result() {
+            return sum;
+        }
+    }
+
+    private static final class AvgAccumulator implements Accumulator {
+        private double total;
+        private long count;
+
+        @Override
+        public boolean add(Object value) {
+            if (value instanceof Number) {
+                total += ((Number) value).doubleValue();
+                count++;
+            }
+            return false;
+        }
+
+        @Override
+        public Object result() {
+            return count > 0 ? total / count : null;
+        }
+    }
+
+    /**
+     * MIN (direction -1) or MAX (direction 1) of the non-null values.
+     */
+    private static final class ExtremeAccumulator implements Accumulator {
+        private final Comparator<Object> comparator;
+        private final int direction;
+        private Object extreme;
+
+        ExtremeAccumulator(Comparator<Object> comparator, int direction) {
+            this.comparator = comparator;
+            this.direction = direction;
+        }
+
+        @Override
+        public boolean add(Object value) {
+            if (value != null && (extreme == null || comparator.compare(value, extreme) * direction > 0)) {
+                extreme = value;
+            }
+            return false;
+        }
+
+        @Override
+        public Object result() {
+            return extreme;
+        }
+    }
+}
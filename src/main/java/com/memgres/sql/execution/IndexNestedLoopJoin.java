@@ -0,0 +1,221 @@
+package com.memgres.sql.execution;
+
+import com.memgres.storage.CompositeIndex;
+import com.memgres.storage.Index;
+import com.memgres.storage.Table;
+import com.memgres.types.Column;
+import com.memgres.types.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Index nested-loop join: for every outer row, look the join key up in an index on the
+ * inner table and fetch only the matching rows.
+ *
+ * <p>This is the plan for joining a small driving set against a large indexed table
+ * ("fetch the children of these parents"). The inner table is never scanned, so the cost is
+ * O(k log n) index lookups for k outer rows instead of the O(n) scan every other join
+ * algorithm needs just to materialize the inner side.
+ *
+ * <p>A {@link CompositeIndex} is used when all of its columns are join keys; otherwise a
+ * single-column {@link Index} on any join key. Rows fetched through the index are re-checked
+ * against every key equality, so stale index entries and lossy key conversions never
+ * produce false matches. Key comparison follows the hash join: numbers compare by value
+ * regardless of their Java type and NULL never matches.
+ */
+final class IndexNestedLoopJoin {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexNestedLoopJoin.class);
+
+    private final Table innerTable;
+    private final Index index;
+    private final CompositeIndex compositeIndex;
+    /** Outer key columns feeding the lookup, in index column order. */
+    private final int[] lookupKeyIndexes;
+    private final Column[] lookupColumns;
+    private final int[] outerKeyIndexes;
+    private final int[] innerKeyIndexes;
+
+    private IndexNestedLoopJoin(Table innerTable, Index index, CompositeIndex compositeIndex,
+                                int[] lookupKeyIndexes, Column[] lookupColumns,
+                                int[] outerKeyIndexes, int[] innerKeyIndexes) {
+        this.innerTable = innerTable;
+        this.index = index;
+        this.compositeIndex = compositeIndex;
+        this.lookupKeyIndexes = lookupKeyIndexes;
+        this.lookupColumns = lookupColumns;
+        this.outerKeyIndexes = outerKeyIndexes;
+        this.innerKeyIndexes = innerKeyIndexes;
+    }
+
+    /**
+     * Find an index on the inner table that can serve the given equi-join keys.
+     * @param innerTable the table probed for every outer row
+     * @param outerKeyIndexes outer key columns, paired by position with the inner ones
+     * @param innerKeyIndexes inner key columns (positions in the inner table)
+     * @return the join, or null if no index covers the keys
+     */
+    static IndexNestedLoopJoin forKeys(Table innerTable, int[] outerKeyIndexes, int[] innerKeyIndexes) {
+        List<Column> columns = innerTable.getColumns();
+
+        // Prefer the composite index that covers the most join keys
+        CompositeIndex bestComposite = null;
+        int[] bestCompositeLookup = null;
+        for (CompositeIndex candidate : innerTable.getAllCompositeIndexes().values()) {
+            List<Column> indexedColumns = candidate.getIndexedColumns();
+            int[] lookup = new int[indexedColumns.size()];
+            boolean covered = true;
+            for (int i = 0; i < indexedColumns.size() && covered; i++) {
+                int keyPosition = keyPosition(columns, indexedColumns.get(i), innerKeyIndexes);
+                covered = keyPosition >= 0;
+                lookup[i] = covered ? keyPosition : -1;
+            }
+            if (covered && (bestComposite == null || lookup.length > bestCompositeLookup.length)) {
+                bestComposite = candidate;
+                bestCompositeLookup = lookup;
+            }
+        }
+        if (bestComposite != null) {
+            List<Column> indexedColumns = bestComposite.getIndexedColumns();
+            return new IndexNestedLoopJoin(innerTable, null, bestComposite,
+                outerKeys(bestCompositeLookup, outerKeyIndexes), indexedColumns.toArray(new Column[0]),
+                outerKeyIndexes, innerKeyIndexes);
+        }
+
+        for (Index candidate : innerTable.getAllIndexes().values()) {
+            int keyPosition = keyPosition(columns, candidate.getIndexedColumn(), innerKeyIndexes);
+            if (keyPosition >= 0) {
+                return new IndexNestedLoopJoin(innerTable, candidate, null,
+                    new int[]{outerKeyIndexes[keyPosition]}, new Column[]{candidate.getIndexedColumn()},
+                    outerKeyIndexes, innerKeyIndexes);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Position within the join keys of the key on the given inner column, or -1.
+     */
+    private static int keyPosition(List<Column> columns, Column column, int[] innerKeyIndexes) {
+        for (int k = 0; k < innerKeyIndexes.length; k++) {
+            if (columns.get(innerKeyIndexes[k]).getName().equalsIgnoreCase(column.getName())) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] outerKeys(int[] keyPositions, int[] outerKeyIndexes) {
+        int[] result = new int[keyPositions.length];
+        for (int i = 0; i < keyPositions.length; i++) {
+            result[i] = outerKeyIndexes[keyPositions[i]];
+        }
+        return result;
+    }
+
+    String getIndexName() {
+        return index != null ? index.getName() : compositeIndex.getName();
+    }
+
+    /**
+     * Join the outer rows against the inner table. Output keeps the outer order, with matches
+     * for each outer row in inner row-id order.
+     * @param outerRows the driving (left) side
+     * @param outerWidth column count of the outer side
+     * @param innerWidth column count of the inner side
+     * @param preserveOuter pad unmatched outer rows with NULLs (LEFT JOIN)
+     * @param residual extra ON predicate checked on each candidate pair, or null
+     */
+    List<Row> join(List<Row> outerRows, int outerWidth, int innerWidth, boolean preserveOuter,
+                   PartitionedHashJoin.JoinPredicate residual) {
+        List<Row> result = new ArrayList<>();
+        Row nullInner = new Row(0L, new Object[innerWidth]);
+        Object[] lookupValues = new Object[lookupKeyIndexes.length];
+        long probes = 0;
+
+        for (Row outer : outerRows) {
+            boolean matched = false;
+            if (prepareLookup(outer.getData(), lookupValues)) {
+                probes++;
+                for (Row inner : innerTable.getRows(lookup(lookupValues))) {
+                    if (keysMatch(outer.getData(), inner.getData())
+                            && (residual == null || residual.test(outer, inner))) {
+                        result.add(combine(outer, inner, outerWidth, innerWidth));
+                        matched = true;
+                    }
+                }
+            }
+            if (!matched && preserveOuter) {
+                result.add(combine(outer, nullInner, outerWidth, innerWidth));
+            }
+        }
+
+        logger.debug("Index nested-loop join via {}: {} outer rows, {} probes, {} result rows",
+                     getIndexName(), outerRows.size(), probes, result.size());
+        return result;
+    }
+
+    /**
+     * Convert the outer key values to the indexed column types, since the index map compares
+     * keys with their own compareTo. Returns false when a key is NULL or has no exact
+     * representation in the column type, in which case the outer row cannot match.
+     */
+    private boolean prepareLookup(Object[] outerData, Object[] lookupValues) {
+        for (int i = 0; i < lookupKeyIndexes.length; i++) {
+            Object value = outerData[lookupKeyIndexes[i]];
+            if (value == null) {
+                return false;
+            }
+            Object converted;
+            try {
+                converted = lookupColumns[i].getDataType().convertValue(value);
+            } catch (RuntimeException e) {
+                return false;
+            }
+            if (converted == null || !Objects.equals(PartitionedHashJoin.normalizeKey(converted),
+                                                     PartitionedHashJoin.normalizeKey(value))) {
+                return false;
+            }
+            lookupValues[i] = converted;
+        }
+        return true;
+    }
+
+    private List<Long> lookup(Object[] lookupValues) {
+        Set<Long> rowIds;
+        try {
+            rowIds = index != null ? index.findEqual(lookupValues[0]) : compositeIndex.findExact(lookupValues);
+        } catch (ClassCastException e) {
+            // Indexed values of a different Java type than the converted key; nothing can match
+            return Collections.emptyList();
+        }
+        List<Long> sorted = new ArrayList<>(rowIds);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    private boolean keysMatch(Object[] outerData, Object[] innerData) {
+        for (int k = 0; k < outerKeyIndexes.length; k++) {
+            Object outerValue = outerData[outerKeyIndexes[k]];
+            Object innerValue = innerData[innerKeyIndexes[k]];
+            if (outerValue == null || innerValue == null
+                    || !PartitionedHashJoin.normalizeKey(outerValue).equals(PartitionedHashJoin.normalizeKey(innerValue))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Row combine(Row outer, Row inner, int outerWidth, int innerWidth) {
+        Object[] combined = new Object[outerWidth + innerWidth];
+        System.arraycopy(outer.getData(), 0, combined, 0, outerWidth);
+        System.arraycopy(inner.getData(), 0, combined, outerWidth, innerWidth);
+        return new Row(outer.getId(), combined);
+    }
+}
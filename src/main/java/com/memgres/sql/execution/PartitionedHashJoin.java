@@ -0,0 +1,415 @@
+package com.memgres.sql.execution;
+
+import com.memgres.types.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Radix-partitioned hash join over materialized row lists.
+ *
+ * <p>The build side is split into {@code 2^radixBits} partitions by the high bits of the
+ * key hash, and each partition gets its own chained hash table, so partitions can be
+ * built concurrently without any shared mutable state. The probe side is processed in
+ * contiguous chunks, also concurrently, and the per-chunk outputs are concatenated in
+ * chunk order: the result therefore preserves probe-side row order exactly as a
+ * sequential probe would.
+ *
+ * <p>Keys may span several columns. When the key is a single column and every non-null build
+ * key is an integral number, keys are stored in a primitive {@code long[]} and compared without
+ * boxing. Otherwise keys are normalized so that numeric values compare the same way
+ * {@code ExpressionEvaluator} compares them for {@code =}. A key with any NULL component never
+ * matches.
+ *
+ * <p>An optional residual {@link JoinPredicate} is checked for every key match before the pair
+ * is emitted; it decides matching for outer-join padding as well. Residual predicates evaluate
+ * SQL expressions through a shared execution context, so they force a single-threaded probe.
+ *
+ * <p>Build rows with a NULL key component are kept out of the hash tables, but are held aside so
+ * that a join preserving the build side still emits them, padded with NULLs.
+ *
+ * <p>Inputs below {@link #PARALLEL_THRESHOLD} rows use a single partition and run on the
+ * calling thread.
+ */
+final class PartitionedHashJoin {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedHashJoin.class);
+
+    /** Combined input size below which the join runs single-threaded with one partition. */
+    static final int PARALLEL_THRESHOLD = 50_000;
+
+    /** Number of probe rows handed to a worker at a time. */
+    private static final int PROBE_CHUNK_SIZE = 16_384;
+
+    private static final int MAX_RADIX_BITS = 8;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Extra join condition evaluated on rows whose keys are equal.
+     */
+    @FunctionalInterface
+    interface JoinPredicate {
+        boolean test(Row leftRow, Row rightRow);
+    }
+
+    private final int radixBits;
+    private final boolean parallel;
+    private final boolean longKeys;
+    private final Partition[] partitions;
+    private final List<Row> nullKeyRows;
+
+    /**
+     * Build the partitioned hash tables.
+     * @param buildRows rows of the build side
+     * @param buildKeyIndexes indexes of the join key columns within a build row
+     * @param probeSize number of rows that will be probed, used to decide on parallelism
+     */
+    PartitionedHashJoin(List<Row> buildRows, int[] buildKeyIndexes, int probeSize) {
+        this.parallel = (long) buildRows.size() + probeSize >= PARALLEL_THRESHOLD
+                && Runtime.getRuntime().availableProcessors() > 1;
+        this.radixBits = parallel ? chooseRadixBits(buildRows.size()) : 0;
+
+        int n = buildRows.size();
+        Object[] keys = new Object[n];
+        boolean allIntegral = true;
+        List<Row> nullKeys = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Object key = extractKey(buildRows.get(i).getData(), buildKeyIndexes);
+            keys[i] = key;
+            if (key == null) {
+                nullKeys.add(buildRows.get(i));
+            } else if (!(key instanceof Long)) {
+                allIntegral = false;
+            }
+        }
+        this.longKeys = allIntegral && buildKeyIndexes.length == 1;
+        this.partitions = buildPartitions(buildRows, keys);
+        this.nullKeyRows = nullKeys;
+
+        logger.debug("Built hash join table: {} rows, {} partitions, {} keys, parallel={}",
+                n, partitions.length, longKeys ? "long" : "object", parallel);
+    }
+
+    /**
+     * Probe the hash tables and produce joined rows.
+     * @param probeRows rows of the probe side, output follows their order
+     * @param probeKeyIndexes indexes of the join key columns within a probe row, in build key order
+     * @param probeIsLeft whether probe rows form the left half of the joined row
+     * @param buildWidth column count of the build side, used for NULL padding
+     * @param probeWidth column count of the probe side, used for NULL padding
+     * @param preserveProbe emit unmatched probe rows padded with NULLs
+     * @param preserveBuild emit unmatched build rows padded with NULLs after all probe output
+     * @param residual additional condition on key-matched pairs, or null
+     * @return the joined rows
+     */
+    List<Row> join(List<Row> probeRows, int[] probeKeyIndexes, boolean probeIsLeft,
+                   int buildWidth, int probeWidth, boolean preserveProbe, boolean preserveBuild,
+                   JoinPredicate residual) {
+        boolean parallelProbe = parallel && residual == null;
+        int chunkCount = parallelProbe ? (probeRows.size() + PROBE_CHUNK_SIZE - 1) / PROBE_CHUNK_SIZE : 1;
+        List<List<Row>> chunkResults = new ArrayList<>(chunkCount);
+        for (int c = 0; c < chunkCount; c++) {
+            chunkResults.add(null);
+        }
+
+        IntStream chunks = IntStream.range(0, chunkCount);
+        if (parallelProbe) {
+            chunks = chunks.parallel();
+        }
+        chunks.forEach(c -> {
+            int from = parallelProbe ? c * PROBE_CHUNK_SIZE : 0;
+            int to = parallelProbe ? Math.min(probeRows.size(), from + PROBE_CHUNK_SIZE) : probeRows.size();
+            chunkResults.set(c, probeRange(probeRows, from, to, probeKeyIndexes, probeIsLeft,
+                    buildWidth, preserveProbe, preserveBuild, residual));
+        });
+
+        int total = 0;
+        for (List<Row> chunk : chunkResults) {
+            total += chunk.size();
+        }
+        List<Row> result = new ArrayList<>(total);
+        for (List<Row> chunk : chunkResults) {
+            result.addAll(chunk);
+        }
+
+        if (preserveBuild) {
+            Row nullProbeRow = new Row(0L, new Object[probeWidth]);
+            for (Partition partition : partitions) {
+                for (int i = 0; i < partition.rows.length; i++) {
+                    if (!partition.matched[i]) {
+                        Row buildRow = partition.rows[i];
+                        result.add(probeIsLeft ? combine(nullProbeRow, buildRow) : combine(buildRow, nullProbeRow));
+                    }
+                }
+            }
+            // Rows with a NULL key never match, so they are always emitted unmatched
+            for (Row buildRow : nullKeyRows) {
+                result.add(probeIsLeft ? combine(nullProbeRow, buildRow) : combine(buildRow, nullProbeRow));
+            }
+        }
+        return result;
+    }
+
+    private List<Row> probeRange(List<Row> probeRows, int from, int to, int[] probeKeyIndexes, boolean probeIsLeft,
+                                 int buildWidth, boolean preserveProbe, boolean trackMatches, JoinPredicate residual) {
+        List<Row> out = new ArrayList<>(to - from);
+        Row nullBuildRow = preserveProbe ? new Row(0L, new Object[buildWidth]) : null;
+
+        for (int r = from; r < to; r++) {
+            Row probeRow = probeRows.get(r);
+            boolean matched = false;
+
+            if (longKeys) {
+                Object raw = probeRow.getData()[probeKeyIndexes[0]];
+                // Primitive path: skip normalization boxing for the common INTEGER/BIGINT case
+                Object key = (raw instanceof Long || raw instanceof Integer) ? raw : normalizeKey(raw);
+                if (key instanceof Long || key instanceof Integer) {
+                    long probeKey = ((Number) key).longValue();
+                    long hash = mix(probeKey);
+                    Partition partition = partitions[partitionOf(hash)];
+                    long[] buildKeys = partition.longKeys;
+                    for (int i = partition.buckets[(int) hash & partition.mask]; i >= 0; i = partition.next[i]) {
+                        if (buildKeys[i] == probeKey
+                                && emitMatch(out, partition, i, probeRow, probeIsLeft, trackMatches, residual)) {
+                            matched = true;
+                        }
+                    }
+                }
+            } else {
+                Object key = extractKey(probeRow.getData(), probeKeyIndexes);
+                if (key != null) {
+                    long hash = mix(key.hashCode());
+                    Partition partition = partitions[partitionOf(hash)];
+                    Object[] buildKeys = partition.objectKeys;
+                    for (int i = partition.buckets[(int) hash & partition.mask]; i >= 0; i = partition.next[i]) {
+                        if (key.equals(buildKeys[i])
+                                && emitMatch(out, partition, i, probeRow, probeIsLeft, trackMatches, residual)) {
+                            matched = true;
+                        }
+                    }
+                }
+            }
+
+            if (!matched && preserveProbe) {
+                out.add(probeIsLeft ? combine(probeRow, nullBuildRow) : combine(nullBuildRow, probeRow));
+            }
+        }
+        return out;
+    }
+
+    private static boolean emitMatch(List<Row> out, Partition partition, int i, Row probeRow,
+                                     boolean probeIsLeft, boolean trackMatches, JoinPredicate residual) {
+        Row buildRow = partition.rows[i];
+        Row leftRow = probeIsLeft ? probeRow : buildRow;
+        Row rightRow = probeIsLeft ? buildRow : probeRow;
+        if (residual != null && !residual.test(leftRow, rightRow)) {
+            return false;
+        }
+        out.add(combine(leftRow, rightRow));
+        if (trackMatches) {
+            // Benign race: concurrent writers only ever store true, and the
+            // flags are read after all probe tasks have completed.
+            partition.matched[i] = true;
+        }
+        return true;
+    }
+
+    private Partition[] buildPartitions(List<Row> buildRows, Object[] keys) {
+        int partitionCount = 1 << radixBits;
+        int n = buildRows.size();
+        long[] hashes = new long[n];
+        int[] partitionIds = new int[n];
+        int[] counts = new int[partitionCount];
+
+        for (int i = 0; i < n; i++) {
+            Object key = keys[i];
+            if (key == null) {
+                partitionIds[i] = -1;
+                continue;
+            }
+            long hash = longKeys ? mix((Long) key) : mix(key.hashCode());
+            hashes[i] = hash;
+            int p = partitionOf(hash);
+            partitionIds[i] = p;
+            counts[p]++;
+        }
+
+        // Scatter row indexes by partition; a stable counting sort keeps build order within each partition
+        int[] offsets = new int[partitionCount + 1];
+        for (int p = 0; p < partitionCount; p++) {
+            offsets[p + 1] = offsets[p] + counts[p];
+        }
+        int[] cursor = Arrays.copyOf(offsets, partitionCount);
+        int[] order = new int[offsets[partitionCount]];
+        for (int i = 0; i < n; i++) {
+            int p = partitionIds[i];
+            if (p >= 0) {
+                order[cursor[p]++] = i;
+            }
+        }
+
+        Partition[] result = new Partition[partitionCount];
+        IntStream ids = IntStream.range(0, partitionCount);
+        if (parallel) {
+            ids = ids.parallel();
+        }
+        ids.forEach(p -> result[p] = new Partition(buildRows, keys, hashes, order, offsets[p], offsets[p + 1], longKeys));
+        return result;
+    }
+
+    private int partitionOf(long hash) {
+        return radixBits == 0 ? 0 : (int) (hash >>> (64 - radixBits));
+    }
+
+    private static int chooseRadixBits(int buildSize) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(1, cores * 4 - 1));
+        // Avoid tiny partitions when the build side is small relative to the core count
+        while (bits > 0 && (buildSize >> bits) < 1024) {
+            bits--;
+        }
+        return Math.min(bits, MAX_RADIX_BITS);
+    }
+
+    private static long mix(long value) {
+        long h = value * HASH_MULTIPLIER;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * Extract the normalized join key of a row: a single value, a {@link CompositeKey},
+     * or null when any key column is NULL.
+     */
+    private static Object extractKey(Object[] data, int[] keyIndexes) {
+        if (keyIndexes.length == 1) {
+            return normalizeKey(data[keyIndexes[0]]);
+        }
+        Object[] values = new Object[keyIndexes.length];
+        for (int k = 0; k < keyIndexes.length; k++) {
+            Object value = normalizeKey(data[keyIndexes[k]]);
+            if (value == null) {
+                return null;
+            }
+            values[k] = value;
+        }
+        return new CompositeKey(values);
+    }
+
+    /**
+     * Normalize a key so that values equal under SQL numeric comparison hash identically.
+     * Integral values of any numeric type become {@link Long}; other numbers become {@link Double}.
+     */
+    static Object normalizeKey(Object value) {
+        if (value == null || !(value instanceof Number)) {
+            return value;
+        }
+        if (value instanceof Long) {
+            return value;
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof BigInteger) {
+            BigInteger big = (BigInteger) value;
+            return big.bitLength() < 64 ? (Object) big.longValue() : (Object) big.doubleValue();
+        }
+        if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) value;
+            if (decimal.signum() == 0 || decimal.stripTrailingZeros().scale() <= 0) {
+                try {
+                    return decimal.longValueExact();
+                } catch (ArithmeticException e) {
+                    return decimal.doubleValue();
+                }
+            }
+            return decimal.doubleValue();
+        }
+        double d = ((Number) value).doubleValue();
+        if (d == Math.rint(d) && !Double.isInfinite(d) && Math.abs(d) < 0x1p62) {
+            return (long) d;
+        }
+        return d;
+    }
+
+    private static Row combine(Row left, Row right) {
+        Object[] leftData = left.getData();
+        Object[] rightData = right.getData();
+        Object[] combined = new Object[leftData.length + rightData.length];
+        System.arraycopy(leftData, 0, combined, 0, leftData.length);
+        System.arraycopy(rightData, 0, combined, leftData.length, rightData.length);
+        return new Row(left.getId(), combined);
+    }
+
+    /**
+     * Multi-column join key with value-based equality over normalized components.
+     */
+    private static final class CompositeKey {
+        private final Object[] values;
+        private final int hash;
+
+        CompositeKey(Object[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CompositeKey && Arrays.equals(values, ((CompositeKey) other).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * One radix partition: build rows plus a chained hash table over them.
+     * Chains are threaded through {@code next} and yield rows in build order.
+     */
+    private static final class Partition {
+        final Row[] rows;
+        final long[] longKeys;
+        final Object[] objectKeys;
+        final int[] buckets;
+        final int[] next;
+        final int mask;
+        final boolean[] matched;
+
+        Partition(List<Row> buildRows, Object[] keys, long[] hashes, int[] order, int from, int to, boolean useLongKeys) {
+            int size = to - from;
+            this.rows = new Row[size];
+            this.longKeys = useLongKeys ? new long[size] : null;
+            this.objectKeys = useLongKeys ? null : new Object[size];
+            this.next = new int[size];
+            this.matched = new boolean[size];
+
+            int capacity = Integer.highestOneBit(Math.max(1, size * 2 - 1)) << 1;
+            this.buckets = new int[capacity];
+            this.mask = capacity - 1;
+            Arrays.fill(buckets, -1);
+
+            for (int i = 0; i < size; i++) {
+                int source = order[from + i];
+                rows[i] = buildRows.get(source);
+                if (useLongKeys) {
+                    longKeys[i] = (Long) keys[source];
+                } else {
+                    objectKeys[i] = keys[source];
+                }
+            }
+            // Insert in reverse so each chain is walked in ascending build order
+            for (int i = size - 1; i >= 0; i--) {
+                int bucket = (int) hashes[order[from + i]] & mask;
+                next[i] = buckets[bucket];
+                buckets[bucket] = i;
+            }
+        }
+    }
+}
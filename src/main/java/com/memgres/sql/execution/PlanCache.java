@@ -0,0 +1,124 @@
+package com.memgres.sql.execution;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.memgres.monitoring.PerformanceMonitor;
+import com.memgres.sql.ast.statement.SelectStatement;
+import com.memgres.storage.Schema;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Cache of the catalog-dependent rewrites of SELECT statements, shared by every
+ * {@link SqlExecutionEngine} of an engine.
+ *
+ * <p>Before a query runs, the views it reads are looked up by name and merged into it or have
+ * predicates pushed into them, and predicates are pushed into its CTEs. The result only
+ * depends on the query and on the tables and views it names, so it is kept here keyed by the
+ * query's AST node. Nodes come from the {@link StatementCache}, so the same SQL text finds the
+ * same entry; keys are held weakly and an entry goes away with its statement.
+ *
+ * <p>Each entry records the {@link Schema#getObjectVersion version} of every name it resolved,
+ * and whether a CTE of the executing query hid it. The entry is used only while all of those
+ * are unchanged: creating, dropping or altering a table or view, or an index on a table,
+ * gives the name a new version and the query is rewritten again on its next execution. Join
+ * order and access paths are not cached, since they are chosen from the row counts of each
+ * execution.
+ */
+public final class PlanCache {
+
+    private final Cache<SelectStatement, Plan> cache;
+    private final PerformanceMonitor performanceMonitor;
+
+    public PlanCache(long maximumSize) {
+        this.cache = Caffeine.newBuilder().weakKeys().maximumSize(maximumSize).build();
+        this.performanceMonitor = PerformanceMonitor.getInstance();
+    }
+
+    /**
+     * The cached rewrite of a query, or null if there is none that is still valid for the
+     * schema and the CTEs of the context.
+     */
+    SelectStatement get(SelectStatement query, Schema schema, ExecutionContext context) {
+        Plan plan = cache.getIfPresent(query);
+        if (plan == null) {
+            performanceMonitor.recordPlanCacheEvent(PerformanceMonitor.PlanCacheEvent.MISS);
+            return null;
+        }
+        if (!plan.isValid(schema, context)) {
+            performanceMonitor.recordPlanCacheEvent(PerformanceMonitor.PlanCacheEvent.INVALIDATED);
+            cache.invalidate(query);
+            return null;
+        }
+        performanceMonitor.recordPlanCacheEvent(PerformanceMonitor.PlanCacheEvent.HIT);
+        return plan.rewritten != null ? plan.rewritten : query;
+    }
+
+    /**
+     * Cache the rewrite of a query together with the names it was resolved against.
+     */
+    void put(SelectStatement query, SelectStatement rewritten, Dependencies dependencies) {
+        // An unchanged query is not stored as its own value, which would keep the weak key alive
+        cache.put(query, new Plan(rewritten != query ? rewritten : null, dependencies));
+    }
+
+    /**
+     * Change the number of rewrites the cache holds, evicting entries if it shrinks.
+     */
+    public void setMaximumSize(long maximumSize) {
+        cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maximumSize));
+    }
+
+    /**
+     * The approximate number of cached rewrites.
+     */
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Remove all cached rewrites.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * The names a rewrite looked up, with the version each had and whether a CTE hid it.
+     * Versions are read before the lookup, so a concurrent change is seen as a new version.
+     */
+    static final class Dependencies {
+        private final Map<String, Long> versions = new HashMap<>();
+        private final Map<String, Boolean> hiddenByCte = new HashMap<>();
+
+        void record(String name, long version, boolean cte) {
+            String key = name.toLowerCase();
+            versions.putIfAbsent(key, version);
+            hiddenByCte.putIfAbsent(key, cte);
+        }
+    }
+
+    private static final class Plan {
+        private final SelectStatement rewritten;
+        private final Map<String, Long> versions;
+        private final Map<String, Boolean> hiddenByCte;
+
+        Plan(SelectStatement rewritten, Dependencies dependencies) {
+            this.rewritten = rewritten;
+            this.versions = Map.copyOf(dependencies.versions);
+            this.hiddenByCte = Map.copyOf(dependencies.hiddenByCte);
+        }
+
+        boolean isValid(Schema schema, ExecutionContext context) {
+            for (Map.Entry<String, Long> entry : versions.entrySet()) {
+                if (schema.getObjectVersion(entry.getKey()) != entry.getValue()
+                        || context.hasCTE(entry.getKey()) != hiddenByCte.get(entry.getKey())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,525 @@
+package com.memgres.sql.execution;
+
+import com.memgres.sql.ast.expression.AggregateFunction;
+import com.memgres.sql.ast.expression.BinaryExpression;
+import com.memgres.sql.ast.expression.CaseExpression;
+import com.memgres.sql.ast.expression.ColumnReference;
+import com.memgres.sql.ast.expression.CurrentValueForExpression;
+import com.memgres.sql.ast.expression.ExistsExpression;
+import com.memgres.sql.ast.expression.Expression;
+import com.memgres.sql.ast.expression.FunctionCall;
+import com.memgres.sql.ast.expression.InSubqueryExpression;
+import com.memgres.sql.ast.expression.LiteralExpression;
+import com.memgres.sql.ast.expression.NextValueForExpression;
+import com.memgres.sql.ast.expression.ParameterExpression;
+import com.memgres.sql.ast.expression.SubqueryExpression;
+import com.memgres.sql.ast.expression.UnaryExpression;
+import com.memgres.sql.ast.expression.WindowFunction;
+import com.memgres.sql.ast.statement.CommonTableExpression;
+import com.memgres.sql.ast.statement.FromClause;
+import com.memgres.sql.ast.statement.JoinClause;
+import com.memgres.sql.ast.statement.JoinableTable;
+import com.memgres.sql.ast.statement.OrderByClause;
+import com.memgres.sql.ast.statement.SelectItem;
+import com.memgres.sql.ast.statement.SelectStatement;
+import com.memgres.sql.ast.statement.SimpleSelectStatement;
+import com.memgres.sql.ast.statement.TableReference;
+import com.memgres.sql.ast.statement.WhereClause;
+import com.memgres.sql.ast.statement.WithClause;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Moves WHERE conjuncts closer to the rows they filter.
+ *
+ * <p>A query's WHERE clause is split into its AND conjuncts. A conjunct that reads the columns
+ * of a single CTE which the statement references only once, from a position no outer join
+ * pads with NULLs, is rewritten over the CTE's select expressions and added to the CTE's own
+ * WHERE clause, so the CTE materializes only the rows the query keeps. The executor applies
+ * the same split to join inputs (see {@code StatementExecutor.executeFromClause}), and
+ * {@link ViewInliner} uses it for views. Only conjuncts built from columns, literals,
+ * parameters, operators and function calls are moved; subqueries and sequence calls stay where
+ * they were written.
+ */
+final class PredicatePushdown {
+
+    private PredicatePushdown() {
+    }
+
+    /**
+     * Push the query's WHERE conjuncts into the CTEs they filter.
+     * @return the rewritten statement, or the query itself if nothing could be pushed
+     */
+    static SelectStatement pushIntoCtes(SelectStatement query) {
+        if (query.isCompound() || !query.getWithClause().isPresent() || !query.getWhereClause().isPresent()
+                || !query.getFromClause().isPresent()) {
+            return query;
+        }
+        FromClause from = query.getFromClause().get();
+        List<TableReference> preserved = preservedRelations(from);
+        int relationCount = 0;
+        for (JoinableTable joinableTable : from.getJoinableTables()) {
+            relationCount += joinableTable.getAllTableReferences().size();
+        }
+
+        WithClause with = query.getWithClause().get();
+        List<CommonTableExpression> ctes = new ArrayList<>(with.getCommonTableExpressions());
+        List<Expression> conjuncts = splitConjuncts(query.getWhereClause().get().getCondition());
+        boolean changed = false;
+        for (int i = 0; i < ctes.size(); i++) {
+            CommonTableExpression cte = ctes.get(i);
+            TableReference ref = null;
+            for (TableReference candidate : preserved) {
+                if (candidate.getTableName().equalsIgnoreCase(cte.getName())) {
+                    ref = candidate;
+                }
+            }
+            // A recursive CTE references itself, so it never counts only one reference
+            if (ref == null || countReferences(query, cte.getName()) != 1) {
+                continue;
+            }
+            OutputColumns columns = OutputColumns.of(cte.getSelectStatement(), cte.getColumnNames());
+            if (columns == null) {
+                continue;
+            }
+            String key = ref.getAlias().orElse(ref.getTableName()).toLowerCase();
+            List<Expression> remaining = new ArrayList<>();
+            SelectStatement filtered = filterDefinition(cte.getSelectStatement(), columns, key, relationCount == 1,
+                                                        conjuncts, remaining);
+            if (filtered != null) {
+                ctes.set(i, new CommonTableExpression(cte.getName(), cte.getColumnNames(), filtered));
+                conjuncts = remaining;
+                changed = true;
+            }
+        }
+        if (!changed) {
+            return query;
+        }
+        return new SelectStatement(Optional.of(new WithClause(with.isRecursive(), ctes)), query.isDistinct(),
+            query.getSelectItems(), query.getFromClause(), combineConjuncts(conjuncts).map(WhereClause::new),
+            query.getGroupByClause(), query.getHavingClause(), query.getOrderByClause(), query.getLimitClause());
+    }
+
+    /**
+     * Add the conjuncts that can be evaluated on a SELECT's input rows to its WHERE clause.
+     * A conjunct qualifies if every column it reads is an output column of the SELECT that is
+     * computed per input row: any column without aggregation, only GROUP BY columns with it.
+     * @param conjuncts predicates over the SELECT's output columns, as read under {@code key}
+     * @param allowUnqualified whether unqualified columns refer to the SELECT's output
+     * @param remaining receives the conjuncts that were not pushed
+     * @return the filtered SELECT, or null if no conjunct could be pushed
+     */
+    static SelectStatement filterDefinition(SelectStatement definition, OutputColumns columns, String key,
+                                            boolean allowUnqualified, List<Expression> conjuncts,
+                                            List<Expression> remaining) {
+        if (definition.isCompound() || !definition.getFromClause().isPresent()
+                || definition.getLimitClause().isPresent() || definition.getSelectItems().stream()
+                    .anyMatch(item -> !item.isWildcard() && containsWindowFunction(item.getExpression()))) {
+            return null;
+        }
+        boolean aggregated = definition.getGroupByClause().isPresent() || definition.getSelectItems().stream()
+            .anyMatch(item -> !item.isWildcard() && containsAggregate(item.getExpression()));
+        if (aggregated && (!definition.getGroupByClause().isPresent() || columns.byName == null)) {
+            // Without GROUP BY an aggregating SELECT returns one row even for empty input
+            return null;
+        }
+        List<Expression> grouping = aggregated
+            ? definition.getGroupByClause().get().getGroupingExpressions() : List.of();
+
+        Function<ColumnReference, Expression> perRowColumns = ref -> {
+            Expression expression = columns.resolve(ref, key, allowUnqualified);
+            if (expression == null || !aggregated) {
+                return expression;
+            }
+            for (Expression groupingExpression : grouping) {
+                if (sameExpression(expression, groupingExpression)) {
+                    return expression;
+                }
+            }
+            return null;
+        };
+
+        List<Expression> pushed = new ArrayList<>();
+        for (Expression conjunct : conjuncts) {
+            Expression substituted = substitute(conjunct, perRowColumns);
+            if (substituted != null) {
+                pushed.add(substituted);
+            } else {
+                remaining.add(conjunct);
+            }
+        }
+        if (pushed.isEmpty()) {
+            return null;
+        }
+
+        List<Expression> filter = new ArrayList<>();
+        definition.getWhereClause().ifPresent(clause -> filter.add(clause.getCondition()));
+        filter.addAll(pushed);
+        return new SelectStatement(definition.getWithClause(), definition.isDistinct(), definition.getSelectItems(),
+            definition.getFromClause(), combineConjuncts(filter).map(WhereClause::new), definition.getGroupByClause(),
+            definition.getHavingClause(), definition.getOrderByClause(), Optional.empty());
+    }
+
+    /**
+     * For each table of a joinable table, base table first, whether every row of the join
+     * result takes that table's columns from a real row of it. A WHERE conjunct on such a table
+     * may be applied to the table before joining; on a table an outer join pads with NULLs it
+     * may not, since the padded rows would then be produced instead of rejected.
+     */
+    static boolean[] preservedPositions(JoinableTable joinableTable) {
+        List<JoinClause> joins = joinableTable.getJoins();
+        boolean[] preserved = new boolean[joins.size() + 1];
+        boolean laterJoinPadsLeft = false;
+        for (int position = joins.size(); position >= 0; position--) {
+            JoinClause.JoinType type = position == 0
+                ? JoinClause.JoinType.INNER : joins.get(position - 1).getJoinType();
+            boolean padded = type == JoinClause.JoinType.LEFT || type == JoinClause.JoinType.FULL_OUTER;
+            preserved[position] = !padded && !laterJoinPadsLeft;
+            if (type == JoinClause.JoinType.RIGHT || type == JoinClause.JoinType.FULL_OUTER) {
+                laterJoinPadsLeft = true;
+            }
+        }
+        return preserved;
+    }
+
+    private static List<TableReference> preservedRelations(FromClause from) {
+        List<TableReference> relations = new ArrayList<>();
+        for (JoinableTable joinableTable : from.getJoinableTables()) {
+            boolean[] preserved = preservedPositions(joinableTable);
+            for (int position = 0; position < preserved.length; position++) {
+                if (preserved[position]) {
+                    relations.add(position == 0 ? joinableTable.getBaseTable()
+                        : joinableTable.getJoins().get(position - 1).getTable());
+                }
+            }
+        }
+        return relations;
+    }
+
+    /**
+     * Count the FROM references to a name anywhere in a statement, including its CTEs and
+     * subqueries. Expressions that are not inspected count as two references, so that a
+     * caller looking for exactly one never acts on an incomplete count.
+     */
+    private static int countReferences(SelectStatement statement, String name) {
+        int count = 0;
+        for (SimpleSelectStatement select : statement.getCompoundSelectStatement().getSelectStatements()) {
+            if (select.getWithClause().isPresent()) {
+                for (CommonTableExpression cte : select.getWithClause().get().getCommonTableExpressions()) {
+                    count += countReferences(cte.getSelectStatement(), name);
+                }
+            }
+            List<Expression> expressions = new ArrayList<>();
+            for (SelectItem item : select.getSelectItems()) {
+                if (!item.isWildcard()) {
+                    expressions.add(item.getExpression());
+                }
+            }
+            if (select.getFromClause().isPresent()) {
+                for (JoinableTable joinableTable : select.getFromClause().get().getJoinableTables()) {
+                    for (TableReference table : joinableTable.getAllTableReferences()) {
+                        if (table.getTableName().equalsIgnoreCase(name)) {
+                            count++;
+                        }
+                    }
+                    for (JoinClause join : joinableTable.getJoins()) {
+                        join.getOnCondition().ifPresent(expressions::add);
+                    }
+                }
+            }
+            select.getWhereClause().ifPresent(clause -> expressions.add(clause.getCondition()));
+            select.getGroupByClause().ifPresent(clause -> expressions.addAll(clause.getGroupingExpressions()));
+            select.getHavingClause().ifPresent(clause -> expressions.add(clause.getCondition()));
+            if (select.getOrderByClause().isPresent()) {
+                for (OrderByClause.OrderItem orderItem : select.getOrderByClause().get().getOrderItems()) {
+                    expressions.add(orderItem.getExpression());
+                }
+            }
+            for (Expression expression : expressions) {
+                count += countReferences(expression, name);
+            }
+        }
+        return count;
+    }
+
+    private static int countReferences(Expression expression, String name) {
+        if (expression == null || expression instanceof LiteralExpression || expression instanceof ParameterExpression
+                || expression instanceof ColumnReference || expression instanceof NextValueForExpression
+                || expression instanceof CurrentValueForExpression) {
+            return 0;
+        }
+        if (expression instanceof SubqueryExpression) {
+            return countReferences(((SubqueryExpression) expression).getSelectStatement(), name);
+        }
+        if (expression instanceof ExistsExpression) {
+            return countReferences(((ExistsExpression) expression).getSubquery(), name);
+        }
+        if (expression instanceof InSubqueryExpression) {
+            InSubqueryExpression in = (InSubqueryExpression) expression;
+            return countReferences(in.getExpression(), name) + countReferences(in.getSubquery(), name);
+        }
+        if (expression instanceof AggregateFunction && !((AggregateFunction) expression).isWindowFunction()) {
+            return countReferences(((AggregateFunction) expression).getExpression(), name);
+        }
+        List<Expression> children = children(expression);
+        if (children == null) {
+            return 2;
+        }
+        int count = 0;
+        for (Expression child : children) {
+            count += countReferences(child, name);
+        }
+        return count;
+    }
+
+    /**
+     * Output columns of a SELECT, named as its execution names them.
+     */
+    static final class OutputColumns {
+        /** Output column names in select order, or null for {@code SELECT *}. */
+        final List<String> names;
+        /** Select expression by lower-case output name, or null for {@code SELECT *}. */
+        final Map<String, Expression> byName;
+        /** Names that more than one output column has. */
+        final Set<String> ambiguous = new HashSet<>();
+        /** Table key of the single table a {@code SELECT *} reads, otherwise null. */
+        final String wildcardTable;
+
+        private OutputColumns(List<String> names, Map<String, Expression> byName, String wildcardTable) {
+            this.names = names;
+            this.byName = byName;
+            this.wildcardTable = wildcardTable;
+        }
+
+        /**
+         * Describe a SELECT's output columns, or return null if they cannot be determined from
+         * the statement alone (a wildcard mixed with other items, or over a join).
+         * @param columnNames names that replace the derived ones, as a CTE column list does
+         */
+        static OutputColumns of(SelectStatement select, Optional<List<String>> columnNames) {
+            if (select.isCompound() || !select.getFromClause().isPresent()) {
+                return null;
+            }
+            List<SelectItem> items = select.getSelectItems();
+            if (items.size() == 1 && items.get(0).isWildcard()) {
+                List<JoinableTable> tables = select.getFromClause().get().getJoinableTables();
+                if (columnNames.isPresent() || tables.size() != 1 || tables.get(0).hasJoins()) {
+                    return null;
+                }
+                TableReference table = tables.get(0).getBaseTable();
+                return new OutputColumns(null, null, table.getAlias().orElse(table.getTableName()));
+            }
+            if (columnNames.isPresent() && columnNames.get().size() > items.size()) {
+                return null;
+            }
+            List<String> names = new ArrayList<>();
+            Map<String, Expression> byName = new HashMap<>();
+            OutputColumns columns = new OutputColumns(names, byName, null);
+            for (int i = 0; i < items.size(); i++) {
+                SelectItem item = items.get(i);
+                if (item.isWildcard()) {
+                    return null;
+                }
+                String name;
+                if (columnNames.isPresent() && i < columnNames.get().size()) {
+                    name = columnNames.get().get(i);
+                } else if (item.getAlias().isPresent()) {
+                    name = item.getAlias().get();
+                } else if (item.getExpression() instanceof ColumnReference) {
+                    name = ((ColumnReference) item.getExpression()).getColumnName();
+                } else {
+                    name = "column" + i;
+                }
+                names.add(name);
+                if (byName.put(name.toLowerCase(), item.getExpression()) != null) {
+                    columns.ambiguous.add(name.toLowerCase());
+                }
+            }
+            return columns;
+        }
+
+        /**
+         * The select expression a column reference stands for, or null if the reference does
+         * not name exactly one output column of the SELECT read under {@code key}.
+         */
+        Expression resolve(ColumnReference ref, String key, boolean allowUnqualified) {
+            if (ref.getTableName().isPresent() ? !ref.getTableName().get().equalsIgnoreCase(key) : !allowUnqualified) {
+                return null;
+            }
+            if (wildcardTable != null) {
+                return new ColumnReference(wildcardTable, ref.getColumnName());
+            }
+            String name = ref.getColumnName().toLowerCase();
+            return ambiguous.contains(name) ? null : byName.get(name);
+        }
+    }
+
+    /**
+     * Copy an expression with every column reference replaced through {@code columns}.
+     * Returns null if a column has no replacement or the expression contains something that
+     * is not moved (subqueries, window functions, sequence calls).
+     */
+    static Expression substitute(Expression expression, Function<ColumnReference, Expression> columns) {
+        if (expression instanceof LiteralExpression || expression instanceof ParameterExpression) {
+            return expression;
+        }
+        if (expression instanceof ColumnReference) {
+            return columns.apply((ColumnReference) expression);
+        }
+        if (expression instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) expression;
+            Expression left = substitute(binary.getLeft(), columns);
+            Expression right = substitute(binary.getRight(), columns);
+            return left == null || right == null ? null : new BinaryExpression(left, binary.getOperator(), right);
+        }
+        if (expression instanceof UnaryExpression) {
+            UnaryExpression unary = (UnaryExpression) expression;
+            Expression operand = substitute(unary.getOperand(), columns);
+            return operand == null ? null : new UnaryExpression(unary.getOperator(), operand);
+        }
+        if (expression instanceof FunctionCall) {
+            FunctionCall call = (FunctionCall) expression;
+            List<Expression> arguments = new ArrayList<>();
+            for (Expression argument : call.getArguments()) {
+                Expression substituted = substitute(argument, columns);
+                if (substituted == null) {
+                    return null;
+                }
+                arguments.add(substituted);
+            }
+            return new FunctionCall(call.getFunctionName(), arguments);
+        }
+        if (expression instanceof CaseExpression) {
+            CaseExpression caseExpression = (CaseExpression) expression;
+            List<CaseExpression.WhenClause> whenClauses = new ArrayList<>();
+            for (CaseExpression.WhenClause when : caseExpression.getWhenClauses()) {
+                Expression condition = substitute(when.getCondition(), columns);
+                Expression result = substitute(when.getResult(), columns);
+                if (condition == null || result == null) {
+                    return null;
+                }
+                whenClauses.add(new CaseExpression.WhenClause(condition, result));
+            }
+            Optional<Expression> elseExpression = Optional.empty();
+            if (caseExpression.getElseExpression().isPresent()) {
+                Expression substituted = substitute(caseExpression.getElseExpression().get(), columns);
+                if (substituted == null) {
+                    return null;
+                }
+                elseExpression = Optional.of(substituted);
+            }
+            return new CaseExpression(whenClauses, elseExpression);
+        }
+        if (expression instanceof AggregateFunction && !((AggregateFunction) expression).isWindowFunction()) {
+            AggregateFunction aggregate = (AggregateFunction) expression;
+            Expression argument = aggregate.getExpression();
+            if (argument != null) {
+                argument = substitute(argument, columns);
+                if (argument == null) {
+                    return null;
+                }
+            }
+            return new AggregateFunction(aggregate.getAggregateType(), argument, aggregate.isDistinct());
+        }
+        return null;
+    }
+
+    /**
+     * Collect the column references of a conjunct that may be evaluated before the joins.
+     * @return false if the conjunct contains an aggregate or anything {@link #substitute} does not move
+     */
+    static boolean collectColumns(Expression expression, List<ColumnReference> columns) {
+        if (expression instanceof AggregateFunction) {
+            return false;
+        }
+        return substitute(expression, ref -> {
+            columns.add(ref);
+            return ref;
+        }) != null;
+    }
+
+    static boolean containsAggregate(Expression expression) {
+        if (expression instanceof AggregateFunction) {
+            return true;
+        }
+        List<Expression> children = children(expression);
+        return children != null && children.stream().anyMatch(PredicatePushdown::containsAggregate);
+    }
+
+    static boolean containsWindowFunction(Expression expression) {
+        if (expression instanceof WindowFunction
+                || expression instanceof AggregateFunction && ((AggregateFunction) expression).isWindowFunction()) {
+            return true;
+        }
+        List<Expression> children = children(expression);
+        return children != null && children.stream().anyMatch(PredicatePushdown::containsWindowFunction);
+    }
+
+    /**
+     * The operands of an operator, function call or CASE expression, or null for any other expression.
+     */
+    private static List<Expression> children(Expression expression) {
+        if (expression instanceof BinaryExpression) {
+            return List.of(((BinaryExpression) expression).getLeft(), ((BinaryExpression) expression).getRight());
+        }
+        if (expression instanceof UnaryExpression) {
+            return List.of(((UnaryExpression) expression).getOperand());
+        }
+        if (expression instanceof FunctionCall) {
+            return ((FunctionCall) expression).getArguments();
+        }
+        if (expression instanceof CaseExpression) {
+            CaseExpression caseExpression = (CaseExpression) expression;
+            List<Expression> children = new ArrayList<>();
+            for (CaseExpression.WhenClause when : caseExpression.getWhenClauses()) {
+                children.add(when.getCondition());
+                children.add(when.getResult());
+            }
+            caseExpression.getElseExpression().ifPresent(children::add);
+            return children;
+        }
+        return null;
+    }
+
+    private static boolean sameExpression(Expression a, Expression b) {
+        if (a == b) {
+            return true;
+        }
+        if (a instanceof ColumnReference && b instanceof ColumnReference) {
+            ColumnReference left = (ColumnReference) a;
+            ColumnReference right = (ColumnReference) b;
+            return left.getColumnName().equalsIgnoreCase(right.getColumnName())
+                && (left.getTableName().isEmpty() || right.getTableName().isEmpty()
+                    || left.getTableName().get().equalsIgnoreCase(right.getTableName().get()));
+        }
+        return false;
+    }
+
+    static List<Expression> splitConjuncts(Expression expression) {
+        List<Expression> conjuncts = new ArrayList<>();
+        if (expression instanceof BinaryExpression
+                && ((BinaryExpression) expression).getOperator() == BinaryExpression.Operator.AND) {
+            conjuncts.addAll(splitConjuncts(((BinaryExpression) expression).getLeft()));
+            conjuncts.addAll(splitConjuncts(((BinaryExpression) expression).getRight()));
+        } else {
+            conjuncts.add(expression);
+        }
+        return conjuncts;
+    }
+
+    static Optional<Expression> combineConjuncts(List<Expression> conjuncts) {
+        Expression combined = null;
+        for (Expression conjunct : conjuncts) {
+            combined = combined == null ? conjunct
+                : new BinaryExpression(combined, BinaryExpression.Operator.AND, conjunct);
+        }
+        return Optional.ofNullable(combined);
+    }
+}
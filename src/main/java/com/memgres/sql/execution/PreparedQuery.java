@@ -0,0 +1,30 @@
+package com.memgres.sql.execution;
+
+import com.memgres.sql.ast.statement.Statement;
+
+import java.util.List;
+
+/**
+ * SQL text parsed once for repeated execution. Parameter placeholders ({@code ?}) are kept
+ * in the AST as {@link com.memgres.sql.ast.expression.ParameterExpression} nodes and take the
+ * values passed to {@link SqlExecutionEngine#execute(PreparedQuery, List)}. The statements
+ * are immutable, so a prepared query may be executed any number of times, also concurrently.
+ */
+public final class PreparedQuery {
+
+    private final String sql;
+    private final List<Statement> statements;
+
+    PreparedQuery(String sql, List<Statement> statements) {
+        this.sql = sql;
+        this.statements = List.copyOf(statements);
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<Statement> getStatements() {
+        return statements;
+    }
+}
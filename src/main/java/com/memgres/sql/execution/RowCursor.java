@@ -0,0 +1,176 @@
+package com.memgres.sql.execution;
+
+import com.memgres.types.Column;
+import com.memgres.types.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The rows of a query result, fetched in batches. A cursor opened for a query whose SELECT list
+ * only reads columns of the row holds the rows that reached the end of the pipeline still
+ * unprojected, and projects each batch as it is fetched; the result rows are therefore never all
+ * materialized, and the rows already fetched are released. Any other SELECT list is projected
+ * when the query runs, so that subqueries and functions see the query's snapshot. Closing the
+ * cursor releases the rows not fetched.
+ *
+ * <p>A cursor may also read its rows from an operator that produces them on demand, such as the
+ * merge of a spilled sort; the operator is closed once the cursor is exhausted or closed.
+ */
+public class RowCursor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowCursor.class);
+
+    /**
+     * Computes the result row of a pipeline row.
+     */
+    @FunctionalInterface
+    interface Projection {
+        Row project(Row row) throws Exception;
+    }
+
+    private final List<Column> columns;
+    private final int rowCount;
+    private Iterator<Row> rows;
+    private Projection projection;
+    private Closeable source;
+    private int position;
+    private boolean closed;
+
+    /**
+     * @param columns the result columns
+     * @param rows the rows to fetch
+     * @param projection the projection of each row as it is fetched, or null if the rows are
+     *                   the result rows
+     */
+    RowCursor(List<Column> columns, List<Row> rows, Projection projection) {
+        this(columns, releasingIterator(rows.toArray(new Row[0])), rows.size(), projection, null);
+    }
+
+    /**
+     * @param columns the result columns
+     * @param rows the rows to fetch, produced as they are fetched
+     * @param rowCount the number of rows the iterator produces
+     * @param projection the projection of each row as it is fetched, or null if the rows are
+     *                   the result rows
+     * @param source the operator producing the rows, closed once the cursor is exhausted or
+     *               closed, or null
+     */
+    RowCursor(List<Column> columns, Iterator<Row> rows, int rowCount, Projection projection, Closeable source) {
+        this.columns = columns != null ? columns : List.of();
+        this.rows = rows;
+        this.rowCount = rowCount;
+        this.projection = projection;
+        this.source = source;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the number of rows of the result, fetched or not
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return the number of rows fetched so far
+     */
+    public synchronized int getPosition() {
+        return position;
+    }
+
+    public synchronized boolean isExhausted() {
+        return position >= rowCount;
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Fetch the next rows.
+     *
+     * @param count the maximum number of rows, or a negative number for all remaining rows
+     * @return the rows, empty when the cursor is exhausted
+     * @throws SqlExecutionException if the cursor is closed or a row cannot be projected
+     */
+    public synchronized List<Row> fetch(int count) throws SqlExecutionException {
+        if (closed) {
+            throw new SqlExecutionException("Cursor is closed");
+        }
+        int end = count < 0 ? rowCount : (int) Math.min((long) position + count, rowCount);
+        if (position >= end) {
+            return Collections.emptyList();
+        }
+        List<Row> batch = new ArrayList<>(end - position);
+        try {
+            for (; position < end; position++) {
+                Row row = rows.next();
+                batch.add(projection != null ? projection.project(row) : row);
+            }
+        } catch (SqlExecutionException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SqlExecutionException("Failed to fetch row " + (position + 1), e);
+        }
+        if (position >= rowCount) {
+            closeSource();
+        }
+        return batch;
+    }
+
+    /**
+     * Release the rows not fetched. Closing a closed cursor has no effect.
+     */
+    public synchronized void close() {
+        closed = true;
+        rows = Collections.emptyIterator();
+        projection = null;
+        closeSource();
+    }
+
+    private void closeSource() {
+        if (source != null) {
+            try {
+                source.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close cursor row source: {}", e.getMessage());
+            }
+            source = null;
+        }
+    }
+
+    /**
+     * Iterate over an array, releasing each row as it is read.
+     */
+    private static Iterator<Row> releasingIterator(Row[] rows) {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < rows.length;
+            }
+
+            @Override
+            public Row next() {
+                if (index >= rows.length) {
+                    throw new NoSuchElementException();
+                }
+                Row row = rows[index];
+                rows[index++] = null;
+                return row;
+            }
+        };
+    }
+}
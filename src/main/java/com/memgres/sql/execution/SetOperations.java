@@ -0,0 +1,147 @@
+package com.memgres.sql.execution;
+
+import com.memgres.types.Row;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Hash-based DISTINCT, UNION, INTERSECT and EXCEPT over rows.
+ *
+ * <p>Rows are compared on their typed values with the same keys as GROUP BY (see
+ * {@link HashAggregation#groupKey}), so numbers of different types compare by value and NULLs
+ * are not distinct from each other, as SQL requires for duplicate elimination. Every operation
+ * is a single pass over each input with one hash lookup per row, and keeps the first
+ * occurrence of each row in input order.
+ */
+final class SetOperations {
+
+    private SetOperations() {
+    }
+
+    /**
+     * Hash key of a row's values.
+     */
+    static Object rowKey(Row row) {
+        return HashAggregation.groupKey(row.getData());
+    }
+
+    /**
+     * The rows with duplicates removed.
+     */
+    static List<Row> distinct(List<Row> rows) {
+        Set<Object> seen = new HashSet<>();
+        List<Row> result = new ArrayList<>();
+        for (Row row : rows) {
+            if (seen.add(rowKey(row))) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * UNION: the distinct rows of both inputs.
+     */
+    static List<Row> union(List<Row> left, List<Row> right) {
+        return distinct(unionAll(left, right));
+    }
+
+    /**
+     * INTERSECT: the distinct rows of the left input that also occur in the right one.
+     */
+    static List<Row> intersect(List<Row> left, List<Row> right) {
+        Set<Object> rightKeys = keys(right);
+        Set<Object> seen = new HashSet<>();
+        List<Row> result = new ArrayList<>();
+        for (Row row : left) {
+            Object key = rowKey(row);
+            if (rightKeys.contains(key) && seen.add(key)) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * EXCEPT: the distinct rows of the left input that do not occur in the right one.
+     */
+    static List<Row> except(List<Row> left, List<Row> right) {
+        // Right rows count as already seen, so they are never emitted
+        Set<Object> seen = keys(right);
+        List<Row> result = new ArrayList<>();
+        for (Row row : left) {
+            if (seen.add(rowKey(row))) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * UNION ALL: a read-only view of the left rows followed by the right rows. Neither input
+     * is copied, and chained UNION ALLs share one list of segments.
+     */
+    static List<Row> unionAll(List<Row> left, List<Row> right) {
+        if (right.isEmpty()) {
+            return left;
+        }
+        if (left.isEmpty()) {
+            return right;
+        }
+        List<List<Row>> segments = new ArrayList<>();
+        if (left instanceof ConcatenatedRows) {
+            segments.addAll(Arrays.asList(((ConcatenatedRows) left).segments));
+        } else {
+            segments.add(left);
+        }
+        segments.add(right);
+        return new ConcatenatedRows(segments);
+    }
+
+    private static Set<Object> keys(List<Row> rows) {
+        Set<Object> keys = new HashSet<>();
+        for (Row row : rows) {
+            keys.add(rowKey(row));
+        }
+        return keys;
+    }
+
+    /**
+     * Non-empty lists laid end to end.
+     */
+    private static final class ConcatenatedRows extends AbstractList<Row> {
+        private final List<Row>[] segments;
+        /** Index of the first row of each segment, plus the total size. */
+        private final int[] offsets;
+
+        @SuppressWarnings("unchecked")
+        ConcatenatedRows(List<List<Row>> segments) {
+            this.segments = segments.toArray(new List[0]);
+            this.offsets = new int[segments.size() + 1];
+            for (int i = 0; i < segments.size(); i++) {
+                offsets[i + 1] = offsets[i] + segments.get(i).size();
+            }
+        }
+
+        @Override
+        public Row get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            // Segments are never empty, so the offsets are strictly increasing
+            int found = Arrays.binarySearch(offsets, index);
+            int segment = found >= 0 ? found : -found - 2;
+            return segments[segment].get(index - offsets[segment]);
+        }
+
+        @Override
+        public int size() {
+            return offsets[offsets.length - 1];
+        }
+    }
+}
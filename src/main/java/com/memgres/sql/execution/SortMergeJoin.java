@@ -0,0 +1,340 @@
+package com.memgres.sql.execution;
+
+import com.memgres.types.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sort-based join operators over materialized row lists.
+ *
+ * <p>{@link #mergeEquiJoin} merges two inputs that are already ordered on their equi-join
+ * keys, so no hash table is needed. Ordering is checked with {@link #isSortedOn}; inputs that
+ * come out of an ordered scan or a sorted sub-result qualify.
+ *
+ * <p>{@link #bandJoin} handles range conditions such as {@code a.ts BETWEEN b.start AND b.end}:
+ * one side supplies a point value and the other side a lower and/or upper bound. Both sides
+ * are sorted once and swept together, so the cost is O((n + m) log m + output) instead of the
+ * nested loop's O(n * m).
+ *
+ * <p>Both operators treat NULL keys as never matching and support outer-join padding on
+ * either side. Key comparison follows SQL semantics: numbers compare by value regardless of
+ * their Java type.
+ */
+final class SortMergeJoin {
+
+    private static final Logger logger = LoggerFactory.getLogger(SortMergeJoin.class);
+
+    private SortMergeJoin() {
+    }
+
+    /**
+     * Range join condition in "point versus bounds" form: the point column of one side must lie
+     * above the lower bound column and/or below the upper bound column of the other side.
+     */
+    static final class RangeCondition {
+        final boolean pointIsLeft;
+        final int pointIndex;
+        final int lowerIndex;
+        final boolean lowerInclusive;
+        final int upperIndex;
+        final boolean upperInclusive;
+
+        /**
+         * @param pointIsLeft whether the point column belongs to the left input
+         * @param pointIndex index of the point column within its row
+         * @param lowerIndex index of the lower bound column within the other row, or -1
+         * @param lowerInclusive whether the lower bound admits equality
+         * @param upperIndex index of the upper bound column within the other row, or -1
+         * @param upperInclusive whether the upper bound admits equality
+         */
+        RangeCondition(boolean pointIsLeft, int pointIndex, int lowerIndex, boolean lowerInclusive,
+                       int upperIndex, boolean upperInclusive) {
+            this.pointIsLeft = pointIsLeft;
+            this.pointIndex = pointIndex;
+            this.lowerIndex = lowerIndex;
+            this.lowerInclusive = lowerInclusive;
+            this.upperIndex = upperIndex;
+            this.upperInclusive = upperInclusive;
+        }
+    }
+
+    /**
+     * Compare two non-null key values; numbers compare by value across Java types.
+     */
+    @SuppressWarnings("unchecked")
+    static int compareKeys(Object a, Object b) {
+        if (a instanceof Number && b instanceof Number && a.getClass() != b.getClass()) {
+            Object na = PartitionedHashJoin.normalizeKey(a);
+            Object nb = PartitionedHashJoin.normalizeKey(b);
+            if (na instanceof Long && nb instanceof Long) {
+                return Long.compare((Long) na, (Long) nb);
+            }
+            return Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+        }
+        if (a instanceof Comparable) {
+            try {
+                return ((Comparable<Object>) a).compareTo(b);
+            } catch (ClassCastException e) {
+                return a.toString().compareTo(b.toString());
+            }
+        }
+        return a.toString().compareTo(b.toString());
+    }
+
+    /**
+     * Compare the key tuples of two rows; NULLs sort first.
+     */
+    private static int compareRowKeys(Object[] a, int[] aKeys, Object[] b, int[] bKeys) {
+        for (int k = 0; k < aKeys.length; k++) {
+            Object va = a[aKeys[k]];
+            Object vb = b[bKeys[k]];
+            if (va == null || vb == null) {
+                if (va != vb) {
+                    return va == null ? -1 : 1;
+                }
+                continue;
+            }
+            int cmp = compareKeys(va, vb);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean hasNullKey(Object[] data, int[] keys) {
+        for (int key : keys) {
+            if (data[key] == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether rows are in non-decreasing order of the given key columns (NULLs first).
+     */
+    static boolean isSortedOn(List<Row> rows, int[] keyIndexes) {
+        for (int i = 1; i < rows.size(); i++) {
+            if (compareRowKeys(rows.get(i - 1).getData(), keyIndexes, rows.get(i).getData(), keyIndexes) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Merge-join two inputs that are both sorted on their key columns.
+     * Output is in key order; within a key, left-major in input order.
+     */
+    static List<Row> mergeEquiJoin(List<Row> leftRows, List<Row> rightRows, int[] leftKeys, int[] rightKeys,
+                                   int leftWidth, int rightWidth, boolean preserveLeft, boolean preserveRight,
+                                   PartitionedHashJoin.JoinPredicate residual) {
+        List<Row> result = new ArrayList<>();
+        boolean[] rightMatched = new boolean[rightRows.size()];
+        Row nullLeft = new Row(0L, new Object[leftWidth]);
+        Row nullRight = new Row(0L, new Object[rightWidth]);
+
+        int l = 0;
+        int r = 0;
+        while (l < leftRows.size()) {
+            Object[] leftData = leftRows.get(l).getData();
+            if (hasNullKey(leftData, leftKeys)) {
+                if (preserveLeft) {
+                    result.add(combine(leftRows.get(l), nullRight));
+                }
+                l++;
+                continue;
+            }
+
+            // Skip right rows with smaller (or NULL) keys
+            while (r < rightRows.size()
+                    && (hasNullKey(rightRows.get(r).getData(), rightKeys)
+                        || compareRowKeys(rightRows.get(r).getData(), rightKeys, leftData, leftKeys) < 0)) {
+                r++;
+            }
+
+            // Find the right group sharing this key
+            int groupEnd = r;
+            while (groupEnd < rightRows.size()
+                    && compareRowKeys(rightRows.get(groupEnd).getData(), rightKeys, leftData, leftKeys) == 0) {
+                groupEnd++;
+            }
+
+            // Join every left row with the same key against the right group
+            while (l < leftRows.size()
+                    && compareRowKeys(leftRows.get(l).getData(), leftKeys, leftData, leftKeys) == 0) {
+                Row leftRow = leftRows.get(l);
+                boolean matched = false;
+                for (int g = r; g < groupEnd; g++) {
+                    Row rightRow = rightRows.get(g);
+                    if (residual == null || residual.test(leftRow, rightRow)) {
+                        result.add(combine(leftRow, rightRow));
+                        rightMatched[g] = true;
+                        matched = true;
+                    }
+                }
+                if (!matched && preserveLeft) {
+                    result.add(combine(leftRow, nullRight));
+                }
+                l++;
+            }
+            r = groupEnd;
+        }
+
+        if (preserveRight) {
+            for (int g = 0; g < rightRows.size(); g++) {
+                if (!rightMatched[g]) {
+                    result.add(combine(nullLeft, rightRows.get(g)));
+                }
+            }
+        }
+
+        logger.debug("Merge join produced {} rows from {} x {} inputs", result.size(), leftRows.size(), rightRows.size());
+        return result;
+    }
+
+    /**
+     * Join on a range condition by sorting both sides and sweeping the point values in order.
+     * Output is ordered by the point value.
+     */
+    static List<Row> bandJoin(List<Row> leftRows, List<Row> rightRows, RangeCondition condition,
+                              int leftWidth, int rightWidth, boolean preserveLeft, boolean preserveRight,
+                              PartitionedHashJoin.JoinPredicate residual) {
+        List<Row> pointRows = condition.pointIsLeft ? leftRows : rightRows;
+        List<Row> boundRows = condition.pointIsLeft ? rightRows : leftRows;
+        boolean[] pointMatched = new boolean[pointRows.size()];
+        boolean[] boundMatched = new boolean[boundRows.size()];
+        List<Row> result = new ArrayList<>();
+
+        int pointIndex = condition.pointIndex;
+        Integer[] points = sortedIndexes(pointRows, pointIndex, -1);
+
+        boolean hasLower = condition.lowerIndex >= 0;
+        boolean hasUpper = condition.upperIndex >= 0;
+        int sortIndex = hasLower ? condition.lowerIndex : condition.upperIndex;
+        Integer[] bounds = sortedIndexes(boundRows, sortIndex, hasLower && hasUpper ? condition.upperIndex : -1);
+
+        if (hasLower && hasUpper) {
+            // Sweep: admit intervals whose lower bound is passed, evict those whose upper bound is behind
+            PriorityQueue<Integer> active = new PriorityQueue<>(
+                Comparator.comparing((Integer b) -> boundRows.get(b).getData()[condition.upperIndex], SortMergeJoin::compareKeys));
+            int next = 0;
+            for (Integer p : points) {
+                Object value = pointRows.get(p).getData()[pointIndex];
+                while (next < bounds.length
+                        && satisfiesLower(boundRows.get(bounds[next]).getData()[condition.lowerIndex], value, condition.lowerInclusive)) {
+                    active.add(bounds[next++]);
+                }
+                while (!active.isEmpty()
+                        && !satisfiesUpper(value, boundRows.get(active.peek()).getData()[condition.upperIndex], condition.upperInclusive)) {
+                    active.poll();
+                }
+                for (Integer b : active) {
+                    emit(result, pointRows.get(p), boundRows.get(b), condition.pointIsLeft, residual, pointMatched, p, boundMatched, b);
+                }
+            }
+        } else if (hasLower) {
+            // Matching bounds form a growing prefix of the lower-bound order
+            int prefix = 0;
+            for (Integer p : points) {
+                Object value = pointRows.get(p).getData()[pointIndex];
+                while (prefix < bounds.length
+                        && satisfiesLower(boundRows.get(bounds[prefix]).getData()[condition.lowerIndex], value, condition.lowerInclusive)) {
+                    prefix++;
+                }
+                for (int i = 0; i < prefix; i++) {
+                    emit(result, pointRows.get(p), boundRows.get(bounds[i]), condition.pointIsLeft, residual, pointMatched, p, boundMatched, bounds[i]);
+                }
+            }
+        } else {
+            // Matching bounds form a shrinking suffix of the upper-bound order
+            int start = 0;
+            for (Integer p : points) {
+                Object value = pointRows.get(p).getData()[pointIndex];
+                while (start < bounds.length
+                        && !satisfiesUpper(value, boundRows.get(bounds[start]).getData()[condition.upperIndex], condition.upperInclusive)) {
+                    start++;
+                }
+                for (int i = start; i < bounds.length; i++) {
+                    emit(result, pointRows.get(p), boundRows.get(bounds[i]), condition.pointIsLeft, residual, pointMatched, p, boundMatched, bounds[i]);
+                }
+            }
+        }
+
+        boolean preservePoint = condition.pointIsLeft ? preserveLeft : preserveRight;
+        boolean preserveBound = condition.pointIsLeft ? preserveRight : preserveLeft;
+        Row nullLeft = new Row(0L, new Object[leftWidth]);
+        Row nullRight = new Row(0L, new Object[rightWidth]);
+        if (preservePoint) {
+            for (int p = 0; p < pointRows.size(); p++) {
+                if (!pointMatched[p]) {
+                    result.add(condition.pointIsLeft ? combine(pointRows.get(p), nullRight) : combine(nullLeft, pointRows.get(p)));
+                }
+            }
+        }
+        if (preserveBound) {
+            for (int b = 0; b < boundRows.size(); b++) {
+                if (!boundMatched[b]) {
+                    result.add(condition.pointIsLeft ? combine(nullLeft, boundRows.get(b)) : combine(boundRows.get(b), nullRight));
+                }
+            }
+        }
+
+        logger.debug("Band join produced {} rows from {} x {} inputs", result.size(), leftRows.size(), rightRows.size());
+        return result;
+    }
+
+    private static void emit(List<Row> result, Row pointRow, Row boundRow, boolean pointIsLeft,
+                             PartitionedHashJoin.JoinPredicate residual,
+                             boolean[] pointMatched, int p, boolean[] boundMatched, int b) {
+        Row leftRow = pointIsLeft ? pointRow : boundRow;
+        Row rightRow = pointIsLeft ? boundRow : pointRow;
+        if (residual == null || residual.test(leftRow, rightRow)) {
+            result.add(combine(leftRow, rightRow));
+            pointMatched[p] = true;
+            boundMatched[b] = true;
+        }
+    }
+
+    private static boolean satisfiesLower(Object lower, Object value, boolean inclusive) {
+        int cmp = compareKeys(lower, value);
+        return inclusive ? cmp <= 0 : cmp < 0;
+    }
+
+    private static boolean satisfiesUpper(Object value, Object upper, boolean inclusive) {
+        int cmp = compareKeys(value, upper);
+        return inclusive ? cmp <= 0 : cmp < 0;
+    }
+
+    /**
+     * Indexes of rows whose sort column (and optional extra column) is non-null, ordered by the sort column.
+     */
+    private static Integer[] sortedIndexes(List<Row> rows, int sortIndex, int requiredIndex) {
+        List<Integer> indexes = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] data = rows.get(i).getData();
+            if (data[sortIndex] != null && (requiredIndex < 0 || data[requiredIndex] != null)) {
+                indexes.add(i);
+            }
+        }
+        Integer[] sorted = indexes.toArray(new Integer[0]);
+        Arrays.sort(sorted, (a, b) -> compareKeys(rows.get(a).getData()[sortIndex], rows.get(b).getData()[sortIndex]));
+        return sorted;
+    }
+
+    private static Row combine(Row left, Row right) {
+        Object[] leftData = left.getData();
+        Object[] rightData = right.getData();
+        Object[] combined = new Object[leftData.length + rightData.length];
+        System.arraycopy(leftData, 0, combined, 0, leftData.length);
+        System.arraycopy(rightData, 0, combined, leftData.length, rightData.length);
+        return new Row(left.getId(), combined);
+    }
+}
@@ -0,0 +1,395 @@
+package com.memgres.sql.execution;
+
+import com.memgres.types.Row;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Temporary file of rows written by operators that exceed their work memory.
+ *
+ * <p>Rows are appended through a buffered {@link FileChannel} as length-prefixed records in a
+ * compact tagged encoding: fixed-width primitives for numbers, booleans, dates and UUIDs,
+ * UTF-8 for strings, and Java serialization only as a fallback for other serializable
+ * values. Once writing is finished the rows can be read back, in write order, any number of
+ * times. Closing the file deletes it.
+ */
+final class SpillFile implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_INTEGER = 1;
+    private static final byte TAG_LONG = 2;
+    private static final byte TAG_DOUBLE = 3;
+    private static final byte TAG_STRING = 4;
+    private static final byte TAG_TRUE = 5;
+    private static final byte TAG_FALSE = 6;
+    private static final byte TAG_SHORT = 7;
+    private static final byte TAG_BYTE = 8;
+    private static final byte TAG_FLOAT = 9;
+    private static final byte TAG_DECIMAL = 10;
+    private static final byte TAG_DATE = 11;
+    private static final byte TAG_TIME = 12;
+    private static final byte TAG_TIMESTAMP = 13;
+    private static final byte TAG_UUID = 14;
+    private static final byte TAG_BYTES = 15;
+    private static final byte TAG_SERIALIZED = 16;
+
+    private final Path path;
+    private final FileChannel channel;
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private ByteBuffer record = ByteBuffer.allocate(1024);
+    private long rowCount;
+    private boolean writing = true;
+
+    private SpillFile(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Create an empty spill file in the given directory.
+     */
+    static SpillFile create(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path path = Files.createTempFile(directory, "memgres-spill-", ".tmp");
+        try {
+            return new SpillFile(path);
+        } catch (IOException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    /**
+     * Append a row.
+     */
+    void write(Row row) throws IOException {
+        if (!writing) {
+            throw new IllegalStateException("Spill file already finished: " + path);
+        }
+        encode(row);
+        int length = record.position();
+        if (writeBuffer.remaining() < length + 4) {
+            flushWriteBuffer();
+            if (writeBuffer.capacity() < length + 4) {
+                writeBuffer = ByteBuffer.allocate(length + 4);
+            }
+        }
+        writeBuffer.putInt(length);
+        writeBuffer.put(record.array(), 0, length);
+        rowCount++;
+    }
+
+    /**
+     * Flush buffered rows; no further rows can be written.
+     */
+    void finishWriting() throws IOException {
+        if (writing) {
+            flushWriteBuffer();
+            writing = false;
+            writeBuffer = null;
+            record = null;
+        }
+    }
+
+    long getRowCount() {
+        return rowCount;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Read the rows back in write order. I/O errors surface as {@link UncheckedIOException}.
+     */
+    Iterator<Row> rows() throws IOException {
+        finishWriting();
+        return new RowIterator();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private void flushWriteBuffer() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
+    private void encode(Row row) throws IOException {
+        while (true) {
+            record.clear();
+            try {
+                Object[] data = row.getData();
+                record.putLong(row.getId());
+                record.putInt(data.length);
+                for (Object value : data) {
+                    encodeValue(value);
+                }
+                return;
+            } catch (BufferOverflowException e) {
+                record = ByteBuffer.allocate(record.capacity() * 2);
+            }
+        }
+    }
+
+    private void encodeValue(Object value) throws IOException {
+        if (value == null) {
+            record.put(TAG_NULL);
+        } else if (value instanceof Integer) {
+            record.put(TAG_INTEGER).putInt((Integer) value);
+        } else if (value instanceof Long) {
+            record.put(TAG_LONG).putLong((Long) value);
+        } else if (value instanceof Double) {
+            record.put(TAG_DOUBLE).putDouble((Double) value);
+        } else if (value instanceof String) {
+            putBytes(TAG_STRING, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Boolean) {
+            record.put((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Short) {
+            record.put(TAG_SHORT).putShort((Short) value);
+        } else if (value instanceof Byte) {
+            record.put(TAG_BYTE).put((Byte) value);
+        } else if (value instanceof Float) {
+            record.put(TAG_FLOAT).putFloat((Float) value);
+        } else if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) value;
+            record.put(TAG_DECIMAL).putInt(decimal.scale());
+            byte[] unscaled = decimal.unscaledValue().toByteArray();
+            record.putInt(unscaled.length).put(unscaled);
+        } else if (value instanceof LocalDate) {
+            record.put(TAG_DATE).putLong(((LocalDate) value).toEpochDay());
+        } else if (value instanceof LocalTime) {
+            record.put(TAG_TIME).putLong(((LocalTime) value).toNanoOfDay());
+        } else if (value instanceof LocalDateTime) {
+            LocalDateTime timestamp = (LocalDateTime) value;
+            record.put(TAG_TIMESTAMP)
+                .putLong(timestamp.toLocalDate().toEpochDay())
+                .putLong(timestamp.toLocalTime().toNanoOfDay());
+        } else if (value instanceof UUID) {
+            UUID uuid = (UUID) value;
+            record.put(TAG_UUID).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+        } else if (value instanceof byte[]) {
+            putBytes(TAG_BYTES, (byte[]) value);
+        } else if (value instanceof Serializable) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(value);
+            }
+            putBytes(TAG_SERIALIZED, bytes.toByteArray());
+        } else {
+            throw new IOException("Cannot spill value of type " + value.getClass().getName());
+        }
+    }
+
+    private void putBytes(byte tag, byte[] bytes) {
+        record.put(tag).putInt(bytes.length).put(bytes);
+    }
+
+    private static Row decode(ByteBuffer buffer) throws IOException {
+        long id = buffer.getLong();
+        Object[] data = new Object[buffer.getInt()];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = decodeValue(buffer);
+        }
+        return new Row(id, data);
+    }
+
+    private static Object decodeValue(ByteBuffer buffer) throws IOException {
+        byte tag = buffer.get();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_INTEGER:
+                return buffer.getInt();
+            case TAG_LONG:
+                return buffer.getLong();
+            case TAG_DOUBLE:
+                return buffer.getDouble();
+            case TAG_STRING:
+                return new String(getBytes(buffer), StandardCharsets.UTF_8);
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_SHORT:
+                return buffer.getShort();
+            case TAG_BYTE:
+                return buffer.get();
+            case TAG_FLOAT:
+                return buffer.getFloat();
+            case TAG_DECIMAL:
+                int scale = buffer.getInt();
+                return new BigDecimal(new BigInteger(getBytes(buffer)), scale);
+            case TAG_DATE:
+                return LocalDate.ofEpochDay(buffer.getLong());
+            case TAG_TIME:
+                return LocalTime.ofNanoOfDay(buffer.getLong());
+            case TAG_TIMESTAMP:
+                LocalDate date = LocalDate.ofEpochDay(buffer.getLong());
+                return LocalDateTime.of(date, LocalTime.ofNanoOfDay(buffer.getLong()));
+            case TAG_UUID:
+                return new UUID(buffer.getLong(), buffer.getLong());
+            case TAG_BYTES:
+                return getBytes(buffer);
+            case TAG_SERIALIZED:
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(getBytes(buffer)))) {
+                    return in.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("Cannot read spilled value", e);
+                }
+            default:
+                throw new IOException("Corrupt spill record: unknown value tag " + tag);
+        }
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Rough heap footprint of a row, used by operators to account for their work memory.
+     */
+    static long estimateRowBytes(Object[] data) {
+        long bytes = 32 + 8L * data.length;
+        for (Object value : data) {
+            bytes += estimateValueBytes(value);
+        }
+        return bytes;
+    }
+
+    static long estimateValueBytes(Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof Boolean || value instanceof Float) {
+            return 16;
+        } else if (value instanceof Long || value instanceof Double || value instanceof LocalDate) {
+            return 24;
+        } else if (value instanceof String) {
+            return 40 + 2L * ((String) value).length();
+        } else if (value instanceof byte[]) {
+            return 16 + ((byte[]) value).length;
+        } else {
+            return 64;
+        }
+    }
+
+    /**
+     * Sequential reader over the finished file, using positional reads on the shared channel.
+     */
+    private final class RowIterator implements Iterator<Row> {
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private ByteBuffer recordBuffer = buffer;
+        private long position;
+        private long remainingRows = rowCount;
+
+        RowIterator() {
+            buffer.limit(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remainingRows > 0;
+        }
+
+        @Override
+        public Row next() {
+            if (remainingRows == 0) {
+                throw new NoSuchElementException();
+            }
+            try {
+                fill(4);
+                int length = buffer.getInt();
+                ByteBuffer source;
+                if (length <= buffer.capacity()) {
+                    fill(length);
+                    source = buffer;
+                } else {
+                    // Oversized record: read it into its own buffer
+                    if (recordBuffer.capacity() < length) {
+                        recordBuffer = ByteBuffer.allocate(length);
+                    }
+                    recordBuffer.clear().limit(length);
+                    int buffered = buffer.remaining();
+                    recordBuffer.put(buffer);
+                    readFully(recordBuffer, position);
+                    position += length - buffered;
+                    recordBuffer.flip();
+                    source = recordBuffer;
+                }
+                int end = source.position() + length;
+                Row row = decode(source);
+                source.position(end);
+                remainingRows--;
+                return row;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read spill file " + path, e);
+            }
+        }
+
+        /**
+         * Make sure at least {@code bytes} unread bytes are in the buffer.
+         */
+        private void fill(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            buffer.compact();
+            int target = Math.min(buffer.capacity(), buffer.position() + (int) Math.min(Integer.MAX_VALUE, channel.size() - position));
+            buffer.limit(target);
+            int before = buffer.position();
+            readFully(buffer, position);
+            position += buffer.position() - before;
+            buffer.flip();
+            if (buffer.remaining() < bytes) {
+                throw new IOException("Truncated spill file " + path);
+            }
+        }
+
+        private void readFully(ByteBuffer target, long from) throws IOException {
+            long offset = from;
+            while (target.hasRemaining()) {
+                int read = channel.read(target, offset);
+                if (read < 0) {
+                    throw new IOException("Truncated spill file " + path);
+                }
+                offset += read;
+            }
+        }
+    }
+}
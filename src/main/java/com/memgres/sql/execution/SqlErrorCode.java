@@ -37,6 +37,10 @@ public enum SqlErrorCode {
     INVALID_CONFIGURATION_KEY(42801, "Invalid configuration key: %s"),
     INVALID_CONFIGURATION_VALUE(42802, "Invalid configuration value for %s: %s"),
     
+    // Cursor errors (34000-34999)
+    CURSOR_NOT_FOUND(34000, "Cursor \"%s\" does not exist"),
+    CURSOR_ALREADY_EXISTS(34001, "Cursor \"%s\" already exists"),
+    
     // General execution errors (50000-59999)
     GENERAL_ERROR(50000, "General error: %s"),
     FEATURE_NOT_SUPPORTED(50001, "Feature not supported: %s"),
@@ -1,6 +1,7 @@
 package com.memgres.sql.execution;
 
 import com.memgres.core.MemGresEngine;
+import com.memgres.sql.ast.statement.CopyStatement;
 import com.memgres.sql.ast.statement.Statement;
 import com.memgres.sql.parser.SqlParser;
 import com.memgres.sql.parser.SqlParseException;
@@ -10,6 +11,13 @@ import com.memgres.transaction.TransactionIsolationLevel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.List;
 
 /**
@@ -49,9 +57,97 @@ public class SqlExecutionEngine {
      * @throws SqlExecutionException if execution fails
      */
     public SqlExecutionResult execute(String sql, TransactionIsolationLevel isolationLevel) throws SqlExecutionException {
+        return execute(prepare(sql), List.of(), isolationLevel);
+    }
+    
+    /**
+     * Parse a SQL string once, for executions that bind its parameter placeholders. The parse
+     * is taken from the engine's statement cache when the same text was parsed before.
+     * 
+     * @param sql the SQL statement, possibly with {@code ?} placeholders
+     * @return the parsed query
+     * @throws SqlExecutionException if the SQL cannot be parsed
+     */
+    public PreparedQuery prepare(String sql) throws SqlExecutionException {
         try {
-            // Parse SQL into AST statements
-            List<Statement> statements = sqlParser.parse(sql);
+            return engine.getStatementCache().get(sql, sqlParser);
+        } catch (SqlParseException e) {
+            throw new SqlExecutionException("Failed to parse SQL: " + sql, e);
+        }
+    }
+    
+    /**
+     * Execute a prepared query with values for its parameter placeholders.
+     * 
+     * @param query the prepared query
+     * @param parameters the placeholder values, in position order
+     * @return the execution result
+     * @throws SqlExecutionException if execution fails
+     */
+    public SqlExecutionResult execute(PreparedQuery query, List<Object> parameters) throws SqlExecutionException {
+        return execute(query, parameters, TransactionIsolationLevel.READ_COMMITTED);
+    }
+    
+    /**
+     * Execute a prepared query with values for its parameter placeholders and the specified
+     * transaction isolation level.
+     * 
+     * @param query the prepared query
+     * @param parameters the placeholder values, in position order
+     * @param isolationLevel the transaction isolation level
+     * @return the execution result
+     * @throws SqlExecutionException if execution fails
+     */
+    public SqlExecutionResult execute(PreparedQuery query, List<Object> parameters,
+                                      TransactionIsolationLevel isolationLevel) throws SqlExecutionException {
+        return execute(query, parameters, isolationLevel, false);
+    }
+    
+    /**
+     * Execute a SQL statement string, returning the rows of a SELECT through a cursor.
+     * 
+     * @param sql the SQL statement to execute
+     * @return the execution result
+     * @throws SqlExecutionException if execution fails
+     * @see #executeCursor(PreparedQuery, List)
+     */
+    public SqlExecutionResult executeCursor(String sql) throws SqlExecutionException {
+        return execute(prepare(sql), List.of(), TransactionIsolationLevel.READ_COMMITTED, true);
+    }
+    
+    /**
+     * Execute a prepared query, returning the rows of a SELECT through a cursor. Rows whose
+     * SELECT list only reads columns are projected as they are fetched from
+     * {@link SqlExecutionResult#getCursor()}, so a large result is never held in memory at once.
+     * Other statements return their usual result.
+     * 
+     * @param query the prepared query
+     * @param parameters the placeholder values, in position order
+     * @return the execution result
+     * @throws SqlExecutionException if execution fails
+     */
+    public SqlExecutionResult executeCursor(PreparedQuery query, List<Object> parameters) throws SqlExecutionException {
+        return execute(query, parameters, TransactionIsolationLevel.READ_COMMITTED, true);
+    }
+    
+    /**
+     * Close the cursors opened with DECLARE on this engine, releasing their rows and spill files.
+     * Connections call this when a transaction ends, and with {@code includeHoldable} when they
+     * are closed, since declared cursors otherwise stay open until CLOSE.
+     * 
+     * @param includeHoldable whether to close WITH HOLD cursors too, as CLOSE ALL does
+     * @return the number of cursors closed
+     */
+    public int closeCursors(boolean includeHoldable) {
+        return statementExecutor.closeCursors(includeHoldable);
+    }
+    
+    private SqlExecutionResult execute(PreparedQuery query, List<Object> parameters,
+                                       TransactionIsolationLevel isolationLevel, boolean openCursor)
+            throws SqlExecutionException {
+        String sql = query.getSql();
+        try {
+            List<Statement> statements = query.getStatements();
             
             // Check if we already have a transaction context
             Transaction existingTransaction = TransactionContext.getCurrentTransaction();
@@ -69,9 +165,12 @@ public class SqlExecutionEngine {
             try {
                 SqlExecutionResult result = null;
                 
-                // Execute each statement
-                for (Statement statement : statements) {
-                    result = statementExecutor.executeWithMonitoring(statement, sql);
+                // Execute each statement; only the last one's rows can be returned through a cursor
+                for (int i = 0; i < statements.size(); i++) {
+                    Statement statement = statements.get(i);
+                    result = openCursor && i == statements.size() - 1
+                        ? statementExecutor.executeCursor(statement, sql, parameters)
+                        : statementExecutor.executeWithMonitoring(statement, sql, parameters);
                 }
                 
                 // Only commit and clear context if we created the transaction
@@ -99,8 +198,6 @@ public class SqlExecutionEngine {
                 }
             }
             
-        } catch (SqlParseException e) {
-            throw new SqlExecutionException("Failed to parse SQL: " + sql, e);
         } catch (SqlExecutionException e) {
             // Re-throw SqlExecutionException without wrapping to preserve original error message
             throw e;
@@ -109,9 +206,166 @@ public class SqlExecutionEngine {
         }
     }
     
+    /**
+     * Execute a prepared query once for each set of parameter values, in a single transaction.
+     * The query is not parsed again, and the rows of a batched INSERT are built first and then
+     * inserted together. A parameter set that fails is reported in its update count and does
+     * not stop the others.
+     *
+     * @param query the prepared query
+     * @param parameterSets the placeholder values of each execution, in position order
+     * @return the update count of each execution, as for {@link java.sql.Statement#executeBatch()}
+     * @throws SqlExecutionException if the batch cannot be executed at all
+     */
+    public int[] executeBatch(PreparedQuery query, List<List<Object>> parameterSets) throws SqlExecutionException {
+        String sql = query.getSql();
+        Transaction existingTransaction = TransactionContext.getCurrentTransaction();
+        boolean useExistingTransaction = existingTransaction != null;
+
+        Transaction transaction;
+        if (useExistingTransaction) {
+            transaction = existingTransaction;
+        } else {
+            transaction = engine.getTransactionManager().beginTransaction(TransactionIsolationLevel.READ_COMMITTED);
+            TransactionContext.setCurrentTransaction(transaction);
+        }
+
+        try {
+            int[] counts = new int[parameterSets.size()];
+            for (Statement statement : query.getStatements()) {
+                counts = statementExecutor.executeBatch(statement, sql, parameterSets);
+            }
+
+            if (!useExistingTransaction) {
+                engine.getTransactionManager().commitTransaction(transaction);
+            }
+            logger.debug("Successfully executed batch of {} parameter sets: {}", parameterSets.size(), sql);
+            return counts;
+
+        } catch (Exception e) {
+            if (!useExistingTransaction) {
+                engine.getTransactionManager().rollbackTransaction(transaction);
+            }
+            if (e instanceof SqlExecutionException) {
+                throw (SqlExecutionException) e;
+            }
+            throw new SqlExecutionException("Failed to execute SQL batch: " + sql, e);
+        } finally {
+            if (!useExistingTransaction) {
+                TransactionContext.setCurrentTransaction(null);
+            }
+        }
+    }
+
+    /**
+     * Execute a {@code COPY ... FROM STDIN}, reading its rows from a character stream.
+     *
+     * @param sql the COPY statement
+     * @param in the data, in the format given by the statement's options
+     * @return the number of rows loaded
+     * @throws SqlExecutionException if the statement is not a COPY FROM or the data cannot be loaded
+     */
+    public long copyIn(String sql, Reader in) throws SqlExecutionException {
+        return copy(sql, CopyStatement.Direction.FROM, statement -> statementExecutor.executeCopyFrom(statement, in));
+    }
+
+    /**
+     * Execute a {@code COPY ... FROM STDIN}, reading its rows from a byte stream in the
+     * statement's ENCODING.
+     *
+     * @param sql the COPY statement
+     * @param in the data, in the format given by the statement's options
+     * @return the number of rows loaded
+     * @throws SqlExecutionException if the statement is not a COPY FROM or the data cannot be loaded
+     */
+    public long copyIn(String sql, InputStream in) throws SqlExecutionException {
+        return copy(sql, CopyStatement.Direction.FROM, statement -> statementExecutor.executeCopyFrom(statement,
+            new InputStreamReader(in, CopyFormat.of(statement.getOptions()).getEncoding())));
+    }
+
+    /**
+     * Execute a {@code COPY ... TO STDOUT}, writing its rows to a character stream.
+     *
+     * @param sql the COPY statement
+     * @param out the destination of the data
+     * @return the number of rows written
+     * @throws SqlExecutionException if the statement is not a COPY TO or the data cannot be written
+     */
+    public long copyOut(String sql, Writer out) throws SqlExecutionException {
+        return copy(sql, CopyStatement.Direction.TO, statement -> statementExecutor.executeCopyTo(statement, out));
+    }
+
+    /**
+     * Execute a {@code COPY ... TO STDOUT}, writing its rows to a byte stream in the
+     * statement's ENCODING.
+     *
+     * @param sql the COPY statement
+     * @param out the destination of the data
+     * @return the number of rows written
+     * @throws SqlExecutionException if the statement is not a COPY TO or the data cannot be written
+     */
+    public long copyOut(String sql, OutputStream out) throws SqlExecutionException {
+        return copy(sql, CopyStatement.Direction.TO, statement -> {
+            Writer writer = new BufferedWriter(
+                new OutputStreamWriter(out, CopyFormat.of(statement.getOptions()).getEncoding()));
+            return statementExecutor.executeCopyTo(statement, writer);
+        });
+    }
+
+    private long copy(String sql, CopyStatement.Direction direction, CopyOperation operation)
+            throws SqlExecutionException {
+        List<Statement> statements = prepare(sql).getStatements();
+        if (statements.size() != 1 || !(statements.get(0) instanceof CopyStatement)
+                || ((CopyStatement) statements.get(0)).getDirection() != direction) {
+            throw new SqlExecutionException("Expected a single COPY " + direction + " statement: " + sql);
+        }
+        CopyStatement statement = (CopyStatement) statements.get(0);
+        if (statement.getFileName().isPresent()) {
+            throw new SqlExecutionException("COPY " + direction + " a file cannot be used with a stream: " + sql);
+        }
+
+        Transaction existingTransaction = TransactionContext.getCurrentTransaction();
+        boolean useExistingTransaction = existingTransaction != null;
+
+        Transaction transaction;
+        if (useExistingTransaction) {
+            transaction = existingTransaction;
+        } else {
+            transaction = engine.getTransactionManager().beginTransaction(TransactionIsolationLevel.READ_COMMITTED);
+            TransactionContext.setCurrentTransaction(transaction);
+        }
+
+        try {
+            long count = operation.execute(statement);
+            if (!useExistingTransaction) {
+                engine.getTransactionManager().commitTransaction(transaction);
+            }
+            logger.debug("Successfully copied {} rows: {}", count, sql);
+            return count;
+
+        } catch (Exception e) {
+            if (!useExistingTransaction) {
+                engine.getTransactionManager().rollbackTransaction(transaction);
+            }
+            if (e instanceof SqlExecutionException) {
+                throw (SqlExecutionException) e;
+            }
+            throw new SqlExecutionException("Failed to execute COPY: " + sql, e);
+        } finally {
+            if (!useExistingTransaction) {
+                TransactionContext.setCurrentTransaction(null);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface CopyOperation {
+        long execute(CopyStatement statement) throws Exception;
+    }
+
     /**
      * Execute multiple SQL statements in a single transaction.
-     * 
+     *
      * @param sqlStatements the SQL statements to execute
      * @return the result of the last statement
      * @throws SqlExecutionException if execution fails
@@ -139,7 +393,7 @@ public class SqlExecutionEngine {
             
             // Execute each SQL statement
             for (String sql : sqlStatements) {
-                List<Statement> statements = sqlParser.parse(sql);
+                List<Statement> statements = prepare(sql).getStatements();
                 
                 for (Statement statement : statements) {
                     result = statementExecutor.executeWithMonitoring(statement, sql);
@@ -17,13 +17,15 @@ public class SqlExecutionResult {
         UPDATE,    // UPDATE statement - returns affected rows count  
         DELETE,    // DELETE statement - returns affected rows count
         MERGE,     // MERGE statement - returns affected rows count
+        COPY,      // COPY statement - returns copied rows count
         DDL,       // CREATE/DROP statement - returns success/failure
         EMPTY      // No result
     }
     
     private final ResultType type;
     private final List<Column> columns;
-    private final List<Row> rows;
+    private List<Row> rows;
+    private final RowCursor cursor;
     private final int affectedRows;
     private final boolean success;
     private final String message;
@@ -36,6 +38,18 @@ public class SqlExecutionResult {
         this.affectedRows = rows.size();
         this.success = true;
         this.message = "SELECT completed successfully";
+        this.cursor = null;
+    }
+    
+    // Constructor for SELECT results fetched in batches from a cursor
+    public SqlExecutionResult(RowCursor cursor) {
+        this.type = ResultType.SELECT;
+        this.columns = cursor.getColumns();
+        this.rows = null;
+        this.affectedRows = cursor.getRowCount();
+        this.success = true;
+        this.message = "SELECT completed successfully";
+        this.cursor = cursor;
     }
     
     // Constructor for INSERT/UPDATE/DELETE results
@@ -49,6 +63,7 @@ public class SqlExecutionResult {
         this.affectedRows = affectedRows;
         this.success = true;
         this.message = type + " completed successfully";
+        this.cursor = null;
     }
     
     // Constructor for DDL results
@@ -62,6 +77,7 @@ public class SqlExecutionResult {
         this.affectedRows = 0;
         this.success = success;
         this.message = message;
+        this.cursor = null;
     }
     
     // Constructor for empty results
@@ -72,6 +88,7 @@ public class SqlExecutionResult {
         this.affectedRows = 0;
         this.success = true;
         this.message = "No operation performed";
+        this.cursor = null;
     }
     
     public static SqlExecutionResult empty() {
@@ -86,10 +103,37 @@ public class SqlExecutionResult {
         return columns;
     }
     
+    /**
+     * Get the result rows. The rows of a cursor result are fetched from the cursor on the first
+     * call, which leaves the cursor exhausted.
+     */
     public List<Row> getRows() {
+        if (rows == null) {
+            try {
+                rows = cursor.fetch(-1);
+            } catch (SqlExecutionException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
         return rows;
     }
     
+    /**
+     * Get the number of result rows without fetching the rows of a cursor result.
+     */
+    public int getRowCount() {
+        return rows != null ? rows.size() : cursor.getRowCount();
+    }
+    
+    /**
+     * Get the cursor of a result opened for fetching in batches.
+     * 
+     * @return the cursor, or null if the rows are materialized
+     */
+    public RowCursor getCursor() {
+        return cursor;
+    }
+    
     public int getAffectedRows() {
         return affectedRows;
     }
@@ -106,7 +150,7 @@ public class SqlExecutionResult {
     public String toString() {
         switch (type) {
             case SELECT:
-                return String.format("SELECT: %d rows returned", rows.size());
+                return String.format("SELECT: %d rows returned", getRowCount());
             case INSERT:
             case UPDATE:
             case DELETE:
@@ -0,0 +1,73 @@
+package com.memgres.sql.execution;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.memgres.monitoring.PerformanceMonitor;
+import com.memgres.sql.parser.SqlParseException;
+import com.memgres.sql.parser.SqlParser;
+
+/**
+ * Bounded cache of parsed SQL text, shared by every {@link SqlExecutionEngine} of an engine.
+ * Applications and ORMs send the same few hundred statements over and over, and parsing them
+ * again each time costs more than executing many of them.
+ *
+ * <p>Entries are immutable {@link PreparedQuery} objects, so concurrent executions share them.
+ * A parsed statement only names the tables it reads and resolves them when it executes, so
+ * DDL never makes an entry stale and no invalidation is needed when the schema changes. Text
+ * that fails to parse is not cached, and neither is very long text such as generated bulk
+ * inserts, which is rarely sent twice and would push the statements that are out of the cache.
+ */
+public final class StatementCache {
+
+    /** Longest SQL text that is cached. */
+    static final int MAX_CACHED_SQL_LENGTH = 8 * 1024;
+
+    private final Cache<String, PreparedQuery> cache;
+    private final PerformanceMonitor performanceMonitor;
+
+    public StatementCache(long maximumSize) {
+        this.cache = Caffeine.newBuilder().maximumSize(maximumSize).build();
+        this.performanceMonitor = PerformanceMonitor.getInstance();
+    }
+
+    /**
+     * The cached parse of a SQL string, parsing and caching it on a miss.
+     */
+    PreparedQuery get(String sql, SqlParser parser) throws SqlParseException {
+        if (sql.length() > MAX_CACHED_SQL_LENGTH) {
+            return new PreparedQuery(sql, parser.parse(sql));
+        }
+        PreparedQuery query = cache.getIfPresent(sql);
+        if (query != null) {
+            performanceMonitor.recordStatementCacheEvent(PerformanceMonitor.StatementCacheEvent.HIT);
+            return query;
+        }
+        performanceMonitor.recordStatementCacheEvent(PerformanceMonitor.StatementCacheEvent.MISS);
+        // Two threads may parse the same text at once; either result is equally good
+        query = new PreparedQuery(sql, parser.parse(sql));
+        cache.put(sql, query);
+        return query;
+    }
+
+    /**
+     * Change the number of statements the cache holds, evicting entries if it shrinks.
+     */
+    public void setMaximumSize(long maximumSize) {
+        cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maximumSize));
+    }
+
+    /**
+     * The approximate number of cached statements.
+     */
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Remove all cached statements.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
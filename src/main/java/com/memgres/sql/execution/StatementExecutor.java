@@ -30,6 +30,17 @@ import com.memgres.types.Row;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.sql.Connection;
 import java.sql.SQLException;
 
@@ -42,10 +53,21 @@ import java.util.stream.Collectors;
 public class StatementExecutor implements AstVisitor<SqlExecutionResult, ExecutionContext> {
     private static final Logger logger = LoggerFactory.getLogger(StatementExecutor.class);
     
+    /** Rows of a COPY FROM inserted with each bulk table insert */
+    private static final int COPY_BATCH_SIZE = 10_000;
+    /** Buffer size for writing the file of a COPY TO */
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    
     private final MemGresEngine engine;
     private final ExpressionEvaluator expressionEvaluator;
     private final PerformanceMonitor performanceMonitor;
     private final QueryAnalyzer queryAnalyzer;
+    private final ViewInliner viewInliner;
+    
+    // Cursors opened with DECLARE, by lower-case name, until they are closed
+    private final Map<String, RowCursor> cursors = new java.util.concurrent.ConcurrentHashMap<>();
+    // Declared cursors that stay open when a transaction ends (WITH HOLD)
+    private final Set<RowCursor> holdableCursors = java.util.concurrent.ConcurrentHashMap.newKeySet();
     private QueryPlanner queryPlanner;
     
     public StatementExecutor(MemGresEngine engine) {
@@ -53,6 +75,7 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
         this.expressionEvaluator = new ExpressionEvaluator(engine);
         this.performanceMonitor = PerformanceMonitor.getInstance();
         this.queryAnalyzer = QueryAnalyzer.getInstance();
+        this.viewInliner = new ViewInliner(engine);
         // Initialize query planner if statistics manager is available
         Schema publicSchema = engine.getSchema("public");
         if (publicSchema != null) {
@@ -80,12 +103,40 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
      * Execute a statement and return the result with SQL string for monitoring.
      */
     public SqlExecutionResult executeWithMonitoring(Statement statement, String sql) throws SqlExecutionException {
+        return executeWithMonitoring(statement, sql, List.of());
+    }
+    
+    /**
+     * Execute a statement with values bound to its parameter placeholders, and record it for
+     * monitoring under its SQL string.
+     * @param parameters the placeholder values, in position order
+     */
+    public SqlExecutionResult executeWithMonitoring(Statement statement, String sql, List<Object> parameters)
+            throws SqlExecutionException {
+        return executeWithMonitoring(statement, sql, parameters, false);
+    }
+    
+    /**
+     * Execute a statement like {@link #executeWithMonitoring(Statement, String, List)}, but
+     * return the rows of a SELECT through a {@link RowCursor} that projects them as they are
+     * fetched.
+     * @param parameters the placeholder values, in position order
+     */
+    public SqlExecutionResult executeCursor(Statement statement, String sql, List<Object> parameters)
+            throws SqlExecutionException {
+        return executeWithMonitoring(statement, sql, parameters, true);
+    }
+    
+    private SqlExecutionResult executeWithMonitoring(Statement statement, String sql, List<Object> parameters,
+                                                     boolean openCursor) throws SqlExecutionException {
         long startTime = System.currentTimeMillis();
         boolean success = false;
         SqlExecutionResult result = null;
         
         try {
             ExecutionContext context = new ExecutionContext();
+            context.setParameters(parameters);
+            context.setCursorRequested(openCursor && statement instanceof SelectStatement);
             result = statement.accept(this, context);
             success = true;
             return result;
@@ -102,7 +153,7 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                 
                 // Analyze query if it was successful and returned results
                 if (success && result != null) {
-                    int rowCount = result.getRows() != null ? result.getRows().size() : 0;
+                    int rowCount = result.getRowCount();
                     QueryAnalysis analysis = queryAnalyzer.analyzeQuery(sql, executionTime, rowCount);
                     
                     // Log analysis if there are issues
@@ -128,6 +179,52 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
         }
     }
     
+    /**
+     * Execute a statement once for each set of parameter values, as one batch recorded for
+     * monitoring under its SQL string. An INSERT builds the rows of all parameter sets and
+     * inserts them in one pass; other statements run once per parameter set. A parameter set
+     * that fails does not stop the others.
+     * 
+     * @param parameterSets the placeholder values of each execution, in position order
+     * @return the affected row count of each execution, {@link java.sql.Statement#SUCCESS_NO_INFO}
+     *         for statements without one, or {@link java.sql.Statement#EXECUTE_FAILED}
+     */
+    public int[] executeBatch(Statement statement, String sql, List<List<Object>> parameterSets)
+            throws SqlExecutionException {
+        long startTime = System.currentTimeMillis();
+        boolean success = false;
+        
+        try {
+            int[] counts;
+            if (statement instanceof InsertStatement) {
+                counts = executeInsertBatch((InsertStatement) statement, parameterSets);
+            } else {
+                counts = new int[parameterSets.size()];
+                for (int entry = 0; entry < parameterSets.size(); entry++) {
+                    ExecutionContext context = new ExecutionContext();
+                    context.setParameters(parameterSets.get(entry));
+                    try {
+                        SqlExecutionResult result = statement.accept(this, context);
+                        SqlExecutionResult.ResultType type = result.getType();
+                        counts[entry] = type == SqlExecutionResult.ResultType.INSERT
+                                || type == SqlExecutionResult.ResultType.UPDATE
+                                || type == SqlExecutionResult.ResultType.DELETE
+                                ? result.getAffectedRows() : java.sql.Statement.SUCCESS_NO_INFO;
+                    } catch (Exception e) {
+                        logger.debug("Batch entry {} failed", entry, e);
+                        counts[entry] = java.sql.Statement.EXECUTE_FAILED;
+                    }
+                }
+            }
+            success = true;
+            return counts;
+        } finally {
+            if (sql != null) {
+                performanceMonitor.recordQuery(sql, System.currentTimeMillis() - startTime, success);
+            }
+        }
+    }
+    
     @Override
     public SqlExecutionResult visitSelectStatement(SelectStatement node, ExecutionContext context) throws SqlExecutionException {
         try {
@@ -155,135 +252,289 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                 throw new SqlExecutionException(SqlErrorCode.TABLE_NOT_FOUND, tableName);
             }
             
-            List<Column> tableColumns = table.getColumns();
-            int affectedRows = 0;
-            
-            // Get list of specified columns, or all columns if none specified
-            List<String> insertColumns = node.getColumns().orElse(
-                tableColumns.stream().map(Column::getName).toList()
-            );
+            int[] columnIndexes = resolveInsertColumns(node.getColumns(), table);
             
-            // Process each set of values
+            // Build every set of values, then insert them into the table together
+            List<Object[]> rows = new ArrayList<>(node.getValuesList().size());
             for (List<Expression> values : node.getValuesList()) {
-                if (values.size() != insertColumns.size()) {
-                    throw new SqlExecutionException("Column count mismatch: expected " + 
-                        insertColumns.size() + ", got " + values.size());
+                rows.add(buildInsertRow(table, columnIndexes, values, context));
+            }
+            int affectedRows = insertRows(table, tableName, rows);
+            
+            logger.debug("INSERT executed: {} rows inserted into {}", affectedRows, tableName);
+            return new SqlExecutionResult(SqlExecutionResult.ResultType.INSERT, affectedRows);
+            
+        } catch (Exception e) {
+            throw new SqlExecutionException("Failed to execute INSERT statement", e);
+        }
+    }
+    
+    /**
+     * Execute an INSERT once for each set of parameter values. All rows are built first, with
+     * the table and its columns resolved once, and then inserted with one bulk table insert.
+     * 
+     * @return the number of rows inserted for each parameter set, or EXECUTE_FAILED
+     */
+    private int[] executeInsertBatch(InsertStatement node, List<List<Object>> parameterSets) throws SqlExecutionException {
+        String tableName = node.getTableName();
+        Table table = engine.getTable("public", tableName);
+        if (table == null) {
+            throw new SqlExecutionException(SqlErrorCode.TABLE_NOT_FOUND, tableName);
+        }
+        int[] columnIndexes = resolveInsertColumns(node.getColumns(), table);
+        
+        int[] counts = new int[parameterSets.size()];
+        List<Object[]> rows = new ArrayList<>(parameterSets.size() * node.getValuesList().size());
+        List<Integer> rowEntries = new ArrayList<>(parameterSets.size() * node.getValuesList().size());
+        ExecutionContext context = new ExecutionContext();
+        for (int entry = 0; entry < parameterSets.size(); entry++) {
+            context.setParameters(parameterSets.get(entry));
+            try {
+                List<Object[]> entryRows = new ArrayList<>(node.getValuesList().size());
+                for (List<Expression> values : node.getValuesList()) {
+                    entryRows.add(buildInsertRow(table, columnIndexes, values, context));
                 }
-                
-                // Create array for all table columns (not just specified ones)
-                Object[] rowData = new Object[tableColumns.size()];
-                
-                // Map provided values to their corresponding columns
-                for (int i = 0; i < values.size(); i++) {
-                    String columnName = insertColumns.get(i);
-                    Object value = expressionEvaluator.evaluate(values.get(i), context);
-                    
-                    // Find the column index in the table
-                    int columnIndex = -1;
-                    for (int j = 0; j < tableColumns.size(); j++) {
-                        if (tableColumns.get(j).getName().equalsIgnoreCase(columnName)) {
-                            columnIndex = j;
-                            break;
-                        }
-                    }
-                    
-                    if (columnIndex == -1) {
-                        throw new SqlExecutionException("Column not found: " + columnName);
-                    }
-                    
-                    Column column = tableColumns.get(columnIndex);
-                    
-                    // Convert and validate data type
-                    if (value != null) {
-                        value = column.getDataType().convertValue(value);
-                        
-                        if (!column.getDataType().isValidValue(value)) {
-                            throw new SqlExecutionException("Invalid value for column " + 
-                                column.getName() + ": " + value);
-                        }
-                    }
-                    
-                    rowData[columnIndex] = value;
+                rows.addAll(entryRows);
+                for (int i = 0; i < entryRows.size(); i++) {
+                    rowEntries.add(entry);
                 }
-                
-                // Handle columns not explicitly provided
-                for (int i = 0; i < tableColumns.size(); i++) {
-                    Column column = tableColumns.get(i);
-                    
-                    // Skip columns that were explicitly provided
-                    boolean wasProvided = false;
-                    for (String insertColumn : insertColumns) {
-                        if (column.getName().equalsIgnoreCase(insertColumn)) {
-                            wasProvided = true;
-                            break;
-                        }
-                    }
-                    
-                    if (!wasProvided) {
-                        // Use default value or null for columns not provided
-                        if (column.hasDefaultValue()) {
-                            rowData[i] = column.getDefaultValue();
-                        } else if (column.isAutoIncrement()) {
-                            // Auto-increment columns will be handled by Table.insertRow()
-                            rowData[i] = null;
-                        } else if (!column.isNullable() && !column.isAutoIncrement()) {
-                            throw new SqlExecutionException("Column " + column.getName() + 
-                                " cannot be null and has no default value");
-                        } else {
-                            rowData[i] = null;
-                        }
-                    }
+            } catch (Exception e) {
+                logger.debug("Batch entry {} failed for INSERT into {}", entry, tableName, e);
+                counts[entry] = java.sql.Statement.EXECUTE_FAILED;
+            }
+        }
+        
+        // BEFORE triggers run per row, so that a failing one only fails its own entry
+        List<Object[]> acceptedRows = new ArrayList<>(rows.size());
+        List<Integer> acceptedEntries = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            int entry = rowEntries.get(i);
+            if (counts[entry] == java.sql.Statement.EXECUTE_FAILED) {
+                continue;
+            }
+            try {
+                engine.getTriggerManager().fireBefore("public", tableName, 
+                    TriggerDefinition.Event.INSERT, null, rows.get(i), null);
+                acceptedRows.add(rows.get(i));
+                acceptedEntries.add(entry);
+            } catch (Exception e) {
+                logger.debug("Batch entry {} failed for INSERT into {}", entry, tableName, e);
+                counts[entry] = java.sql.Statement.EXECUTE_FAILED;
+            }
+        }
+        
+        long[] rowIds;
+        try {
+            rowIds = table.insertRows(acceptedRows);
+        } catch (RuntimeException e) {
+            // The bulk insert changed nothing; insert row by row to find the entries that fail
+            rowIds = new long[acceptedRows.size()];
+            for (int i = 0; i < acceptedRows.size(); i++) {
+                int entry = acceptedEntries.get(i);
+                rowIds[i] = -1;
+                if (counts[entry] == java.sql.Statement.EXECUTE_FAILED) {
+                    continue;
                 }
-                
-                // Final validation for all columns
-                for (int i = 0; i < tableColumns.size(); i++) {
-                    Column column = tableColumns.get(i);
-                    
-                    // Check null constraint (but allow null for auto-increment columns)
-                    if (rowData[i] == null && !column.isNullable() && !column.isAutoIncrement()) {
-                        throw new SqlExecutionException("NULL value not allowed for column " + column.getName());
-                    }
+                try {
+                    rowIds[i] = table.insertRow(acceptedRows.get(i));
+                } catch (RuntimeException rowFailure) {
+                    logger.debug("Batch entry {} failed for INSERT into {}", entry, tableName, rowFailure);
+                    counts[entry] = java.sql.Statement.EXECUTE_FAILED;
                 }
-                
-                // Fire BEFORE INSERT triggers
-                engine.getTriggerManager().fireBefore("public", tableName, 
-                    TriggerDefinition.Event.INSERT, null, rowData, null);
-                
-                // Insert row
-                long rowId = table.insertRow(rowData);
-                affectedRows++;
-                
-                // Update full-text search indexes
-                Row newRow = new Row(rowId, rowData);
-                com.memgres.functions.FullTextFunctions.onRowInserted("public", tableName, newRow, tableColumns);
-                
-                // Log to WAL if transaction manager supports it
-                if (engine.getTransactionManager() instanceof WalTransactionManager) {
-                    WalTransactionManager walTxnMgr = (WalTransactionManager) engine.getTransactionManager();
-                    Transaction currentTxn = walTxnMgr.getCurrentTransaction();
-                    if (currentTxn != null) {
-                        try {
-                            String sql = "INSERT INTO " + tableName + " VALUES (...)";
-                            walTxnMgr.logDataModification(currentTxn.getId(), 
-                                WalRecord.RecordType.INSERT, "public", tableName, 
-                                null, rowData, sql);
-                        } catch (Exception e) {
-                            logger.warn("Failed to log INSERT to WAL", e);
-                        }
-                    }
+            }
+        }
+        
+        for (int i = 0; i < acceptedRows.size(); i++) {
+            int entry = acceptedEntries.get(i);
+            if (rowIds[i] < 0) {
+                continue;
+            }
+            try {
+                afterInsert(table, tableName, rowIds[i], acceptedRows.get(i));
+                if (counts[entry] != java.sql.Statement.EXECUTE_FAILED) {
+                    counts[entry]++;
                 }
+            } catch (Exception e) {
+                logger.debug("Batch entry {} failed for INSERT into {}", entry, tableName, e);
+                counts[entry] = java.sql.Statement.EXECUTE_FAILED;
+            }
+        }
+        
+        logger.debug("Batch INSERT executed: {} parameter sets into {}", parameterSets.size(), tableName);
+        return counts;
+    }
+    
+    /**
+     * Map each value position of an INSERT or COPY to the index of its column in the table.
+     */
+    private int[] resolveInsertColumns(Optional<List<String>> columns, Table table) throws SqlExecutionException {
+        List<Column> tableColumns = table.getColumns();
+        
+        // Get list of specified columns, or all columns if none specified
+        List<String> insertColumns = columns.orElse(
+            tableColumns.stream().map(Column::getName).toList()
+        );
+        
+        int[] columnIndexes = new int[insertColumns.size()];
+        for (int i = 0; i < insertColumns.size(); i++) {
+            String columnName = insertColumns.get(i);
+            
+            // Find the column index in the table
+            int columnIndex = -1;
+            for (int j = 0; j < tableColumns.size(); j++) {
+                if (tableColumns.get(j).getName().equalsIgnoreCase(columnName)) {
+                    columnIndex = j;
+                    break;
+                }
+            }
+            
+            if (columnIndex == -1) {
+                throw new SqlExecutionException("Column not found: " + columnName);
+            }
+            columnIndexes[i] = columnIndex;
+        }
+        return columnIndexes;
+    }
+    
+    /**
+     * Evaluate one set of INSERT values into a full table row, with defaults for the columns
+     * that were not provided.
+     */
+    private Object[] buildInsertRow(Table table, int[] columnIndexes, List<Expression> values,
+                                    ExecutionContext context) throws Exception {
+        if (values.size() != columnIndexes.length) {
+            throw new SqlExecutionException("Column count mismatch: expected " + 
+                columnIndexes.length + ", got " + values.size());
+        }
+        
+        Object[] evaluated = new Object[values.size()];
+        for (int i = 0; i < values.size(); i++) {
+            evaluated[i] = expressionEvaluator.evaluate(values.get(i), context);
+        }
+        return toTableRow(table, columnIndexes, evaluated);
+    }
+    
+    /**
+     * Convert the values of an INSERT or COPY into a full table row, with defaults for the
+     * columns that were not provided.
+     */
+    private Object[] toTableRow(Table table, int[] columnIndexes, Object[] values) throws SqlExecutionException {
+        List<Column> tableColumns = table.getColumns();
+        
+        // Create array for all table columns (not just specified ones)
+        Object[] rowData = new Object[tableColumns.size()];
+        boolean[] provided = new boolean[tableColumns.size()];
+        
+        // Map provided values to their corresponding columns
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            int columnIndex = columnIndexes[i];
+            Column column = tableColumns.get(columnIndex);
+            
+            // Convert and validate data type
+            if (value != null) {
+                value = column.getDataType().convertValue(value);
                 
-                // Fire AFTER INSERT triggers
-                engine.getTriggerManager().fireAfter("public", tableName, 
-                    TriggerDefinition.Event.INSERT, null, rowData, null);
+                if (!column.getDataType().isValidValue(value)) {
+                    throw new SqlExecutionException("Invalid value for column " + 
+                        column.getName() + ": " + value);
+                }
             }
             
-            logger.debug("INSERT executed: {} rows inserted into {}", affectedRows, tableName);
-            return new SqlExecutionResult(SqlExecutionResult.ResultType.INSERT, affectedRows);
+            rowData[columnIndex] = value;
+            provided[columnIndex] = true;
+        }
+        
+        // Handle columns not explicitly provided
+        for (int i = 0; i < tableColumns.size(); i++) {
+            Column column = tableColumns.get(i);
+            
+            if (!provided[i]) {
+                // Use default value or null for columns not provided
+                if (column.hasDefaultValue()) {
+                    rowData[i] = column.getDefaultValue();
+                } else if (column.isAutoIncrement()) {
+                    // Auto-increment columns will be handled by Table.insertRow()
+                    rowData[i] = null;
+                } else if (!column.isNullable() && !column.isAutoIncrement()) {
+                    throw new SqlExecutionException("Column " + column.getName() + 
+                        " cannot be null and has no default value");
+                } else {
+                    rowData[i] = null;
+                }
+            }
+        }
+        
+        // Final validation for all columns
+        for (int i = 0; i < tableColumns.size(); i++) {
+            Column column = tableColumns.get(i);
             
-        } catch (Exception e) {
-            throw new SqlExecutionException("Failed to execute INSERT statement", e);
+            // Check null constraint (but allow null for auto-increment columns)
+            if (rowData[i] == null && !column.isNullable() && !column.isAutoIncrement()) {
+                throw new SqlExecutionException("NULL value not allowed for column " + column.getName());
+            }
+        }
+        return rowData;
+    }
+    
+    /**
+     * Insert built rows with one bulk table insert, firing the BEFORE triggers of all rows
+     * first and then, for each row, the full-text index maintenance, WAL record and AFTER
+     * triggers.
+     * 
+     * @return the number of rows inserted
+     */
+    private int insertRows(Table table, String tableName, List<Object[]> rows) throws Exception {
+        long[] rowIds = fireBeforeAndInsert(table, tableName, rows);
+        for (int i = 0; i < rows.size(); i++) {
+            afterInsert(table, tableName, rowIds[i], rows.get(i));
+        }
+        return rows.size();
+    }
+    
+    /**
+     * Fire the BEFORE INSERT triggers of rows and insert them, leaving {@link #afterInsert} to
+     * the caller.
+     * 
+     * @return the IDs of the inserted rows
+     */
+    private long[] fireBeforeAndInsert(Table table, String tableName, List<Object[]> rows) throws Exception {
+        // Fire BEFORE INSERT triggers
+        for (Object[] rowData : rows) {
+            engine.getTriggerManager().fireBefore("public", tableName, 
+                TriggerDefinition.Event.INSERT, null, rowData, null);
+        }
+        
+        return table.insertRows(rows);
+    }
+    
+    /**
+     * Complete the insert of a row: full-text indexes, WAL record and AFTER triggers.
+     */
+    private void afterInsert(Table table, String tableName, long rowId, Object[] rowData) throws Exception {
+        // Update full-text search indexes
+        Row newRow = new Row(rowId, rowData);
+        com.memgres.functions.FullTextFunctions.onRowInserted("public", tableName, newRow, table.getColumns());
+        
+        // Log to WAL if transaction manager supports it
+        if (engine.getTransactionManager() instanceof WalTransactionManager) {
+            WalTransactionManager walTxnMgr = (WalTransactionManager) engine.getTransactionManager();
+            Transaction currentTxn = walTxnMgr.getCurrentTransaction();
+            if (currentTxn != null) {
+                try {
+                    String sql = "INSERT INTO " + tableName + " VALUES (...)";
+                    walTxnMgr.logDataModification(currentTxn.getId(), 
+                        WalRecord.RecordType.INSERT, "public", tableName, 
+                        null, rowData, sql);
+                } catch (Exception e) {
+                    logger.warn("Failed to log INSERT to WAL", e);
+                }
+            }
         }
+        
+        // Fire AFTER INSERT triggers
+        engine.getTriggerManager().fireAfter("public", tableName, 
+            TriggerDefinition.Event.INSERT, null, rowData, null);
     }
     
     @Override
@@ -567,52 +818,211 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
     private static class JoinResult {
         final List<Column> columns;
         final List<Row> rows;
+        /** WHERE conjuncts already applied to the joined tables, by identity. */
+        final Set<Expression> appliedConjuncts;
         
         JoinResult(List<Column> columns, List<Row> rows) {
+            this(columns, rows, Set.of());
+        }
+        
+        JoinResult(List<Column> columns, List<Row> rows, Set<Expression> appliedConjuncts) {
             this.columns = columns;
             this.rows = rows;
+            this.appliedConjuncts = appliedConjuncts;
         }
     }
     
     /**
      * Execute the FROM clause, handling both simple table references and joins.
+     * Comma-separated FROM lists and chains of INNER joins are joined in the order chosen by
+     * {@link QueryPlanner#planJoinOrder}; the WHERE condition supplies join predicates for
+     * comma joins. WHERE conjuncts that only read one table are applied to that table before
+     * it is joined, where an outer join does not pad it with NULLs, and are reported in the
+     * result so that {@link #applyWhereClause} does not evaluate them again.
      */
-    private JoinResult executeFromClause(FromClause fromClause, ExecutionContext context) throws SqlExecutionException {
+    private JoinResult executeFromClause(FromClause fromClause, Optional<WhereClause> whereClause,
+                                         ExecutionContext context) throws SqlExecutionException {
         List<JoinableTable> joinableTables = fromClause.getJoinableTables();
+        List<Expression> whereConjuncts = whereClause.isPresent()
+            ? splitConjuncts(whereClause.get().getCondition()) : List.of();
         
-        if (joinableTables.size() != 1) {
-            throw new SqlExecutionException("Multi-table FROM clause not yet supported");
+        if (joinableTables.size() == 1 && !isInnerJoinChain(joinableTables.get(0))) {
+            return executeJoinableTable(joinableTables.get(0), whereConjuncts, context);
         }
         
-        JoinableTable joinableTable = joinableTables.get(0);
-        
+        return executeOrderedJoins(joinableTables, whereConjuncts, context);
+    }
+    
+    /**
+     * Keep the rows of a FROM clause result that satisfy the WHERE conjuncts it has not
+     * applied already.
+     */
+    private List<Row> applyWhereClause(JoinResult joinResult, Optional<WhereClause> whereClause,
+                                       ExecutionContext context) {
+        if (!whereClause.isPresent()) {
+            return joinResult.rows;
+        }
+        if (joinResult.appliedConjuncts.isEmpty()) {
+            return filterRows(joinResult, whereClause.get().getCondition(), context);
+        }
+        List<Expression> remaining = new ArrayList<>();
+        for (Expression conjunct : splitConjuncts(whereClause.get().getCondition())) {
+            if (!joinResult.appliedConjuncts.contains(conjunct)) {
+                remaining.add(conjunct);
+            }
+        }
+        Optional<Expression> condition = combineConjuncts(remaining);
+        return condition.isPresent() ? filterRows(joinResult, condition.get(), context) : joinResult.rows;
+    }
+    
+    /**
+     * Execute a base table followed by its explicit joins, left to right as written.
+     * @param whereConjuncts WHERE conjuncts of the query, of which those reading a single
+     *                       table that no outer join pads with NULLs filter that table's rows
+     */
+    private JoinResult executeJoinableTable(JoinableTable joinableTable, List<Expression> whereConjuncts,
+                                            ExecutionContext context) throws SqlExecutionException {
         // Get base table or view
         TableReference baseTableRef = joinableTable.getBaseTable();
-        String baseTableName = baseTableRef.getTableName();
+        JoinResult baseResult = resolveTableReference(baseTableRef, context);
+        List<Column> resultColumns = baseResult.columns;
+        List<Row> resultRows = baseResult.rows;
+        Set<Expression> applied = Collections.newSetFromMap(new IdentityHashMap<>());
+        
+        // Apply joins if present
+        if (joinableTable.hasJoins()) {
+            List<List<Expression>> pushed = pushableConjuncts(joinableTable, whereConjuncts);
+            Optional<Expression> baseFilter = relationFilter(resultColumns, pushed.get(0), applied);
+            if (baseFilter.isPresent()) {
+                resultRows = filterRelationRows(resultRows, resultColumns, tableKey(baseTableRef), baseFilter.get(),
+                                                context);
+            }
+            TableReference baseTableReference = baseTableRef; // Track the left table reference for alias support
+            int position = 1;
+            for (JoinClause joinClause : joinableTable.getJoins()) {
+                JoinResult joinResult = executeJoin(resultColumns, resultRows, joinClause, context, baseTableReference,
+                                                    pushed.get(position++), applied);
+                resultColumns = joinResult.columns;
+                resultRows = joinResult.rows;
+                // For subsequent joins, the left side becomes the previous join result
+                baseTableReference = null; // No simple reference for joined result
+            }
+        }
+        
+        return new JoinResult(resultColumns, resultRows, applied);
+    }
+    
+    /**
+     * For each table of a joinable table, base table first, the WHERE conjuncts that may be
+     * applied to it before joining: those whose columns are all qualified with that table's
+     * name or alias, on a table that no outer join pads with NULLs.
+     */
+    private List<List<Expression>> pushableConjuncts(JoinableTable joinableTable, List<Expression> whereConjuncts) {
+        List<TableReference> tables = joinableTable.getAllTableReferences();
+        boolean[] preserved = PredicatePushdown.preservedPositions(joinableTable);
+        List<String> keys = new ArrayList<>();
+        List<List<Expression>> pushed = new ArrayList<>();
+        for (TableReference table : tables) {
+            keys.add(tableKey(table));
+            pushed.add(new ArrayList<>());
+        }
+        for (Expression conjunct : whereConjuncts) {
+            List<ColumnReference> columns = new ArrayList<>();
+            if (!PredicatePushdown.collectColumns(conjunct, columns) || columns.isEmpty()) {
+                continue;
+            }
+            String key = columns.get(0).getTableName().map(String::toLowerCase).orElse(null);
+            boolean singleTable = key != null && columns.stream().allMatch(
+                column -> column.getTableName().isPresent() && column.getTableName().get().equalsIgnoreCase(key));
+            int position = keys.indexOf(key);
+            if (singleTable && position >= 0 && position == keys.lastIndexOf(key) && preserved[position]) {
+                pushed.get(position).add(conjunct);
+            }
+        }
+        return pushed;
+    }
+    
+    /**
+     * Combine the conjuncts whose columns all name exactly one of a table's columns, and
+     * record them as applied.
+     */
+    private Optional<Expression> relationFilter(List<Column> columns, List<Expression> conjuncts,
+                                                Set<Expression> applied) {
+        List<Expression> filters = new ArrayList<>();
+        for (Expression conjunct : conjuncts) {
+            List<ColumnReference> references = new ArrayList<>();
+            PredicatePushdown.collectColumns(conjunct, references);
+            boolean resolved = references.stream().allMatch(reference -> columns.stream()
+                .filter(column -> column.getName().equalsIgnoreCase(reference.getColumnName())).count() == 1);
+            if (resolved) {
+                filters.add(conjunct);
+                applied.add(conjunct);
+            }
+        }
+        return combineConjuncts(filters);
+    }
+    
+    /**
+     * Keep the rows of a single table for which a condition over its columns is true.
+     */
+    private List<Row> filterRelationRows(List<Row> rows, List<Column> columns, String key, Expression condition,
+                                         ExecutionContext context) {
+        Map<String, List<Column>> tableColumns = new HashMap<>();
+        tableColumns.put(key, new ArrayList<>(columns));
+        return filterRelationRows(rows, columns, tableColumns, new ArrayList<>(List.of(key)), condition, context);
+    }
+    
+    /**
+     * Keep the rows of a join input for which a condition over its columns is true, resolving
+     * qualified columns against the input's own tables.
+     */
+    private List<Row> filterRelationRows(List<Row> rows, List<Column> columns, Map<String, List<Column>> tableColumns,
+                                         List<String> tableOrder, Expression condition, ExecutionContext context) {
+        Map<String, List<Column>> savedTableColumns = context.getTableColumns();
+        List<String> savedTableOrder = context.getTableOrder();
+        context.setTableColumns(tableColumns);
+        context.setTableOrder(tableOrder);
+        try {
+            return filterRows(new JoinResult(columns, rows), condition, context);
+        } finally {
+            context.setTableColumns(savedTableColumns);
+            context.setTableOrder(savedTableOrder);
+        }
+    }
+    
+    private static String tableKey(TableReference tableRef) {
+        return tableRef.getAlias().orElse(tableRef.getTableName()).toLowerCase();
+    }
+    
+    /**
+     * Resolve a table reference to its columns and rows: a CTE, FT_SEARCH call, table or view.
+     */
+    private JoinResult resolveTableReference(TableReference tableRef, ExecutionContext context) throws SqlExecutionException {
+        String tableName = tableRef.getTableName();
         
         // Check for CTE first, then table, then view
         List<Column> resultColumns;
         List<Row> resultRows;
         
-        if (context.hasCTE(baseTableName)) {
+        if (context.hasCTE(tableName)) {
             // It's a CTE - use the stored result
-            ExecutionContext.CTEResult cteResult = context.getCTEResult(baseTableName);
+            ExecutionContext.CTEResult cteResult = context.getCTEResult(tableName);
             resultColumns = new ArrayList<>(cteResult.columns);
             resultRows = new ArrayList<>(cteResult.rows);
-            logger.debug("Resolved table '{}' as CTE with {} rows", baseTableName, resultRows.size());
-        } else if (baseTableName.startsWith("FT_SEARCH(")) {
+            logger.debug("Resolved table '{}' as CTE with {} rows", tableName, resultRows.size());
+        } else if (tableName.startsWith("FT_SEARCH(")) {
             // It's a FT_SEARCH table function
-            SqlExecutionResult ftResult = executeFtSearchTableFunction(baseTableName);
+            SqlExecutionResult ftResult = executeFtSearchTableFunction(tableName);
             resultColumns = new ArrayList<>(ftResult.getColumns());
             resultRows = new ArrayList<>(ftResult.getRows());
-            logger.debug("Resolved table '{}' as FT_SEARCH with {} rows", baseTableName, resultRows.size());
+            logger.debug("Resolved table '{}' as FT_SEARCH with {} rows", tableName, resultRows.size());
         } else {
             // Try to get table
-            Table baseTable = engine.getTable("public", baseTableName);
-            if (baseTable != null) {
+            Table table = engine.getTable("public", tableName);
+            if (table != null) {
                 // It's a table
-                resultColumns = new ArrayList<>(baseTable.getColumns());
-                resultRows = baseTable.getAllRows();
+                resultColumns = new ArrayList<>(table.getColumns());
+                resultRows = table.getAllRows();
             } else {
                 // Try to get view
                 Schema schema = engine.getSchema("public");
@@ -620,13 +1030,13 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                     throw new SqlExecutionException("Schema 'public' not found");
                 }
                 
-                View baseView = schema.getView(baseTableName);
-                if (baseView == null) {
-                    throw new SqlExecutionException("Table, view, or CTE not found: " + baseTableName);
+                View view = schema.getView(tableName);
+                if (view == null) {
+                    throw new SqlExecutionException("Table, view, or CTE not found: " + tableName);
                 }
                 
                 // Execute the view's SELECT statement to get the data
-                SqlExecutionResult viewResult = visitSelectStatement(baseView.getSelectStatement(), context);
+                SqlExecutionResult viewResult = visitSelectStatement(view.getSelectStatement(), context);
                 if (viewResult.getType() != SqlExecutionResult.ResultType.SELECT) {
                     throw new SqlExecutionException("View SELECT statement did not return query result");
                 }
@@ -636,27 +1046,374 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
             }
         }
         
-        
-        // Apply joins if present
-        if (joinableTable.hasJoins()) {
-            TableReference baseTableReference = baseTableRef; // Track the left table reference for alias support
-            for (JoinClause joinClause : joinableTable.getJoins()) {
-                JoinResult joinResult = executeJoin(resultColumns, resultRows, joinClause, context, baseTableReference);
-                resultColumns = joinResult.columns;
-                resultRows = joinResult.rows;
-                // For subsequent joins, the left side becomes the previous join result
-                baseTableReference = null; // No simple reference for joined result
+        return new JoinResult(resultColumns, resultRows);
+    }
+    
+    /**
+     * Check whether a joinable table is a chain of two or more INNER joins that may be executed
+     * in any order. Every ON condition must contain a column equality, so reordering never
+     * turns a filtered join into a materialized cross product.
+     */
+    private boolean isInnerJoinChain(JoinableTable joinableTable) {
+        if (joinableTable.getJoins().size() < 2) {
+            return false;
+        }
+        for (JoinClause join : joinableTable.getJoins()) {
+            if (join.getJoinType() != JoinClause.JoinType.INNER
+                    || join.getConditionType() != JoinClause.JoinConditionType.ON
+                    || !join.getOnCondition().isPresent()
+                    || splitConjuncts(join.getOnCondition().get()).stream().noneMatch(this::isColumnEquality)) {
+                return false;
             }
         }
+        return true;
+    }
+    
+    /**
+     * One input of a reorderable join: a single table reference, or a joinable table with
+     * outer joins that has to be executed as written. The keys are the table names or aliases
+     * the relation's columns are qualified with, in column order.
+     */
+    private static class FromRelation {
+        final String tableName;
+        final List<String> keys = new ArrayList<>();
+        final Map<String, List<Column>> tableColumns = new HashMap<>();
+        final List<Column> columns;
+        final List<Row> rows;
+        final Map<Integer, Long> distinctCounts = new HashMap<>();
+        
+        FromRelation(String tableName, List<Column> columns, List<Row> rows) {
+            this.tableName = tableName;
+            this.columns = columns;
+            this.rows = rows;
+        }
         
-        return new JoinResult(resultColumns, resultRows);
+        /**
+         * Position of a column within this relation's rows, or null if it does not belong here
+         * (or is ambiguous for an unqualified reference).
+         */
+        Integer resolve(ColumnReference columnRef) {
+            String columnName = columnRef.getColumnName().toLowerCase();
+            if (columnRef.getTableName().isPresent()) {
+                String qualifier = columnRef.getTableName().get().toLowerCase();
+                int offset = 0;
+                for (String key : keys) {
+                    List<Column> keyColumns = tableColumns.get(key);
+                    if (key.equals(qualifier)) {
+                        for (int i = 0; i < keyColumns.size(); i++) {
+                            if (keyColumns.get(i).getName().equalsIgnoreCase(columnName)) {
+                                return offset + i;
+                            }
+                        }
+                        return null;
+                    }
+                    offset += keyColumns.size();
+                }
+                return null;
+            }
+            Integer found = null;
+            for (int i = 0; i < columns.size(); i++) {
+                if (columns.get(i).getName().equalsIgnoreCase(columnName)) {
+                    if (found != null) {
+                        return null;
+                    }
+                    found = i;
+                }
+            }
+            return found;
+        }
+        
+        long distinctCount(int columnIndex) {
+            return distinctCounts.computeIfAbsent(columnIndex, index -> {
+                Set<Object> distinct = new HashSet<>();
+                for (Row row : rows) {
+                    Object value = row.getData()[index];
+                    if (value != null) {
+                        distinct.add(PartitionedHashJoin.normalizeKey(value));
+                    }
+                }
+                return (long) distinct.size();
+            });
+        }
+    }
+    
+    /**
+     * Equi-join predicate between two relations of a reorderable join, by column position.
+     */
+    private static class RelationEdge {
+        final int leftRelation;
+        final int leftIndex;
+        final int rightRelation;
+        final int rightIndex;
+        
+        RelationEdge(int leftRelation, int leftIndex, int rightRelation, int rightIndex) {
+            this.leftRelation = leftRelation;
+            this.leftIndex = leftIndex;
+            this.rightRelation = rightRelation;
+            this.rightIndex = rightIndex;
+        }
+    }
+    
+    /**
+     * Execute a comma-separated FROM list and/or a chain of INNER joins in cost-based order.
+     * Column equalities between two relations, from ON conditions or the WHERE clause, become
+     * hash join keys; other ON conjuncts are applied once all relations are joined. The result
+     * keeps the columns in the order the tables were written, so SELECT * and column
+     * resolution behave as if the joins had run left to right. WHERE conjuncts that read a
+     * single relation filter it before planning, so the planner sees the filtered sizes.
+     */
+    private JoinResult executeOrderedJoins(List<JoinableTable> joinableTables, List<Expression> whereConjuncts,
+                                           ExecutionContext context) throws SqlExecutionException {
+        List<FromRelation> relations = new ArrayList<>();
+        List<Expression> onConjuncts = new ArrayList<>();
+        for (JoinableTable joinableTable : joinableTables) {
+            if (!joinableTable.hasJoins() || isInnerJoinChain(joinableTable)) {
+                relations.add(scanRelation(joinableTable.getBaseTable(), context));
+                for (JoinClause join : joinableTable.getJoins()) {
+                    relations.add(scanRelation(join.getTable(), context));
+                    onConjuncts.addAll(splitConjuncts(join.getOnCondition().get()));
+                }
+            } else {
+                JoinResult joined = executeJoinableTable(joinableTable, List.of(), context);
+                FromRelation relation = new FromRelation(null, joined.columns, joined.rows);
+                relation.keys.addAll(context.getTableOrder());
+                relation.tableColumns.putAll(context.getTableColumns());
+                relations.add(relation);
+            }
+        }
+        
+        Set<Expression> applied = Collections.newSetFromMap(new IdentityHashMap<>());
+        pushDownToRelations(relations, whereConjuncts, applied, context);
+        
+        List<RelationEdge> edges = new ArrayList<>();
+        List<Expression> onFilters = new ArrayList<>();
+        for (Expression conjunct : onConjuncts) {
+            RelationEdge edge = toRelationEdge(conjunct, relations);
+            if (edge != null) {
+                edges.add(edge);
+            } else {
+                onFilters.add(conjunct);
+            }
+        }
+        for (Expression conjunct : whereConjuncts) {
+            RelationEdge edge = toRelationEdge(conjunct, relations);
+            if (edge != null) {
+                edges.add(edge);
+            }
+        }
+        
+        // Plan the join order from relation cardinalities and join column selectivities
+        List<QueryPlanner.JoinRelation> plannerRelations = new ArrayList<>();
+        for (FromRelation relation : relations) {
+            plannerRelations.add(new QueryPlanner.JoinRelation(relation.tableName, relation.rows.size()));
+        }
+        List<QueryPlanner.JoinEdge> plannerEdges = new ArrayList<>();
+        for (RelationEdge edge : edges) {
+            FromRelation left = relations.get(edge.leftRelation);
+            FromRelation right = relations.get(edge.rightRelation);
+            plannerEdges.add(new QueryPlanner.JoinEdge(
+                edge.leftRelation, left.columns.get(edge.leftIndex).getName(), left.distinctCount(edge.leftIndex),
+                edge.rightRelation, right.columns.get(edge.rightIndex).getName(), right.distinctCount(edge.rightIndex)));
+        }
+        QueryPlanner planner = queryPlanner != null ? queryPlanner : new QueryPlanner(engine.getSchema("public"));
+        QueryPlanner.JoinOrder joinOrder = planner.planJoinOrder(plannerRelations, plannerEdges);
+        int[] order = joinOrder.getOrder();
+        logger.debug("Joining {} relations in order {}", relations.size(), joinOrder);
+        
+        // Join left-deep in the planned order, tracking where each relation's columns land
+        int[] offsets = new int[relations.size()];
+        Arrays.fill(offsets, -1);
+        FromRelation first = relations.get(order[0]);
+        List<Row> rows = first.rows;
+        int width = first.columns.size();
+        offsets[order[0]] = 0;
+        for (int step = 1; step < order.length; step++) {
+            int next = order[step];
+            FromRelation relation = relations.get(next);
+            List<Integer> leftKeys = new ArrayList<>();
+            List<Integer> rightKeys = new ArrayList<>();
+            for (RelationEdge edge : edges) {
+                if (edge.rightRelation == next && offsets[edge.leftRelation] >= 0) {
+                    leftKeys.add(offsets[edge.leftRelation] + edge.leftIndex);
+                    rightKeys.add(edge.rightIndex);
+                } else if (edge.leftRelation == next && offsets[edge.rightRelation] >= 0) {
+                    leftKeys.add(offsets[edge.rightRelation] + edge.rightIndex);
+                    rightKeys.add(edge.leftIndex);
+                }
+            }
+            rows = joinRelationRows(rows, width, relation.rows, relation.columns.size(),
+                                    leftKeys.stream().mapToInt(Integer::intValue).toArray(),
+                                    rightKeys.stream().mapToInt(Integer::intValue).toArray());
+            offsets[next] = width;
+            width += relation.columns.size();
+        }
+        
+        // Restore the written column order
+        List<Column> columns = new ArrayList<>(width);
+        int[] sourcePositions = new int[width];
+        Map<String, List<Column>> tableColumns = new HashMap<>();
+        List<String> tableOrder = new ArrayList<>();
+        for (int r = 0; r < relations.size(); r++) {
+            FromRelation relation = relations.get(r);
+            for (int i = 0; i < relation.columns.size(); i++) {
+                sourcePositions[columns.size()] = offsets[r] + i;
+                columns.add(relation.columns.get(i));
+            }
+            tableColumns.putAll(relation.tableColumns);
+            tableOrder.addAll(relation.keys);
+        }
+        List<Row> orderedRows = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            Object[] source = row.getData();
+            Object[] data = new Object[width];
+            for (int i = 0; i < width; i++) {
+                data[i] = source[sourcePositions[i]];
+            }
+            orderedRows.add(new Row(row.getId(), data));
+        }
+        context.setTableColumns(tableColumns);
+        context.setTableOrder(tableOrder);
+        
+        if (!onFilters.isEmpty()) {
+            Expression filter = combineConjuncts(onFilters).get();
+            List<Row> filtered = new ArrayList<>();
+            for (Row row : orderedRows) {
+                context.setCurrentRow(row);
+                context.setJoinedColumns(columns);
+                if (Boolean.TRUE.equals(expressionEvaluator.evaluate(filter, context))) {
+                    filtered.add(row);
+                }
+            }
+            orderedRows = filtered;
+        }
+        
+        return new JoinResult(columns, orderedRows, applied);
+    }
+    
+    /**
+     * Filter each relation of a reorderable join by the WHERE conjuncts whose columns all
+     * resolve to it, replacing it with a relation holding only the matching rows.
+     */
+    private void pushDownToRelations(List<FromRelation> relations, List<Expression> whereConjuncts,
+                                     Set<Expression> applied, ExecutionContext context) {
+        List<List<Expression>> pushed = new ArrayList<>();
+        for (int r = 0; r < relations.size(); r++) {
+            pushed.add(new ArrayList<>());
+        }
+        for (Expression conjunct : whereConjuncts) {
+            List<ColumnReference> columns = new ArrayList<>();
+            if (!PredicatePushdown.collectColumns(conjunct, columns) || columns.isEmpty()) {
+                continue;
+            }
+            int relation = -1;
+            for (ColumnReference column : columns) {
+                int[] resolved = resolveRelationColumn(column, relations);
+                if (resolved == null || (relation >= 0 && resolved[0] != relation)) {
+                    relation = -1;
+                    break;
+                }
+                relation = resolved[0];
+            }
+            if (relation >= 0) {
+                pushed.get(relation).add(conjunct);
+                applied.add(conjunct);
+            }
+        }
+        for (int r = 0; r < relations.size(); r++) {
+            if (pushed.get(r).isEmpty()) {
+                continue;
+            }
+            FromRelation relation = relations.get(r);
+            List<Row> rows = filterRelationRows(relation.rows, relation.columns, new HashMap<>(relation.tableColumns),
+                new ArrayList<>(relation.keys), combineConjuncts(pushed.get(r)).get(), context);
+            FromRelation filtered = new FromRelation(relation.tableName, relation.columns, rows);
+            filtered.keys.addAll(relation.keys);
+            filtered.tableColumns.putAll(relation.tableColumns);
+            relations.set(r, filtered);
+        }
+    }
+    
+    /**
+     * Scan a single table reference as a join relation.
+     */
+    private FromRelation scanRelation(TableReference tableRef, ExecutionContext context) throws SqlExecutionException {
+        JoinResult scanned = resolveTableReference(tableRef, context);
+        String tableName = tableRef.getTableName();
+        boolean baseTable = !context.hasCTE(tableName) && engine.getTable("public", tableName) != null;
+        FromRelation relation = new FromRelation(baseTable ? tableName.toLowerCase() : null, scanned.columns, scanned.rows);
+        String key = tableRef.getAlias().isPresent()
+            ? tableRef.getAlias().get().toLowerCase() : tableName.toLowerCase();
+        relation.keys.add(key);
+        relation.tableColumns.put(key, new ArrayList<>(scanned.columns));
+        return relation;
+    }
+    
+    /**
+     * Turn a {@code a.x = b.y} conjunct into an edge between the two relations it references,
+     * or return null if it is not a column equality across two different relations.
+     */
+    private RelationEdge toRelationEdge(Expression conjunct, List<FromRelation> relations) {
+        if (!isColumnEquality(conjunct)) {
+            return null;
+        }
+        BinaryExpression equality = (BinaryExpression) conjunct;
+        int[] left = resolveRelationColumn((ColumnReference) equality.getLeft(), relations);
+        int[] right = resolveRelationColumn((ColumnReference) equality.getRight(), relations);
+        if (left == null || right == null || left[0] == right[0]) {
+            return null;
+        }
+        return new RelationEdge(left[0], left[1], right[0], right[1]);
+    }
+    
+    /**
+     * Resolve a column to {relation, position within relation}, or null if it is unknown or ambiguous.
+     */
+    private int[] resolveRelationColumn(ColumnReference columnRef, List<FromRelation> relations) {
+        int[] found = null;
+        for (int r = 0; r < relations.size(); r++) {
+            Integer index = relations.get(r).resolve(columnRef);
+            if (index != null) {
+                if (found != null) {
+                    return null;
+                }
+                found = new int[]{r, index};
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * Inner-join two row sets on the given key columns with a hash join, or take their cross
+     * product when there are no keys. The output puts the left columns first.
+     */
+    private List<Row> joinRelationRows(List<Row> leftRows, int leftWidth, List<Row> rightRows, int rightWidth,
+                                       int[] leftKeys, int[] rightKeys) {
+        if (leftKeys.length == 0) {
+            List<Row> result = new ArrayList<>(leftRows.size() * rightRows.size());
+            for (Row left : leftRows) {
+                for (Row right : rightRows) {
+                    result.add(combineRows(left, right));
+                }
+            }
+            return result;
+        }
+        // Build on the smaller side, probe with the larger one
+        if (leftRows.size() <= rightRows.size()) {
+            PartitionedHashJoin hashJoin = new PartitionedHashJoin(leftRows, leftKeys, rightRows.size());
+            return hashJoin.join(rightRows, rightKeys, false, leftWidth, rightWidth, false, false, null);
+        }
+        PartitionedHashJoin hashJoin = new PartitionedHashJoin(rightRows, rightKeys, leftRows.size());
+        return hashJoin.join(leftRows, leftKeys, true, rightWidth, leftWidth, false, false, null);
     }
     
     /**
      * Execute a single join operation with optimization.
+     * @param rightConjuncts WHERE conjuncts over the right table that may filter it before joining
+     * @param applied receives the conjuncts of {@code rightConjuncts} that were applied
      */
     private JoinResult executeJoin(List<Column> leftColumns, List<Row> leftRows, 
-                                  JoinClause joinClause, ExecutionContext context, TableReference leftTableRef) throws SqlExecutionException {
+                                  JoinClause joinClause, ExecutionContext context, TableReference leftTableRef,
+                                  List<Expression> rightConjuncts, Set<Expression> applied) throws SqlExecutionException {
         
         // Get right table or view
         TableReference rightTableRef = joinClause.getTable();
@@ -665,6 +1422,7 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
         // Check for CTE first
         List<Row> rightRows;
         List<Column> rightColumns;
+        Table rightTable = null;
         
         if (context.hasCTE(rightTableName)) {
             // It's a CTE - use the stored result
@@ -674,11 +1432,11 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
             logger.debug("Resolved JOIN table '{}' as CTE with {} rows", rightTableName, rightRows.size());
         } else {
             // Try to get table
-            Table rightTable = engine.getTable("public", rightTableName);
+            rightTable = engine.getTable("public", rightTableName);
             
             if (rightTable != null) {
-                // It's a table
-                rightRows = rightTable.getAllRows();
+                // It's a table; rows are fetched once we know an index probe cannot avoid the scan
+                rightRows = null;
                 rightColumns = rightTable.getColumns();
             } else {
                 // Try to get view
@@ -712,7 +1470,11 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
         List<String> tableOrder = new ArrayList<>();
         
         // Add base table info (use alias if available)
-        if (leftTableRef != null) {
+        if (leftTableRef == null && context.getTableColumns() != null && context.getTableOrder() != null) {
+            // Chained join: the left side is the previous join result, keep its tables in order
+            tableColumns.putAll(context.getTableColumns());
+            tableOrder.addAll(context.getTableOrder());
+        } else if (leftTableRef != null) {
             String leftTableKey = leftTableRef.getAlias().isPresent() ?
                 leftTableRef.getAlias().get().toLowerCase() : leftTableRef.getTableName().toLowerCase();
             tableColumns.put(leftTableKey, new ArrayList<>(leftColumns));
@@ -725,15 +1487,33 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
         tableColumns.put(rightTableKey, new ArrayList<>(rightColumns));
         tableOrder.add(rightTableKey);
         
+        // Filter the right table by the WHERE conjuncts pushed down to it
+        Optional<Expression> rightFilter = relationFilter(rightColumns, rightConjuncts, applied);
+        if (rightFilter.isPresent() && rightTable == null) {
+            rightRows = filterRelationRows(rightRows, rightColumns, rightTableKey, rightFilter.get(), context);
+        }
+        
         // Update context with table information
         context.setTableColumns(tableColumns);
         context.setTableOrder(tableOrder);
         
+        if (rightTable != null) {
+            List<Row> indexJoinRows = tryIndexNestedLoopJoin(leftRows, rightTable, leftColumns, rightColumns,
+                                                             joinClause, combinedColumns, rightFilter, context);
+            if (indexJoinRows != null) {
+                return new JoinResult(combinedColumns, indexJoinRows);
+            }
+            rightRows = rightTable.getAllRows();
+            if (rightFilter.isPresent()) {
+                rightRows = filterRelationRows(rightRows, rightColumns, rightTableKey, rightFilter.get(), context);
+            }
+        }
+        
         List<Row> joinedRows = new ArrayList<>();
         
         // Choose optimal join algorithm based on conditions and data size
         JoinAlgorithm algorithm = chooseOptimalJoinAlgorithm(
-            leftRows, rightRows, leftColumns, rightColumns, joinClause.getOnCondition()
+            leftRows, rightRows, leftColumns, rightColumns, joinClause.getOnCondition(), combinedColumns, context
         );
         
         logger.debug("Using {} algorithm for {} join between {} and {} rows", 
@@ -770,16 +1550,21 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
      */
     private enum JoinAlgorithm {
         NESTED_LOOP,  // Original O(n*m) algorithm
+        INDEX_NESTED_LOOP, // Index lookups into the inner table for a small outer side
         HASH_JOIN,    // Hash-based join for equi-joins
-        SORT_MERGE    // Sort-merge join (future enhancement)
+        SORT_MERGE    // Merge join for pre-sorted equi-join inputs, sort-and-sweep for range conditions
     }
     
     /**
      * Choose optimal join algorithm based on data characteristics.
+     * Equi-joins use a merge join when both inputs already arrive ordered on the join keys
+     * (O(n + m), no hash table) and a hash join otherwise. Range conditions use a band join
+     * when sorting both sides is cheaper than comparing every pair.
      */
     private JoinAlgorithm chooseOptimalJoinAlgorithm(List<Row> leftRows, List<Row> rightRows, 
                                                    List<Column> leftColumns, List<Column> rightColumns,
-                                                   Optional<Expression> joinCondition) {
+                                                   Optional<Expression> joinCondition,
+                                                   List<Column> combinedColumns, ExecutionContext context) {
         
         int leftSize = leftRows.size();
         int rightSize = rightRows.size();
@@ -789,38 +1574,136 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
             return JoinAlgorithm.NESTED_LOOP;
         }
         
-        // If we have a simple equi-join condition, prefer hash join for larger datasets
-        if (joinCondition.isPresent() && isSimpleEquiJoin(joinCondition.get(), leftColumns, rightColumns)) {
-            // Hash join is particularly effective when one table is much smaller
-            if (Math.min(leftSize, rightSize) < Math.max(leftSize, rightSize) / 3) {
-                return JoinAlgorithm.HASH_JOIN;
+        if (!joinCondition.isPresent()) {
+            return JoinAlgorithm.NESTED_LOOP;
+        }
+        
+        JoinKeys joinKeys = extractJoinKeys(joinCondition.get(), leftColumns, combinedColumns, context);
+        if (joinKeys != null) {
+            if (SortMergeJoin.isSortedOn(leftRows, joinKeys.leftKeyIndexes)
+                    && SortMergeJoin.isSortedOn(rightRows, joinKeys.rightKeyIndexes)) {
+                return JoinAlgorithm.SORT_MERGE;
             }
-            // Also prefer hash join for medium-to-large datasets
-            if (leftSize > 50 || rightSize > 50) {
-                return JoinAlgorithm.HASH_JOIN;
+            return JoinAlgorithm.HASH_JOIN;
+        }
+        
+        if (extractRangeJoin(joinCondition.get(), leftColumns, combinedColumns, context) != null) {
+            double nestedLoopCost = (double) leftSize * rightSize;
+            double sortCost = leftSize * log2(leftSize) + rightSize * log2(rightSize) + leftSize + rightSize;
+            if (sortCost < nestedLoopCost) {
+                return JoinAlgorithm.SORT_MERGE;
             }
         }
         
-        // Default to nested loop for complex conditions or small datasets
+        // Default to nested loop for complex conditions
         return JoinAlgorithm.NESTED_LOOP;
     }
     
     /**
-     * Check if the join condition is a simple equi-join (col1 = col2).
+     * Run the join as an index nested-loop join when the inner side is a base table with an
+     * index on the join keys and the outer side is small enough that k index lookups are
+     * cheaper than scanning the inner table once. Only INNER and LEFT joins qualify, since
+     * RIGHT and FULL joins must visit every inner row anyway.
+     * @param rightFilter condition on the inner table's columns that matched rows must also satisfy
+     * @return the joined rows, or null if another algorithm should be used
      */
-    private boolean isSimpleEquiJoin(Expression condition, List<Column> leftColumns, List<Column> rightColumns) {
-        if (!(condition instanceof BinaryExpression)) {
-            return false;
+    private List<Row> tryIndexNestedLoopJoin(List<Row> leftRows, Table rightTable,
+                                             List<Column> leftColumns, List<Column> rightColumns,
+                                             JoinClause joinClause, List<Column> combinedColumns,
+                                             Optional<Expression> rightFilter, ExecutionContext context) {
+        JoinClause.JoinType joinType = joinClause.getJoinType();
+        if ((joinType != JoinClause.JoinType.INNER && joinType != JoinClause.JoinType.LEFT)
+                || !joinClause.getOnCondition().isPresent()) {
+            return null;
         }
         
-        BinaryExpression binary = (BinaryExpression) condition;
-        if (!"=".equals(binary.getOperator())) {
-            return false;
+        int innerSize = rightTable.getRowCount();
+        if (leftRows.size() * log2(innerSize) >= innerSize) {
+            return null;
         }
         
-        // Check if both sides are simple column references
-        return (binary.getLeft() instanceof ColumnReference) && 
-               (binary.getRight() instanceof ColumnReference);
+        JoinKeys joinKeys = extractJoinKeys(joinClause.getOnCondition().get(), leftColumns, combinedColumns, context);
+        if (joinKeys == null) {
+            return null;
+        }
+        IndexNestedLoopJoin indexJoin = IndexNestedLoopJoin.forKeys(
+            rightTable, joinKeys.leftKeyIndexes, joinKeys.rightKeyIndexes);
+        if (indexJoin == null) {
+            return null;
+        }
+        
+        logger.debug("Using {} algorithm for {} join between {} rows and index {} on {} rows",
+                    JoinAlgorithm.INDEX_NESTED_LOOP, joinType, leftRows.size(), indexJoin.getIndexName(), innerSize);
+        List<Expression> residual = new ArrayList<>();
+        joinKeys.residual.ifPresent(residual::add);
+        rightFilter.ifPresent(residual::add);
+        return indexJoin.join(leftRows, leftColumns.size(), rightColumns.size(),
+                              joinType == JoinClause.JoinType.LEFT,
+                              residualPredicate(combineConjuncts(residual), combinedColumns, context));
+    }
+    
+    private static double log2(int n) {
+        return n <= 1 ? 1.0 : Math.log(n) / Math.log(2);
+    }
+    
+    private boolean isColumnEquality(Expression expression) {
+        if (!(expression instanceof BinaryExpression)) {
+            return false;
+        }
+        BinaryExpression binary = (BinaryExpression) expression;
+        return binary.getOperator() == BinaryExpression.Operator.EQUALS
+            && binary.getLeft() instanceof ColumnReference
+            && binary.getRight() instanceof ColumnReference;
+    }
+    
+    /**
+     * Keep the rows for which a WHERE condition is true.
+     */
+    private List<Row> filterRows(JoinResult input, Expression condition, ExecutionContext context) {
+        List<Row> filteredRows = new ArrayList<>();
+        for (Row row : input.rows) {
+            context.setCurrentRow(row);
+            context.setJoinedColumns(input.columns);
+            
+            Object result = expressionEvaluator.evaluate(condition, context);
+            
+            if (Boolean.TRUE.equals(result)) {
+                filteredRows.add(row);
+            }
+        }
+        return filteredRows;
+    }
+    
+    /**
+     * Split an expression into its top-level AND conjuncts.
+     */
+    private List<Expression> splitConjuncts(Expression expression) {
+        List<Expression> conjuncts = new ArrayList<>();
+        collectConjuncts(expression, conjuncts);
+        return conjuncts;
+    }
+    
+    private void collectConjuncts(Expression expression, List<Expression> conjuncts) {
+        if (expression instanceof BinaryExpression
+                && ((BinaryExpression) expression).getOperator() == BinaryExpression.Operator.AND) {
+            BinaryExpression and = (BinaryExpression) expression;
+            collectConjuncts(and.getLeft(), conjuncts);
+            collectConjuncts(and.getRight(), conjuncts);
+        } else {
+            conjuncts.add(expression);
+        }
+    }
+    
+    /**
+     * Combine conjuncts back into a single AND expression.
+     */
+    private Optional<Expression> combineConjuncts(List<Expression> conjuncts) {
+        Expression combined = null;
+        for (Expression conjunct : conjuncts) {
+            combined = combined == null ? conjunct
+                : new BinaryExpression(combined, BinaryExpression.Operator.AND, conjunct);
+        }
+        return Optional.ofNullable(combined);
     }
     
     /**
@@ -832,6 +1715,10 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                                          List<Row> result, ExecutionContext context, JoinAlgorithm algorithm) throws SqlExecutionException {
         
         switch (algorithm) {
+            case SORT_MERGE:
+                executeSortMergeJoin(leftRows, rightRows, leftColumns, rightColumns, 
+                                     onCondition, combinedColumns, result, context, false, false);
+                break;
             case HASH_JOIN:
                 executeHashInnerJoin(leftRows, rightRows, leftColumns, rightColumns, 
                                    onCondition, combinedColumns, result, context);
@@ -879,7 +1766,7 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
         }
         
         // Extract join keys from the equi-join condition
-        JoinKeys joinKeys = extractJoinKeys(onCondition.get(), leftColumns, rightColumns);
+        JoinKeys joinKeys = extractJoinKeys(onCondition.get(), leftColumns, combinedColumns, context);
         if (joinKeys == null) {
             // Fall back to nested loop for complex conditions
             executeNestedLoopInnerJoin(leftRows, rightRows, leftColumns, rightColumns, 
@@ -887,106 +1774,296 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
             return;
         }
         
-        // Choose smaller table for building hash table
-        List<Row> buildRows;
-        List<Row> probeRows;
-        int buildKeyIndex;
-        int probeKeyIndex;
-        boolean leftIsBuild;
-        
+        // Build on the smaller side, probe with the larger one
         if (leftRows.size() <= rightRows.size()) {
-            buildRows = leftRows;
-            probeRows = rightRows;
-            buildKeyIndex = joinKeys.leftKeyIndex;
-            probeKeyIndex = joinKeys.rightKeyIndex;
-            leftIsBuild = true;
+            PartitionedHashJoin hashJoin = new PartitionedHashJoin(leftRows, joinKeys.leftKeyIndexes, rightRows.size());
+            result.addAll(hashJoin.join(rightRows, joinKeys.rightKeyIndexes, false,
+                                        leftColumns.size(), rightColumns.size(), false, false,
+                                        residualPredicate(joinKeys.residual, combinedColumns, context)));
         } else {
-            buildRows = rightRows;
-            probeRows = leftRows;
-            buildKeyIndex = joinKeys.rightKeyIndex;
-            probeKeyIndex = joinKeys.leftKeyIndex;
-            leftIsBuild = false;
-        }
-        
-        // Build phase: create hash table
-        Map<Object, List<Row>> hashTable = new HashMap<>();
-        for (Row buildRow : buildRows) {
-            Object key = buildRow.getData()[buildKeyIndex];
-            if (key != null) { // Skip null keys
-                hashTable.computeIfAbsent(key, k -> new ArrayList<>()).add(buildRow);
-            }
-        }
-        
-        // Probe phase: lookup and join
-        for (Row probeRow : probeRows) {
-            Object key = probeRow.getData()[probeKeyIndex];
-            if (key != null) {
-                List<Row> matchingRows = hashTable.get(key);
-                if (matchingRows != null) {
-                    for (Row matchingRow : matchingRows) {
-                        Row joinedRow = leftIsBuild ? 
-                            combineRows(matchingRow, probeRow) :
-                            combineRows(probeRow, matchingRow);
-                        result.add(joinedRow);
-                    }
-                }
-            }
+            PartitionedHashJoin hashJoin = new PartitionedHashJoin(rightRows, joinKeys.rightKeyIndexes, leftRows.size());
+            result.addAll(hashJoin.join(leftRows, joinKeys.leftKeyIndexes, true,
+                                        rightColumns.size(), leftColumns.size(), false, false,
+                                        residualPredicate(joinKeys.residual, combinedColumns, context)));
         }
     }
     
     /**
      * Helper class to hold join key information.
+     * Key columns are paired by position; the residual holds any ON conjuncts
+     * that are not key equalities and must be checked after the hash probe.
      */
     private static class JoinKeys {
-        final int leftKeyIndex;
-        final int rightKeyIndex;
+        final int[] leftKeyIndexes;
+        final int[] rightKeyIndexes;
+        final Optional<Expression> residual;
         
-        JoinKeys(int leftKeyIndex, int rightKeyIndex) {
-            this.leftKeyIndex = leftKeyIndex;
-            this.rightKeyIndex = rightKeyIndex;
+        JoinKeys(int[] leftKeyIndexes, int[] rightKeyIndexes, Optional<Expression> residual) {
+            this.leftKeyIndexes = leftKeyIndexes;
+            this.rightKeyIndexes = rightKeyIndexes;
+            this.residual = residual;
         }
     }
     
     /**
-     * Extract join keys from equi-join condition.
+     * Extract join keys from an ON condition.
+     * Every top-level conjunct of the form {@code left.col = right.col} becomes part of a
+     * composite key; all other conjuncts form the residual predicate. Column references
+     * are resolved against the combined row the same way {@link ExpressionEvaluator}
+     * resolves them, then assigned to the side they fall on.
      */
-    private JoinKeys extractJoinKeys(Expression condition, List<Column> leftColumns, List<Column> rightColumns) {
-        if (!(condition instanceof BinaryExpression)) {
+    private JoinKeys extractJoinKeys(Expression condition, List<Column> leftColumns,
+                                     List<Column> combinedColumns, ExecutionContext context) {
+        List<Integer> leftKeys = new ArrayList<>();
+        List<Integer> rightKeys = new ArrayList<>();
+        List<Expression> residual = new ArrayList<>();
+        int leftWidth = leftColumns.size();
+        
+        for (Expression conjunct : splitConjuncts(condition)) {
+            if (!isColumnEquality(conjunct)) {
+                residual.add(conjunct);
+                continue;
+            }
+            
+            BinaryExpression binary = (BinaryExpression) conjunct;
+            Integer firstIndex = resolveJoinColumnIndex((ColumnReference) binary.getLeft(), combinedColumns, context);
+            Integer secondIndex = resolveJoinColumnIndex((ColumnReference) binary.getRight(), combinedColumns, context);
+            
+            if (firstIndex != null && secondIndex != null && firstIndex < leftWidth && secondIndex >= leftWidth) {
+                leftKeys.add(firstIndex);
+                rightKeys.add(secondIndex - leftWidth);
+            } else if (firstIndex != null && secondIndex != null && secondIndex < leftWidth && firstIndex >= leftWidth) {
+                leftKeys.add(secondIndex);
+                rightKeys.add(firstIndex - leftWidth);
+            } else {
+                // Both columns on the same side (or unresolved) - evaluate as a filter
+                residual.add(conjunct);
+            }
+        }
+        
+        if (leftKeys.isEmpty()) {
             return null;
         }
         
-        BinaryExpression binary = (BinaryExpression) condition;
-        if (!"=".equals(binary.getOperator())) {
+        return new JoinKeys(
+            leftKeys.stream().mapToInt(Integer::intValue).toArray(),
+            rightKeys.stream().mapToInt(Integer::intValue).toArray(),
+            combineConjuncts(residual));
+    }
+    
+    /**
+     * Create the post-probe predicate for the residual part of a hash join condition.
+     */
+    private PartitionedHashJoin.JoinPredicate residualPredicate(Optional<Expression> residualCondition,
+                                                                 List<Column> combinedColumns, ExecutionContext context) {
+        if (!residualCondition.isPresent()) {
             return null;
         }
+        Expression residual = residualCondition.get();
+        return (leftRow, rightRow) -> {
+            context.setCurrentRow(combineRows(leftRow, rightRow));
+            context.setJoinedColumns(combinedColumns);
+            return Boolean.TRUE.equals(expressionEvaluator.evaluate(residual, context));
+        };
+    }
+    
+    /**
+     * Range join condition plus the ON conjuncts it does not cover.
+     */
+    private static class RangeJoin {
+        final SortMergeJoin.RangeCondition condition;
+        final Optional<Expression> residual;
         
-        Expression left = binary.getLeft();
-        Expression right = binary.getRight();
+        RangeJoin(SortMergeJoin.RangeCondition condition, Optional<Expression> residual) {
+            this.condition = condition;
+            this.residual = residual;
+        }
+    }
+    
+    /**
+     * Extract a band/range join from an ON condition.
+     * Conjuncts of the form {@code x op y} with {@code op} in {@code < <= > >=} and the two
+     * columns on opposite sides are normalized to "left op right". The point column is the one
+     * bounded from both sides when such a column exists (as produced by BETWEEN), otherwise the
+     * left column of the first inequality. Unused conjuncts go to the residual.
+     */
+    private RangeJoin extractRangeJoin(Expression condition, List<Column> leftColumns,
+                                       List<Column> combinedColumns, ExecutionContext context) {
+        int leftWidth = leftColumns.size();
+        List<Expression> conjuncts = splitConjuncts(condition);
+        // Each inequality as {leftIndex, rightIndex, operator ordinal} in "left op right" form
+        List<int[]> inequalities = new ArrayList<>();
+        List<Expression> inequalityConjuncts = new ArrayList<>();
+        
+        for (Expression conjunct : conjuncts) {
+            if (!(conjunct instanceof BinaryExpression)) {
+                continue;
+            }
+            BinaryExpression binary = (BinaryExpression) conjunct;
+            BinaryExpression.Operator op = binary.getOperator();
+            if (op != BinaryExpression.Operator.LESS_THAN && op != BinaryExpression.Operator.LESS_THAN_EQUALS
+                    && op != BinaryExpression.Operator.GREATER_THAN && op != BinaryExpression.Operator.GREATER_THAN_EQUALS) {
+                continue;
+            }
+            if (!(binary.getLeft() instanceof ColumnReference) || !(binary.getRight() instanceof ColumnReference)) {
+                continue;
+            }
+            Integer first = resolveJoinColumnIndex((ColumnReference) binary.getLeft(), combinedColumns, context);
+            Integer second = resolveJoinColumnIndex((ColumnReference) binary.getRight(), combinedColumns, context);
+            if (first == null || second == null) {
+                continue;
+            }
+            if (first < leftWidth && second >= leftWidth) {
+                inequalities.add(new int[]{first, second - leftWidth, op.ordinal()});
+            } else if (second < leftWidth && first >= leftWidth) {
+                inequalities.add(new int[]{second, first - leftWidth, flipComparison(op).ordinal()});
+            } else {
+                continue;
+            }
+            inequalityConjuncts.add(conjunct);
+        }
         
-        if (!(left instanceof ColumnReference) || !(right instanceof ColumnReference)) {
+        if (inequalities.isEmpty()) {
             return null;
         }
         
-        ColumnReference leftCol = (ColumnReference) left;
-        ColumnReference rightCol = (ColumnReference) right;
+        // Prefer a point column with both a lower and an upper bound, on either side
+        int lowerPos = -1;
+        int upperPos = -1;
+        boolean pointIsLeft = true;
+        search:
+        for (int side = 0; side < 2; side++) {
+            for (int i = 0; i < inequalities.size(); i++) {
+                for (int j = 0; j < inequalities.size(); j++) {
+                    int[] a = inequalities.get(i);
+                    int[] b = inequalities.get(j);
+                    if (i != j && a[side] == b[side] && isLowerBound(a[2], side == 0) && !isLowerBound(b[2], side == 0)) {
+                        lowerPos = i;
+                        upperPos = j;
+                        pointIsLeft = side == 0;
+                        break search;
+                    }
+                }
+            }
+        }
+        if (lowerPos < 0) {
+            if (isLowerBound(inequalities.get(0)[2], true)) {
+                lowerPos = 0;
+            } else {
+                upperPos = 0;
+            }
+        }
+        
+        int pointSide = pointIsLeft ? 0 : 1;
+        int boundSide = 1 - pointSide;
+        int[] lower = lowerPos >= 0 ? inequalities.get(lowerPos) : null;
+        int[] upper = upperPos >= 0 ? inequalities.get(upperPos) : null;
+        int pointIndex = (lower != null ? lower : upper)[pointSide];
         
-        // Find column indexes
-        Integer leftIndex = findColumnIndex(leftCol.getColumnName(), leftColumns);
-        Integer rightIndex = findColumnIndex(rightCol.getColumnName(), rightColumns);
+        SortMergeJoin.RangeCondition range = new SortMergeJoin.RangeCondition(
+            pointIsLeft, pointIndex,
+            lower != null ? lower[boundSide] : -1, lower != null && isInclusive(lower[2]),
+            upper != null ? upper[boundSide] : -1, upper != null && isInclusive(upper[2]));
         
-        if (leftIndex != null && rightIndex != null) {
-            return new JoinKeys(leftIndex, rightIndex + leftColumns.size());
+        List<Expression> residual = new ArrayList<>();
+        for (Expression conjunct : conjuncts) {
+            int position = inequalityConjuncts.indexOf(conjunct);
+            if (position < 0 || (position != lowerPos && position != upperPos)) {
+                residual.add(conjunct);
+            }
         }
+        return new RangeJoin(range, combineConjuncts(residual));
+    }
+    
+    /**
+     * Whether "left op right" bounds the point from below, for a point on the left or right side.
+     */
+    private static boolean isLowerBound(int operatorOrdinal, boolean pointIsLeft) {
+        BinaryExpression.Operator op = BinaryExpression.Operator.values()[operatorOrdinal];
+        boolean leftIsGreater = op == BinaryExpression.Operator.GREATER_THAN
+            || op == BinaryExpression.Operator.GREATER_THAN_EQUALS;
+        return pointIsLeft == leftIsGreater;
+    }
+    
+    private static boolean isInclusive(int operatorOrdinal) {
+        BinaryExpression.Operator op = BinaryExpression.Operator.values()[operatorOrdinal];
+        return op == BinaryExpression.Operator.LESS_THAN_EQUALS || op == BinaryExpression.Operator.GREATER_THAN_EQUALS;
+    }
+    
+    private static BinaryExpression.Operator flipComparison(BinaryExpression.Operator op) {
+        switch (op) {
+            case LESS_THAN: return BinaryExpression.Operator.GREATER_THAN;
+            case LESS_THAN_EQUALS: return BinaryExpression.Operator.GREATER_THAN_EQUALS;
+            case GREATER_THAN: return BinaryExpression.Operator.LESS_THAN;
+            case GREATER_THAN_EQUALS: return BinaryExpression.Operator.LESS_THAN_EQUALS;
+            default: return op;
+        }
+    }
+    
+    /**
+     * Execute a join with the sort-based operators: a merge join for equi-joins on pre-sorted
+     * inputs, or a band join for range conditions. Falls back to nested loop otherwise.
+     */
+    private void executeSortMergeJoin(List<Row> leftRows, List<Row> rightRows,
+                                      List<Column> leftColumns, List<Column> rightColumns,
+                                      Optional<Expression> onCondition, List<Column> combinedColumns,
+                                      List<Row> result, ExecutionContext context,
+                                      boolean preserveLeft, boolean preserveRight) throws SqlExecutionException {
+        if (onCondition.isPresent()) {
+            JoinKeys joinKeys = extractJoinKeys(onCondition.get(), leftColumns, combinedColumns, context);
+            if (joinKeys != null) {
+                result.addAll(SortMergeJoin.mergeEquiJoin(leftRows, rightRows,
+                    joinKeys.leftKeyIndexes, joinKeys.rightKeyIndexes, leftColumns.size(), rightColumns.size(),
+                    preserveLeft, preserveRight, residualPredicate(joinKeys.residual, combinedColumns, context)));
+                return;
+            }
+            
+            RangeJoin rangeJoin = extractRangeJoin(onCondition.get(), leftColumns, combinedColumns, context);
+            if (rangeJoin != null) {
+                result.addAll(SortMergeJoin.bandJoin(leftRows, rightRows, rangeJoin.condition,
+                    leftColumns.size(), rightColumns.size(), preserveLeft, preserveRight,
+                    residualPredicate(rangeJoin.residual, combinedColumns, context)));
+                return;
+            }
+        }
+        
+        if (preserveLeft && preserveRight) {
+            executeNestedLoopFullOuterJoin(leftRows, rightRows, leftColumns, rightColumns, onCondition, combinedColumns, result, context);
+        } else if (preserveLeft) {
+            executeNestedLoopLeftOuterJoin(leftRows, rightRows, leftColumns, rightColumns, onCondition, combinedColumns, result, context);
+        } else if (preserveRight) {
+            executeNestedLoopRightOuterJoin(leftRows, rightRows, leftColumns, rightColumns, onCondition, combinedColumns, result, context);
+        } else {
+            executeNestedLoopInnerJoin(leftRows, rightRows, leftColumns, rightColumns, onCondition, combinedColumns, result, context);
+        }
+    }
+    
+    /**
+     * Resolve a column reference to its position in the combined join row.
+     */
+    private Integer resolveJoinColumnIndex(ColumnReference colRef, List<Column> combinedColumns, ExecutionContext context) {
+        String columnName = colRef.getColumnName();
         
-        // Try the reverse (right column might be from left table)
-        rightIndex = findColumnIndex(leftCol.getColumnName(), rightColumns);
-        leftIndex = findColumnIndex(rightCol.getColumnName(), leftColumns);
-        
-        if (leftIndex != null && rightIndex != null) {
-            return new JoinKeys(leftIndex, rightIndex + leftColumns.size());
+        if (colRef.getTableName().isPresent() && context.getTableColumns() != null && context.getTableOrder() != null) {
+            String tableName = colRef.getTableName().get().toLowerCase();
+            int offset = 0;
+            for (String tableKey : context.getTableOrder()) {
+                List<Column> columns = context.getTableColumns().get(tableKey);
+                if (columns == null) {
+                    continue;
+                }
+                if (tableKey.equals(tableName)) {
+                    Integer index = findColumnIndex(columnName, columns);
+                    if (index != null) {
+                        return offset + index;
+                    }
+                    break;
+                }
+                offset += columns.size();
+            }
         }
         
-        return null;
+        return findColumnIndex(columnName, combinedColumns);
     }
     
     /**
@@ -1010,6 +2087,10 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                                              List<Row> result, ExecutionContext context, JoinAlgorithm algorithm) throws SqlExecutionException {
         
         switch (algorithm) {
+            case SORT_MERGE:
+                executeSortMergeJoin(leftRows, rightRows, leftColumns, rightColumns, 
+                                     onCondition, combinedColumns, result, context, true, false);
+                break;
             case HASH_JOIN:
                 executeHashLeftOuterJoin(leftRows, rightRows, leftColumns, rightColumns, 
                                        onCondition, combinedColumns, result, context);
@@ -1067,41 +2148,19 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
         }
         
         // Extract join keys from the equi-join condition
-        JoinKeys joinKeys = extractJoinKeys(onCondition.get(), leftColumns, rightColumns);
+        JoinKeys joinKeys = extractJoinKeys(onCondition.get(), leftColumns, combinedColumns, context);
         if (joinKeys == null) {
             // Fall back to nested loop for complex conditions
             executeNestedLoopLeftOuterJoin(leftRows, rightRows, leftColumns, rightColumns, 
-                                         onCondition, combinedColumns, result, context);
+                                           onCondition, combinedColumns, result, context);
             return;
         }
         
-        // Build hash table from right table (probe side)
-        Map<Object, List<Row>> hashTable = new HashMap<>();
-        for (Row rightRow : rightRows) {
-            Object key = rightRow.getData()[joinKeys.rightKeyIndex];
-            if (key != null) { // Skip null keys
-                hashTable.computeIfAbsent(key, k -> new ArrayList<>()).add(rightRow);
-            }
-        }
-        
-        // Probe with left table and preserve all left rows
-        for (Row leftRow : leftRows) {
-            Object key = leftRow.getData()[joinKeys.leftKeyIndex];
-            List<Row> matchingRows = (key != null) ? hashTable.get(key) : null;
-            
-            if (matchingRows != null && !matchingRows.isEmpty()) {
-                // Found matches, add all combinations
-                for (Row rightRow : matchingRows) {
-                    Row joinedRow = combineRows(leftRow, rightRow);
-                    result.add(joinedRow);
-                }
-            } else {
-                // No match found, add left row with nulls for right columns
-                Row nullRightRow = createNullRow(rightColumns.size());
-                Row joinedRow = combineRows(leftRow, nullRightRow);
-                result.add(joinedRow);
-            }
-        }
+        // Build on the right side and probe with every left row, padding unmatched ones
+        PartitionedHashJoin hashJoin = new PartitionedHashJoin(rightRows, joinKeys.rightKeyIndexes, leftRows.size());
+        result.addAll(hashJoin.join(leftRows, joinKeys.leftKeyIndexes, true,
+                                    rightColumns.size(), leftColumns.size(), true, false,
+                                    residualPredicate(joinKeys.residual, combinedColumns, context)));
     }
     
     /**
@@ -1113,6 +2172,10 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                                                List<Row> result, ExecutionContext context, JoinAlgorithm algorithm) throws SqlExecutionException {
         
         switch (algorithm) {
+            case SORT_MERGE:
+                executeSortMergeJoin(leftRows, rightRows, leftColumns, rightColumns, 
+                                     onCondition, combinedColumns, result, context, false, true);
+                break;
             case HASH_JOIN:
                 executeHashRightOuterJoin(leftRows, rightRows, leftColumns, rightColumns, 
                                         onCondition, combinedColumns, result, context);
@@ -1170,41 +2233,19 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
         }
         
         // Extract join keys from the equi-join condition
-        JoinKeys joinKeys = extractJoinKeys(onCondition.get(), leftColumns, rightColumns);
+        JoinKeys joinKeys = extractJoinKeys(onCondition.get(), leftColumns, combinedColumns, context);
         if (joinKeys == null) {
             // Fall back to nested loop for complex conditions
             executeNestedLoopRightOuterJoin(leftRows, rightRows, leftColumns, rightColumns, 
-                                          onCondition, combinedColumns, result, context);
+                                            onCondition, combinedColumns, result, context);
             return;
         }
         
-        // Build hash table from left table
-        Map<Object, List<Row>> hashTable = new HashMap<>();
-        for (Row leftRow : leftRows) {
-            Object key = leftRow.getData()[joinKeys.leftKeyIndex];
-            if (key != null) { // Skip null keys
-                hashTable.computeIfAbsent(key, k -> new ArrayList<>()).add(leftRow);
-            }
-        }
-        
-        // Probe with right table and preserve all right rows
-        for (Row rightRow : rightRows) {
-            Object key = rightRow.getData()[joinKeys.rightKeyIndex];
-            List<Row> matchingRows = (key != null) ? hashTable.get(key) : null;
-            
-            if (matchingRows != null && !matchingRows.isEmpty()) {
-                // Found matches, add all combinations
-                for (Row leftRow : matchingRows) {
-                    Row joinedRow = combineRows(leftRow, rightRow);
-                    result.add(joinedRow);
-                }
-            } else {
-                // No match found, add right row with nulls for left columns
-                Row nullLeftRow = createNullRow(leftColumns.size());
-                Row joinedRow = combineRows(nullLeftRow, rightRow);
-                result.add(joinedRow);
-            }
-        }
+        // Build on the left side and probe with every right row, padding unmatched ones
+        PartitionedHashJoin hashJoin = new PartitionedHashJoin(leftRows, joinKeys.leftKeyIndexes, rightRows.size());
+        result.addAll(hashJoin.join(rightRows, joinKeys.rightKeyIndexes, false,
+                                    leftColumns.size(), rightColumns.size(), true, false,
+                                    residualPredicate(joinKeys.residual, combinedColumns, context)));
     }
     
     /**
@@ -1216,6 +2257,10 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                                               List<Row> result, ExecutionContext context, JoinAlgorithm algorithm) throws SqlExecutionException {
         
         switch (algorithm) {
+            case SORT_MERGE:
+                executeSortMergeJoin(leftRows, rightRows, leftColumns, rightColumns, 
+                                     onCondition, combinedColumns, result, context, true, true);
+                break;
             case HASH_JOIN:
                 executeHashFullOuterJoin(leftRows, rightRows, leftColumns, rightColumns, 
                                        onCondition, combinedColumns, result, context);
@@ -1286,54 +2331,19 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
         }
         
         // Extract join keys from the equi-join condition
-        JoinKeys joinKeys = extractJoinKeys(onCondition.get(), leftColumns, rightColumns);
+        JoinKeys joinKeys = extractJoinKeys(onCondition.get(), leftColumns, combinedColumns, context);
         if (joinKeys == null) {
             // Fall back to nested loop for complex conditions
             executeNestedLoopFullOuterJoin(leftRows, rightRows, leftColumns, rightColumns, 
-                                         onCondition, combinedColumns, result, context);
+                                           onCondition, combinedColumns, result, context);
             return;
         }
         
-        // Build hash table from smaller table
-        Map<Object, List<Row>> leftHashTable = new HashMap<>();
-        for (Row leftRow : leftRows) {
-            Object key = leftRow.getData()[joinKeys.leftKeyIndex];
-            if (key != null) {
-                leftHashTable.computeIfAbsent(key, k -> new ArrayList<>()).add(leftRow);
-            }
-        }
-        
-        Set<Object> matchedKeys = new HashSet<>();
-        
-        // Process right table: find matches and add unmatched rights
-        for (Row rightRow : rightRows) {
-            Object key = rightRow.getData()[joinKeys.rightKeyIndex];
-            List<Row> matchingLeftRows = (key != null) ? leftHashTable.get(key) : null;
-            
-            if (matchingLeftRows != null && !matchingLeftRows.isEmpty()) {
-                // Found matches
-                matchedKeys.add(key);
-                for (Row leftRow : matchingLeftRows) {
-                    Row joinedRow = combineRows(leftRow, rightRow);
-                    result.add(joinedRow);
-                }
-            } else {
-                // No match found, add right row with nulls for left columns
-                Row nullLeftRow = createNullRow(leftColumns.size());
-                Row joinedRow = combineRows(nullLeftRow, rightRow);
-                result.add(joinedRow);
-            }
-        }
-        
-        // Add unmatched left rows
-        for (Row leftRow : leftRows) {
-            Object key = leftRow.getData()[joinKeys.leftKeyIndex];
-            if (key == null || !matchedKeys.contains(key)) {
-                Row nullRightRow = createNullRow(rightColumns.size());
-                Row joinedRow = combineRows(leftRow, nullRightRow);
-                result.add(joinedRow);
-            }
-        }
+        // Build on the left side, probe with the right side, then emit left rows that never matched
+        PartitionedHashJoin hashJoin = new PartitionedHashJoin(leftRows, joinKeys.leftKeyIndexes, rightRows.size());
+        result.addAll(hashJoin.join(rightRows, joinKeys.rightKeyIndexes, false,
+                                    leftColumns.size(), rightColumns.size(), true, true,
+                                    residualPredicate(joinKeys.residual, combinedColumns, context)));
     }
     
     /**
@@ -1381,27 +2391,146 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
     }
 
     // Helper methods
+    /**
+     * Sort rows for ORDER BY. Sort keys are evaluated once per row, and the sort spills
+     * sorted runs to disk once it exceeds the engine's work memory; see {@link #sortRows}.
+     */
     private List<Row> applyOrderBy(List<Row> rows, OrderByClause orderBy, 
-                                  ExecutionContext context, List<Column> columns) {
-        return rows.stream()
-            .sorted((row1, row2) -> {
-                for (OrderByClause.OrderItem item : orderBy.getOrderItems()) {
-                    context.setCurrentRow(row1);
-                    context.setJoinedColumns(columns);
-                    Object value1 = expressionEvaluator.evaluate(item.getExpression(), context);
-                    
-                    context.setCurrentRow(row2);
-                    context.setJoinedColumns(columns);
-                    Object value2 = expressionEvaluator.evaluate(item.getExpression(), context);
-                    
-                    int comparison = compareValues(value1, value2);
-                    if (comparison != 0) {
-                        return item.isAscending() ? comparison : -comparison;
-                    }
+                                  ExecutionContext context, List<Column> columns) throws SqlExecutionException {
+        return applyOrderBy(rows, orderBy, context, columns, -1);
+    }
+    
+    /**
+     * Sort rows for ORDER BY, keeping only the first {@code topN} rows when it is not negative.
+     * A bounded heap is used when that is fewer than the input rows.
+     */
+    private List<Row> applyOrderBy(List<Row> rows, OrderByClause orderBy, ExecutionContext context,
+                                  List<Column> columns, int topN) throws SqlExecutionException {
+        List<OrderByClause.OrderItem> orderItems = orderBy.getOrderItems();
+        Comparator<Object[]> keyComparator = sortKeyComparator(orderItems);
+        
+        if (topN >= 0 && topN < rows.size()) {
+            TopNSort sort = new TopNSort(keyComparator, topN);
+            for (Row row : rows) {
+                sort.add(evaluateSortKeys(row, orderItems, context, columns), row);
+            }
+            return sort.finish();
+        }
+        
+        try (ExternalSort sort = sortRows(rows, orderBy, context, columns)) {
+            List<Row> sorted = new ArrayList<>(sort.getRowCount());
+            sort.finish().forEachRemaining(sorted::add);
+            return sorted;
+        } catch (IOException | UncheckedIOException e) {
+            throw new SqlExecutionException("Failed to spill ORDER BY to " + engine.getSpillDirectory(), e);
+        }
+    }
+    
+    /**
+     * Add rows to an {@link ExternalSort} for ORDER BY, ready to be finished.
+     * 
+     * <p>If the sort spilled, the input list is cleared once every row is added, so that the
+     * spilled rows are not held twice while they are merged back: callers pass a list the query
+     * owns and do not use it afterwards. The caller must close the returned sort.
+     */
+    private ExternalSort sortRows(List<Row> rows, OrderByClause orderBy, ExecutionContext context,
+                                  List<Column> columns) throws SqlExecutionException {
+        List<OrderByClause.OrderItem> orderItems = orderBy.getOrderItems();
+        ExternalSort sort = new ExternalSort(sortKeyComparator(orderItems), engine.getWorkMemoryBytes(),
+                                             engine.getSpillDirectory());
+        try {
+            for (Row row : rows) {
+                sort.add(evaluateSortKeys(row, orderItems, context, columns), row);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            closeQuietly(sort);
+            throw new SqlExecutionException("Failed to spill ORDER BY to " + engine.getSpillDirectory(), e);
+        } catch (RuntimeException e) {
+            closeQuietly(sort);
+            throw e;
+        }
+        // A query without FROM sorts an immutable single-row list
+        if (sort.getSpilledRunCount() > 0 && rows instanceof ArrayList) {
+            rows.clear();
+        }
+        return sort;
+    }
+    
+    /**
+     * Sort rows for ORDER BY into a cursor that merges them as they are fetched, so that the
+     * rows of a spilled sort are read back in batches instead of all at once.
+     */
+    private RowCursor openSortedCursor(List<Row> rows, OrderByClause orderBy, ExecutionContext context,
+                                       List<Column> sortColumns, List<Column> resultColumns,
+                                       RowCursor.Projection projection) throws SqlExecutionException {
+        ExternalSort sort = sortRows(rows, orderBy, context, sortColumns);
+        try {
+            return new RowCursor(resultColumns, sort.finish(), sort.getRowCount(), projection, sort);
+        } catch (IOException | UncheckedIOException e) {
+            closeQuietly(sort);
+            throw new SqlExecutionException("Failed to spill ORDER BY to " + engine.getSpillDirectory(), e);
+        }
+    }
+    
+    private static void closeQuietly(ExternalSort sort) {
+        try {
+            sort.close();
+        } catch (IOException e) {
+            logger.warn("Failed to remove ORDER BY spill files: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Ordering of sort key arrays evaluated by {@link #evaluateSortKeys}; NULLs sort first.
+     */
+    private Comparator<Object[]> sortKeyComparator(List<OrderByClause.OrderItem> orderItems) {
+        return (keys1, keys2) -> {
+            for (int i = 0; i < keys1.length; i++) {
+                int comparison = compareValues(keys1[i], keys2[i]);
+                if (comparison != 0) {
+                    return orderItems.get(i).isAscending() ? comparison : -comparison;
                 }
-                return 0;
-            })
-            .collect(Collectors.toList());
+            }
+            return 0;
+        };
+    }
+    
+    private Object[] evaluateSortKeys(Row row, List<OrderByClause.OrderItem> orderItems,
+                                      ExecutionContext context, List<Column> columns) {
+        context.setCurrentRow(row);
+        context.setJoinedColumns(columns);
+        Object[] keys = new Object[orderItems.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = expressionEvaluator.evaluate(orderItems.get(i).getExpression(), context);
+        }
+        return keys;
+    }
+    
+    /**
+     * Number of leading sorted rows a query needs when its LIMIT and OFFSET are constants or
+     * parameters (LIMIT + OFFSET), or -1 when all rows must be sorted.
+     */
+    private int constantTopN(SelectStatement node, ExecutionContext context) {
+        if (!node.getLimitClause().isPresent()) {
+            return -1;
+        }
+        LimitClause limitClause = node.getLimitClause().get();
+        if (!isConstant(limitClause.getLimit())
+                || (limitClause.getOffset().isPresent() && !isConstant(limitClause.getOffset().get()))) {
+            return -1;
+        }
+        Object limit = expressionEvaluator.evaluate(limitClause.getLimit(), context);
+        Object offset = limitClause.getOffset().isPresent()
+            ? expressionEvaluator.evaluate(limitClause.getOffset().get(), context) : 0;
+        if (!(limit instanceof Number) || !(offset instanceof Number) || ((Number) limit).longValue() < 0) {
+            return -1;
+        }
+        long topN = ((Number) limit).longValue() + Math.max(0, ((Number) offset).longValue());
+        return (int) Math.min(topN, Integer.MAX_VALUE);
+    }
+    
+    private static boolean isConstant(Expression expression) {
+        return expression instanceof LiteralExpression || expression instanceof ParameterExpression;
     }
     
     private int evaluateIntExpression(Expression expr, ExecutionContext context) {
@@ -1503,7 +2632,8 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
     
     private boolean containsAggregateFunction(Expression expression) {
         if (expression instanceof AggregateFunction) {
-            return true;
+            // Aggregates with an OVER clause are window functions and do not group rows
+            return !((AggregateFunction) expression).isWindowFunction();
         }
         
         // Recursively check nested expressions
@@ -1543,23 +2673,9 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
             }
         }
         
-        if (expression instanceof SubqueryExpression) {
-            SubqueryExpression subquery = (SubqueryExpression) expression;
-            // Check if the subquery contains aggregate functions in its SELECT items
-            return hasAggregateFunction(subquery.getSelectStatement().getSelectItems());
-        }
-        
+        // Aggregates inside a subquery belong to the subquery and do not group the outer rows
         if (expression instanceof InSubqueryExpression) {
-            InSubqueryExpression inSubquery = (InSubqueryExpression) expression;
-            // Check the main expression and the subquery
-            return containsAggregateFunction(inSubquery.getExpression()) ||
-                   hasAggregateFunction(inSubquery.getSubquery().getSelectItems());
-        }
-        
-        if (expression instanceof ExistsExpression) {
-            ExistsExpression exists = (ExistsExpression) expression;
-            // Check if the subquery contains aggregate functions
-            return hasAggregateFunction(exists.getSubquery().getSelectItems());
+            return containsAggregateFunction(((InSubqueryExpression) expression).getExpression());
         }
         
         // Other expression types (LiteralExpression, ColumnReference, etc.) don't contain nested expressions
@@ -1679,79 +2795,114 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
     private AggregationResult performSimpleAggregation(SelectStatement selectStatement, List<Row> rows, 
                                                       List<Column> columns, ExecutionContext context) throws SqlExecutionException {
         
-        // Calculate aggregate values for all rows as a single group
-        List<Object> aggregatedValues = new ArrayList<>();
-        List<Column> resultColumns = new ArrayList<>();
-        
-        for (int i = 0; i < selectStatement.getSelectItems().size(); i++) {
-            SelectItem item = selectStatement.getSelectItems().get(i);
-            String columnName;
-            if (item.getAlias().isPresent()) {
-                columnName = item.getAlias().get();
-            } else if (item.getExpression() instanceof com.memgres.sql.ast.expression.ColumnReference) {
-                com.memgres.sql.ast.expression.ColumnReference colRef = 
-                    (com.memgres.sql.ast.expression.ColumnReference) item.getExpression();
-                columnName = colRef.getColumnName();
-            } else {
-                columnName = "column" + i;
-            }
-            
-            if (item.getExpression() instanceof AggregateFunction) {
-                AggregateFunction aggregateFunc = (AggregateFunction) item.getExpression();
-                Object aggregatedValue = calculateAggregateValue(aggregateFunc, rows, columns, context);
-                aggregatedValues.add(aggregatedValue);
-            } else {
-                // Non-aggregate expression in aggregate query - use first row's value
-                if (!rows.isEmpty()) {
-                    context.setCurrentRow(rows.get(0));
-                    context.setJoinedColumns(columns);
-                    Object value = expressionEvaluator.evaluate(item.getExpression(), context);
-                    aggregatedValues.add(value);
-                } else {
-                    aggregatedValues.add(null);
-                }
-            }
-            
-            resultColumns.add(new Column.Builder()
-                .name(columnName)
-                .dataType(DataType.TEXT)
-                .build());
+        // Aggregate all rows as a single group; it exists even when there are no rows
+        HashAggregation aggregation = new HashAggregation(aggregateFunctions(selectStatement), this::compareObjects);
+        HashAggregation.Group group = aggregation.singleGroup(rows.isEmpty() ? null : rows.get(0));
+        for (Row row : rows) {
+            context.setCurrentRow(row);
+            context.setJoinedColumns(columns);
+            accumulateRow(selectStatement, group, context);
         }
         
-        Row resultRow = new Row(1L, aggregatedValues.toArray());
-        return new AggregationResult(resultColumns, List.of(resultRow));
+        List<Row> resultRows = new ArrayList<>();
+        buildAggregatedRows(selectStatement, aggregation, columns, context, resultRows);
+        return new AggregationResult(aggregationResultColumns(selectStatement), resultRows);
     }
     
     private AggregationResult performGroupByAggregation(SelectStatement selectStatement, List<Row> rows, 
                                                        List<Column> columns, ExecutionContext context) throws SqlExecutionException {
         
-        GroupByClause groupBy = selectStatement.getGroupByClause().get();
-        
-        // Group rows by GROUP BY expressions
-        Map<String, List<Row>> groups = new LinkedHashMap<>();
-        
-        for (Row row : rows) {
-            context.setCurrentRow(row);
-            context.setJoinedColumns(columns);
-            
-            // Calculate group key
-            StringBuilder keyBuilder = new StringBuilder();
-            for (int i = 0; i < groupBy.getGroupingExpressions().size(); i++) {
-                Expression groupExpr = groupBy.getGroupingExpressions().get(i);
-                Object value = expressionEvaluator.evaluate(groupExpr, context);
-                if (i > 0) keyBuilder.append("|");
-                keyBuilder.append(value != null ? value.toString() : "NULL");
+        List<Row> resultRows = new ArrayList<>();
+        try {
+            aggregateGroups(selectStatement, rows.iterator(), 0, columns, context, resultRows);
+        } catch (IOException | UncheckedIOException e) {
+            throw new SqlExecutionException("Failed to spill GROUP BY to " + engine.getSpillDirectory(), e);
+        }
+        return new AggregationResult(aggregationResultColumns(selectStatement), resultRows);
+    }
+    
+    /**
+     * Hash-aggregate the rows and append one result row per group. Rows of groups that do
+     * not fit in work memory are spilled to partitions, which are aggregated recursively.
+     */
+    private void aggregateGroups(SelectStatement selectStatement, Iterator<Row> rows, int depth,
+                                 List<Column> columns, ExecutionContext context, List<Row> resultRows) throws IOException {
+        List<Expression> groupingExpressions = selectStatement.getGroupByClause().get().getGroupingExpressions();
+        
+        try (HashAggregation aggregation = new HashAggregation(aggregateFunctions(selectStatement), this::compareObjects,
+                engine.getWorkMemoryBytes(), engine.getSpillDirectory(), depth)) {
+            // Single pass: find each row's group by its typed key and fold the row into the
+            // group's running aggregates
+            while (rows.hasNext()) {
+                Row row = rows.next();
+                context.setCurrentRow(row);
+                context.setJoinedColumns(columns);
+                
+                Object[] keyValues = new Object[groupingExpressions.size()];
+                for (int i = 0; i < keyValues.length; i++) {
+                    keyValues[i] = expressionEvaluator.evaluate(groupingExpressions.get(i), context);
+                }
+                HashAggregation.Group group = aggregation.group(keyValues, row);
+                if (group != null) {
+                    accumulateRow(selectStatement, group, context);
+                }
             }
-            String groupKey = keyBuilder.toString();
             
-            groups.computeIfAbsent(groupKey, k -> new ArrayList<>()).add(row);
+            buildAggregatedRows(selectStatement, aggregation, columns, context, resultRows);
+            for (SpillFile partition : aggregation.spilledPartitions()) {
+                aggregateGroups(selectStatement, partition.rows(), depth + 1, columns, context, resultRows);
+            }
         }
-        
-        // Calculate aggregated results for each group
-        List<Row> resultRows = new ArrayList<>();
+    }
+    
+    private AggregateFunction[] aggregateFunctions(SelectStatement selectStatement) {
+        List<SelectItem> items = selectStatement.getSelectItems();
+        AggregateFunction[] aggregates = new AggregateFunction[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getExpression() instanceof AggregateFunction) {
+                aggregates[i] = (AggregateFunction) items.get(i).getExpression();
+            }
+        }
+        return aggregates;
+    }
+    
+    /**
+     * Feed the current row of the context into every aggregate of the group.
+     */
+    private void accumulateRow(SelectStatement selectStatement, HashAggregation.Group group, ExecutionContext context) {
+        List<SelectItem> items = selectStatement.getSelectItems();
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getExpression() instanceof AggregateFunction) {
+                AggregateFunction aggregateFunc = (AggregateFunction) items.get(i).getExpression();
+                Object value = aggregateFunc.isCountStar() ? null
+                    : expressionEvaluator.evaluate(aggregateFunc.getExpression(), context);
+                group.accumulate(i, value);
+            }
+        }
+    }
+    
+    private void buildAggregatedRows(SelectStatement selectStatement, HashAggregation aggregation,
+                                     List<Column> columns, ExecutionContext context, List<Row> resultRows) {
+        List<SelectItem> items = selectStatement.getSelectItems();
+        long rowId = resultRows.size() + 1;
+        for (HashAggregation.Group group : aggregation.groups()) {
+            Object[] values = new Object[items.size()];
+            for (int i = 0; i < items.size(); i++) {
+                if (items.get(i).getExpression() instanceof AggregateFunction) {
+                    values[i] = group.result(i);
+                } else if (group.getFirstRow() != null) {
+                    // Non-aggregate expression in aggregate query - use the group's first row
+                    context.setCurrentRow(group.getFirstRow());
+                    context.setJoinedColumns(columns);
+                    values[i] = expressionEvaluator.evaluate(items.get(i).getExpression(), context);
+                }
+            }
+            resultRows.add(new Row(rowId++, values));
+        }
+    }
+    
+    private List<Column> aggregationResultColumns(SelectStatement selectStatement) {
         List<Column> resultColumns = new ArrayList<>();
-        
-        // Determine result columns
         for (int i = 0; i < selectStatement.getSelectItems().size(); i++) {
             SelectItem item = selectStatement.getSelectItems().get(i);
             String columnName;
@@ -1769,133 +2920,7 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                 .dataType(DataType.TEXT)
                 .build());
         }
-        
-        // Process each group
-        long rowId = 1;
-        for (Map.Entry<String, List<Row>> group : groups.entrySet()) {
-            List<Row> groupRows = group.getValue();
-            List<Object> aggregatedValues = new ArrayList<>();
-            
-            for (SelectItem item : selectStatement.getSelectItems()) {
-                if (item.getExpression() instanceof AggregateFunction) {
-                    AggregateFunction aggregateFunc = (AggregateFunction) item.getExpression();
-                    Object aggregatedValue = calculateAggregateValue(aggregateFunc, groupRows, columns, context);
-                    aggregatedValues.add(aggregatedValue);
-                } else {
-                    // Non-aggregate expression in GROUP BY query - use first row's value
-                    if (!groupRows.isEmpty()) {
-                        context.setCurrentRow(groupRows.get(0));
-                        context.setJoinedColumns(columns);
-                        Object value = expressionEvaluator.evaluate(item.getExpression(), context);
-                        aggregatedValues.add(value);
-                    } else {
-                        aggregatedValues.add(null);
-                    }
-                }
-            }
-            
-            Row resultRow = new Row(rowId++, aggregatedValues.toArray());
-            resultRows.add(resultRow);
-        }
-        
-        return new AggregationResult(resultColumns, resultRows);
-    }
-    
-    private Object calculateAggregateValue(AggregateFunction aggregateFunc, List<Row> rows, 
-                                          List<Column> columns, ExecutionContext context) {
-        
-        switch (aggregateFunc.getAggregateType()) {
-            case COUNT:
-                if (aggregateFunc.isCountStar()) {
-                    return (long) rows.size();
-                } else {
-                    // COUNT with expression - count non-null values
-                    long count = 0;
-                    for (Row row : rows) {
-                        context.setCurrentRow(row);
-                        context.setJoinedColumns(columns);
-                        Object value = expressionEvaluator.evaluate(aggregateFunc.getExpression(), context);
-                        if (value != null) {
-                            count++;
-                        }
-                    }
-                    return count;
-                }
-                
-            case COUNT_DISTINCT:
-                // COUNT DISTINCT - count unique non-null values
-                Set<Object> uniqueValues = new HashSet<>();
-                for (Row row : rows) {
-                    context.setCurrentRow(row);
-                    context.setJoinedColumns(columns);
-                    Object value = expressionEvaluator.evaluate(aggregateFunc.getExpression(), context);
-                    if (value != null) {
-                        uniqueValues.add(value);
-                    }
-                }
-                return (long) uniqueValues.size();
-                
-            case SUM:
-                // SUM - sum numeric values
-                double sum = 0;
-                for (Row row : rows) {
-                    context.setCurrentRow(row);
-                    context.setJoinedColumns(columns);
-                    Object value = expressionEvaluator.evaluate(aggregateFunc.getExpression(), context);
-                    if (value instanceof Number) {
-                        sum += ((Number) value).doubleValue();
-                    }
-                }
-                return sum;
-                
-            case AVG:
-                // AVG - average of numeric values
-                double total = 0;
-                int count = 0;
-                for (Row row : rows) {
-                    context.setCurrentRow(row);
-                    context.setJoinedColumns(columns);
-                    Object value = expressionEvaluator.evaluate(aggregateFunc.getExpression(), context);
-                    if (value instanceof Number) {
-                        total += ((Number) value).doubleValue();
-                        count++;
-                    }
-                }
-                return count > 0 ? total / count : null;
-                
-            case MIN:
-                // MIN - minimum value
-                Object min = null;
-                for (Row row : rows) {
-                    context.setCurrentRow(row);
-                    context.setJoinedColumns(columns);
-                    Object value = expressionEvaluator.evaluate(aggregateFunc.getExpression(), context);
-                    if (value != null) {
-                        if (min == null || compareObjects(value, min) < 0) {
-                            min = value;
-                        }
-                    }
-                }
-                return min;
-                
-            case MAX:
-                // MAX - maximum value
-                Object max = null;
-                for (Row row : rows) {
-                    context.setCurrentRow(row);
-                    context.setJoinedColumns(columns);
-                    Object value = expressionEvaluator.evaluate(aggregateFunc.getExpression(), context);
-                    if (value != null) {
-                        if (max == null || compareObjects(value, max) > 0) {
-                            max = value;
-                        }
-                    }
-                }
-                return max;
-                
-            default:
-                throw new IllegalArgumentException("Unsupported aggregate function: " + aggregateFunc.getAggregateType());
-        }
+        return resultColumns;
     }
     
     @SuppressWarnings("unchecked")
@@ -1911,16 +2936,20 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
     }
     
     // Helper methods for window functions
+    /**
+     * Evaluate a select list containing window functions. Each distinct OVER clause is
+     * partitioned and sorted once, and every window function over it is then computed in a
+     * single pass per partition. Result rows keep the input order.
+     */
     private WindowFunctionResult processWindowFunctions(SelectStatement selectStatement, List<Row> rows,
                                                        List<Column> columns, ExecutionContext context) throws SqlExecutionException {
         
+        List<SelectItem> items = selectStatement.getSelectItems();
+        
         // Create result columns including window function columns
         List<Column> resultColumns = new ArrayList<>();
-        List<Row> resultRows = new ArrayList<>();
-        
-        // Determine result columns
-        for (int i = 0; i < selectStatement.getSelectItems().size(); i++) {
-            SelectItem item = selectStatement.getSelectItems().get(i);
+        for (int i = 0; i < items.size(); i++) {
+            SelectItem item = items.get(i);
             String columnName;
             if (item.getAlias().isPresent()) {
                 columnName = item.getAlias().get();
@@ -1936,502 +2965,188 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                 .build());
         }
         
-        // Process each row and evaluate window functions
-        for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
-            Row currentRow = rows.get(rowIndex);
-            Object[] resultData = new Object[selectStatement.getSelectItems().size()];
-            
-            for (int itemIndex = 0; itemIndex < selectStatement.getSelectItems().size(); itemIndex++) {
-                SelectItem item = selectStatement.getSelectItems().get(itemIndex);
-                Expression expr = item.getExpression();
-                
-                if (expr instanceof WindowFunction) {
-                    WindowFunction windowFunc = (WindowFunction) expr;
-                    resultData[itemIndex] = calculateWindowFunctionValue(windowFunc, rows, columns, rowIndex, context);
-                } else if (expr instanceof AggregateFunction) {
-                    AggregateFunction aggFunc = (AggregateFunction) expr;
-                    if (aggFunc.isWindowFunction()) {
-                        resultData[itemIndex] = calculateWindowAggregateValue(aggFunc, rows, columns, rowIndex, context);
-                    } else {
-                        // Regular aggregate - should have been handled earlier
-                        throw new IllegalStateException("Regular aggregate functions should be handled before window functions");
-                    }
-                } else {
-                    // Regular expression - evaluate with current row
-                    context.setCurrentRow(currentRow);
-                    context.setJoinedColumns(columns);
-                    resultData[itemIndex] = expressionEvaluator.evaluate(expr, context);
+        // Evaluate regular expressions per row and group window items by their OVER clause
+        Object[][] resultData = new Object[rows.size()][items.size()];
+        Map<OverClause, List<Integer>> windows = new LinkedHashMap<>();
+        for (int itemIndex = 0; itemIndex < items.size(); itemIndex++) {
+            Expression expr = items.get(itemIndex).getExpression();
+            if (expr instanceof WindowFunction) {
+                windows.computeIfAbsent(((WindowFunction) expr).getOverClause(), k -> new ArrayList<>()).add(itemIndex);
+            } else if (expr instanceof AggregateFunction) {
+                AggregateFunction aggFunc = (AggregateFunction) expr;
+                if (!aggFunc.isWindowFunction()) {
+                    // Regular aggregate - should have been handled earlier
+                    throw new IllegalStateException("Regular aggregate functions should be handled before window functions");
                 }
-            }
-            
-            resultRows.add(new Row(currentRow.getId(), resultData));
-        }
-        
-        return new WindowFunctionResult(resultColumns, resultRows);
-    }
-    
-    private Object calculateWindowFunctionValue(WindowFunction windowFunc, List<Row> allRows, List<Column> columns, 
-                                              int currentRowIndex, ExecutionContext context) {
-        
-        OverClause overClause = windowFunc.getOverClause();
-        
-        // Get the window frame for this row (partition and order)
-        List<Row> windowRows = getWindowFrame(overClause, allRows, columns, currentRowIndex, context);
-        
-        switch (windowFunc.getWindowFunctionType()) {
-            case ROW_NUMBER:
-                return calculateRowNumber(allRows, columns, currentRowIndex, overClause, context);
-                
-            case RANK:
-                return calculateRank(windowRows, columns, currentRowIndex, overClause, context, false);
-                
-            case DENSE_RANK:
-                return calculateRank(windowRows, columns, currentRowIndex, overClause, context, true);
-                
-            case PERCENT_RANK:
-                return calculatePercentRank(windowRows, columns, currentRowIndex, overClause, context);
-                
-            case CUME_DIST:
-                return calculateCumeDistribution(windowRows, columns, currentRowIndex, overClause, context);
-                
-            case FIRST_VALUE:
-                return calculateFirstValue(windowFunc, windowRows, columns, currentRowIndex, overClause, context);
-                
-            case LAST_VALUE:
-                return calculateLastValue(windowFunc, windowRows, columns, currentRowIndex, overClause, context);
-                
-            case NTH_VALUE:
-                return calculateNthValue(windowFunc, windowRows, columns, currentRowIndex, overClause, context);
-                
-            case LAG:
-                return calculateLag(windowFunc, allRows, columns, currentRowIndex, overClause, context);
-                
-            case LEAD:
-                return calculateLead(windowFunc, allRows, columns, currentRowIndex, overClause, context);
-                
-            case NTILE:
-                return calculateNtile(windowFunc, windowRows, columns, currentRowIndex, overClause, context);
-                
-            default:
-                throw new IllegalArgumentException("Unsupported window function: " + windowFunc.getWindowFunctionType());
-        }
-    }
-    
-    private Object calculateWindowAggregateValue(AggregateFunction aggFunc, List<Row> allRows, List<Column> columns,
-                                               int currentRowIndex, ExecutionContext context) {
-        
-        OverClause overClause = aggFunc.getOverClause().get();
-        
-        // Get the window frame for this row
-        List<Row> windowRows = getWindowFrame(overClause, allRows, columns, currentRowIndex, context);
-        
-        // Calculate aggregate over the window frame
-        return calculateAggregateValue(aggFunc, windowRows, columns, context);
-    }
-    
-    private List<Row> getWindowFrame(OverClause overClause, List<Row> allRows, List<Column> columns,
-                                   int currentRowIndex, ExecutionContext context) {
-        
-        // For now, implement a simple window frame:
-        // - If PARTITION BY is present, include only rows in the same partition
-        // - If ORDER BY is present, include all rows up to the current row in order
-        // - Otherwise, include all rows
-        
-        if (overClause.getPartitionByExpressions().isPresent()) {
-            // Partition the rows and return only those in the same partition as current row
-            return getPartitionRows(overClause, allRows, columns, currentRowIndex, context);
-        } else {
-            // No partitioning - use all rows
-            return allRows;
-        }
-    }
-    
-    private List<Row> getPartitionRows(OverClause overClause, List<Row> allRows, List<Column> columns,
-                                     int currentRowIndex, ExecutionContext context) {
-        
-        Row currentRow = allRows.get(currentRowIndex);
-        List<Expression> partitionExpressions = overClause.getPartitionByExpressions().get();
-        
-        // Calculate partition key for current row
-        context.setCurrentRow(currentRow);
-        context.setJoinedColumns(columns);
-        StringBuilder currentPartitionKey = new StringBuilder();
-        for (int i = 0; i < partitionExpressions.size(); i++) {
-            Expression partitionExpr = partitionExpressions.get(i);
-            Object value = expressionEvaluator.evaluate(partitionExpr, context);
-            if (i > 0) currentPartitionKey.append("|");
-            currentPartitionKey.append(value != null ? value.toString() : "NULL");
-        }
-        String currentKey = currentPartitionKey.toString();
-        
-        // Find all rows with the same partition key
-        List<Row> partitionRows = new ArrayList<>();
-        for (Row row : allRows) {
-            context.setCurrentRow(row);
-            context.setJoinedColumns(columns);
-            StringBuilder partitionKey = new StringBuilder();
-            for (int i = 0; i < partitionExpressions.size(); i++) {
-                Expression partitionExpr = partitionExpressions.get(i);
-                Object value = expressionEvaluator.evaluate(partitionExpr, context);
-                if (i > 0) partitionKey.append("|");
-                partitionKey.append(value != null ? value.toString() : "NULL");
-            }
-            
-            if (partitionKey.toString().equals(currentKey)) {
-                partitionRows.add(row);
-            }
-        }
-        
-        return partitionRows;
-    }
-    
-    private Long calculateRowNumber(List<Row> allRows, List<Column> columns, int currentRowIndex,
-                                  OverClause overClause, ExecutionContext context) {
-        
-        if (!overClause.getPartitionByExpressions().isPresent()) {
-            // No partitioning - simple row number based on order
-            if (overClause.getOrderByItems().isPresent()) {
-                // Find position in ordered result
-                Row currentRow = allRows.get(currentRowIndex);
-                long rowNumber = 1L;
-                
-                for (int i = 0; i < allRows.size(); i++) {
-                    if (i == currentRowIndex) break;
-                    
-                    Row compareRow = allRows.get(i);
-                    boolean isLess = compareOrderByValues(compareRow, currentRow, overClause.getOrderByItems().get(), columns, context);
-                    if (isLess) {
-                        rowNumber++;
-                    }
-                }
-                return rowNumber;
+                windows.computeIfAbsent(aggFunc.getOverClause().get(), k -> new ArrayList<>()).add(itemIndex);
             } else {
-                // No ordering - just sequential row number
-                return (long) (currentRowIndex + 1);
-            }
-        } else {
-            // With partitioning - row number within partition
-            List<Row> partitionRows = getPartitionRows(overClause, allRows, columns, currentRowIndex, context);
-            Row currentRow = allRows.get(currentRowIndex);
-            
-            if (overClause.getOrderByItems().isPresent()) {
-                // Find position within ordered partition
-                long rowNumber = 1L;
-                for (Row partitionRow : partitionRows) {
-                    if (partitionRow == currentRow) break;
-                    
-                    boolean isLess = compareOrderByValues(partitionRow, currentRow, overClause.getOrderByItems().get(), columns, context);
-                    if (isLess) {
-                        rowNumber++;
-                    }
-                }
-                return rowNumber;
-            } else {
-                // No ordering within partition - find position in partition
-                for (int i = 0; i < partitionRows.size(); i++) {
-                    if (partitionRows.get(i) == currentRow) {
-                        return (long) (i + 1);
-                    }
+                for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
+                    resultData[rowIndex][itemIndex] = evaluateOnRow(expr, rows.get(rowIndex), columns, context);
                 }
-                return 1L; // Fallback
             }
         }
-    }
-    
-    private Long calculateRank(List<Row> windowRows, List<Column> columns, int currentRowIndex, 
-                             OverClause overClause, ExecutionContext context, boolean dense) {
         
-        if (!overClause.getOrderByItems().isPresent()) {
-            return 1L; // No ordering - all rows have rank 1
-        }
-        
-        // Simple rank calculation - count how many rows come before current row in order
-        Row currentRow = windowRows.get(currentRowIndex);
-        long rank = 1L;
-        
-        for (int i = 0; i < currentRowIndex; i++) {
-            Row compareRow = windowRows.get(i);
-            
-            // Compare order by expressions
-            boolean isLess = compareOrderByValues(compareRow, currentRow, overClause.getOrderByItems().get(), columns, context);
-            if (isLess) {
-                if (dense) {
-                    // Dense rank - only increment if values are different
-                    boolean isDifferent = !compareOrderByValues(currentRow, compareRow, overClause.getOrderByItems().get(), columns, context) &&
-                                        !compareOrderByValues(compareRow, currentRow, overClause.getOrderByItems().get(), columns, context);
-                    if (isDifferent) {
-                        rank++;
+        for (Map.Entry<OverClause, List<Integer>> window : windows.entrySet()) {
+            List<WindowPartition> partitions = partitionWindow(window.getKey(), rows, columns, context);
+            for (int itemIndex : window.getValue()) {
+                Expression expr = items.get(itemIndex).getExpression();
+                for (WindowPartition partition : partitions) {
+                    if (expr instanceof WindowFunction) {
+                        computeWindowFunction((WindowFunction) expr, partition, rows, columns, context, resultData, itemIndex);
+                    } else {
+                        computeWindowAggregate((AggregateFunction) expr, partition, rows, columns, context, resultData, itemIndex);
                     }
-                } else {
-                    // Regular rank - increment for each preceding row
-                    rank++;
                 }
             }
         }
         
-        return rank;
-    }
-    
-    private Double calculatePercentRank(List<Row> windowRows, List<Column> columns, int currentRowIndex,
-                                      OverClause overClause, ExecutionContext context) {
-        
-        if (windowRows.size() <= 1) {
-            return 0.0; // Only one row - percent rank is 0
+        List<Row> resultRows = new ArrayList<>(rows.size());
+        for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
+            resultRows.add(new Row(rows.get(rowIndex).getId(), resultData[rowIndex]));
         }
-        
-        Long rank = calculateRank(windowRows, columns, currentRowIndex, overClause, context, false);
-        return (rank - 1.0) / (windowRows.size() - 1.0);
+        return new WindowFunctionResult(resultColumns, resultRows);
     }
     
-    private Double calculateCumeDistribution(List<Row> windowRows, List<Column> columns, int currentRowIndex,
-                                           OverClause overClause, ExecutionContext context) {
-        
-        // Count rows with values less than or equal to current row
-        Row currentRow = windowRows.get(currentRowIndex);
-        long countLessOrEqual = 0;
+    /**
+     * Split the rows into the partitions of a window, each sorted by the window's ORDER BY.
+     * Partition and sort keys are evaluated once per row.
+     */
+    private List<WindowPartition> partitionWindow(OverClause overClause, List<Row> rows, List<Column> columns,
+                                                  ExecutionContext context) {
+        List<Expression> partitionBy = overClause.getPartitionByExpressions().orElse(List.of());
+        List<OrderByClause.OrderItem> orderBy = overClause.getOrderByItems().orElse(List.of());
         
-        if (overClause.getOrderByItems().isPresent()) {
-            for (Row compareRow : windowRows) {
-                boolean isLessOrEqual = compareOrderByValues(compareRow, currentRow, overClause.getOrderByItems().get(), columns, context) ||
-                                      compareOrderByValues(currentRow, compareRow, overClause.getOrderByItems().get(), columns, context);
-                if (isLessOrEqual) {
-                    countLessOrEqual++;
+        Object[][] partitionKeys = partitionBy.isEmpty() ? null : new Object[rows.size()][];
+        Object[][] sortKeys = orderBy.isEmpty() ? null : new Object[rows.size()][];
+        for (int rowIndex = 0; rowIndex < rows.size(); rowIndex++) {
+            Row row = rows.get(rowIndex);
+            if (partitionKeys != null) {
+                Object[] keys = new Object[partitionBy.size()];
+                for (int i = 0; i < keys.length; i++) {
+                    keys[i] = evaluateOnRow(partitionBy.get(i), row, columns, context);
                 }
+                partitionKeys[rowIndex] = keys;
+            }
+            if (sortKeys != null) {
+                sortKeys[rowIndex] = evaluateSortKeys(row, orderBy, context, columns);
             }
-        } else {
-            countLessOrEqual = windowRows.size(); // No ordering - all rows are considered equal
-        }
-        
-        return (double) countLessOrEqual / windowRows.size();
-    }
-    
-    private Object calculateFirstValue(WindowFunction windowFunc, List<Row> windowRows, List<Column> columns,
-                                     int currentRowIndex, OverClause overClause, ExecutionContext context) {
-        
-        if (windowRows.isEmpty()) {
-            return null;
-        }
-        
-        // Return value of the expression evaluated on the first row in the window frame
-        Expression valueExpression = windowFunc.getArguments().get(0);
-        Row firstRow = windowRows.get(0);
-        context.setCurrentRow(firstRow);
-        context.setJoinedColumns(columns);
-        
-        return expressionEvaluator.evaluate(valueExpression, context);
-    }
-    
-    private Object calculateLastValue(WindowFunction windowFunc, List<Row> windowRows, List<Column> columns,
-                                    int currentRowIndex, OverClause overClause, ExecutionContext context) {
-        
-        if (windowRows.isEmpty()) {
-            return null;
-        }
-        
-        // Return value of the expression evaluated on the last row in the window frame
-        Expression valueExpression = windowFunc.getArguments().get(0);
-        Row lastRow = windowRows.get(windowRows.size() - 1);
-        context.setCurrentRow(lastRow);
-        context.setJoinedColumns(columns);
-        
-        return expressionEvaluator.evaluate(valueExpression, context);
-    }
-    
-    private Object calculateNthValue(WindowFunction windowFunc, List<Row> windowRows, List<Column> columns,
-                                   int currentRowIndex, OverClause overClause, ExecutionContext context) {
-        
-        if (windowRows.isEmpty() || windowFunc.getArguments().size() < 2) {
-            return null;
-        }
-        
-        // Evaluate the N expression to get the row number
-        Expression nExpression = windowFunc.getArguments().get(1);
-        context.setCurrentRow(windowRows.get(currentRowIndex));
-        context.setJoinedColumns(columns);
-        Object nValue = expressionEvaluator.evaluate(nExpression, context);
-        
-        int n = ((Number) nValue).intValue();
-        
-        // For default frame (RANGE BETWEEN UNBOUNDED PRECEDING AND CURRENT ROW),
-        // we need to consider only rows up to current position
-        int frameEnd = currentRowIndex + 1; // Include current row
-        if (n <= 0 || n > frameEnd) {
-            return null;
-        }
-        
-        // Return value of the expression evaluated on the Nth row (1-based indexing)
-        Expression valueExpression = windowFunc.getArguments().get(0);
-        Row nthRow = windowRows.get(n - 1);
-        context.setCurrentRow(nthRow);
-        context.setJoinedColumns(columns);
-        
-        return expressionEvaluator.evaluate(valueExpression, context);
-    }
-    
-    private Object calculateLag(WindowFunction windowFunc, List<Row> allRows, List<Column> columns,
-                              int currentRowIndex, OverClause overClause, ExecutionContext context) {
-        
-        // Default offset is 1
-        int offset = 1;
-        Object defaultValue = null;
-        
-        // Get partition rows if partitioning is specified
-        List<Row> partitionRows;
-        int partitionCurrentIndex;
-        
-        if (overClause.getPartitionByExpressions().isPresent()) {
-            partitionRows = getPartitionRows(overClause, allRows, columns, currentRowIndex, context);
-            // Find current row position within partition
-            Row currentRow = allRows.get(currentRowIndex);
-            partitionCurrentIndex = partitionRows.indexOf(currentRow);
-        } else {
-            partitionRows = allRows;
-            partitionCurrentIndex = currentRowIndex;
-        }
-        
-        // Get offset if provided
-        if (windowFunc.getArguments().size() > 1) {
-            Expression offsetExpression = windowFunc.getArguments().get(1);
-            context.setCurrentRow(allRows.get(currentRowIndex));
-            context.setJoinedColumns(columns);
-            Object offsetValue = expressionEvaluator.evaluate(offsetExpression, context);
-            offset = ((Number) offsetValue).intValue();
-        }
-        
-        // Get default value if provided
-        if (windowFunc.getArguments().size() > 2) {
-            Expression defaultExpression = windowFunc.getArguments().get(2);
-            context.setCurrentRow(allRows.get(currentRowIndex));
-            context.setJoinedColumns(columns);
-            defaultValue = expressionEvaluator.evaluate(defaultExpression, context);
-        }
-        
-        // Calculate target row index within the partition
-        int targetIndex = partitionCurrentIndex - offset;
-        if (targetIndex < 0 || targetIndex >= partitionRows.size()) {
-            return defaultValue;
         }
-        
-        // Evaluate the value expression on the target row
-        Expression valueExpression = windowFunc.getArguments().get(0);
-        Row targetRow = partitionRows.get(targetIndex);
-        context.setCurrentRow(targetRow);
-        context.setJoinedColumns(columns);
-        
-        return expressionEvaluator.evaluate(valueExpression, context);
+        return WindowPartition.build(rows.size(), partitionKeys, sortKeys, sortKeyComparator(orderBy));
     }
     
-    private Object calculateLead(WindowFunction windowFunc, List<Row> allRows, List<Column> columns,
-                               int currentRowIndex, OverClause overClause, ExecutionContext context) {
-        
-        // Default offset is 1
-        int offset = 1;
-        Object defaultValue = null;
-        
-        // Get partition rows if partitioning is specified
-        List<Row> partitionRows;
-        int partitionCurrentIndex;
+    private void computeWindowFunction(WindowFunction windowFunc, WindowPartition partition, List<Row> rows,
+                                       List<Column> columns, ExecutionContext context, Object[][] resultData, int itemIndex) {
+        int size = partition.size();
+        List<Expression> arguments = windowFunc.getArguments();
         
-        if (overClause.getPartitionByExpressions().isPresent()) {
-            partitionRows = getPartitionRows(overClause, allRows, columns, currentRowIndex, context);
-            // Find current row position within partition
-            Row currentRow = allRows.get(currentRowIndex);
-            partitionCurrentIndex = partitionRows.indexOf(currentRow);
-        } else {
-            partitionRows = allRows;
-            partitionCurrentIndex = currentRowIndex;
-        }
-        
-        // Get offset if provided
-        if (windowFunc.getArguments().size() > 1) {
-            Expression offsetExpression = windowFunc.getArguments().get(1);
-            context.setCurrentRow(allRows.get(currentRowIndex));
-            context.setJoinedColumns(columns);
-            Object offsetValue = expressionEvaluator.evaluate(offsetExpression, context);
-            offset = ((Number) offsetValue).intValue();
-        }
-        
-        // Get default value if provided
-        if (windowFunc.getArguments().size() > 2) {
-            Expression defaultExpression = windowFunc.getArguments().get(2);
-            context.setCurrentRow(allRows.get(currentRowIndex));
-            context.setJoinedColumns(columns);
-            defaultValue = expressionEvaluator.evaluate(defaultExpression, context);
-        }
-        
-        // Calculate target row index within the partition
-        int targetIndex = partitionCurrentIndex + offset;
-        if (targetIndex < 0 || targetIndex >= partitionRows.size()) {
-            return defaultValue;
+        for (int position = 0; position < size; position++) {
+            Row currentRow = rows.get(partition.rowAt(position));
+            Object value;
+            switch (windowFunc.getWindowFunctionType()) {
+                case ROW_NUMBER:
+                    value = (long) (position + 1);
+                    break;
+                    
+                case RANK:
+                    value = (long) (partition.peerStart(position) + 1);
+                    break;
+                    
+                case DENSE_RANK:
+                    value = (long) partition.peerGroup(position);
+                    break;
+                    
+                case PERCENT_RANK:
+                    value = size <= 1 ? 0.0 : partition.peerStart(position) / (size - 1.0);
+                    break;
+                    
+                case CUME_DIST:
+                    value = (partition.peerEnd(position) + 1.0) / size;
+                    break;
+                    
+                case FIRST_VALUE:
+                    value = evaluateOnRow(arguments.get(0), rows.get(partition.rowAt(0)), columns, context);
+                    break;
+                    
+                case LAST_VALUE:
+                    // Last row of the whole partition, not just of the frame ending at the current peers
+                    value = evaluateOnRow(arguments.get(0), rows.get(partition.rowAt(size - 1)), columns, context);
+                    break;
+                    
+                case NTH_VALUE: {
+                    // The frame ends with the current row's last peer
+                    int n = arguments.size() < 2 ? 0 : ((Number) evaluateOnRow(arguments.get(1), currentRow, columns, context)).intValue();
+                    value = n >= 1 && n - 1 <= partition.peerEnd(position)
+                        ? evaluateOnRow(arguments.get(0), rows.get(partition.rowAt(n - 1)), columns, context)
+                        : null;
+                    break;
+                }
+                    
+                case LAG:
+                case LEAD: {
+                    int offset = arguments.size() > 1
+                        ? ((Number) evaluateOnRow(arguments.get(1), currentRow, columns, context)).intValue() : 1;
+                    int target = windowFunc.getWindowFunctionType() == WindowFunction.WindowFunctionType.LAG
+                        ? position - offset : position + offset;
+                    if (target >= 0 && target < size) {
+                        value = evaluateOnRow(arguments.get(0), rows.get(partition.rowAt(target)), columns, context);
+                    } else {
+                        value = arguments.size() > 2 ? evaluateOnRow(arguments.get(2), currentRow, columns, context) : null;
+                    }
+                    break;
+                }
+                    
+                case NTILE: {
+                    int buckets = arguments.isEmpty() ? 0 : ((Number) evaluateOnRow(arguments.get(0), currentRow, columns, context)).intValue();
+                    if (buckets <= 0) {
+                        value = null;
+                        break;
+                    }
+                    // The first (size % buckets) buckets get one extra row
+                    int bucketSize = size / buckets;
+                    int largeRows = (size % buckets) * (bucketSize + 1);
+                    value = position < largeRows
+                        ? (long) (position / (bucketSize + 1) + 1)
+                        : (long) (size % buckets + (position - largeRows) / bucketSize + 1);
+                    break;
+                }
+                    
+                default:
+                    throw new IllegalArgumentException("Unsupported window function: " + windowFunc.getWindowFunctionType());
+            }
+            resultData[partition.rowAt(position)][itemIndex] = value;
         }
-        
-        // Evaluate the value expression on the target row
-        Expression valueExpression = windowFunc.getArguments().get(0);
-        Row targetRow = partitionRows.get(targetIndex);
-        context.setCurrentRow(targetRow);
-        context.setJoinedColumns(columns);
-        
-        return expressionEvaluator.evaluate(valueExpression, context);
     }
     
-    private Object calculateNtile(WindowFunction windowFunc, List<Row> windowRows, List<Column> columns,
-                                int currentRowIndex, OverClause overClause, ExecutionContext context) {
-        
-        if (windowRows.isEmpty() || windowFunc.getArguments().isEmpty()) {
-            return null;
-        }
-        
-        // Evaluate the bucket count expression
-        Expression bucketExpression = windowFunc.getArguments().get(0);
-        context.setCurrentRow(windowRows.get(currentRowIndex));
-        context.setJoinedColumns(columns);
-        Object bucketValue = expressionEvaluator.evaluate(bucketExpression, context);
-        
-        int buckets = ((Number) bucketValue).intValue();
-        if (buckets <= 0) {
-            return null;
-        }
-        
-        int totalRows = windowRows.size();
-        int bucketSize = totalRows / buckets;
-        int remainder = totalRows % buckets;
-        
-        // Calculate which bucket the current row belongs to
-        int bucket = 1;
-        int processedRows = 0;
+    /**
+     * Compute an aggregate over the default window frame: the whole partition without ORDER BY,
+     * otherwise all rows up to and including the current row's peers. A running accumulator
+     * advances one peer group at a time.
+     */
+    private void computeWindowAggregate(AggregateFunction aggFunc, WindowPartition partition, List<Row> rows,
+                                        List<Column> columns, ExecutionContext context, Object[][] resultData, int itemIndex) {
+        HashAggregation running = new HashAggregation(new AggregateFunction[]{aggFunc}, this::compareObjects);
+        HashAggregation.Group frame = running.singleGroup(null);
         
-        for (int i = 0; i < buckets; i++) {
-            int currentBucketSize = bucketSize + (i < remainder ? 1 : 0);
-            if (currentRowIndex < processedRows + currentBucketSize) {
-                bucket = i + 1;
-                break;
+        int position = 0;
+        while (position < partition.size()) {
+            int peerEnd = partition.peerEnd(position);
+            for (int p = position; p <= peerEnd; p++) {
+                Object value = aggFunc.isCountStar() ? null
+                    : evaluateOnRow(aggFunc.getExpression(), rows.get(partition.rowAt(p)), columns, context);
+                frame.accumulate(0, value);
+            }
+            Object result = frame.result(0);
+            for (int p = position; p <= peerEnd; p++) {
+                resultData[partition.rowAt(p)][itemIndex] = result;
             }
-            processedRows += currentBucketSize;
+            position = peerEnd + 1;
         }
-        
-        return (long) bucket;
     }
     
-    private boolean compareOrderByValues(Row row1, Row row2, List<OrderByClause.OrderItem> orderItems,
-                                       List<Column> columns, ExecutionContext context) {
-        
-        for (OrderByClause.OrderItem orderItem : orderItems) {
-            context.setCurrentRow(row1);
-            context.setJoinedColumns(columns);
-            Object value1 = expressionEvaluator.evaluate(orderItem.getExpression(), context);
-            
-            context.setCurrentRow(row2);
-            context.setJoinedColumns(columns);
-            Object value2 = expressionEvaluator.evaluate(orderItem.getExpression(), context);
-            
-            int comparison = compareObjects(value1, value2);
-            if (comparison != 0) {
-                boolean isAscending = orderItem.isAscending();
-                return isAscending ? comparison < 0 : comparison > 0;
-            }
-        }
-        
-        return false; // All values are equal
+    private Object evaluateOnRow(Expression expression, Row row, List<Column> columns, ExecutionContext context) {
+        context.setCurrentRow(row);
+        context.setJoinedColumns(columns);
+        return expressionEvaluator.evaluate(expression, context);
     }
     
     @Override
@@ -2485,6 +3200,7 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                 // Register the index in the schema-level registry
                 Schema publicSchema = engine.getSchema("public");
                 if (publicSchema != null) {
+                    publicSchema.markObjectChanged(tableName);
                     Index index = table.getIndex(indexName);
                     if (index != null) {
                         publicSchema.registerIndex(indexName, tableName, index);
@@ -2628,6 +3344,10 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
             targetColumnIndexMap.put(targetColumns.get(i).getName().toLowerCase(), i);
         }
         
+        // Source rows are matched against the target rows as they were before the MERGE, so
+        // the rows to insert can be collected and inserted together at the end
+        List<Object[]> rowsToInsert = new ArrayList<>();
+        
         // Process each source row
         for (Row sourceRow : sourceRows) {
             context.setCurrentRow(sourceRow);
@@ -2680,8 +3400,8 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                             // For INSERT, set up context to resolve source column references with aliases
                             logger.debug("Setting up source context for INSERT action. Source alias: {}", node.getSourceAlias());
                             setupSourceContext(sourceRow, sourceTable, node, context);
-                            executeInsertAction((MergeStatement.InsertAction) action, 
-                                             targetTable, targetColumns, sourceRow, context);
+                            rowsToInsert.add(buildInsertActionRow((MergeStatement.InsertAction) action, 
+                                             targetColumns, context));
                             insertedRows++;
                         }
                         break; // Only execute first matching WHEN clause
@@ -2690,6 +3410,10 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
             }
         }
         
+        if (!rowsToInsert.isEmpty()) {
+            targetTable.insertRows(rowsToInsert);
+        }
+        
         String message = String.format("MERGE completed: %d rows inserted, %d rows updated, %d rows deleted", 
                                      insertedRows, updatedRows, deletedRows);
         logger.debug("Advanced MERGE executed on {}: {}", tableName, message);
@@ -3032,10 +3756,10 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
     }
     
     /**
-     * Execute INSERT action in WHEN NOT MATCHED clause.
+     * Build the row inserted by the INSERT action of a WHEN NOT MATCHED clause.
      */
-    private void executeInsertAction(MergeStatement.InsertAction action, Table targetTable, 
-                                   List<Column> targetColumns, Row sourceRow, ExecutionContext context) throws Exception {
+    private Object[] buildInsertActionRow(MergeStatement.InsertAction action, List<Column> targetColumns,
+                                          ExecutionContext context) throws Exception {
         List<Expression> values = action.getValues();
         List<String> specifiedColumns = action.getColumns();
         
@@ -3092,7 +3816,7 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
             }
         }
         
-        targetTable.insertRow(rowData);
+        return rowData;
     }
     
     @Override
@@ -3285,7 +4009,9 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
             context.setCurrentTableName(tableName);
             
             // Execute the specific action
-            return node.getAction().accept(this, context);
+            SqlExecutionResult result = node.getAction().accept(this, context);
+            schema.markObjectChanged(tableName);
+            return result;
             
         } catch (Exception e) {
             logger.error("Failed to alter table {}: {}", node.getTableName(), e.getMessage());
@@ -3515,6 +4241,228 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
         }
     }
     
+    @Override
+    public SqlExecutionResult visitCopyStatement(CopyStatement node, ExecutionContext context) throws Exception {
+        if (node.getFileName().isEmpty()) {
+            throw new SqlExecutionException(SqlErrorCode.FEATURE_NOT_SUPPORTED,
+                "COPY " + node.getDirection() + (node.getDirection() == CopyStatement.Direction.FROM ? " STDIN" : " STDOUT")
+                    + " outside of the copy API");
+        }
+        Path path = Paths.get(node.getFileName().get());
+        Charset encoding = CopyFormat.of(node.getOptions()).getEncoding();
+        long count;
+        try {
+            if (node.getDirection() == CopyStatement.Direction.FROM) {
+                // Decode straight from the file channel; the row reader does its own buffering
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+                     Reader in = Channels.newReader(channel, encoding.newDecoder(), -1)) {
+                    count = executeCopyFrom(node, in);
+                }
+            } else {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                     Writer out = new BufferedWriter(Channels.newWriter(channel, encoding.newEncoder(), -1), COPY_BUFFER_SIZE)) {
+                    count = executeCopyTo(node, out);
+                }
+            }
+        } catch (IOException e) {
+            throw new SqlExecutionException("Could not open file \"" + path + "\" for COPY: " + e.getMessage(), e);
+        }
+        return new SqlExecutionResult(SqlExecutionResult.ResultType.COPY, (int) Math.min(count, Integer.MAX_VALUE));
+    }
+    
+    @Override
+    public SqlExecutionResult visitDeclareCursorStatement(DeclareCursorStatement node, ExecutionContext context) throws Exception {
+        String cursorName = node.getCursorName().toLowerCase();
+        if (cursors.containsKey(cursorName)) {
+            throw new SqlExecutionException(SqlErrorCode.CURSOR_ALREADY_EXISTS, node.getCursorName());
+        }
+        
+        context.setCursorRequested(true);
+        SqlExecutionResult result = visitSelectStatement(node.getQuery(), context);
+        context.setCursorRequested(false);
+        RowCursor cursor = result.getCursor() != null ? result.getCursor()
+            : new RowCursor(result.getColumns(), result.getRows(), null);
+        
+        if (node.isHoldable()) {
+            holdableCursors.add(cursor);
+        }
+        if (cursors.putIfAbsent(cursorName, cursor) != null) {
+            holdableCursors.remove(cursor);
+            cursor.close();
+            throw new SqlExecutionException(SqlErrorCode.CURSOR_ALREADY_EXISTS, node.getCursorName());
+        }
+        logger.debug("Declared cursor {} over {} rows", cursorName, cursor.getRowCount());
+        return new SqlExecutionResult(SqlExecutionResult.ResultType.DDL, true, "DECLARE CURSOR");
+    }
+    
+    @Override
+    public SqlExecutionResult visitFetchStatement(FetchStatement node, ExecutionContext context) throws Exception {
+        RowCursor cursor = cursors.get(node.getCursorName().toLowerCase());
+        if (cursor == null) {
+            throw new SqlExecutionException(SqlErrorCode.CURSOR_NOT_FOUND, node.getCursorName());
+        }
+        return new SqlExecutionResult(cursor.getColumns(), cursor.fetch(node.getCount()));
+    }
+    
+    @Override
+    public SqlExecutionResult visitCloseCursorStatement(CloseCursorStatement node, ExecutionContext context) throws Exception {
+        if (node.getCursorName().isEmpty()) {
+            closeCursors(true);
+            return new SqlExecutionResult(SqlExecutionResult.ResultType.DDL, true, "CLOSE CURSOR");
+        }
+        
+        RowCursor cursor = cursors.remove(node.getCursorName().get().toLowerCase());
+        if (cursor == null) {
+            throw new SqlExecutionException(SqlErrorCode.CURSOR_NOT_FOUND, node.getCursorName().get());
+        }
+        holdableCursors.remove(cursor);
+        cursor.close();
+        return new SqlExecutionResult(SqlExecutionResult.ResultType.DDL, true, "CLOSE CURSOR");
+    }
+    
+    /**
+     * Close declared cursors, releasing their rows and spill files.
+     * 
+     * @param includeHoldable whether to close WITH HOLD cursors too, as CLOSE ALL does, or only
+     *                        the cursors that end with the transaction
+     * @return the number of cursors closed
+     */
+    int closeCursors(boolean includeHoldable) {
+        int closed = 0;
+        for (Map.Entry<String, RowCursor> entry : cursors.entrySet()) {
+            if ((includeHoldable || !holdableCursors.contains(entry.getValue()))
+                    && cursors.remove(entry.getKey(), entry.getValue())) {
+                holdableCursors.remove(entry.getValue());
+                entry.getValue().close();
+                closed++;
+            }
+        }
+        return closed;
+    }
+    
+    /**
+     * Load the rows of a COPY FROM into its table. The rows are parsed from the stream without
+     * going through the SQL parser and are inserted with bulk table inserts of
+     * {@link #COPY_BATCH_SIZE} rows, so memory use does not grow with the size of the input.
+     * 
+     * <p>The load is all-or-nothing: the AFTER INSERT work of the rows (full-text indexes, WAL
+     * records and triggers) is done once the whole input is loaded, and if any row fails, the
+     * rows of the batches already inserted are deleted again.</p>
+     * 
+     * @param node the COPY statement
+     * @param in the data, in the format given by the statement's options
+     * @return the number of rows loaded
+     */
+    long executeCopyFrom(CopyStatement node, Reader in) throws Exception {
+        String tableName = node.getTableName();
+        Table table = engine.getTable("public", tableName);
+        if (table == null) {
+            throw new SqlExecutionException(SqlErrorCode.TABLE_NOT_FOUND, tableName);
+        }
+        int[] columnIndexes = resolveInsertColumns(node.getColumns(), table);
+        CopyFormat format = CopyFormat.of(node.getOptions());
+        CopyFormat.RowReader reader = format.reader(in);
+        
+        if (format.hasHeader()) {
+            reader.next();
+        }
+        int count = 0;
+        long[] rowIds = new long[COPY_BATCH_SIZE];
+        List<Object[]> rows = new ArrayList<>(COPY_BATCH_SIZE);
+        try {
+            List<String> fields;
+            while ((fields = reader.next()) != null) {
+                if (fields.size() != columnIndexes.length) {
+                    throw new SqlExecutionException("COPY " + tableName + ", line " + reader.getLineNumber() + ": "
+                        + (fields.size() > columnIndexes.length ? "extra data after last expected column"
+                            : "missing data for column " + table.getColumns().get(columnIndexes[fields.size()]).getName()));
+                }
+                try {
+                    rows.add(toTableRow(table, columnIndexes, fields.toArray()));
+                } catch (SqlExecutionException | RuntimeException e) {
+                    throw new SqlExecutionException("COPY " + tableName + ", line " + reader.getLineNumber() + ": "
+                        + e.getMessage(), e);
+                }
+                if (rows.size() == COPY_BATCH_SIZE) {
+                    rowIds = appendRowIds(rowIds, count, fireBeforeAndInsert(table, tableName, rows));
+                    count += rows.size();
+                    rows.clear();
+                }
+            }
+            if (!rows.isEmpty()) {
+                rowIds = appendRowIds(rowIds, count, fireBeforeAndInsert(table, tableName, rows));
+                count += rows.size();
+                rows.clear();
+            }
+            
+            for (int from = 0; from < count; from += COPY_BATCH_SIZE) {
+                List<Long> batchIds = new ArrayList<>(COPY_BATCH_SIZE);
+                for (int i = from; i < Math.min(count, from + COPY_BATCH_SIZE); i++) {
+                    batchIds.add(rowIds[i]);
+                }
+                for (Row row : table.getRows(batchIds)) {
+                    afterInsert(table, tableName, row.getId(), row.getData());
+                }
+            }
+        } catch (Exception e) {
+            if (count > 0) {
+                int deleted = table.deleteRows(Arrays.copyOf(rowIds, count));
+                logger.debug("COPY FROM failed: removed the {} rows already loaded into {}", deleted, tableName);
+            }
+            throw e;
+        }
+        
+        logger.debug("COPY FROM executed: {} rows loaded into {}", count, tableName);
+        return count;
+    }
+    
+    private static long[] appendRowIds(long[] rowIds, int count, long[] batchIds) {
+        if (count + batchIds.length > rowIds.length) {
+            rowIds = Arrays.copyOf(rowIds, Math.max(rowIds.length * 2, count + batchIds.length));
+        }
+        System.arraycopy(batchIds, 0, rowIds, count, batchIds.length);
+        return rowIds;
+    }
+    
+    /**
+     * Write the rows of a table for a COPY TO.
+     * 
+     * @param node the COPY statement
+     * @param out the destination of the data, in the format given by the statement's options
+     * @return the number of rows written
+     */
+    long executeCopyTo(CopyStatement node, Writer out) throws Exception {
+        String tableName = node.getTableName();
+        Table table = engine.getTable("public", tableName);
+        if (table == null) {
+            throw new SqlExecutionException(SqlErrorCode.TABLE_NOT_FOUND, tableName);
+        }
+        int[] columnIndexes = resolveInsertColumns(node.getColumns(), table);
+        CopyFormat format = CopyFormat.of(node.getOptions());
+        
+        Object[] values = new Object[columnIndexes.length];
+        if (format.hasHeader()) {
+            for (int i = 0; i < columnIndexes.length; i++) {
+                values[i] = table.getColumns().get(columnIndexes[i]).getName();
+            }
+            format.writeRow(out, values);
+        }
+        long count = 0;
+        for (Row row : table.getAllRows()) {
+            Object[] data = row.getData();
+            for (int i = 0; i < columnIndexes.length; i++) {
+                values[i] = data[columnIndexes[i]];
+            }
+            format.writeRow(out, values);
+            count++;
+        }
+        out.flush();
+        
+        logger.debug("COPY TO executed: {} rows written from {}", count, tableName);
+        return count;
+    }
+    
     @Override
     public SqlExecutionResult visitCreateViewStatement(CreateViewStatement node, ExecutionContext context) throws Exception {
         try {
@@ -3707,21 +4655,27 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
         logger.debug("Processing recursive CTE: {}", cte.getName());
         
         try {
-            // Recursive CTEs must have a UNION ALL structure
+            // Recursive CTEs must combine an anchor and recursive parts with UNION or UNION ALL
             SelectStatement cteSelect = cte.getSelectStatement();
             CompoundSelectStatement compoundStmt = cteSelect.getCompoundSelectStatement();
             
             if (compoundStmt.isSimple()) {
-                throw new SqlExecutionException("Recursive CTE must contain UNION ALL structure: " + cte.getName());
+                throw new SqlExecutionException("Recursive CTE must contain a UNION or UNION ALL structure: " + cte.getName());
             }
             
             List<SimpleSelectStatement> selectStatements = compoundStmt.getSelectStatements();
             List<UnionClause> unionClauses = compoundStmt.getUnionClauses();
             
-            // Validate UNION ALL requirement for recursive CTEs
+            // With UNION every row is kept once; with UNION ALL duplicates are kept too, so
+            // a cycle recurses until it hits the iteration limit
+            boolean distinct = false;
             for (UnionClause unionClause : unionClauses) {
+                if (unionClause.isIntersect() || unionClause.isExcept()) {
+                    throw new SqlExecutionException("Recursive CTE must use UNION or UNION ALL, not " +
+                        unionClause + ": " + cte.getName());
+                }
                 if (!unionClause.isUnionAll()) {
-                    throw new SqlExecutionException("Recursive CTE must use UNION ALL, not UNION: " + cte.getName());
+                    distinct = true;
                 }
             }
             
@@ -3752,32 +4706,42 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                 }
             }
             
-            // Initialize working table with anchor results
-            List<Row> currentRows = new ArrayList<>(anchorResult.getRows());
-            List<Row> allRows = new ArrayList<>(anchorResult.getRows());
+            List<SelectStatement> recursiveStmts = new ArrayList<>();
+            for (int i = 1; i < selectStatements.size(); i++) {
+                recursiveStmts.add(createLegacySelectStatement(selectStatements.get(i)));
+            }
             
-            // Store initial CTE result
-            context.addCTEResult(cte.getName(), cteColumns, new ArrayList<>(allRows));
+            // Semi-naive evaluation: each iteration runs the recursive parts against the rows
+            // the previous iteration produced (the working table), never the whole result
+            Set<Object> seenRows = distinct ? new HashSet<>() : null;
+            List<Row> allRows = new ArrayList<>();
+            List<Row> workingRows = new ArrayList<>();
+            for (Row row : anchorResult.getRows()) {
+                if (seenRows == null || seenRows.add(SetOperations.rowKey(row))) {
+                    workingRows.add(row);
+                }
+            }
+            allRows.addAll(workingRows);
             
-            // Iteratively execute recursive parts
+            int maxIterations = engine.getMaxRecursiveIterations();
+            long maxRows = engine.getMaxRecursiveRows();
             int iteration = 0;
-            int maxIterations = 1000; // Safety limit to prevent infinite recursion
             
-            while (!currentRows.isEmpty() && iteration < maxIterations) {
+            while (!workingRows.isEmpty()) {
+                if (iteration == maxIterations) {
+                    throw new SqlExecutionException("Recursive CTE " + cte.getName() + " exceeded the limit of " +
+                        maxIterations + " iterations");
+                }
                 iteration++;
-                logger.debug("Recursive CTE iteration {} for {}: processing {} rows", iteration, cte.getName(), currentRows.size());
+                logger.debug("Recursive CTE iteration {} for {}: processing {} rows", iteration, cte.getName(), workingRows.size());
                 
-                // Update CTE result with current working table for this iteration
-                context.addCTEResult(cte.getName(), cteColumns, new ArrayList<>(currentRows));
+                context.addCTEResult(cte.getName(), cteColumns, workingRows);
+                // Subquery results cached by the previous iteration may have read the old working table
+                context.clearSubqueryLookups();
                 
                 List<Row> nextRows = new ArrayList<>();
-                
-                // Execute each recursive part (all SELECT statements after the anchor)
-                for (int i = 1; i < selectStatements.size(); i++) {
-                    SimpleSelectStatement recursiveStmt = selectStatements.get(i);
-                    
-                    SelectStatement recursiveLegacyStmt = createLegacySelectStatement(recursiveStmt);
-                    SqlExecutionResult recursiveResult = executeSelectStatementDirectly(recursiveLegacyStmt, context);
+                for (SelectStatement recursiveStmt : recursiveStmts) {
+                    SqlExecutionResult recursiveResult = executeSelectStatementDirectly(recursiveStmt, context);
                     
                     // Validate column compatibility
                     if (recursiveResult.getColumns().size() != cteColumns.size()) {
@@ -3785,22 +4749,21 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                             ": anchor has " + cteColumns.size() + " columns, recursive part has " + recursiveResult.getColumns().size());
                     }
                     
-                    // Add new rows that don't already exist (to avoid infinite loops from duplicates)
                     for (Row newRow : recursiveResult.getRows()) {
-                        if (!containsEquivalentRow(allRows, newRow)) {
+                        if (seenRows == null || seenRows.add(SetOperations.rowKey(newRow))) {
                             nextRows.add(newRow);
-                            allRows.add(newRow);
                         }
                     }
                 }
                 
-                // Prepare for next iteration
-                currentRows = nextRows;
-            }
-            
-            if (iteration >= maxIterations) {
-                logger.warn("Recursive CTE {} reached maximum iteration limit ({})", cte.getName(), maxIterations);
+                if (allRows.size() + (long) nextRows.size() > maxRows) {
+                    throw new SqlExecutionException("Recursive CTE " + cte.getName() + " exceeded the limit of " +
+                        maxRows + " rows");
+                }
+                allRows.addAll(nextRows);
+                workingRows = nextRows;
             }
+            context.clearSubqueryLookups();
             
             // Store final CTE result with all accumulated rows
             context.addCTEResult(cte.getName(), cteColumns, allRows);
@@ -3864,7 +4827,7 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
             SelectStatement firstLegacyStmt = createLegacySelectStatement(selectStatements.get(0));
             SqlExecutionResult firstResult = executeSelectStatementDirectly(firstLegacyStmt, context);
             List<Column> resultColumns = firstResult.getColumns();
-            List<Row> allRows = new ArrayList<>(firstResult.getRows());
+            List<Row> allRows = firstResult.getRows();
             
             // Execute subsequent SELECT statements and combine results
             for (int i = 1; i < selectStatements.size(); i++) {
@@ -3883,21 +4846,17 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                 }
                 
                 if (unionClause.isUnionAll()) {
-                    // UNION ALL - keep all rows including duplicates
-                    allRows.addAll(selectResult.getRows());
+                    // UNION ALL - keep all rows including duplicates, without copying them
+                    allRows = SetOperations.unionAll(allRows, selectResult.getRows());
                 } else if (unionClause.isIntersect()) {
                     // INTERSECT - keep only rows that exist in both sets (remove duplicates)
-                    allRows = performIntersect(allRows, selectResult.getRows());
+                    allRows = SetOperations.intersect(allRows, selectResult.getRows());
                 } else if (unionClause.isExcept()) {
                     // EXCEPT - keep only rows from first set that don't exist in second set
-                    allRows = performExcept(allRows, selectResult.getRows());
+                    allRows = SetOperations.except(allRows, selectResult.getRows());
                 } else {
                     // UNION - remove duplicates
-                    for (Row newRow : selectResult.getRows()) {
-                        if (!containsEquivalentRow(allRows, newRow)) {
-                            allRows.add(newRow);
-                        }
-                    }
+                    allRows = SetOperations.union(allRows, selectResult.getRows());
                 }
             }
             
@@ -3962,30 +4921,14 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
             JoinResult joinResult;
             if (node.getFromClause().isPresent()) {
                 FromClause fromClause = node.getFromClause().get();
-                joinResult = executeFromClause(fromClause, context);
+                joinResult = executeFromClause(fromClause, node.getWhereClause(), context);
             } else {
                 // No FROM clause - create a single empty row for expression evaluation
                 joinResult = new JoinResult(List.of(), List.of(new Row(0L, new Object[0])));
             }
             
-            List<Row> filteredRows = joinResult.rows;
-            
-            // Apply WHERE clause if present
-            if (node.getWhereClause().isPresent()) {
-                WhereClause whereClause = node.getWhereClause().get();
-                filteredRows = new ArrayList<>();
-                
-                for (Row row : joinResult.rows) {
-                    context.setCurrentRow(row);
-                    context.setJoinedColumns(joinResult.columns);
-                    
-                    Object result = expressionEvaluator.evaluate(whereClause.getCondition(), context);
-                    
-                    if (Boolean.TRUE.equals(result)) {
-                        filteredRows.add(row);
-                    }
-                }
-            }
+            // Apply the WHERE conjuncts the FROM clause did not already apply
+            List<Row> filteredRows = applyWhereClause(joinResult, node.getWhereClause(), context);
             
             // Handle GROUP BY and aggregation
             List<Row> groupedRows = filteredRows;
@@ -4046,43 +4989,14 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
             
             // Handle DISTINCT
             if (node.isDistinct()) {
-                Set<List<Object>> seen = new LinkedHashSet<>();
-                List<Row> distinctRows = new ArrayList<>();
-                
-                for (Row row : resultRows) {
-                    List<Object> rowData = Arrays.asList(row.getData());
-                    if (seen.add(rowData)) {
-                        distinctRows.add(row);
-                    }
-                }
-                
-                resultRows = distinctRows;
+                resultRows = SetOperations.distinct(resultRows);
             }
             
             // Apply ORDER BY if present
             if (node.getOrderByClause().isPresent()) {
                 OrderByClause orderByClause = node.getOrderByClause().get();
                 
-                resultRows.sort((row1, row2) -> {
-                    try {
-                        for (OrderByClause.OrderItem orderItem : orderByClause.getOrderItems()) {
-                            context.setCurrentRow(row1);
-                            context.setJoinedColumns(resultColumns);
-                            Object value1 = expressionEvaluator.evaluate(orderItem.getExpression(), context);
-                            
-                            context.setCurrentRow(row2);
-                            Object value2 = expressionEvaluator.evaluate(orderItem.getExpression(), context);
-                            
-                            int comparison = compareValues(value1, value2);
-                            if (comparison != 0) {
-                                return orderItem.isAscending() ? comparison : -comparison;
-                            }
-                        }
-                        return 0;
-                    } catch (Exception e) {
-                        throw new RuntimeException("Error during ORDER BY evaluation", e);
-                    }
-                });
+                resultRows = applyOrderBy(resultRows, orderByClause, context, resultColumns, constantTopN(node, context));
             }
             
             // Apply LIMIT if present
@@ -4118,6 +5032,21 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
         }
     }
     
+    /**
+     * Check if SELECT items only read the row they project: columns and literals. Such a
+     * projection can be deferred until a cursor fetches the row, since later writes cannot
+     * change its result, whereas a subquery or function must see the statement's snapshot.
+     */
+    private boolean isRowLocalProjection(List<SelectItem> selectItems) {
+        for (SelectItem item : selectItems) {
+            if (!item.isWildcard() && !(item.getExpression() instanceof ColumnReference)
+                    && !(item.getExpression() instanceof LiteralExpression)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
     /**
      * Check if SELECT items contain aggregation functions
      */
@@ -4189,30 +5118,14 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
             JoinResult joinResult;
             if (node.getFromClause().isPresent()) {
                 FromClause fromClause = node.getFromClause().get();
-                joinResult = executeFromClause(fromClause, context);
+                joinResult = executeFromClause(fromClause, node.getWhereClause(), context);
             } else {
                 // No FROM clause - create a single empty row for expression evaluation
                 joinResult = new JoinResult(List.of(), List.of(new Row(0L, new Object[0])));
             }
             
-            List<Row> filteredRows = joinResult.rows;
-            
-            // Apply WHERE clause if present
-            if (node.getWhereClause().isPresent()) {
-                WhereClause whereClause = node.getWhereClause().get();
-                filteredRows = new ArrayList<>();
-                
-                for (Row row : joinResult.rows) {
-                    context.setCurrentRow(row);
-                    context.setJoinedColumns(joinResult.columns);
-                    
-                    Object result = expressionEvaluator.evaluate(whereClause.getCondition(), context);
-                    
-                    if (Boolean.TRUE.equals(result)) {
-                        filteredRows.add(row);
-                    }
-                }
-            }
+            // Apply the WHERE conjuncts the FROM clause did not already apply
+            List<Row> filteredRows = applyWhereClause(joinResult, node.getWhereClause(), context);
             
             // For COUNT(*), just return the count of rows
             SelectItem countItem = node.getSelectItems().get(0);
@@ -4231,11 +5144,39 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
         }
     }
     
+    /**
+     * Rewrite a query against the views it reads and push its predicates into them and into
+     * its CTEs, reusing the engine's cached rewrite while the objects it names are unchanged.
+     */
+    private SelectStatement rewriteQuery(SelectStatement query, ExecutionContext context) {
+        Schema schema = engine.getSchema("public");
+        if (schema == null) {
+            return PredicatePushdown.pushIntoCtes(query);
+        }
+        PlanCache planCache = engine.getPlanCache();
+        SelectStatement cached = planCache.get(query, schema, context);
+        if (cached != null) {
+            return cached;
+        }
+        PlanCache.Dependencies dependencies = new PlanCache.Dependencies();
+        // Merge a view in FROM into the query, or push the query's predicates into it
+        SelectStatement rewritten = viewInliner.inline(query, context, dependencies);
+        // Push predicates on CTEs the query reads once into their definitions
+        rewritten = PredicatePushdown.pushIntoCtes(rewritten);
+        planCache.put(query, rewritten, dependencies);
+        return rewritten;
+    }
+    
     /**
      * Execute a SELECT statement using the original working logic (before compound changes)
      */
     private SqlExecutionResult executeOriginalSelectStatement(SelectStatement node, ExecutionContext context) throws SqlExecutionException {
+        // Only this SELECT returns a cursor, not the subqueries it executes with the same context
+        boolean openCursor = context.isCursorRequested();
+        context.setCursorRequested(false);
         try {
+            node = rewriteQuery(node, context);
+            
             // Create query execution plan if planner is available
             QueryExecutionPlan executionPlan = null;
             if (queryPlanner != null) {
@@ -4257,30 +5198,14 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
             JoinResult joinResult;
             if (node.getFromClause().isPresent()) {
                 FromClause fromClause = node.getFromClause().get();
-                joinResult = executeFromClause(fromClause, context);
+                joinResult = executeFromClause(fromClause, node.getWhereClause(), context);
             } else {
                 // No FROM clause - create a single empty row for expression evaluation
                 joinResult = new JoinResult(List.of(), List.of(new Row(0L, new Object[0])));
             }
             
-            List<Row> filteredRows = joinResult.rows;
-            
-            // Apply WHERE clause if present
-            if (node.getWhereClause().isPresent()) {
-                WhereClause whereClause = node.getWhereClause().get();
-                filteredRows = new ArrayList<>();
-                
-                for (Row row : joinResult.rows) {
-                    context.setCurrentRow(row);
-                    context.setJoinedColumns(joinResult.columns);
-                    
-                    Object result = expressionEvaluator.evaluate(whereClause.getCondition(), context);
-                    
-                    if (Boolean.TRUE.equals(result)) {
-                        filteredRows.add(row);
-                    }
-                }
-            }
+            // Apply the WHERE conjuncts the FROM clause did not already apply
+            List<Row> filteredRows = applyWhereClause(joinResult, node.getWhereClause(), context);
             
             
             // Handle GROUP BY and aggregation
@@ -4310,10 +5235,21 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                 groupedRows = havingFilteredRows;
             }
             
-            // Apply ORDER BY if present (on grouped results)
-            if (node.getOrderByClause().isPresent()) {
+            // Apply ORDER BY if present (on grouped results). A cursor without LIMIT, DISTINCT or
+            // window functions, whose rows need no projection now, sorts when it is opened below
+            // and merges rows as they are fetched
+            OrderByClause cursorOrderBy = null;
+            List<Column> sortColumns = groupedColumns;
+            boolean projectOnFetch = openCursor && !node.isDistinct() && isRowLocalProjection(node.getSelectItems());
+            if (node.getOrderByClause().isPresent() && !node.getLimitClause().isPresent()
+                    && !hasWindowFunction(node.getSelectItems()) && openCursor && !node.isDistinct()
+                    && (projectOnFetch || node.getGroupByClause().isPresent() || hasAggregateFunction(node.getSelectItems()))) {
+                cursorOrderBy = node.getOrderByClause().get();
+            } else if (node.getOrderByClause().isPresent()) {
                 OrderByClause orderBy = node.getOrderByClause().get();
-                groupedRows = applyOrderBy(groupedRows, orderBy, context, groupedColumns);
+                // Window functions see every row and DISTINCT may drop rows, so only sort a prefix without them
+                int topN = hasWindowFunction(node.getSelectItems()) || node.isDistinct() ? -1 : constantTopN(node, context);
+                groupedRows = applyOrderBy(groupedRows, orderBy, context, groupedColumns, topN);
             }
             
             // Apply window functions if present
@@ -4323,8 +5259,8 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                 groupedColumns = windowResult.columns;
             }
             
-            // Apply LIMIT if present
-            if (node.getLimitClause().isPresent()) {
+            // Apply LIMIT if present; with DISTINCT it applies to the distinct projected rows
+            if (node.getLimitClause().isPresent() && !node.isDistinct()) {
                 LimitClause limitClause = node.getLimitClause().get();
                 int limit = evaluateIntExpression(limitClause.getLimit(), context);
                 int offset = 0;
@@ -4380,21 +5316,51 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
                 }
                 
                 // Project rows
-                for (Row row : groupedRows) {
+                List<SelectItem> selectItems = node.getSelectItems();
+                List<Column> sourceColumns = groupedColumns;
+                RowCursor.Projection projection = row -> {
                     context.setCurrentRow(row);
-                    context.setJoinedColumns(groupedColumns);
+                    context.setJoinedColumns(sourceColumns);
                     
-                    Object[] projectedData = new Object[node.getSelectItems().size()];
-                    for (int i = 0; i < node.getSelectItems().size(); i++) {
-                        SelectItem item = node.getSelectItems().get(i);
+                    Object[] projectedData = new Object[selectItems.size()];
+                    for (int i = 0; i < selectItems.size(); i++) {
+                        SelectItem item = selectItems.get(i);
                         projectedData[i] = expressionEvaluator.evaluate(item.getExpression(), context);
                     }
                     
-                    resultRows.add(new Row(row.getId(), projectedData));
+                    return new Row(row.getId(), projectedData);
+                };
+                
+                if (projectOnFetch) {
+                    // Project each batch as it is fetched instead of all rows now
+                    logger.debug("SELECT executed: cursor opened over {} rows", groupedRows.size());
+                    return new SqlExecutionResult(cursorOrderBy != null
+                        ? openSortedCursor(groupedRows, cursorOrderBy, context, sortColumns, resultColumns, projection)
+                        : new RowCursor(resultColumns, groupedRows, projection));
+                }
+                for (Row row : groupedRows) {
+                    resultRows.add(projection.project(row));
+                }
+            }
+            
+            if (node.isDistinct()) {
+                resultRows = SetOperations.distinct(resultRows);
+                if (node.getLimitClause().isPresent()) {
+                    LimitClause limitClause = node.getLimitClause().get();
+                    int limit = evaluateIntExpression(limitClause.getLimit(), context);
+                    int offset = limitClause.getOffset().isPresent()
+                        ? evaluateIntExpression(limitClause.getOffset().get(), context) : 0;
+                    int fromIndex = Math.min(offset, resultRows.size());
+                    resultRows = resultRows.subList(fromIndex, Math.min(fromIndex + limit, resultRows.size()));
                 }
             }
             
             logger.debug("SELECT executed: {} rows returned", resultRows.size());
+            if (openCursor) {
+                return new SqlExecutionResult(cursorOrderBy != null
+                    ? openSortedCursor(resultRows, cursorOrderBy, context, sortColumns, resultColumns, null)
+                    : new RowCursor(resultColumns, resultRows, null));
+            }
             return new SqlExecutionResult(resultColumns, resultRows);
             
         } catch (Exception e) {
@@ -4405,85 +5371,6 @@ public class StatementExecutor implements AstVisitor<SqlExecutionResult, Executi
         }
     }
     
-    private boolean containsEquivalentRow(List<Row> rows, Row newRow) {
-        for (Row existingRow : rows) {
-            if (areRowDataEqual(existingRow.getData(), newRow.getData())) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
-    private boolean areRowDataEqual(Object[] data1, Object[] data2) {
-        if (data1.length != data2.length) {
-            return false;
-        }
-        
-        for (int i = 0; i < data1.length; i++) {
-            Object val1 = data1[i];
-            Object val2 = data2[i];
-            
-            if (val1 == null && val2 == null) {
-                continue;
-            }
-            if (val1 == null || val2 == null) {
-                return false;
-            }
-            if (!val1.equals(val2)) {
-                return false;
-            }
-        }
-        
-        return true;
-    }
-    
-    /**
-     * Performs INTERSECT operation - returns rows that exist in both lists
-     */
-    private List<Row> performIntersect(List<Row> leftRows, List<Row> rightRows) {
-        List<Row> result = new ArrayList<>();
-        
-        for (Row leftRow : leftRows) {
-            for (Row rightRow : rightRows) {
-                if (areRowDataEqual(leftRow.getData(), rightRow.getData())) {
-                    // Check if we already added this row to avoid duplicates
-                    if (!containsEquivalentRow(result, leftRow)) {
-                        result.add(leftRow);
-                    }
-                    break; // Found match, no need to check more
-                }
-            }
-        }
-        
-        return result;
-    }
-    
-    /**
-     * Performs EXCEPT operation - returns rows from left that don't exist in right
-     */
-    private List<Row> performExcept(List<Row> leftRows, List<Row> rightRows) {
-        List<Row> result = new ArrayList<>();
-        
-        for (Row leftRow : leftRows) {
-            boolean existsInRight = false;
-            for (Row rightRow : rightRows) {
-                if (areRowDataEqual(leftRow.getData(), rightRow.getData())) {
-                    existsInRight = true;
-                    break;
-                }
-            }
-            
-            if (!existsInRight) {
-                // Check if we already added this row to avoid duplicates
-                if (!containsEquivalentRow(result, leftRow)) {
-                    result.add(leftRow);
-                }
-            }
-        }
-        
-        return result;
-    }
-    
     /**
      * CREATE TRIGGER statement execution.
      */
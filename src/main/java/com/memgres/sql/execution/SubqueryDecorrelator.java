@@ -0,0 +1,620 @@
+package com.memgres.sql.execution;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.sql.ast.expression.AggregateFunction;
+import com.memgres.sql.ast.expression.BinaryExpression;
+import com.memgres.sql.ast.expression.CaseExpression;
+import com.memgres.sql.ast.expression.ColumnReference;
+import com.memgres.sql.ast.expression.ExistsExpression;
+import com.memgres.sql.ast.expression.Expression;
+import com.memgres.sql.ast.expression.FunctionCall;
+import com.memgres.sql.ast.expression.InSubqueryExpression;
+import com.memgres.sql.ast.expression.LiteralExpression;
+import com.memgres.sql.ast.expression.ParameterExpression;
+import com.memgres.sql.ast.expression.SubqueryExpression;
+import com.memgres.sql.ast.expression.UnaryExpression;
+import com.memgres.sql.ast.statement.FromClause;
+import com.memgres.sql.ast.statement.GroupByClause;
+import com.memgres.sql.ast.statement.JoinClause;
+import com.memgres.sql.ast.statement.JoinableTable;
+import com.memgres.sql.ast.statement.OrderByClause;
+import com.memgres.sql.ast.statement.SelectItem;
+import com.memgres.sql.ast.statement.SelectStatement;
+import com.memgres.sql.ast.statement.TableReference;
+import com.memgres.sql.ast.statement.WhereClause;
+import com.memgres.storage.Table;
+import com.memgres.types.Column;
+import com.memgres.types.Row;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Rewrites subqueries into hash lookups that are built once, instead of executing the
+ * subquery again for every outer row.
+ *
+ * <p>A subquery whose WHERE clause refers to the outer query only through equalities between
+ * an inner and an outer expression ({@code e.dept_id = d.dept_id}) is decorrelated: the
+ * equalities are removed, the rest of the subquery is executed once with the inner sides of
+ * the equalities as extra output columns, and the result is hashed on those columns. EXISTS
+ * and IN then become hash semi-joins (anti-joins under NOT), and a scalar subquery becomes a
+ * lookup in its result grouped by the correlation keys. An uncorrelated subquery is executed
+ * once as written. Either way each outer row costs one probe, so filtering n rows against a
+ * subquery of m rows is O(n + m) rather than O(n * m).
+ *
+ * <p>{@link ExpressionEvaluator} asks for a subquery's lookup when it first evaluates the
+ * subquery. The lookup is cached in the {@link ExecutionContext} under the identity of the AST
+ * node and shared with the contexts of nested subqueries, so each subquery is planned and
+ * executed at most once per statement execution, however often the enclosing query runs.
+ * Subqueries of any other shape are cached as such and executed per row.
+ */
+final class SubqueryDecorrelator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubqueryDecorrelator.class);
+
+    /** Lookup value of a correlation key that matched more than one row of a scalar subquery. */
+    private static final Object MORE_THAN_ONE_ROW = new Object();
+
+    private final MemGresEngine engine;
+    private final StatementExecutor executor;
+
+    SubqueryDecorrelator(MemGresEngine engine, StatementExecutor executor) {
+        this.engine = engine;
+        this.executor = executor;
+    }
+
+    /**
+     * Return the lookup for a subquery, planning it on the first evaluation in a statement.
+     * The outcome, including the decision to execute the subquery per row, is cached in the
+     * context for the rest of the statement execution.
+     * @param node an {@link ExistsExpression}, {@link InSubqueryExpression} or {@link SubqueryExpression}
+     * @return the lookup, or null if the subquery has to be executed per row
+     */
+    Lookup lookup(Expression node, ExecutionContext context) {
+        if (context.hasSubqueryLookup(node)) {
+            return context.getSubqueryLookup(node);
+        }
+        List<Column> outerColumns = context.getJoinedColumns();
+        if (outerColumns == null) {
+            outerColumns = context.getCurrentTable() != null ? context.getCurrentTable().getColumns() : List.of();
+        }
+        Lookup lookup = plan(node, outerColumns, context);
+        context.putSubqueryLookup(node, lookup);
+        return lookup;
+    }
+
+    /**
+     * Build the lookup for one subquery, or return null if it has to be executed per row.
+     */
+    private Lookup plan(Expression node, List<Column> outerColumns, ExecutionContext context) {
+        SelectStatement subquery;
+        if (node instanceof ExistsExpression) {
+            subquery = ((ExistsExpression) node).getSubquery();
+        } else if (node instanceof InSubqueryExpression) {
+            subquery = ((InSubqueryExpression) node).getSubquery();
+        } else {
+            subquery = ((SubqueryExpression) node).getSelectStatement();
+        }
+        if (subquery.isCompound() || subquery.getWithClause().isPresent()) {
+            return null;
+        }
+
+        Scope scope = Scope.of(subquery, engine, context);
+        if (scope == null) {
+            return null;
+        }
+
+        // Everything but the WHERE clause has to be independent of the outer row
+        for (Expression expression : nonWhereExpressions(subquery, scope)) {
+            List<ColumnReference> columns = new ArrayList<>();
+            if (!collectColumns(expression, columns, context) || columns.stream().anyMatch(scope::isOuter)) {
+                return null;
+            }
+        }
+
+        // Split the WHERE clause into inner predicates and inner = outer correlations
+        List<Expression> innerConjuncts = new ArrayList<>();
+        List<Expression> innerKeys = new ArrayList<>();
+        List<Expression> outerKeys = new ArrayList<>();
+        if (subquery.getWhereClause().isPresent()) {
+            for (Expression conjunct : splitConjuncts(subquery.getWhereClause().get().getCondition())) {
+                List<ColumnReference> columns = new ArrayList<>();
+                if (!collectColumns(conjunct, columns, context)) {
+                    return null;
+                }
+                if (columns.stream().noneMatch(scope::isOuter)) {
+                    innerConjuncts.add(conjunct);
+                } else if (!addCorrelation(conjunct, scope, outerColumns, innerKeys, outerKeys, context)) {
+                    return null;
+                }
+            }
+        }
+
+        try {
+            if (outerKeys.isEmpty()) {
+                return planUncorrelated(node, subquery, context);
+            }
+            return planCorrelated(node, subquery, innerConjuncts, innerKeys, outerKeys, context);
+        } catch (SqlExecutionException e) {
+            // Leave the subquery to per-row execution, which reports the error if it persists
+            logger.debug("Could not decorrelate subquery, executing it per row: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Record {@code inner = outer} (in either order) as a correlation key pair.
+     */
+    private boolean addCorrelation(Expression conjunct, Scope scope, List<Column> outerColumns,
+                                   List<Expression> innerKeys, List<Expression> outerKeys, ExecutionContext context) {
+        if (!(conjunct instanceof BinaryExpression)
+                || ((BinaryExpression) conjunct).getOperator() != BinaryExpression.Operator.EQUALS) {
+            return false;
+        }
+        BinaryExpression equality = (BinaryExpression) conjunct;
+        Expression[] sides = {equality.getLeft(), equality.getRight()};
+        for (int inner = 0; inner < 2; inner++) {
+            List<ColumnReference> innerColumns = new ArrayList<>();
+            List<ColumnReference> outerSide = new ArrayList<>();
+            collectColumns(sides[inner], innerColumns, context);
+            collectColumns(sides[1 - inner], outerSide, context);
+            if (innerColumns.stream().noneMatch(scope::isOuter)
+                    && !outerSide.isEmpty()
+                    && outerSide.stream().allMatch(scope::isOuter)
+                    && outerSide.stream().allMatch(column -> hasColumn(outerColumns, column.getColumnName()))
+                    && !containsAggregate(sides[inner])) {
+                innerKeys.add(sides[inner]);
+                outerKeys.add(sides[1 - inner]);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Lookup planUncorrelated(Expression node, SelectStatement subquery, ExecutionContext context)
+            throws SqlExecutionException {
+        SqlExecutionResult result = executor.execute(subquery, context.createSubqueryContext());
+        if (!(node instanceof ExistsExpression) && result.getColumns().size() != 1) {
+            return null;
+        }
+        return buildLookup(node, result.getRows(), List.of(), null);
+    }
+
+    private Lookup planCorrelated(Expression node, SelectStatement subquery, List<Expression> innerConjuncts,
+                                  List<Expression> innerKeys, List<Expression> outerKeys,
+                                  ExecutionContext context) throws SqlExecutionException {
+        if (subquery.getGroupByClause().isPresent() || subquery.getHavingClause().isPresent()
+                || subquery.getLimitClause().isPresent()) {
+            return null;
+        }
+        List<SelectItem> items = new ArrayList<>();
+        for (Expression key : innerKeys) {
+            items.add(new SelectItem(key, Optional.empty()));
+        }
+
+        boolean aggregate = subquery.getSelectItems().stream()
+            .anyMatch(item -> !item.isWildcard() && containsAggregate(item.getExpression()));
+        Object emptyValue = null;
+        Optional<GroupByClause> groupBy = Optional.empty();
+        if (node instanceof ExistsExpression) {
+            // An aggregate without GROUP BY always returns a row, whatever the correlation
+            if (aggregate) {
+                return null;
+            }
+        } else {
+            if (subquery.getSelectItems().size() != 1 || subquery.getSelectItems().get(0).isWildcard()) {
+                return null;
+            }
+            SelectItem value = subquery.getSelectItems().get(0);
+            if (aggregate) {
+                if (node instanceof InSubqueryExpression
+                        || !innerKeys.stream().allMatch(key -> key instanceof ColumnReference)) {
+                    return null;
+                }
+                // Outer rows without inner rows see the aggregate over an empty input
+                groupBy = Optional.of(new GroupByClause(new ArrayList<>(innerKeys)));
+                emptyValue = aggregateOverNoRows(subquery, value, context);
+            }
+            items.add(new SelectItem(value.getExpression(), Optional.empty()));
+        }
+
+        Optional<WhereClause> where = combineConjuncts(innerConjuncts).map(WhereClause::new);
+        SelectStatement decorrelated = new SelectStatement(Optional.empty(), false, items,
+            subquery.getFromClause(), where, groupBy, Optional.empty(), Optional.empty(), Optional.empty());
+        SqlExecutionResult result = executor.execute(decorrelated, context.createSubqueryContext());
+        logger.debug("Decorrelated subquery on {} key(s) into a lookup of {} rows", innerKeys.size(),
+            result.getRows().size());
+        return buildLookup(node, result.getRows(), outerKeys, emptyValue);
+    }
+
+    /**
+     * Evaluate the select item of an aggregate subquery over no rows, e.g. 0 for COUNT(*).
+     */
+    private Object aggregateOverNoRows(SelectStatement subquery, SelectItem value, ExecutionContext context)
+            throws SqlExecutionException {
+        Expression noRows = new LiteralExpression(false, LiteralExpression.LiteralType.BOOLEAN);
+        SelectStatement empty = new SelectStatement(Optional.empty(), false, List.of(value),
+            subquery.getFromClause(), Optional.of(new WhereClause(noRows)),
+            Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+        List<Row> rows = executor.execute(empty, context.createSubqueryContext()).getRows();
+        return rows.isEmpty() ? null : rows.get(0).getData()[0];
+    }
+
+    /**
+     * Hash the subquery result on its leading key columns.
+     */
+    private static Lookup buildLookup(Expression node, List<Row> rows, List<Expression> outerKeys,
+                                      Object emptyValue) {
+        int keyCount = outerKeys.size();
+        if (node instanceof ExistsExpression) {
+            Set<Object> keys = new HashSet<>();
+            for (Row row : rows) {
+                Object key = correlationKey(row.getData(), keyCount);
+                if (key != null) {
+                    keys.add(key);
+                }
+            }
+            return new ExistsLookup(outerKeys, keys);
+        }
+
+        if (node instanceof InSubqueryExpression) {
+            Map<Object, ValueSet> groups = new HashMap<>();
+            for (Row row : rows) {
+                Object key = correlationKey(row.getData(), keyCount);
+                if (key != null) {
+                    groups.computeIfAbsent(key, k -> new ValueSet()).add(row.getData()[keyCount]);
+                }
+            }
+            InSubqueryExpression in = (InSubqueryExpression) node;
+            return new InLookup(outerKeys, groups, in.getExpression(), in.isNegated());
+        }
+
+        Map<Object, Object> values = new HashMap<>();
+        for (Row row : rows) {
+            Object key = correlationKey(row.getData(), keyCount);
+            if (key != null) {
+                values.put(key, values.containsKey(key) ? MORE_THAN_ONE_ROW : row.getData()[keyCount]);
+            }
+        }
+        return new ScalarLookup(outerKeys, values, emptyValue);
+    }
+
+    /**
+     * Hash key of the leading correlation columns, or null if one of them is NULL, since
+     * an equality with NULL never holds.
+     */
+    private static Object correlationKey(Object[] data, int keyCount) {
+        for (int i = 0; i < keyCount; i++) {
+            if (data[i] == null) {
+                return null;
+            }
+        }
+        return HashAggregation.groupKey(Arrays.copyOf(data, keyCount));
+    }
+
+    /**
+     * The expressions of a subquery other than its WHERE clause.
+     */
+    private static List<Expression> nonWhereExpressions(SelectStatement subquery, Scope scope) {
+        List<Expression> expressions = new ArrayList<>(scope.joinConditions);
+        for (SelectItem item : subquery.getSelectItems()) {
+            if (!item.isWildcard()) {
+                expressions.add(item.getExpression());
+            }
+        }
+        subquery.getGroupByClause().ifPresent(groupBy -> expressions.addAll(groupBy.getGroupingExpressions()));
+        subquery.getHavingClause().ifPresent(having -> expressions.add(having.getCondition()));
+        subquery.getOrderByClause().ifPresent(orderBy -> {
+            for (OrderByClause.OrderItem item : orderBy.getOrderItems()) {
+                expressions.add(item.getExpression());
+            }
+        });
+        return expressions;
+    }
+
+    /**
+     * Collect the column references of an expression. For a nested subquery these are the
+     * references its own FROM clause does not bind.
+     * @return false if the expression holds a construct whose references are not known,
+     *         or that must not be evaluated only once, such as NEXT VALUE FOR
+     */
+    private boolean collectColumns(Expression expression, List<ColumnReference> columns, ExecutionContext context) {
+        if (expression == null || expression instanceof LiteralExpression
+                || expression instanceof ParameterExpression) {
+            return true;
+        } else if (expression instanceof ColumnReference) {
+            columns.add((ColumnReference) expression);
+            return true;
+        } else if (expression instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) expression;
+            return collectColumns(binary.getLeft(), columns, context)
+                && collectColumns(binary.getRight(), columns, context);
+        } else if (expression instanceof UnaryExpression) {
+            return collectColumns(((UnaryExpression) expression).getOperand(), columns, context);
+        } else if (expression instanceof FunctionCall) {
+            for (Expression argument : ((FunctionCall) expression).getArguments()) {
+                if (!collectColumns(argument, columns, context)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (expression instanceof AggregateFunction) {
+            AggregateFunction aggregate = (AggregateFunction) expression;
+            return !aggregate.isWindowFunction() && collectColumns(aggregate.getExpression(), columns, context);
+        } else if (expression instanceof CaseExpression) {
+            CaseExpression caseExpression = (CaseExpression) expression;
+            for (CaseExpression.WhenClause when : caseExpression.getWhenClauses()) {
+                if (!collectColumns(when.getCondition(), columns, context)
+                        || !collectColumns(when.getResult(), columns, context)) {
+                    return false;
+                }
+            }
+            return collectColumns(caseExpression.getElseExpression().orElse(null), columns, context);
+        } else if (expression instanceof ExistsExpression) {
+            return collectFreeColumns(((ExistsExpression) expression).getSubquery(), columns, context);
+        } else if (expression instanceof InSubqueryExpression) {
+            InSubqueryExpression in = (InSubqueryExpression) expression;
+            return collectColumns(in.getExpression(), columns, context)
+                && collectFreeColumns(in.getSubquery(), columns, context);
+        } else if (expression instanceof SubqueryExpression) {
+            return collectFreeColumns(((SubqueryExpression) expression).getSelectStatement(), columns, context);
+        }
+        return false;
+    }
+
+    private boolean collectFreeColumns(SelectStatement subquery, List<ColumnReference> columns,
+                                       ExecutionContext context) {
+        if (subquery.isCompound() || subquery.getWithClause().isPresent()) {
+            return false;
+        }
+        Scope scope = Scope.of(subquery, engine, context);
+        if (scope == null) {
+            return false;
+        }
+        List<Expression> expressions = nonWhereExpressions(subquery, scope);
+        subquery.getWhereClause().ifPresent(where -> expressions.add(where.getCondition()));
+        for (Expression expression : expressions) {
+            List<ColumnReference> references = new ArrayList<>();
+            if (!collectColumns(expression, references, context)) {
+                return false;
+            }
+            for (ColumnReference reference : references) {
+                if (scope.isOuter(reference)) {
+                    columns.add(reference);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsAggregate(Expression expression) {
+        if (expression instanceof AggregateFunction) {
+            return true;
+        } else if (expression instanceof BinaryExpression) {
+            BinaryExpression binary = (BinaryExpression) expression;
+            return containsAggregate(binary.getLeft()) || containsAggregate(binary.getRight());
+        } else if (expression instanceof UnaryExpression) {
+            return containsAggregate(((UnaryExpression) expression).getOperand());
+        } else if (expression instanceof FunctionCall) {
+            return ((FunctionCall) expression).getArguments().stream().anyMatch(SubqueryDecorrelator::containsAggregate);
+        } else if (expression instanceof CaseExpression) {
+            CaseExpression caseExpression = (CaseExpression) expression;
+            return caseExpression.getWhenClauses().stream()
+                    .anyMatch(when -> containsAggregate(when.getCondition()) || containsAggregate(when.getResult()))
+                || caseExpression.getElseExpression().map(SubqueryDecorrelator::containsAggregate).orElse(false);
+        }
+        return false;
+    }
+
+    private static boolean hasColumn(List<Column> columns, String name) {
+        for (Column column : columns) {
+            if (column.getName().equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Expression> splitConjuncts(Expression expression) {
+        List<Expression> conjuncts = new ArrayList<>();
+        if (expression instanceof BinaryExpression
+                && ((BinaryExpression) expression).getOperator() == BinaryExpression.Operator.AND) {
+            conjuncts.addAll(splitConjuncts(((BinaryExpression) expression).getLeft()));
+            conjuncts.addAll(splitConjuncts(((BinaryExpression) expression).getRight()));
+        } else {
+            conjuncts.add(expression);
+        }
+        return conjuncts;
+    }
+
+    private static Optional<Expression> combineConjuncts(List<Expression> conjuncts) {
+        Expression combined = null;
+        for (Expression conjunct : conjuncts) {
+            combined = combined == null ? conjunct
+                : new BinaryExpression(combined, BinaryExpression.Operator.AND, conjunct);
+        }
+        return Optional.ofNullable(combined);
+    }
+
+    /**
+     * The names a subquery's FROM clause brings into scope. A qualified reference is inner if
+     * its qualifier names one of the subquery's tables; an unqualified one if one of those
+     * tables has the column, as inner names shadow outer ones.
+     */
+    private static final class Scope {
+        final Set<String> qualifiers = new HashSet<>();
+        final Set<String> columns = new HashSet<>();
+        final List<Expression> joinConditions = new ArrayList<>();
+
+        /**
+         * @return the scope, or null if a table's columns are not known without executing it
+         */
+        static Scope of(SelectStatement subquery, MemGresEngine engine, ExecutionContext context) {
+            Scope scope = new Scope();
+            if (!subquery.getFromClause().isPresent()) {
+                return scope;
+            }
+            FromClause from = subquery.getFromClause().get();
+            for (JoinableTable joinable : from.getJoinableTables()) {
+                for (TableReference table : joinable.getAllTableReferences()) {
+                    List<Column> tableColumns = relationColumns(table.getTableName(), engine, context);
+                    if (tableColumns == null) {
+                        return null;
+                    }
+                    scope.qualifiers.add(table.getTableName().toLowerCase());
+                    table.getAlias().ifPresent(alias -> scope.qualifiers.add(alias.toLowerCase()));
+                    for (Column column : tableColumns) {
+                        scope.columns.add(column.getName().toLowerCase());
+                    }
+                }
+                for (JoinClause join : joinable.getJoins()) {
+                    join.getOnCondition().ifPresent(scope.joinConditions::add);
+                }
+            }
+            return scope;
+        }
+
+        private static List<Column> relationColumns(String name, MemGresEngine engine, ExecutionContext context) {
+            if (context.hasCTE(name)) {
+                return context.getCTEResult(name).columns;
+            }
+            Table table = engine.getTable("public", name);
+            return table != null ? table.getColumns() : null;
+        }
+
+        boolean isOuter(ColumnReference column) {
+            if (column.getTableName().isPresent()) {
+                return !qualifiers.contains(column.getTableName().get().toLowerCase());
+            }
+            return !columns.contains(column.getColumnName().toLowerCase());
+        }
+    }
+
+    /**
+     * A prebuilt subquery result, probed once per outer row.
+     */
+    abstract static class Lookup {
+        private final List<Expression> outerKeys;
+
+        Lookup(List<Expression> outerKeys) {
+            this.outerKeys = outerKeys;
+        }
+
+        /**
+         * Evaluate the subquery expression for the context's current row.
+         */
+        abstract Object evaluate(ExpressionEvaluator evaluator, ExecutionContext context);
+
+        /**
+         * Hash key of the outer row's correlation values, or null if one of them is NULL.
+         */
+        Object probeKey(ExpressionEvaluator evaluator, ExecutionContext context) {
+            Object[] values = new Object[outerKeys.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = evaluator.evaluate(outerKeys.get(i), context);
+                if (values[i] == null) {
+                    return null;
+                }
+            }
+            return HashAggregation.groupKey(values);
+        }
+    }
+
+    /** EXISTS as a hash semi-join; NOT EXISTS negates it into an anti-join. */
+    private static final class ExistsLookup extends Lookup {
+        private final Set<Object> keys;
+
+        ExistsLookup(List<Expression> outerKeys, Set<Object> keys) {
+            super(outerKeys);
+            this.keys = keys;
+        }
+
+        @Override
+        Object evaluate(ExpressionEvaluator evaluator, ExecutionContext context) {
+            Object key = probeKey(evaluator, context);
+            return key != null && keys.contains(key);
+        }
+    }
+
+    /**
+     * [NOT] IN as a hash semi-join (anti-join). A NULL operand, or a value not found among
+     * values that include NULL, makes the predicate unknown, which filters like false.
+     */
+    private static final class InLookup extends Lookup {
+        private final Map<Object, ValueSet> groups;
+        private final Expression operand;
+        private final boolean negated;
+
+        InLookup(List<Expression> outerKeys, Map<Object, ValueSet> groups, Expression operand, boolean negated) {
+            super(outerKeys);
+            this.groups = groups;
+            this.operand = operand;
+            this.negated = negated;
+        }
+
+        @Override
+        Object evaluate(ExpressionEvaluator evaluator, ExecutionContext context) {
+            Object value = evaluator.evaluate(operand, context);
+            Object key = probeKey(evaluator, context);
+            ValueSet values = key != null ? groups.get(key) : null;
+            if (values == null) {
+                return negated;
+            }
+            if (value == null) {
+                return false;
+            }
+            if (values.contains(value)) {
+                return !negated;
+            }
+            return !values.hasNull && negated;
+        }
+    }
+
+    /** Correlated scalar subquery as a lookup in its result grouped by the correlation keys. */
+    private static final class ScalarLookup extends Lookup {
+        private final Map<Object, Object> values;
+        private final Object emptyValue;
+
+        ScalarLookup(List<Expression> outerKeys, Map<Object, Object> values, Object emptyValue) {
+            super(outerKeys);
+            this.values = values;
+            this.emptyValue = emptyValue;
+        }
+
+        @Override
+        Object evaluate(ExpressionEvaluator evaluator, ExecutionContext context) {
+            Object key = probeKey(evaluator, context);
+            Object value = key != null ? values.getOrDefault(key, emptyValue) : emptyValue;
+            if (value == MORE_THAN_ONE_ROW) {
+                throw new IllegalStateException("Scalar subquery returned more than one row");
+            }
+            return value;
+        }
+    }
+
+    /** The IN values of one correlation key. */
+    private static final class ValueSet {
+        private final Set<Object> values = new HashSet<>();
+        private boolean hasNull;
+
+        void add(Object value) {
+            if (value == null) {
+                hasNull = true;
+            } else {
+                values.add(PartitionedHashJoin.normalizeKey(value));
+            }
+        }
+
+        boolean contains(Object value) {
+            return values.contains(PartitionedHashJoin.normalizeKey(value));
+        }
+    }
+}
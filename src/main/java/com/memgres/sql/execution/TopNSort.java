@@ -0,0 +1,81 @@
+package com.memgres.sql.execution;
+
+import com.memgres.types.Row;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded-heap sort for ORDER BY ... LIMIT: keeps only the first {@code n} rows in key order.
+ *
+ * <p>The heap is ordered with the worst retained row on top, so each further row costs one
+ * comparison against it and, if it sorts earlier, an O(log n) replacement. Memory is O(n)
+ * regardless of input size. Ties are broken by input position, so the result is exactly
+ * the first {@code n} rows of a stable sort.
+ *
+ * <p>Keys are evaluated once per row by the caller, as for {@link ExternalSort}.
+ */
+final class TopNSort {
+
+    private final int limit;
+    private final Comparator<Entry> entryOrder;
+    private final PriorityQueue<Entry> heap;
+    private long sequence;
+
+    /**
+     * @param keyComparator ordering of the key arrays passed to {@link #add}
+     * @param limit the number of rows to keep
+     */
+    TopNSort(Comparator<Object[]> keyComparator, int limit) {
+        this.limit = limit;
+        this.entryOrder = (a, b) -> {
+            int comparison = keyComparator.compare(a.keys, b.keys);
+            return comparison != 0 ? comparison : Long.compare(a.sequence, b.sequence);
+        };
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(limit, 1024)) + 1, entryOrder.reversed());
+    }
+
+    /**
+     * Offer a row with its sort keys.
+     */
+    void add(Object[] keys, Row row) {
+        if (limit <= 0) {
+            return;
+        }
+        Entry entry = new Entry(keys, row, sequence++);
+        if (heap.size() < limit) {
+            heap.add(entry);
+        } else if (entryOrder.compare(entry, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(entry);
+        }
+    }
+
+    /**
+     * Return the retained rows in key order.
+     */
+    List<Row> finish() {
+        List<Entry> entries = new ArrayList<>(heap);
+        heap.clear();
+        entries.sort(entryOrder);
+        List<Row> rows = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            rows.add(entry.row);
+        }
+        return rows;
+    }
+
+    private static final class Entry {
+        final Object[] keys;
+        final Row row;
+        final long sequence;
+
+        Entry(Object[] keys, Row row, long sequence) {
+            this.keys = keys;
+            this.row = row;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.memgres.sql.execution;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.sql.ast.expression.ColumnReference;
+import com.memgres.sql.ast.expression.Expression;
+import com.memgres.sql.ast.statement.CommonTableExpression;
+import com.memgres.sql.ast.statement.FromClause;
+import com.memgres.sql.ast.statement.GroupByClause;
+import com.memgres.sql.ast.statement.HavingClause;
+import com.memgres.sql.ast.statement.JoinableTable;
+import com.memgres.sql.ast.statement.OrderByClause;
+import com.memgres.sql.ast.statement.SelectItem;
+import com.memgres.sql.ast.statement.SelectStatement;
+import com.memgres.sql.ast.statement.TableReference;
+import com.memgres.sql.ast.statement.WhereClause;
+import com.memgres.sql.ast.statement.WithClause;
+import com.memgres.storage.Schema;
+import com.memgres.storage.View;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Rewrites queries over views so that the outer query's predicates reach the view's tables.
+ *
+ * <p>A view that only filters and projects (no aggregation, DISTINCT, ORDER BY, LIMIT or
+ * window functions) and makes up the whole FROM clause of a query is merged into it: the query
+ * reads the view's FROM clause directly, its WHERE clause is ANDed with the view's, and its
+ * column references are replaced by the view's select expressions. Rows the outer WHERE
+ * rejects are then never projected by the view, and joins inside the view are planned with
+ * the outer predicates in sight.
+ *
+ * <p>Any other view is still executed on its own, but the outer WHERE conjuncts that only read
+ * columns the view passes through unchanged (its GROUP BY columns, when it aggregates) are
+ * moved into the view's WHERE clause, and the filtered view is evaluated as a CTE of the
+ * query. Views with LIMIT or window functions are left alone, since filtering their input
+ * would change their result.
+ */
+final class ViewInliner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewInliner.class);
+
+    /** Views nested deeper than this are executed as written, which also stops self-references. */
+    private static final int MAX_DEPTH = 32;
+
+    private final MemGresEngine engine;
+
+    ViewInliner(MemGresEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Rewrite a simple SELECT whose FROM clause is a view, repeatedly for views over views.
+     * @param dependencies receives every name looked up in the catalog
+     * @return the rewritten statement, or the query itself if there is nothing to rewrite
+     */
+    SelectStatement inline(SelectStatement query, ExecutionContext context, PlanCache.Dependencies dependencies) {
+        SelectStatement current = query;
+        for (int depth = 0; depth < MAX_DEPTH; depth++) {
+            SelectStatement rewritten = inlineOnce(current, context, dependencies);
+            if (rewritten == null) {
+                break;
+            }
+            current = rewritten;
+        }
+        return current;
+    }
+
+    private SelectStatement inlineOnce(SelectStatement query, ExecutionContext context,
+                                       PlanCache.Dependencies dependencies) {
+        if (query.isCompound() || !query.getFromClause().isPresent()) {
+            return null;
+        }
+        List<JoinableTable> tables = query.getFromClause().get().getJoinableTables();
+        if (tables.size() != 1 || tables.get(0).hasJoins()) {
+            return null;
+        }
+        TableReference viewRef = tables.get(0).getBaseTable();
+        View view = resolveView(viewRef.getTableName(), query, context, dependencies);
+        if (view == null) {
+            return null;
+        }
+        SelectStatement definition = view.getSelectStatement();
+        if (definition.isCompound() || definition.getWithClause().isPresent() || !definition.getFromClause().isPresent()
+                || definition.getLimitClause().isPresent() || definition.getSelectItems().stream()
+                    .anyMatch(item -> !item.isWildcard()
+                        && PredicatePushdown.containsWindowFunction(item.getExpression()))) {
+            return null;
+        }
+
+        String key = viewRef.getAlias().orElse(viewRef.getTableName()).toLowerCase();
+        PredicatePushdown.OutputColumns columns = PredicatePushdown.OutputColumns.of(definition, Optional.empty());
+        if (columns == null) {
+            return null;
+        }
+        if (isMergeable(definition)) {
+            SelectStatement merged = merge(query, definition, key, columns);
+            if (merged != null) {
+                logger.debug("Merged view {} into the query", view.getName());
+                return merged;
+            }
+        }
+        SelectStatement pushed = pushDown(query, view, definition, key, columns);
+        if (pushed != null) {
+            logger.debug("Pushed predicates into view {}", view.getName());
+        }
+        return pushed;
+    }
+
+    /**
+     * The view a table name refers to, unless a table or CTE of that name hides it.
+     */
+    private View resolveView(String name, SelectStatement query, ExecutionContext context,
+                             PlanCache.Dependencies dependencies) {
+        Schema schema = engine.getSchema("public");
+        if (schema == null) {
+            return null;
+        }
+        dependencies.record(name, schema.getObjectVersion(name), context.hasCTE(name));
+        if (context.hasCTE(name) || schema.getTable(name) != null) {
+            return null;
+        }
+        if (query.getWithClause().isPresent()) {
+            for (CommonTableExpression cte : query.getWithClause().get().getCommonTableExpressions()) {
+                if (cte.getName().equalsIgnoreCase(name)) {
+                    return null;
+                }
+            }
+        }
+        return schema.getView(name);
+    }
+
+    private static boolean isMergeable(SelectStatement definition) {
+        if (definition.isDistinct() || definition.getGroupByClause().isPresent()
+                || definition.getHavingClause().isPresent() || definition.getOrderByClause().isPresent()) {
+            return false;
+        }
+        for (SelectItem item : definition.getSelectItems()) {
+            if (!item.isWildcard() && PredicatePushdown.containsAggregate(item.getExpression())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Merge a filtering and projecting view into the query, or return null if some part of
+     * the query cannot be expressed over the view's tables.
+     */
+    private static SelectStatement merge(SelectStatement query, SelectStatement definition, String key,
+                                         PredicatePushdown.OutputColumns columns) {
+        Function<ColumnReference, Expression> outerColumns = ref -> columns.resolve(ref, key, true);
+
+        Set<String> outputAliases = new HashSet<>();
+        List<SelectItem> items = new ArrayList<>();
+        for (SelectItem item : query.getSelectItems()) {
+            if (item.isWildcard()) {
+                if (columns.wildcardTable != null) {
+                    items.add(new SelectItem());
+                } else {
+                    for (int i = 0; i < definition.getSelectItems().size(); i++) {
+                        Expression expression = definition.getSelectItems().get(i).getExpression();
+                        items.add(new SelectItem(expression, aliasFor(columns.names.get(i), expression)));
+                    }
+                }
+                continue;
+            }
+            Expression expression = PredicatePushdown.substitute(item.getExpression(), outerColumns);
+            if (expression == null) {
+                return null;
+            }
+            Optional<String> alias = item.getAlias();
+            if (alias.isEmpty() && item.getExpression() instanceof ColumnReference) {
+                alias = aliasFor(((ColumnReference) item.getExpression()).getColumnName(), expression);
+            }
+            alias.ifPresent(name -> outputAliases.add(name.toLowerCase()));
+            items.add(new SelectItem(expression, alias));
+        }
+
+        Expression where = null;
+        if (query.getWhereClause().isPresent()) {
+            where = PredicatePushdown.substitute(query.getWhereClause().get().getCondition(), outerColumns);
+            if (where == null) {
+                return null;
+            }
+        }
+        List<Expression> conjuncts = new ArrayList<>();
+        definition.getWhereClause().ifPresent(clause -> conjuncts.add(clause.getCondition()));
+        if (where != null) {
+            conjuncts.add(where);
+        }
+
+        Optional<GroupByClause> groupBy = Optional.empty();
+        if (query.getGroupByClause().isPresent()) {
+            List<Expression> grouping = new ArrayList<>();
+            for (Expression expression : query.getGroupByClause().get().getGroupingExpressions()) {
+                Expression substituted = PredicatePushdown.substitute(expression, outerColumns);
+                if (substituted == null) {
+                    return null;
+                }
+                grouping.add(substituted);
+            }
+            groupBy = Optional.of(new GroupByClause(grouping));
+        }
+
+        // HAVING and ORDER BY of an aggregating query read its output columns, which keep their names
+        boolean aggregated = query.getGroupByClause().isPresent() || query.getSelectItems().stream()
+            .anyMatch(item -> !item.isWildcard() && PredicatePushdown.containsAggregate(item.getExpression()));
+        Optional<HavingClause> having = query.getHavingClause();
+        Optional<OrderByClause> orderBy = query.getOrderByClause();
+        if (!aggregated && having.isPresent()) {
+            Expression condition = PredicatePushdown.substitute(having.get().getCondition(), outerColumns);
+            if (condition == null) {
+                return null;
+            }
+            having = Optional.of(new HavingClause(condition));
+        }
+        if (!aggregated && orderBy.isPresent()) {
+            List<OrderByClause.OrderItem> orderItems = new ArrayList<>();
+            for (OrderByClause.OrderItem orderItem : orderBy.get().getOrderItems()) {
+                // ORDER BY may name an output column, which would no longer exist by that name
+                Expression expression = orderItem.getExpression();
+                if (expression instanceof ColumnReference && !((ColumnReference) expression).getTableName().isPresent()
+                        && outputAliases.contains(((ColumnReference) expression).getColumnName().toLowerCase())) {
+                    return null;
+                }
+                Expression substituted = PredicatePushdown.substitute(expression, outerColumns);
+                if (substituted == null) {
+                    return null;
+                }
+                orderItems.add(new OrderByClause.OrderItem(substituted, orderItem.isAscending()));
+            }
+            orderBy = Optional.of(new OrderByClause(orderItems));
+        }
+
+        return new SelectStatement(query.getWithClause(), query.isDistinct(), items, definition.getFromClause(),
+            PredicatePushdown.combineConjuncts(conjuncts).map(WhereClause::new), groupBy, having, orderBy,
+            query.getLimitClause());
+    }
+
+    /**
+     * Move the outer WHERE conjuncts that can be evaluated on the view's input rows into the
+     * view, and read the filtered view as a CTE. Returns null if no conjunct qualifies.
+     */
+    private static SelectStatement pushDown(SelectStatement query, View view, SelectStatement definition, String key,
+                                            PredicatePushdown.OutputColumns columns) {
+        if (!query.getWhereClause().isPresent()) {
+            return null;
+        }
+        List<Expression> remaining = new ArrayList<>();
+        SelectStatement filteredView = PredicatePushdown.filterDefinition(definition, columns, key, true,
+            PredicatePushdown.splitConjuncts(query.getWhereClause().get().getCondition()), remaining);
+        if (filteredView == null) {
+            return null;
+        }
+
+        // Evaluated after the query's own CTEs, which the view would otherwise see as well
+        String cteName = view.getName().toLowerCase() + "$filtered";
+        List<CommonTableExpression> ctes = new ArrayList<>();
+        boolean recursive = false;
+        if (query.getWithClause().isPresent()) {
+            ctes.addAll(query.getWithClause().get().getCommonTableExpressions());
+            recursive = query.getWithClause().get().isRecursive();
+        }
+        ctes.add(new CommonTableExpression(cteName, Optional.empty(), filteredView));
+
+        FromClause from = new FromClause(List.of(new JoinableTable(new TableReference(cteName, Optional.of(key)))));
+        return new SelectStatement(Optional.of(new WithClause(recursive, ctes)), query.isDistinct(),
+            query.getSelectItems(), Optional.of(from),
+            PredicatePushdown.combineConjuncts(remaining).map(WhereClause::new), query.getGroupByClause(),
+            query.getHavingClause(), query.getOrderByClause(), query.getLimitClause());
+    }
+
+    /**
+     * The alias that keeps an output column's name when its expression is replaced.
+     */
+    private static Optional<String> aliasFor(String name, Expression expression) {
+        if (expression instanceof ColumnReference && ((ColumnReference) expression).getColumnName().equalsIgnoreCase(name)) {
+            return Optional.empty();
+        }
+        return Optional.of(name);
+    }
+}
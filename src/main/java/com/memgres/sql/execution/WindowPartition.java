@@ -0,0 +1,136 @@
+package com.memgres.sql.execution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One partition of a window, with its rows in window order and their peer groups.
+ *
+ * <p>Partitions are built once per distinct OVER clause: rows are hashed on their typed
+ * PARTITION BY values (as GROUP BY keys are), then each partition is stably sorted on its
+ * precomputed ORDER BY keys. Rows with equal ORDER BY keys are peers; without ORDER BY all
+ * rows of a partition are peers. Every window function can then be computed in a single
+ * pass over each partition.
+ */
+final class WindowPartition {
+
+    /** Input row indexes in window order. */
+    private final int[] rows;
+    /** For each position, the first and last position of its peer group. */
+    private final int[] peerStart;
+    private final int[] peerEnd;
+    /** For each position, the 1-based number of its peer group (the dense rank). */
+    private final int[] peerGroup;
+
+    private WindowPartition(int[] rows, Object[][] sortKeys, Comparator<Object[]> keyComparator) {
+        int size = rows.length;
+        this.rows = rows;
+        this.peerStart = new int[size];
+        this.peerEnd = new int[size];
+        this.peerGroup = new int[size];
+
+        int start = 0;
+        int group = 0;
+        for (int position = 1; position <= size; position++) {
+            boolean boundary = position == size
+                || (sortKeys != null && keyComparator.compare(sortKeys[rows[position - 1]], sortKeys[rows[position]]) != 0);
+            if (boundary) {
+                group++;
+                for (int p = start; p < position; p++) {
+                    peerStart[p] = start;
+                    peerEnd[p] = position - 1;
+                    peerGroup[p] = group;
+                }
+                start = position;
+            }
+        }
+    }
+
+    /**
+     * Partition and sort rows for one window.
+     * @param rowCount number of input rows
+     * @param partitionKeys PARTITION BY values per input row, or null for a single partition
+     * @param sortKeys ORDER BY values per input row, or null if the window is unordered
+     * @param keyComparator ordering of the sort keys
+     * @return the partitions, in order of their first input row
+     */
+    static List<WindowPartition> build(int rowCount, Object[][] partitionKeys, Object[][] sortKeys,
+                                       Comparator<Object[]> keyComparator) {
+        List<int[]> members = new ArrayList<>();
+        if (partitionKeys == null) {
+            int[] all = new int[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                all[i] = i;
+            }
+            members.add(all);
+        } else {
+            Map<Object, IntList> partitions = new LinkedHashMap<>();
+            for (int i = 0; i < rowCount; i++) {
+                partitions.computeIfAbsent(HashAggregation.groupKey(partitionKeys[i]), k -> new IntList()).add(i);
+            }
+            for (IntList partition : partitions.values()) {
+                members.add(partition.toArray());
+            }
+        }
+
+        List<WindowPartition> result = new ArrayList<>(members.size());
+        for (int[] rows : members) {
+            if (sortKeys != null && rows.length > 1) {
+                // Stable sort of the row indexes by their keys
+                Integer[] boxed = new Integer[rows.length];
+                for (int i = 0; i < rows.length; i++) {
+                    boxed[i] = rows[i];
+                }
+                Arrays.sort(boxed, (a, b) -> keyComparator.compare(sortKeys[a], sortKeys[b]));
+                for (int i = 0; i < rows.length; i++) {
+                    rows[i] = boxed[i];
+                }
+            }
+            result.add(new WindowPartition(rows, sortKeys, keyComparator));
+        }
+        return result;
+    }
+
+    int size() {
+        return rows.length;
+    }
+
+    /**
+     * Input row index at a position in window order.
+     */
+    int rowAt(int position) {
+        return rows[position];
+    }
+
+    int peerStart(int position) {
+        return peerStart[position];
+    }
+
+    int peerEnd(int position) {
+        return peerEnd[position];
+    }
+
+    int peerGroup(int position) {
+        return peerGroup[position];
+    }
+
+    private static final class IntList {
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
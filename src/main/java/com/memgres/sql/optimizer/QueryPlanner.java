@@ -8,7 +8,9 @@ import com.memgres.sql.ast.expression.Expression;
 import com.memgres.sql.ast.expression.ColumnReference;
 import com.memgres.sql.ast.expression.LiteralExpression;
 import com.memgres.sql.ast.expression.BinaryExpression;
+import com.memgres.storage.statistics.ColumnStatistics;
 import com.memgres.storage.statistics.StatisticsManager;
+import com.memgres.storage.statistics.TableStatistics;
 import com.memgres.storage.Table;
 import com.memgres.storage.Schema;
 import org.slf4j.Logger;
@@ -18,12 +20,19 @@ import java.util.*;
 
 /**
  * Cost-based query planner that uses table statistics to optimize query execution.
- * Simplified version focusing on single table queries for Phase 4.1.
+ * Access method selection still focuses on single table queries; multi-table queries
+ * get their join order from {@link #planJoinOrder}.
  */
 public class QueryPlanner {
     
     private static final Logger logger = LoggerFactory.getLogger(QueryPlanner.class);
     
+    /**
+     * Largest number of relations ordered with exhaustive dynamic programming;
+     * bigger joins are ordered greedily.
+     */
+    static final int MAX_DP_RELATIONS = 10;
+    
     private final StatisticsManager statisticsManager;
     private final Schema schema;
     
@@ -32,6 +41,14 @@ public class QueryPlanner {
         this.schema = schema;
     }
     
+    /**
+     * Create a planner without collected statistics. Join ordering then relies entirely on
+     * the cardinalities and distinct counts supplied by the caller.
+     */
+    public QueryPlanner(Schema schema) {
+        this(null, schema);
+    }
+    
     /**
      * Create an optimized execution plan for a SELECT statement.
      */
@@ -114,6 +131,262 @@ public class QueryPlanner {
         return new AccessMethodChoice(AccessMethod.TABLE_SCAN, null, scanCost, rowCount);
     }
     
+    /**
+     * Choose the order in which to join a set of relations (inner joins only).
+     * 
+     * <p>The estimated size of joining relation r to a set S is
+     * |S| * |r| * product of the selectivities of the equi-join edges between S and r, with
+     * selectivity 1 / max(distinct values of the two columns). The cost of a plan is the sum of
+     * its hash join inputs and outputs. Up to {@value #MAX_DP_RELATIONS} relations, every
+     * left-deep order is considered with dynamic programming over relation subsets; larger
+     * joins start from the smallest relation and greedily add the relation giving the
+     * smallest intermediate result. Cross products are only introduced when no relation
+     * connected to the current set remains.
+     * 
+     * <p>Distinct counts come from {@link TableStatistics} when the relation is a base table
+     * with collected column statistics, otherwise from the edge's own estimate.
+     * 
+     * @param relations the relations to join, in the order written in the query
+     * @param edges equi-join predicates between pairs of relations
+     * @return the chosen order as indexes into {@code relations}
+     */
+    public JoinOrder planJoinOrder(List<JoinRelation> relations, List<JoinEdge> edges) {
+        int n = relations.size();
+        double[] rowCounts = new double[n];
+        for (int i = 0; i < n; i++) {
+            rowCounts[i] = Math.max(1.0, relations.get(i).getRowCount());
+        }
+        double[][] selectivity = new double[n][n];
+        boolean[][] adjacent = new boolean[n][n];
+        for (double[] row : selectivity) {
+            Arrays.fill(row, 1.0);
+        }
+        for (JoinEdge edge : edges) {
+            double leftDistinct = distinctValues(relations.get(edge.getLeftRelation()), edge.getLeftColumn(), edge.getLeftDistinct());
+            double rightDistinct = distinctValues(relations.get(edge.getRightRelation()), edge.getRightColumn(), edge.getRightDistinct());
+            double edgeSelectivity = 1.0 / Math.max(1.0, Math.max(leftDistinct, rightDistinct));
+            selectivity[edge.getLeftRelation()][edge.getRightRelation()] *= edgeSelectivity;
+            selectivity[edge.getRightRelation()][edge.getLeftRelation()] *= edgeSelectivity;
+            adjacent[edge.getLeftRelation()][edge.getRightRelation()] = true;
+            adjacent[edge.getRightRelation()][edge.getLeftRelation()] = true;
+        }
+        
+        JoinOrder order = n <= MAX_DP_RELATIONS
+            ? planJoinOrderExhaustive(rowCounts, selectivity, adjacent)
+            : planJoinOrderGreedy(rowCounts, selectivity, adjacent);
+        logger.debug("Join order for {} relations: {}", n, order);
+        return order;
+    }
+    
+    private JoinOrder planJoinOrderExhaustive(double[] rowCounts, double[][] selectivity, boolean[][] adjacent) {
+        int n = rowCounts.length;
+        int full = (1 << n) - 1;
+        double[] cost = new double[full + 1];
+        double[] rows = new double[full + 1];
+        int[] lastAdded = new int[full + 1];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < n; i++) {
+            cost[1 << i] = 0.0;
+            rows[1 << i] = rowCounts[i];
+            lastAdded[1 << i] = i;
+        }
+        
+        for (int mask = 1; mask < full; mask++) {
+            if (cost[mask] == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            boolean anyConnected = false;
+            for (int r = 0; r < n && !anyConnected; r++) {
+                anyConnected = (mask & (1 << r)) == 0 && isConnected(mask, r, adjacent);
+            }
+            for (int r = 0; r < n; r++) {
+                if ((mask & (1 << r)) != 0 || (anyConnected && !isConnected(mask, r, adjacent))) {
+                    continue;
+                }
+                double joinedRows = rows[mask] * rowCounts[r] * selectivityTo(mask, r, selectivity);
+                double joinedCost = cost[mask] + rows[mask] + rowCounts[r] + joinedRows;
+                int next = mask | (1 << r);
+                if (joinedCost < cost[next]) {
+                    cost[next] = joinedCost;
+                    rows[next] = joinedRows;
+                    lastAdded[next] = r;
+                }
+            }
+        }
+        
+        int[] order = new int[n];
+        for (int mask = full, i = n - 1; i >= 0; i--) {
+            order[i] = lastAdded[mask];
+            mask &= ~(1 << order[i]);
+        }
+        return new JoinOrder(order, cost[full], rows[full]);
+    }
+    
+    private JoinOrder planJoinOrderGreedy(double[] rowCounts, double[][] selectivity, boolean[][] adjacent) {
+        int n = rowCounts.length;
+        int[] order = new int[n];
+        int first = 0;
+        for (int i = 1; i < n; i++) {
+            if (rowCounts[i] < rowCounts[first]) {
+                first = i;
+            }
+        }
+        order[0] = first;
+        BitSet joined = new BitSet(n);
+        joined.set(first);
+        double rows = rowCounts[first];
+        double cost = 0.0;
+        
+        for (int step = 1; step < n; step++) {
+            int best = -1;
+            double bestRows = Double.POSITIVE_INFINITY;
+            boolean bestConnected = false;
+            for (int r = 0; r < n; r++) {
+                if (joined.get(r)) {
+                    continue;
+                }
+                double joinSelectivity = 1.0;
+                boolean connected = false;
+                for (int member = joined.nextSetBit(0); member >= 0; member = joined.nextSetBit(member + 1)) {
+                    joinSelectivity *= selectivity[member][r];
+                    connected |= adjacent[member][r];
+                }
+                double joinedRows = rows * rowCounts[r] * joinSelectivity;
+                if ((connected && !bestConnected) || (connected == bestConnected && joinedRows < bestRows)) {
+                    best = r;
+                    bestRows = joinedRows;
+                    bestConnected = connected;
+                }
+            }
+            cost += rows + rowCounts[best] + bestRows;
+            rows = bestRows;
+            order[step] = best;
+            joined.set(best);
+        }
+        return new JoinOrder(order, cost, rows);
+    }
+    
+    private static boolean isConnected(int mask, int relation, boolean[][] adjacent) {
+        for (int member = 0; member < adjacent.length; member++) {
+            if ((mask & (1 << member)) != 0 && adjacent[member][relation]) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static double selectivityTo(int mask, int relation, double[][] selectivity) {
+        double result = 1.0;
+        for (int member = 0; member < selectivity.length; member++) {
+            if ((mask & (1 << member)) != 0) {
+                result *= selectivity[member][relation];
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Distinct values of a join column: collected column statistics when available,
+     * otherwise the caller's estimate. Never more than the relation's row count.
+     */
+    private double distinctValues(JoinRelation relation, String columnName, long fallback) {
+        long distinct = fallback;
+        if (statisticsManager != null && relation.getTableName() != null && columnName != null) {
+            TableStatistics stats = statisticsManager.getAllStatistics().get(relation.getTableName());
+            ColumnStatistics columnStats = stats != null ? stats.getColumnStatistics(columnName) : null;
+            if (columnStats != null && columnStats.getDistinctValues() > 0) {
+                distinct = columnStats.getDistinctValues();
+            }
+        }
+        return Math.max(1, Math.min(distinct, Math.max(1, relation.getRowCount())));
+    }
+    
+    /**
+     * A relation taking part in join ordering: a base table, view or intermediate result.
+     */
+    public static class JoinRelation {
+        private final String tableName;
+        private final long rowCount;
+        
+        /**
+         * @param tableName the base table name, or null if the relation is not a base table
+         * @param rowCount the number of rows the relation produces
+         */
+        public JoinRelation(String tableName, long rowCount) {
+            this.tableName = tableName;
+            this.rowCount = rowCount;
+        }
+        
+        public String getTableName() { return tableName; }
+        public long getRowCount() { return rowCount; }
+    }
+    
+    /**
+     * An equi-join predicate between a column of one relation and a column of another.
+     */
+    public static class JoinEdge {
+        private final int leftRelation;
+        private final String leftColumn;
+        private final long leftDistinct;
+        private final int rightRelation;
+        private final String rightColumn;
+        private final long rightDistinct;
+        
+        public JoinEdge(int leftRelation, String leftColumn, long leftDistinct,
+                        int rightRelation, String rightColumn, long rightDistinct) {
+            this.leftRelation = leftRelation;
+            this.leftColumn = leftColumn;
+            this.leftDistinct = leftDistinct;
+            this.rightRelation = rightRelation;
+            this.rightColumn = rightColumn;
+            this.rightDistinct = rightDistinct;
+        }
+        
+        public int getLeftRelation() { return leftRelation; }
+        public String getLeftColumn() { return leftColumn; }
+        public long getLeftDistinct() { return leftDistinct; }
+        public int getRightRelation() { return rightRelation; }
+        public String getRightColumn() { return rightColumn; }
+        public long getRightDistinct() { return rightDistinct; }
+    }
+    
+    /**
+     * A chosen join order with its estimated cost and result size.
+     */
+    public static class JoinOrder {
+        private final int[] order;
+        private final double estimatedCost;
+        private final double estimatedRows;
+        
+        JoinOrder(int[] order, double estimatedCost, double estimatedRows) {
+            this.order = order;
+            this.estimatedCost = estimatedCost;
+            this.estimatedRows = estimatedRows;
+        }
+        
+        public int[] getOrder() { return order.clone(); }
+        public double getEstimatedCost() { return estimatedCost; }
+        public double getEstimatedRows() { return estimatedRows; }
+        
+        /**
+         * Check whether the order is the one written in the query.
+         */
+        public boolean isWrittenOrder() {
+            for (int i = 0; i < order.length; i++) {
+                if (order[i] != i) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("JoinOrder{order=%s, cost=%.2f, rows=%.2f}",
+                    Arrays.toString(order), estimatedCost, estimatedRows);
+        }
+    }
+    
     /**
      * Represents a choice of access method with cost estimates.
      */
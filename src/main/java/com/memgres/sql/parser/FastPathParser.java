@@ -0,0 +1,350 @@
+package com.memgres.sql.parser;
+
+import com.memgres.sql.MemGresLexer;
+import com.memgres.sql.ast.expression.BinaryExpression;
+import com.memgres.sql.ast.expression.ColumnReference;
+import com.memgres.sql.ast.expression.Expression;
+import com.memgres.sql.ast.expression.LiteralExpression;
+import com.memgres.sql.ast.expression.ParameterExpression;
+import com.memgres.sql.ast.statement.*;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Token;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Recursive-descent parser for the statement shapes applications send most often:
+ * <ul>
+ *   <li>{@code INSERT INTO t [(c, ...)] VALUES (v, ...)[, (v, ...)]}</li>
+ *   <li>{@code SELECT * | c [AS a], ... FROM t [[AS] a] [WHERE ...]}</li>
+ *   <li>{@code UPDATE t SET c = v, ... [WHERE ...]}</li>
+ *   <li>{@code DELETE FROM t [WHERE ...]}</li>
+ * </ul>
+ * where values are literals, placeholders or column references, and a WHERE clause is an AND
+ * of comparisons between them. It reads the tokens of {@link MemGresLexer} and builds the same
+ * AST as {@link SqlAstBuilder} does for these statements, without ANTLR's adaptive prediction.
+ * Anything else, including any syntax error, makes it give up so that the statement is parsed
+ * by the grammar, which also reports the error.
+ */
+final class FastPathParser {
+
+    private final List<Token> tokens;
+    private int position;
+    private int parameterCount;
+
+    private FastPathParser(List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * Parse a single statement of one of the supported shapes.
+     *
+     * @param tokenStream the lexed statement; its position is left unchanged
+     * @return the statement, or null if the grammar has to parse it
+     */
+    static List<Statement> parse(CommonTokenStream tokenStream) {
+        tokenStream.fill();
+        List<Token> tokens = new ArrayList<>();
+        for (Token token : tokenStream.getTokens()) {
+            if (token.getChannel() == Token.DEFAULT_CHANNEL) {
+                tokens.add(token);
+            }
+        }
+        try {
+            Statement statement = new FastPathParser(tokens).statement();
+            if (statement == null) {
+                return null;
+            }
+            List<Statement> statements = new ArrayList<>();
+            statements.add(statement);
+            return statements;
+        } catch (NumberFormatException e) {
+            // Out-of-range literal; the grammar path reports it
+            return null;
+        }
+    }
+
+    private Statement statement() {
+        Statement statement;
+        switch (peek()) {
+            case MemGresLexer.INSERT:
+                statement = insert();
+                break;
+            case MemGresLexer.SELECT:
+                statement = select();
+                break;
+            case MemGresLexer.UPDATE:
+                statement = update();
+                break;
+            case MemGresLexer.DELETE:
+                statement = delete();
+                break;
+            default:
+                return null;
+        }
+        if (statement == null) {
+            return null;
+        }
+        accept(MemGresLexer.SEMICOLON);
+        return peek() == Token.EOF ? statement : null;
+    }
+
+    private InsertStatement insert() {
+        position++;
+        if (!accept(MemGresLexer.INTO)) {
+            return null;
+        }
+        String tableName = identifier();
+        if (tableName == null) {
+            return null;
+        }
+        Optional<List<String>> columns = Optional.empty();
+        if (accept(MemGresLexer.LPAREN)) {
+            List<String> columnNames = new ArrayList<>();
+            do {
+                String columnName = identifier();
+                if (columnName == null) {
+                    return null;
+                }
+                columnNames.add(columnName);
+            } while (accept(MemGresLexer.COMMA));
+            if (!accept(MemGresLexer.RPAREN)) {
+                return null;
+            }
+            columns = Optional.of(columnNames);
+        }
+        if (!accept(MemGresLexer.VALUES)) {
+            return null;
+        }
+        List<List<Expression>> valuesList = new ArrayList<>();
+        do {
+            if (!accept(MemGresLexer.LPAREN)) {
+                return null;
+            }
+            List<Expression> values = new ArrayList<>();
+            do {
+                Expression value = operand();
+                if (value == null) {
+                    return null;
+                }
+                values.add(value);
+            } while (accept(MemGresLexer.COMMA));
+            if (!accept(MemGresLexer.RPAREN)) {
+                return null;
+            }
+            valuesList.add(values);
+        } while (accept(MemGresLexer.COMMA));
+        return new InsertStatement(tableName, columns, valuesList);
+    }
+
+    private SelectStatement select() {
+        position++;
+        List<SelectItem> selectItems = new ArrayList<>();
+        if (accept(MemGresLexer.MULTIPLY)) {
+            selectItems.add(new SelectItem());
+        } else {
+            do {
+                ColumnReference column = columnReference();
+                if (column == null) {
+                    return null;
+                }
+                Optional<String> alias = Optional.empty();
+                if (accept(MemGresLexer.AS) || isIdentifier(peek())) {
+                    String name = identifier();
+                    if (name == null) {
+                        return null;
+                    }
+                    alias = Optional.of(name);
+                }
+                selectItems.add(new SelectItem(column, alias));
+            } while (accept(MemGresLexer.COMMA));
+        }
+        if (!accept(MemGresLexer.FROM)) {
+            return null;
+        }
+        TableReference table = tableReference();
+        if (table == null) {
+            return null;
+        }
+        Optional<WhereClause> whereClause = Optional.empty();
+        if (peek() == MemGresLexer.WHERE) {
+            whereClause = whereClause();
+            if (whereClause.isEmpty()) {
+                return null;
+            }
+        }
+        FromClause fromClause = new FromClause(new ArrayList<>(List.of(new JoinableTable(table, new ArrayList<>()))));
+        SimpleSelectStatement simpleSelect = new SimpleSelectStatement(Optional.empty(), false, selectItems,
+            Optional.of(fromClause), whereClause, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+        List<SimpleSelectStatement> selects = new ArrayList<>();
+        selects.add(simpleSelect);
+        return new SelectStatement(new CompoundSelectStatement(selects, new ArrayList<>()));
+    }
+
+    private UpdateStatement update() {
+        position++;
+        String tableName = identifier();
+        if (tableName == null || !accept(MemGresLexer.SET)) {
+            return null;
+        }
+        List<UpdateStatement.UpdateItem> updateItems = new ArrayList<>();
+        do {
+            String columnName = identifier();
+            if (columnName == null || !accept(MemGresLexer.EQ)) {
+                return null;
+            }
+            Expression value = operand();
+            if (value == null) {
+                return null;
+            }
+            updateItems.add(new UpdateStatement.UpdateItem(columnName, value));
+        } while (accept(MemGresLexer.COMMA));
+        Optional<WhereClause> whereClause = Optional.empty();
+        if (peek() == MemGresLexer.WHERE) {
+            whereClause = whereClause();
+            if (whereClause.isEmpty()) {
+                return null;
+            }
+        }
+        return new UpdateStatement(tableName, updateItems, whereClause);
+    }
+
+    private DeleteStatement delete() {
+        position++;
+        if (!accept(MemGresLexer.FROM)) {
+            return null;
+        }
+        String tableName = identifier();
+        if (tableName == null) {
+            return null;
+        }
+        Optional<WhereClause> whereClause = Optional.empty();
+        if (peek() == MemGresLexer.WHERE) {
+            whereClause = whereClause();
+            if (whereClause.isEmpty()) {
+                return null;
+            }
+        }
+        return new DeleteStatement(tableName, whereClause);
+    }
+
+    private TableReference tableReference() {
+        String tableName = identifier();
+        if (tableName == null) {
+            return null;
+        }
+        Optional<String> alias = Optional.empty();
+        if (accept(MemGresLexer.AS) || isIdentifier(peek())) {
+            String name = identifier();
+            if (name == null) {
+                return null;
+            }
+            alias = Optional.of(name);
+        }
+        return new TableReference(tableName, alias);
+    }
+
+    /**
+     * WHERE followed by comparisons joined by AND, which associates to the left as in the grammar.
+     */
+    private Optional<WhereClause> whereClause() {
+        position++;
+        Expression condition = comparison();
+        while (condition != null && accept(MemGresLexer.AND)) {
+            Expression right = comparison();
+            condition = right != null ? new BinaryExpression(condition, BinaryExpression.Operator.AND, right) : null;
+        }
+        return condition != null ? Optional.of(new WhereClause(condition)) : Optional.empty();
+    }
+
+    private Expression comparison() {
+        Expression left = operand();
+        if (left == null) {
+            return null;
+        }
+        BinaryExpression.Operator operator;
+        switch (peek()) {
+            case MemGresLexer.EQ: operator = BinaryExpression.Operator.EQUALS; break;
+            case MemGresLexer.NE: operator = BinaryExpression.Operator.NOT_EQUALS; break;
+            case MemGresLexer.LT: operator = BinaryExpression.Operator.LESS_THAN; break;
+            case MemGresLexer.LE: operator = BinaryExpression.Operator.LESS_THAN_EQUALS; break;
+            case MemGresLexer.GT: operator = BinaryExpression.Operator.GREATER_THAN; break;
+            case MemGresLexer.GE: operator = BinaryExpression.Operator.GREATER_THAN_EQUALS; break;
+            default: return null;
+        }
+        position++;
+        Expression right = operand();
+        return right != null ? new BinaryExpression(left, operator, right) : null;
+    }
+
+    /**
+     * A literal, a placeholder or a column reference.
+     */
+    private Expression operand() {
+        Token token = tokens.get(position);
+        switch (token.getType()) {
+            case MemGresLexer.STRING:
+                position++;
+                String text = token.getText();
+                return new LiteralExpression(text.substring(1, text.length() - 1), LiteralExpression.LiteralType.STRING);
+            case MemGresLexer.INTEGER_LITERAL:
+                position++;
+                return new LiteralExpression(Long.parseLong(token.getText()), LiteralExpression.LiteralType.INTEGER);
+            case MemGresLexer.DECIMAL_LITERAL:
+                position++;
+                return new LiteralExpression(new BigDecimal(token.getText()), LiteralExpression.LiteralType.DECIMAL);
+            case MemGresLexer.TRUE:
+            case MemGresLexer.FALSE:
+                position++;
+                return new LiteralExpression(token.getType() == MemGresLexer.TRUE, LiteralExpression.LiteralType.BOOLEAN);
+            case MemGresLexer.NULL:
+                position++;
+                return new LiteralExpression(null, LiteralExpression.LiteralType.NULL);
+            case MemGresLexer.JSONB_EXISTS:
+                position++;
+                return new ParameterExpression(++parameterCount);
+            default:
+                return columnReference();
+        }
+    }
+
+    private ColumnReference columnReference() {
+        String name = identifier();
+        if (name == null) {
+            return null;
+        }
+        if (!accept(MemGresLexer.DOT)) {
+            return new ColumnReference(name);
+        }
+        String columnName = identifier();
+        return columnName != null ? new ColumnReference(name, columnName) : null;
+    }
+
+    private String identifier() {
+        Token token = tokens.get(position);
+        if (!isIdentifier(token.getType())) {
+            return null;
+        }
+        position++;
+        return token.getText();
+    }
+
+    private static boolean isIdentifier(int type) {
+        return type == MemGresLexer.IDENTIFIER || type == MemGresLexer.QUOTED_IDENTIFIER;
+    }
+
+    private int peek() {
+        return tokens.get(position).getType();
+    }
+
+    private boolean accept(int type) {
+        if (peek() != type) {
+            return false;
+        }
+        position++;
+        return true;
+    }
+}
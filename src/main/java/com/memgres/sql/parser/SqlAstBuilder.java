@@ -1,12 +1,15 @@
 package com.memgres.sql.parser;
 
 import com.memgres.sql.MemGresParser;
+import com.memgres.sql.MemGresParserBaseListener;
 import com.memgres.sql.MemGresParserBaseVisitor;
 import com.memgres.sql.ast.expression.*;
 import com.memgres.sql.ast.statement.*;
 import com.memgres.sql.ast.*;
 import com.memgres.sql.procedure.ProcedureMetadata;
 import com.memgres.types.DataType;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -17,10 +20,28 @@ import java.util.stream.Collectors;
  */
 public class SqlAstBuilder extends MemGresParserBaseVisitor<Object> {
     
+    /** 1-based position of each parameter placeholder, by token index. */
+    private final Map<Integer, Integer> parameterPositions = new HashMap<>();
+    
     /**
      * Visit the top-level SQL context and return a list of statements.
      */
     public List<Statement> visit(MemGresParser.SqlContext ctx) {
+        // Placeholders are numbered in the order they appear in the text, which is not
+        // necessarily the order the AST is built in
+        parameterPositions.clear();
+        ParseTreeWalker.DEFAULT.walk(new MemGresParserBaseListener() {
+            @Override
+            public void enterParameterExpression(MemGresParser.ParameterExpressionContext parameter) {
+                addParameter(parameter.getStart());
+            }
+            
+            @Override
+            public void enterParameterBound(MemGresParser.ParameterBoundContext parameter) {
+                addParameter(parameter.getStart());
+            }
+        }, ctx);
+        
         List<Statement> statements = new ArrayList<>();
         for (MemGresParser.StatementContext stmtCtx : ctx.statement()) {
             Statement stmt = (Statement) visit(stmtCtx);
@@ -51,6 +72,14 @@ public class SqlAstBuilder extends MemGresParserBaseVisitor<Object> {
             return (Statement) visit(ctx.dropTableStatement());
         } else if (ctx.truncateTableStatement() != null) {
             return (Statement) visit(ctx.truncateTableStatement());
+        } else if (ctx.copyStatement() != null) {
+            return (Statement) visit(ctx.copyStatement());
+        } else if (ctx.declareCursorStatement() != null) {
+            return (Statement) visit(ctx.declareCursorStatement());
+        } else if (ctx.fetchStatement() != null) {
+            return (Statement) visit(ctx.fetchStatement());
+        } else if (ctx.closeCursorStatement() != null) {
+            return (Statement) visit(ctx.closeCursorStatement());
         } else if (ctx.createViewStatement() != null) {
             return (Statement) visit(ctx.createViewStatement());
         } else if (ctx.dropViewStatement() != null) {
@@ -384,6 +413,19 @@ public class SqlAstBuilder extends MemGresParserBaseVisitor<Object> {
         return new LiteralExpression(null, LiteralExpression.LiteralType.NULL);
     }
     
+    @Override
+    public ParameterExpression visitParameterExpression(MemGresParser.ParameterExpressionContext ctx) {
+        return parameter(ctx.getStart());
+    }
+    
+    private void addParameter(Token token) {
+        parameterPositions.put(token.getTokenIndex(), parameterPositions.size() + 1);
+    }
+    
+    private ParameterExpression parameter(Token token) {
+        return new ParameterExpression(parameterPositions.get(token.getTokenIndex()));
+    }
+    
     @Override
     public Expression visitColumnReferenceExpression(MemGresParser.ColumnReferenceExpressionContext ctx) {
         return (Expression) visit(ctx.columnReference());
@@ -405,10 +447,67 @@ public class SqlAstBuilder extends MemGresParserBaseVisitor<Object> {
     public Expression visitBinaryExpression(MemGresParser.BinaryExpressionContext ctx) {
         Expression left = (Expression) visit(ctx.expression(0));
         Expression right = (Expression) visit(ctx.expression(1));
-        BinaryExpression.Operator operator = getBinaryOperator(ctx.binaryOperator());
+        BinaryExpression.Operator operator = getBinaryOperator(ctx.op);
         return new BinaryExpression(left, operator, right);
     }
     
+    @Override
+    public Expression visitParenthesizedExpression(MemGresParser.ParenthesizedExpressionContext ctx) {
+        return (Expression) visit(ctx.expression());
+    }
+    
+    @Override
+    public Expression visitNotExpression(MemGresParser.NotExpressionContext ctx) {
+        Expression operand = (Expression) visit(ctx.expression());
+        return new UnaryExpression(UnaryExpression.Operator.NOT, operand);
+    }
+
+    @Override
+    public Expression visitBetweenExpression(MemGresParser.BetweenExpressionContext ctx) {
+        // x BETWEEN a AND b is equivalent to x >= a AND x <= b; keeping the two comparisons
+        // visible lets the join planner recognize band joins
+        Expression value = (Expression) visit(ctx.expression());
+        Expression lower = (Expression) visit(ctx.betweenBound(0));
+        Expression upper = (Expression) visit(ctx.betweenBound(1));
+        Expression between = new BinaryExpression(
+            new BinaryExpression(value, BinaryExpression.Operator.GREATER_THAN_EQUALS, lower),
+            BinaryExpression.Operator.AND,
+            new BinaryExpression(value, BinaryExpression.Operator.LESS_THAN_EQUALS, upper));
+        return ctx.NOT() != null ? new UnaryExpression(UnaryExpression.Operator.NOT, between) : between;
+    }
+    
+    @Override
+    public Expression visitParameterBound(MemGresParser.ParameterBoundContext ctx) {
+        return parameter(ctx.getStart());
+    }
+    
+    @Override
+    public Expression visitLiteralBound(MemGresParser.LiteralBoundContext ctx) {
+        return (Expression) visit(ctx.literal());
+    }
+    
+    @Override
+    public Expression visitColumnReferenceBound(MemGresParser.ColumnReferenceBoundContext ctx) {
+        return (Expression) visit(ctx.columnReference());
+    }
+    
+    @Override
+    public Expression visitFunctionCallBound(MemGresParser.FunctionCallBoundContext ctx) {
+        return (Expression) visit(ctx.functionCall());
+    }
+    
+    @Override
+    public Expression visitParenthesizedBound(MemGresParser.ParenthesizedBoundContext ctx) {
+        return (Expression) visit(ctx.expression());
+    }
+    
+    @Override
+    public Expression visitBinaryBound(MemGresParser.BinaryBoundContext ctx) {
+        Expression left = (Expression) visit(ctx.betweenBound(0));
+        Expression right = (Expression) visit(ctx.betweenBound(1));
+        return new BinaryExpression(left, getBinaryOperator(ctx.op), right);
+    }
+    
     @Override
     public Expression visitFunctionCallExpression(MemGresParser.FunctionCallExpressionContext ctx) {
         return (Expression) visit(ctx.functionCall());
@@ -840,6 +939,77 @@ public class SqlAstBuilder extends MemGresParserBaseVisitor<Object> {
         return new TruncateTableStatement(tableName, identityOption);
     }
     
+    // COPY statement
+    @Override
+    public CopyStatement visitCopyStatement(MemGresParser.CopyStatementContext ctx) {
+        String tableName = ctx.tableName().getText();
+        
+        Optional<List<String>> columns = Optional.empty();
+        if (ctx.columnList() != null) {
+            List<String> columnNames = ctx.columnList().columnName().stream()
+                .map(c -> c.getText())
+                .collect(Collectors.toList());
+            columns = Optional.of(columnNames);
+        }
+        
+        CopyStatement.Direction direction = ctx.FROM() != null ? CopyStatement.Direction.FROM : CopyStatement.Direction.TO;
+        Optional<String> fileName = Optional.empty();
+        if (ctx.STRING() != null) {
+            String text = ctx.STRING().getText();
+            fileName = Optional.of(text.substring(1, text.length() - 1));
+        }
+        
+        Map<String, String> options = new LinkedHashMap<>();
+        if (ctx.copyOptions() != null) {
+            for (MemGresParser.CopyOptionContext optionCtx : ctx.copyOptions().copyOption()) {
+                String name = optionCtx.identifier() != null ? optionCtx.identifier().getText() : optionCtx.NULL().getText();
+                String value = "true";
+                if (optionCtx.copyOptionValue() != null) {
+                    MemGresParser.CopyOptionValueContext valueCtx = optionCtx.copyOptionValue();
+                    value = valueCtx.getText();
+                    if (valueCtx.STRING() != null) {
+                        value = value.substring(1, value.length() - 1);
+                    }
+                }
+                options.put(name.toLowerCase(), value);
+            }
+        }
+        
+        return new CopyStatement(tableName, columns, direction, fileName, options);
+    }
+    
+    @Override
+    public DeclareCursorStatement visitDeclareCursorStatement(MemGresParser.DeclareCursorStatementContext ctx) {
+        String cursorName = ctx.identifier().getText();
+        SelectStatement query = visitSelectStatement(ctx.selectStatement());
+        boolean holdable = ctx.HOLD() != null && ctx.WITH() != null;
+        return new DeclareCursorStatement(cursorName, query, holdable);
+    }
+    
+    @Override
+    public FetchStatement visitFetchStatement(MemGresParser.FetchStatementContext ctx) {
+        String cursorName = ctx.identifier().getText();
+        
+        // FETCH and FETCH NEXT return one row, FORWARD without a count too
+        int count = 1;
+        MemGresParser.FetchCountContext countCtx = ctx.fetchCount();
+        if (countCtx != null) {
+            if (countCtx.ALL() != null) {
+                count = FetchStatement.ALL;
+            } else if (countCtx.INTEGER_LITERAL() != null) {
+                count = Integer.parseInt(countCtx.INTEGER_LITERAL().getText());
+            }
+        }
+        return new FetchStatement(cursorName, count);
+    }
+    
+    @Override
+    public CloseCursorStatement visitCloseCursorStatement(MemGresParser.CloseCursorStatementContext ctx) {
+        Optional<String> cursorName = ctx.identifier() != null
+            ? Optional.of(ctx.identifier().getText()) : Optional.empty();
+        return new CloseCursorStatement(cursorName);
+    }
+    
     @Override
     public CreateViewStatement visitCreateViewStatement(MemGresParser.CreateViewStatementContext ctx) {
         boolean orReplace = ctx.OR() != null && ctx.REPLACE() != null;
@@ -1013,31 +1183,35 @@ public class SqlAstBuilder extends MemGresParserBaseVisitor<Object> {
     /**
      * Convert ANTLR4 binary operator context to our BinaryExpression.Operator enum.
      */
-    private BinaryExpression.Operator getBinaryOperator(MemGresParser.BinaryOperatorContext ctx) {
-        if (ctx.EQ() != null) return BinaryExpression.Operator.EQUALS;
-        if (ctx.NE() != null) return BinaryExpression.Operator.NOT_EQUALS;
-        if (ctx.LT() != null) return BinaryExpression.Operator.LESS_THAN;
-        if (ctx.LE() != null) return BinaryExpression.Operator.LESS_THAN_EQUALS;
-        if (ctx.GT() != null) return BinaryExpression.Operator.GREATER_THAN;
-        if (ctx.GE() != null) return BinaryExpression.Operator.GREATER_THAN_EQUALS;
-        if (ctx.PLUS() != null) return BinaryExpression.Operator.ADD;
-        if (ctx.MINUS() != null) return BinaryExpression.Operator.SUBTRACT;
-        if (ctx.MULTIPLY() != null) return BinaryExpression.Operator.MULTIPLY;
-        if (ctx.DIVIDE() != null) return BinaryExpression.Operator.DIVIDE;
-        if (ctx.MODULO() != null) return BinaryExpression.Operator.MODULO;
-        if (ctx.EXPONENT() != null) return BinaryExpression.Operator.POWER;
-        if (ctx.AND() != null) return BinaryExpression.Operator.AND;
-        if (ctx.OR() != null) return BinaryExpression.Operator.OR;
-        if (ctx.CONCAT() != null) return BinaryExpression.Operator.CONCAT;
-        if (ctx.JSONB_CONTAINS() != null) return BinaryExpression.Operator.JSONB_CONTAINS;
-        if (ctx.JSONB_CONTAINED() != null) return BinaryExpression.Operator.JSONB_CONTAINED;
-        if (ctx.JSONB_EXISTS() != null) return BinaryExpression.Operator.JSONB_EXISTS;
-        if (ctx.JSONB_EXTRACT() != null) return BinaryExpression.Operator.JSONB_EXTRACT;
-        if (ctx.JSONB_EXTRACT_TEXT() != null) return BinaryExpression.Operator.JSONB_EXTRACT_TEXT;
-        if (ctx.JSONB_PATH_EXTRACT() != null) return BinaryExpression.Operator.JSONB_PATH_EXTRACT;
-        if (ctx.JSONB_PATH_EXTRACT_TEXT() != null) return BinaryExpression.Operator.JSONB_PATH_EXTRACT_TEXT;
-        
-        throw new IllegalArgumentException("Unknown binary operator: " + ctx.getText());
+    private BinaryExpression.Operator getBinaryOperator(Token op) {
+        switch (op.getType()) {
+            case MemGresParser.EQ: return BinaryExpression.Operator.EQUALS;
+            case MemGresParser.NE: return BinaryExpression.Operator.NOT_EQUALS;
+            case MemGresParser.LT: return BinaryExpression.Operator.LESS_THAN;
+            case MemGresParser.LE: return BinaryExpression.Operator.LESS_THAN_EQUALS;
+            case MemGresParser.GT: return BinaryExpression.Operator.GREATER_THAN;
+            case MemGresParser.GE: return BinaryExpression.Operator.GREATER_THAN_EQUALS;
+            case MemGresParser.PLUS: return BinaryExpression.Operator.ADD;
+            case MemGresParser.MINUS: return BinaryExpression.Operator.SUBTRACT;
+            case MemGresParser.MULTIPLY: return BinaryExpression.Operator.MULTIPLY;
+            case MemGresParser.DIVIDE: return BinaryExpression.Operator.DIVIDE;
+            case MemGresParser.MODULO: return BinaryExpression.Operator.MODULO;
+            case MemGresParser.EXPONENT: return BinaryExpression.Operator.POWER;
+            case MemGresParser.AND: return BinaryExpression.Operator.AND;
+            case MemGresParser.OR: return BinaryExpression.Operator.OR;
+            case MemGresParser.CONCAT: return BinaryExpression.Operator.CONCAT;
+            case MemGresParser.JSONB_CONTAINS: return BinaryExpression.Operator.JSONB_CONTAINS;
+            case MemGresParser.JSONB_CONTAINED: return BinaryExpression.Operator.JSONB_CONTAINED;
+            case MemGresParser.JSONB_EXISTS: return BinaryExpression.Operator.JSONB_EXISTS;
+            case MemGresParser.JSONB_EXTRACT: return BinaryExpression.Operator.JSONB_EXTRACT;
+            case MemGresParser.JSONB_EXTRACT_TEXT: return BinaryExpression.Operator.JSONB_EXTRACT_TEXT;
+            case MemGresParser.JSONB_PATH_EXTRACT: return BinaryExpression.Operator.JSONB_PATH_EXTRACT;
+            case MemGresParser.JSONB_PATH_EXTRACT_TEXT: return BinaryExpression.Operator.JSONB_PATH_EXTRACT_TEXT;
+            default:
+                break;
+        }
+        
+        throw new IllegalArgumentException("Unknown binary operator: " + op.getText());
     }
     
     @Override
@@ -1800,12 +1974,7 @@ public class SqlAstBuilder extends MemGresParserBaseVisitor<Object> {
         List<Expression> parameters = new ArrayList<>();
         if (ctx.callParameterList() != null) {
             for (MemGresParser.CallParameterContext paramCtx : ctx.callParameterList().callParameter()) {
-                if (paramCtx.expression() != null) {
-                    parameters.add((Expression) visit(paramCtx.expression()));
-                } else if (paramCtx.JSONB_EXISTS() != null) {
-                    // Parameter placeholder - create a placeholder expression
-                    parameters.add(new ParameterExpression(parameters.size() + 1));
-                }
+                parameters.add((Expression) visit(paramCtx.expression()));
             }
         }
         
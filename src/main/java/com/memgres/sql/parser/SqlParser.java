@@ -4,14 +4,67 @@ import com.memgres.sql.MemGresLexer;
 import com.memgres.sql.MemGresParser;
 import com.memgres.sql.ast.statement.Statement;
 import org.antlr.v4.runtime.*;
-import org.antlr.v4.runtime.tree.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.List;
 
 /**
  * Main SQL parser that converts SQL text into AST statements.
+ *
+ * <p>Simple INSERT, UPDATE, DELETE and single-table SELECT statements are recognized by
+ * {@link FastPathParser} straight from the lexer's tokens. Everything else is parsed by the
+ * grammar in two stages. The fast SLL prediction mode with a bail-out error strategy handles
+ * nearly all statements; only when it fails is the statement parsed again in full LL mode,
+ * which also produces the syntax error for invalid SQL. Each thread reuses one lexer and
+ * parser, and the prediction DFA learned by ANTLR is shared by all of them, so {@link #warmUp()}
+ * can fill it before the first real statement arrives.
  */
 public class SqlParser {
+    private static final Logger logger = LoggerFactory.getLogger(SqlParser.class);
+    
+    /** Statements covering the common grammar paths, parsed by {@link #warmUp()}. */
+    static final List<String> WARM_UP_CORPUS = List.of(
+        "CREATE TABLE warm_up (id INTEGER PRIMARY KEY, name VARCHAR(100) NOT NULL, amount DECIMAL(10,2), created TIMESTAMP)",
+        "CREATE INDEX idx_warm_up_name ON warm_up (name)",
+        "CREATE VIEW warm_up_view AS SELECT id, name FROM warm_up WHERE amount > 0",
+        "ALTER TABLE warm_up ADD COLUMN note TEXT",
+        "INSERT INTO warm_up (id, name, amount) VALUES (1, 'a', 1.5), (2, 'b', NULL)",
+        "INSERT INTO warm_up (id, name) VALUES (?, ?)",
+        "UPDATE warm_up SET name = 'c', amount = amount + 1 WHERE id = 1 AND name <> 'x'",
+        "UPDATE warm_up SET name = ? WHERE id = ?",
+        "DELETE FROM warm_up WHERE id IN (1, 2, 3) OR name LIKE 'a%'",
+        "SELECT * FROM warm_up WHERE id = ?",
+        "SELECT w.id, w.name AS label, COUNT(*) FROM warm_up w LEFT JOIN warm_up_view v ON v.id = w.id "
+            + "WHERE w.amount BETWEEN 1 AND 10 GROUP BY w.id, w.name HAVING COUNT(*) > 1 ORDER BY w.id DESC LIMIT 10 OFFSET 5",
+        "SELECT DISTINCT name FROM warm_up WHERE EXISTS (SELECT 1 FROM warm_up_view v WHERE v.id = warm_up.id)",
+        "SELECT name, SUM(amount) OVER (PARTITION BY name ORDER BY id) FROM warm_up",
+        "WITH totals AS (SELECT name, SUM(amount) AS total FROM warm_up GROUP BY name) "
+            + "SELECT name FROM totals WHERE total > (SELECT AVG(amount) FROM warm_up)",
+        "SELECT id FROM warm_up UNION SELECT id FROM warm_up_view",
+        "DROP VIEW IF EXISTS warm_up_view",
+        "DROP TABLE IF EXISTS warm_up"
+    );
+    
+    private static final ThreadLocal<MemGresLexer> LEXER =
+        ThreadLocal.withInitial(() -> new MemGresLexer(CharStreams.fromString("")));
+    private static final ThreadLocal<MemGresParser> PARSER =
+        ThreadLocal.withInitial(() -> new MemGresParser(new CommonTokenStream(LEXER.get())));
+    
+    private final boolean fastPathEnabled;
+    
+    public SqlParser() {
+        this(true);
+    }
+    
+    /**
+     * @param fastPathEnabled whether simple statements are parsed without the grammar
+     */
+    public SqlParser(boolean fastPathEnabled) {
+        this.fastPathEnabled = fastPathEnabled;
+    }
     
     /**
      * Parse a SQL string into a list of Statement AST nodes.
@@ -22,22 +75,21 @@ public class SqlParser {
      */
     public List<Statement> parse(String sql) throws SqlParseException {
         try {
-            // Create input stream from SQL string
-            CharStream input = CharStreams.fromString(sql);
-            
-            // Create lexer and token stream
-            MemGresLexer lexer = new MemGresLexer(input);
+            // Reuse this thread's lexer and parser on the new input
+            MemGresLexer lexer = LEXER.get();
+            lexer.setInputStream(CharStreams.fromString(sql));
             CommonTokenStream tokens = new CommonTokenStream(lexer);
-            
-            // Create parser
-            MemGresParser parser = new MemGresParser(tokens);
-            
-            // Add error listener to capture parsing errors
-            parser.removeErrorListeners();
-            parser.addErrorListener(new SqlErrorListener());
+            if (fastPathEnabled) {
+                List<Statement> statements = FastPathParser.parse(tokens);
+                if (statements != null) {
+                    return statements;
+                }
+            }
+            MemGresParser parser = PARSER.get();
+            parser.setTokenStream(tokens);
             
             // Parse the SQL
-            MemGresParser.SqlContext parseTree = parser.sql();
+            MemGresParser.SqlContext parseTree = parseTwoStage(parser, tokens);
             
             // Convert parse tree to AST
             SqlAstBuilder astBuilder = new SqlAstBuilder();
@@ -48,6 +100,51 @@ public class SqlParser {
         }
     }
     
+    /**
+     * Parse with SLL prediction and no error recovery, and if that fails parse again with
+     * full LL prediction and errors reported to a {@link SqlErrorListener}.
+     */
+    private static MemGresParser.SqlContext parseTwoStage(MemGresParser parser, CommonTokenStream tokens) {
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        try {
+            return parser.sql();
+        } catch (ParseCancellationException e) {
+            // SLL cannot parse every valid statement; fall back to full LL
+            tokens.seek(0);
+            parser.reset();
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            parser.addErrorListener(new SqlErrorListener());
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            return parser.sql();
+        }
+    }
+    
+    /**
+     * Parse a representative set of statements so that ANTLR's shared prediction cache is
+     * populated before the first real query. Useful at application start, where it moves the
+     * cost of the first parses out of the first requests.
+     * 
+     * @return the number of statements parsed
+     */
+    public static int warmUp() {
+        long start = System.nanoTime();
+        // The fast path would bypass the grammar, which is what needs warming up
+        SqlParser parser = new SqlParser(false);
+        int parsed = 0;
+        for (String sql : WARM_UP_CORPUS) {
+            try {
+                parser.parse(sql);
+                parsed++;
+            } catch (SqlParseException e) {
+                logger.debug("Warm-up statement failed to parse: {}", sql, e);
+            }
+        }
+        logger.debug("Parser warm-up parsed {} statements in {}ms", parsed, (System.nanoTime() - start) / 1_000_000);
+        return parsed;
+    }
+    
     /**
      * Error listener for capturing ANTLR parsing errors.
      */
@@ -62,4 +159,4 @@ public class SqlParser {
             throw new RuntimeException(new SqlParseException("Syntax error at line " + line + ":" + charPositionInLine + " - " + msg));
         }
     }
-}
\ No newline at end of file
+}
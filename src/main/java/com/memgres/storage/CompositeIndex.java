@@ -107,6 +107,41 @@ public class CompositeIndex {
         }
     }
     
+    /**
+     * Insert several rows into the index under one lock acquisition, in ascending key order.
+     * For a unique index the whole batch is checked first, so a duplicate leaves the index
+     * unchanged.
+     */
+    public void insertAll(List<Row> rows) {
+        TreeMap<CompositeKey, List<Long>> rowIdsByKey = new TreeMap<>();
+        for (Row row : rows) {
+            CompositeKey key = createCompositeKey(row);
+            if (key != null) {
+                rowIdsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(row.getId());
+            }
+        }
+        
+        indexLock.writeLock().lock();
+        try {
+            if (unique) {
+                for (Map.Entry<CompositeKey, List<Long>> entry : rowIdsByKey.entrySet()) {
+                    Set<Long> existing = indexMap.get(entry.getKey());
+                    if (entry.getValue().size() > 1 || (existing != null && !existing.isEmpty())) {
+                        throw new IllegalStateException(
+                            String.format("Duplicate key violation for unique index %s: %s", name, entry.getKey())
+                        );
+                    }
+                }
+            }
+            
+            for (Map.Entry<CompositeKey, List<Long>> entry : rowIdsByKey.entrySet()) {
+                indexMap.computeIfAbsent(entry.getKey(), k -> new HashSet<>()).addAll(entry.getValue());
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+    
     /**
      * Update a row in the index.
      */
@@ -121,6 +121,42 @@ public class Index {
         }
     }
     
+    /**
+     * Insert several rows into the index under one lock acquisition. The row IDs are grouped
+     * by value and added in ascending key order, so each distinct value is looked up once.
+     * @param rows the rows to insert
+     */
+    public void insertAll(List<Row> rows) {
+        TreeMap<Comparable<Object>, List<Long>> rowIdsByValue = new TreeMap<>();
+        for (Row row : rows) {
+            Object value = row.getValue(columnIndex);
+            if (value == null) {
+                continue; // Don't index null values
+            }
+            if (!(value instanceof Comparable)) {
+                logger.warn("Cannot index non-comparable value: {} for column {}", 
+                           value, indexedColumn.getName());
+                continue;
+            }
+            
+            @SuppressWarnings("unchecked")
+            Comparable<Object> comparableValue = (Comparable<Object>) value;
+            rowIdsByValue.computeIfAbsent(comparableValue, k -> new ArrayList<>()).add(row.getId());
+        }
+        
+        indexLock.writeLock().lock();
+        try {
+            for (Map.Entry<Comparable<Object>, List<Long>> entry : rowIdsByValue.entrySet()) {
+                indexMap.computeIfAbsent(entry.getKey(), k -> ConcurrentHashMap.newKeySet()).addAll(entry.getValue());
+            }
+            
+            logger.trace("Inserted {} rows with {} distinct values into index {}", 
+                        rows.size(), rowIdsByValue.size(), name);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+    
     /**
      * Update a row in the index
      * @param oldRow the old row data
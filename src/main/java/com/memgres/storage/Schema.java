@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.Set;
@@ -15,12 +16,16 @@ import java.util.Set;
 public class Schema {
     private static final Logger logger = LoggerFactory.getLogger(Schema.class);
     
+    /** Source of object versions; shared by all schemas so a recreated schema never reuses one. */
+    private static final AtomicLong VERSION_SEQUENCE = new AtomicLong();
+    
     private final String name;
     private final ConcurrentMap<String, Table> tables;
     private final ConcurrentMap<String, View> views;
     private final ConcurrentMap<String, MaterializedView> materializedViews;
     private final ConcurrentMap<String, Sequence> sequences;
     private final ConcurrentMap<String, IndexInfo> indexes; // Schema-level index registry
+    private final ConcurrentMap<String, Long> objectVersions;
     private final ReadWriteLock schemaLock;
     
     public Schema(String name) {
@@ -34,6 +39,7 @@ public class Schema {
         this.materializedViews = new ConcurrentHashMap<>();
         this.sequences = new ConcurrentHashMap<>();
         this.indexes = new ConcurrentHashMap<>();
+        this.objectVersions = new ConcurrentHashMap<>();
         this.schemaLock = new ReentrantReadWriteLock();
         
         logger.debug("Created schema: {}", this.name);
@@ -67,6 +73,7 @@ public class Schema {
             }
             
             tables.put(tableName, table);
+            markObjectChanged(tableName);
             logger.debug("Created table {} in schema {}", tableName, name);
             return true;
         } finally {
@@ -90,6 +97,7 @@ public class Schema {
         try {
             Table removedTable = tables.remove(normalizedName);
             if (removedTable != null) {
+                markObjectChanged(normalizedName);
                 logger.debug("Dropped table {} from schema {}", normalizedName, name);
                 return true;
             } else {
@@ -178,6 +186,7 @@ public class Schema {
             }
             
             views.put(viewName, view);
+            markObjectChanged(viewName);
             logger.debug("Created view {} in schema {}", viewName, name);
             return true;
         } finally {
@@ -200,6 +209,7 @@ public class Schema {
         schemaLock.writeLock().lock();
         try {
             View existingView = views.put(viewName, view);
+            markObjectChanged(viewName);
             if (existingView != null) {
                 logger.debug("Replaced existing view {} in schema {}", viewName, name);
             } else {
@@ -227,6 +237,7 @@ public class Schema {
         try {
             View removedView = views.remove(normalizedName);
             if (removedView != null) {
+                markObjectChanged(normalizedName);
                 logger.debug("Dropped view {} from schema {}", normalizedName, name);
                 return true;
             } else {
@@ -315,6 +326,7 @@ public class Schema {
             }
             
             materializedViews.put(viewName, materializedView);
+            markObjectChanged(viewName);
             logger.debug("Created materialized view {} in schema {}", viewName, name);
             return true;
         } finally {
@@ -338,6 +350,7 @@ public class Schema {
         try {
             MaterializedView removedView = materializedViews.remove(normalizedName);
             if (removedView != null) {
+                markObjectChanged(normalizedName);
                 logger.debug("Dropped materialized view {} from schema {}", normalizedName, name);
                 return true;
             } else {
@@ -559,6 +572,8 @@ public class Schema {
             // Remove old table name and add with new name
             tables.remove(normalizedOldName);
             tables.put(normalizedNewName, table);
+            markObjectChanged(normalizedOldName);
+            markObjectChanged(normalizedNewName);
             
             logger.info("Renamed table {} to {} in schema {}", oldTableName, newTableName, name);
             return true;
@@ -593,6 +608,7 @@ public class Schema {
         schemaLock.writeLock().lock();
         try {
             indexes.put(normalizedIndexName, new IndexInfo(normalizedIndexName, normalizedTableName, index));
+            markObjectChanged(normalizedTableName);
             logger.debug("Registered index {} for table {} in schema {}", normalizedIndexName, normalizedTableName, name);
         } finally {
             schemaLock.writeLock().unlock();
@@ -615,6 +631,7 @@ public class Schema {
         try {
             IndexInfo removedIndex = indexes.remove(normalizedIndexName);
             if (removedIndex != null) {
+                markObjectChanged(removedIndex.getTableName());
                 logger.debug("Unregistered index {} from schema {}", normalizedIndexName, name);
                 return true;
             }
@@ -666,6 +683,27 @@ public class Schema {
         }
     }
 
+    // ===== OBJECT VERSIONS =====
+    
+    /**
+     * Get the version of a named table or view. It changes whenever an object of that name is
+     * created, dropped, renamed, altered or gains or loses an index, so anything derived from
+     * the object can check it is still current.
+     * @param objectName the table or view name
+     * @return the version, or 0 if no object of that name was ever changed
+     */
+    public long getObjectVersion(String objectName) {
+        return objectVersions.getOrDefault(objectName.toLowerCase(), 0L);
+    }
+    
+    /**
+     * Give a named table or view a new version after its definition changed.
+     * @param objectName the table or view name
+     */
+    public void markObjectChanged(String objectName) {
+        objectVersions.put(objectName.toLowerCase(), VERSION_SEQUENCE.incrementAndGet());
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -24,7 +24,8 @@ public class Table {
     private final String name;
     private final List<Column> columns;
     private final Map<String, Column> columnMap;
-    private final List<Row> rows;
+    private final ArrayList<Row> rows;
+    private final Map<Long, Row> rowsById;
     private final ConcurrentMap<String, Index> indexes;
     private final ConcurrentMap<String, CompositeIndex> compositeIndexes;
     private final ReadWriteLock tableLock;
@@ -45,6 +46,7 @@ public class Table {
         this.columns = new ArrayList<>(columns);
         this.columnMap = new HashMap<>();
         this.rows = new ArrayList<>();
+        this.rowsById = new HashMap<>();
         this.indexes = new ConcurrentHashMap<>();
         this.compositeIndexes = new ConcurrentHashMap<>();
         this.tableLock = new ReentrantReadWriteLock();
@@ -118,47 +120,7 @@ public class Table {
             // Clear previous generated keys for this thread
             lastGeneratedKeys.get().clear();
             
-            // Process auto-increment columns
-            Object[] processedData = new Object[rowData.length];
-            for (int i = 0; i < columns.size(); i++) {
-                Column column = columns.get(i);
-                if (column.isAutoIncrement() && (rowData[i] == null || 
-                    (rowData[i] instanceof Number && ((Number)rowData[i]).longValue() == 0))) {
-                    // Generate auto-increment value
-                    AtomicLong counter = autoIncrementCounters.get(column.getName());
-                    long generatedValue = counter.incrementAndGet();
-                    
-                    // Convert to appropriate type
-                    if (column.getDataType() == DataType.INTEGER) {
-                        processedData[i] = (int) generatedValue;
-                    } else if (column.getDataType() == DataType.BIGINT) {
-                        processedData[i] = generatedValue;
-                    } else if (column.getDataType() == DataType.SMALLINT) {
-                        processedData[i] = (short) generatedValue;
-                    } else {
-                        processedData[i] = generatedValue;
-                    }
-                    
-                    // Track generated key
-                    lastGeneratedKeys.get().add(processedData[i]);
-                } else {
-                    processedData[i] = rowData[i];
-                    
-                    // Update auto-increment counter for explicit values
-                    if (column.isAutoIncrement() && rowData[i] instanceof Number) {
-                        long explicitValue = ((Number) rowData[i]).longValue();
-                        AtomicLong counter = autoIncrementCounters.get(column.getName());
-                        // Update counter to be at least as high as the explicit value
-                        long currentMax = counter.get();
-                        while (explicitValue > currentMax) {
-                            if (counter.compareAndSet(currentMax, explicitValue)) {
-                                break;
-                            }
-                            currentMax = counter.get();
-                        }
-                    }
-                }
-            }
+            Object[] processedData = processAutoIncrement(rowData);
             
             long rowId = rowIdGenerator.incrementAndGet();
             Row row = new Row(rowId, processedData);
@@ -167,6 +129,7 @@ public class Table {
             validateRowData(row);
             
             rows.add(row);
+            rowsById.put(rowId, row);
             
             // Update indexes
             updateIndexesForInsert(row);
@@ -184,6 +147,127 @@ public class Table {
         }
     }
     
+    /**
+     * Insert several rows at once. The write lock is taken once, the rows are validated before
+     * any of them is added, each index is updated with the whole batch in key order, and
+     * statistics are refreshed once at the end. If a row is invalid or violates a unique index,
+     * none of the rows are inserted.
+     * @param rowData the data for each new row (values for each column)
+     * @return the row IDs of the inserted rows, in the order given
+     */
+    public long[] insertRows(List<Object[]> rowData) {
+        if (rowData == null) {
+            throw new IllegalArgumentException("Row data cannot be null");
+        }
+        for (Object[] data : rowData) {
+            if (data == null) {
+                throw new IllegalArgumentException("Row data cannot be null");
+            }
+            if (data.length != columns.size()) {
+                throw new IllegalArgumentException("Row data length must match column count");
+            }
+        }
+        
+        tableLock.writeLock().lock();
+        try {
+            // Clear previous generated keys for this thread; the batch adds the keys of all rows
+            lastGeneratedKeys.get().clear();
+            
+            List<Row> newRows = new ArrayList<>(rowData.size());
+            for (Object[] data : rowData) {
+                Row row = new Row(rowIdGenerator.incrementAndGet(), processAutoIncrement(data));
+                validateRowData(row);
+                newRows.add(row);
+            }
+            
+            // Composite indexes may reject duplicates, so update them before the table changes
+            List<CompositeIndex> updatedIndexes = new ArrayList<>();
+            try {
+                for (CompositeIndex compositeIndex : compositeIndexes.values()) {
+                    compositeIndex.insertAll(newRows);
+                    updatedIndexes.add(compositeIndex);
+                }
+            } catch (RuntimeException e) {
+                for (CompositeIndex compositeIndex : updatedIndexes) {
+                    for (Row row : newRows) {
+                        compositeIndex.delete(row);
+                    }
+                }
+                throw e;
+            }
+            
+            rows.ensureCapacity(rows.size() + newRows.size());
+            long[] rowIds = new long[newRows.size()];
+            for (int i = 0; i < newRows.size(); i++) {
+                Row row = newRows.get(i);
+                rows.add(row);
+                rowsById.put(row.getId(), row);
+                rowIds[i] = row.getId();
+            }
+            for (Index index : indexes.values()) {
+                index.insertAll(newRows);
+            }
+            
+            // Update statistics once for the whole batch
+            if (statisticsManager != null && !newRows.isEmpty()) {
+                statisticsManager.updateTableStatistics(name, this);
+            }
+            
+            logger.debug("Inserted {} rows into table {}", newRows.size(), name);
+            return rowIds;
+        } finally {
+            tableLock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Fill in generated values for auto-increment columns without a value, and advance the
+     * counters past explicit values. Must be called with the write lock held.
+     */
+    private Object[] processAutoIncrement(Object[] rowData) {
+        Object[] processedData = new Object[rowData.length];
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            if (column.isAutoIncrement() && (rowData[i] == null || 
+                (rowData[i] instanceof Number && ((Number)rowData[i]).longValue() == 0))) {
+                // Generate auto-increment value
+                AtomicLong counter = autoIncrementCounters.get(column.getName());
+                long generatedValue = counter.incrementAndGet();
+                
+                // Convert to appropriate type
+                if (column.getDataType() == DataType.INTEGER) {
+                    processedData[i] = (int) generatedValue;
+                } else if (column.getDataType() == DataType.BIGINT) {
+                    processedData[i] = generatedValue;
+                } else if (column.getDataType() == DataType.SMALLINT) {
+                    processedData[i] = (short) generatedValue;
+                } else {
+                    processedData[i] = generatedValue;
+                }
+                
+                // Track generated key
+                lastGeneratedKeys.get().add(processedData[i]);
+            } else {
+                processedData[i] = rowData[i];
+                
+                // Update auto-increment counter for explicit values
+                if (column.isAutoIncrement() && rowData[i] instanceof Number) {
+                    long explicitValue = ((Number) rowData[i]).longValue();
+                    AtomicLong counter = autoIncrementCounters.get(column.getName());
+                    // Update counter to be at least as high as the explicit value
+                    long currentMax = counter.get();
+                    while (explicitValue > currentMax) {
+                        if (counter.compareAndSet(currentMax, explicitValue)) {
+                            break;
+                        }
+                        currentMax = counter.get();
+                    }
+                }
+            }
+        }
+        return processedData;
+    }
+    
     /**
      * Get the last generated keys for the current thread.
      * @return list of generated keys from the last insert operation
@@ -219,6 +303,7 @@ public class Table {
                     
                     // Update the row
                     rows.set(i, newRow);
+                    rowsById.put(rowId, newRow);
                     
                     // Update indexes
                     updateIndexesForUpdate(oldRow, newRow);
@@ -254,6 +339,7 @@ public class Table {
                 Row row = iterator.next();
                 if (row.getId() == rowId) {
                     iterator.remove();
+                    rowsById.remove(rowId);
                     
                     // Update indexes
                     updateIndexesForDelete(row);
@@ -276,6 +362,41 @@ public class Table {
         }
     }
     
+    /**
+     * Delete many rows with one call, such as the rows of a bulk insert that must be undone.
+     * The table is scanned once rather than once per row.
+     * @param rowIds the IDs of the rows to delete; IDs not found are skipped
+     * @return the number of rows deleted
+     */
+    public int deleteRows(long[] rowIds) {
+        tableLock.writeLock().lock();
+        try {
+            Set<Long> deletedIds = new HashSet<>(rowIds.length * 2);
+            for (long rowId : rowIds) {
+                Row row = rowsById.remove(rowId);
+                if (row != null) {
+                    deletedIds.add(rowId);
+                    updateIndexesForDelete(row);
+                    updateCompositeIndexesForDelete(row);
+                }
+            }
+            if (deletedIds.isEmpty()) {
+                return 0;
+            }
+            rows.removeIf(row -> deletedIds.contains(row.getId()));
+            
+            // Update statistics once for the whole batch
+            if (statisticsManager != null) {
+                statisticsManager.updateTableStatistics(name, this);
+            }
+            
+            logger.debug("Deleted {} rows from table {}", deletedIds.size(), name);
+            return deletedIds.size();
+        } finally {
+            tableLock.writeLock().unlock();
+        }
+    }
+    
     /**
      * Get a row by ID
      * @param rowId the row ID
@@ -284,12 +405,30 @@ public class Table {
     public Row getRow(long rowId) {
         tableLock.readLock().lock();
         try {
-            for (Row row : rows) {
-                if (row.getId() == rowId) {
-                    return new Row(row.getId(), row.getData().clone()); // Return copy
+            Row row = rowsById.get(rowId);
+            return row != null ? new Row(row.getId(), row.getData().clone()) : null; // Return copy
+        } finally {
+            tableLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Get the rows with the given IDs, in the order the IDs are supplied.
+     * IDs that no longer exist are skipped, so stale index entries are harmless.
+     * @param rowIds the row IDs to look up
+     * @return list of matching rows (copies)
+     */
+    public List<Row> getRows(Collection<Long> rowIds) {
+        tableLock.readLock().lock();
+        try {
+            List<Row> result = new ArrayList<>(rowIds.size());
+            for (Long rowId : rowIds) {
+                Row row = rowsById.get(rowId);
+                if (row != null) {
+                    result.add(new Row(row.getId(), row.getData().clone()));
                 }
             }
-            return null;
+            return result;
         } finally {
             tableLock.readLock().unlock();
         }
@@ -304,6 +443,7 @@ public class Table {
         try {
             // Clear all data
             rows.clear();
+            rowsById.clear();
             
             // Clear all indexes
             for (Index index : indexes.values()) {
@@ -608,6 +748,7 @@ public class Table {
             validateRowData(row);
             
             rows.add(row);
+            rowsById.put(rowId, row);
             
             // Update indexes
             updateIndexesForInsert(row);
@@ -697,7 +838,9 @@ public class Table {
                 }
                 
                 // Replace the row with updated data
-                rows.set(i, new Row(row.getId(), newData));
+                Row updatedRow = new Row(row.getId(), newData);
+                rows.set(i, updatedRow);
+                rowsById.put(updatedRow.getId(), updatedRow);
             }
             
             logger.info("Added column {} to table {} at position {}", columnName, name, insertIndex);
@@ -759,7 +902,9 @@ public class Table {
                 }
                 
                 // Replace the row with updated data
-                rows.set(i, new Row(row.getId(), newData));
+                Row updatedRow = new Row(row.getId(), newData);
+                rows.set(i, updatedRow);
+                rowsById.put(updatedRow.getId(), updatedRow);
             }
             
             // Remove any indexes on this column
@@ -865,6 +1010,7 @@ public class Table {
             
             // Clear all data
             rows.clear();
+            rowsById.clear();
             
             // Clear all indexes by removing and recreating them
             // This is a simple approach since Index doesn't have a clear method
@@ -908,6 +1054,7 @@ public class Table {
             
             // Clear all rows
             rows.clear();
+            rowsById.clear();
             
             // Clear all indexes by removing and recreating them
             Map<String, Index> indexesCopy = new HashMap<>(indexes);
@@ -1038,6 +1185,13 @@ public class Table {
         }
     }
     
+    /**
+     * Get all single-column indexes.
+     */
+    public Map<String, Index> getAllIndexes() {
+        return new HashMap<>(indexes);
+    }
+    
     /**
      * Get all composite indexes.
      */
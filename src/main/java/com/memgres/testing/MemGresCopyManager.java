@@ -0,0 +1,107 @@
+package com.memgres.testing;
+
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionException;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.sql.SQLException;
+
+/**
+ * Bulk data transfer with {@code COPY ... FROM STDIN} and {@code COPY ... TO STDOUT}, in the
+ * manner of the PostgreSQL driver's {@code CopyManager}.
+ *
+ * <p>Rows are streamed between the given stream and the table without parsing any SQL per row.
+ * Obtain an instance with {@link MemGresTestConnection#getCopyManager()}:</p>
+ * <pre>
+ * long rows = connection.getCopyManager()
+ *     .copyIn("COPY users (id, name) FROM STDIN WITH (FORMAT csv)", reader);
+ * </pre>
+ *
+ * @since 1.0.0
+ */
+public class MemGresCopyManager {
+
+    private final MemGresTestConnection connection;
+    private final SqlExecutionEngine sqlEngine;
+
+    MemGresCopyManager(MemGresTestConnection connection, SqlExecutionEngine sqlEngine) {
+        this.connection = connection;
+        this.sqlEngine = sqlEngine;
+    }
+
+    /**
+     * Load rows from a character stream.
+     *
+     * @param sql a {@code COPY ... FROM STDIN} statement
+     * @param in the data, in the format given by the statement's options
+     * @return the number of rows loaded
+     * @throws SQLException if the statement fails or the data cannot be loaded
+     */
+    public long copyIn(String sql, Reader in) throws SQLException {
+        connection.ensureTransaction();
+        try {
+            long count = sqlEngine.copyIn(sql, in);
+            connection.ensureTransactionSnapshotAfterDML(sql);
+            return count;
+        } catch (SqlExecutionException e) {
+            throw new SQLException("COPY failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Load rows from a byte stream in the statement's ENCODING, UTF-8 by default.
+     *
+     * @param sql a {@code COPY ... FROM STDIN} statement
+     * @param in the data, in the format given by the statement's options
+     * @return the number of rows loaded
+     * @throws SQLException if the statement fails or the data cannot be loaded
+     */
+    public long copyIn(String sql, InputStream in) throws SQLException {
+        connection.ensureTransaction();
+        try {
+            long count = sqlEngine.copyIn(sql, in);
+            connection.ensureTransactionSnapshotAfterDML(sql);
+            return count;
+        } catch (SqlExecutionException e) {
+            throw new SQLException("COPY failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write the rows of a table to a character stream. The stream is flushed but not closed.
+     *
+     * @param sql a {@code COPY ... TO STDOUT} statement
+     * @param out the destination of the data
+     * @return the number of rows written
+     * @throws SQLException if the statement fails or the data cannot be written
+     */
+    public long copyOut(String sql, Writer out) throws SQLException {
+        connection.ensureTransaction();
+        try {
+            return sqlEngine.copyOut(sql, out);
+        } catch (SqlExecutionException e) {
+            throw new SQLException("COPY failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Write the rows of a table to a byte stream in the statement's ENCODING, UTF-8 by default.
+     * The stream is flushed but not closed.
+     *
+     * @param sql a {@code COPY ... TO STDOUT} statement
+     * @param out the destination of the data
+     * @return the number of rows written
+     * @throws SQLException if the statement fails or the data cannot be written
+     */
+    public long copyOut(String sql, OutputStream out) throws SQLException {
+        connection.ensureTransaction();
+        try {
+            return sqlEngine.copyOut(sql, out);
+        } catch (SqlExecutionException e) {
+            throw new SQLException("COPY failed: " + e.getMessage(), e);
+        }
+    }
+}
@@ -29,6 +29,7 @@ import java.util.concurrent.Executor;
  *   <li>Callable statement execution (stored procedures)</li>
  *   <li>Transaction management (commit, rollback)</li>
  *   <li>Savepoints support</li>
+ *   <li>Bulk COPY FROM STDIN / TO STDOUT via getCopyManager()</li>
  *   <li>Auto-commit mode</li>
  *   <li>Connection metadata</li>
  * </ul>
@@ -97,6 +98,7 @@ public class MemGresTestConnection implements Connection {
             engine.getTransactionManager().commitTransaction(currentTransaction);
             currentTransaction = null;
             transactionSnapshot.clear();
+            sqlEngine.closeCursors(false);
         } else if (!autoCommit && currentTransaction == null) {
             // Begin transaction - snapshot will be taken lazily when needed
             currentTransaction = engine.getTransactionManager().beginTransaction();
@@ -121,6 +123,8 @@ public class MemGresTestConnection implements Connection {
             currentTransaction = null;
             transactionSnapshot.clear();
         }
+        // Cursors declared WITHOUT HOLD end with the transaction
+        sqlEngine.closeCursors(false);
     }
     
     @Override
@@ -137,6 +141,7 @@ public class MemGresTestConnection implements Connection {
             currentTransaction = null;
             transactionSnapshot.clear();
         }
+        sqlEngine.closeCursors(false);
     }
     
     @Override
@@ -148,10 +153,21 @@ public class MemGresTestConnection implements Connection {
                 currentTransaction = null;
                 transactionSnapshot.clear();
             }
+            closeCursors();
             closed = true;
         }
     }
     
+    /**
+     * Close every cursor declared on this connection's SQL engine, WITH HOLD or not, as CLOSE ALL
+     * does. Called when the connection is closed, and by a pool when the connection is returned
+     * to it, so that the next user does not inherit open cursors. Connections that share one SQL
+     * engine share its cursors.
+     */
+    public void closeCursors() {
+        sqlEngine.closeCursors(true);
+    }
+    
     @Override
     public boolean isClosed() throws SQLException {
         return closed;
@@ -488,12 +504,24 @@ public class MemGresTestConnection implements Connection {
         if (currentTransaction != null && transactionSnapshot.isEmpty()) {
             // Only take snapshot after successful DML operations, not DDL
             String upperSql = sql.trim().toUpperCase();
-            if (upperSql.startsWith("INSERT") || upperSql.startsWith("UPDATE") || upperSql.startsWith("DELETE")) {
+            if (upperSql.startsWith("INSERT") || upperSql.startsWith("UPDATE") || upperSql.startsWith("DELETE")
+                    || upperSql.startsWith("COPY")) {
                 takeTransactionSnapshot();
             }
         }
     }
     
+    /**
+     * Gets the copy manager for bulk loading and exporting with COPY statements.
+     * 
+     * @return the copy manager of this connection
+     * @throws SQLException if the connection is closed
+     */
+    public MemGresCopyManager getCopyManager() throws SQLException {
+        checkClosed();
+        return new MemGresCopyManager(this, sqlEngine);
+    }
+    
     /**
      * Gets the current transaction.
      * 
@@ -1,6 +1,8 @@
 package com.memgres.testing;
 
+import com.memgres.sql.execution.PreparedQuery;
 import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionException;
 import com.memgres.sql.execution.SqlExecutionResult;
 import com.memgres.storage.Table;
 import com.memgres.types.Column;
@@ -25,6 +27,12 @@ import java.util.Map;
  * basic parameter binding and SQL execution. It supports common data types
  * and operations needed for testing scenarios.</p>
  * 
+ * <p>The SQL is parsed once, when the statement is prepared, and parameter values are
+ * bound to its placeholders on each execution without parsing it again. SQL with
+ * placeholders where the grammar does not accept an expression falls back to substituting
+ * the values into the SQL text and parsing it on every execution. A batch of parameter
+ * sets is executed by the engine in one call and one transaction.</p>
+ * 
  * <p><strong>Supported parameter types:</strong></p>
  * <ul>
  *   <li>String, int, long, double, boolean</li>
@@ -39,9 +47,12 @@ public class MemGresTestPreparedStatement implements PreparedStatement {
     private final MemGresTestConnection connection;
     private final SqlExecutionEngine sqlEngine;
     private final String sql;
+    /** The parsed SQL, or null if it only parses once the parameter values are substituted. */
+    private final PreparedQuery preparedQuery;
     private final Map<Integer, Object> parameters = new HashMap<>();
     private final List<Map<Integer, Object>> batchParameters = new ArrayList<>();
     private boolean closed = false;
+    private int fetchSize = 0;
     private List<Object> lastGeneratedKeys = new ArrayList<>();
     
     /**
@@ -55,21 +66,38 @@ public class MemGresTestPreparedStatement implements PreparedStatement {
         this.connection = connection;
         this.sqlEngine = sqlEngine;
         this.sql = sql;
+        this.preparedQuery = prepare(sqlEngine, sql);
+    }
+    
+    private static PreparedQuery prepare(SqlExecutionEngine sqlEngine, String sql) {
+        try {
+            return sqlEngine.prepare(sql);
+        } catch (SqlExecutionException e) {
+            return null;
+        }
     }
     
     @Override
     public ResultSet executeQuery() throws SQLException {
         checkClosed();
-        String processedSql = replaceParameters();
         connection.ensureTransaction();
         
         try {
-            SqlExecutionResult result = sqlEngine.execute(processedSql);
+            if (fetchSize > 0) {
+                SqlExecutionResult result = preparedQuery != null
+                    ? sqlEngine.executeCursor(preparedQuery, bindParameters(parameters))
+                    : sqlEngine.executeCursor(replaceParameters(parameters));
+                if (result.getCursor() != null) {
+                    return new MemGresTestResultSet(result.getCursor(), fetchSize);
+                }
+                return new MemGresTestResultSet(result.getRows(), result.getColumns());
+            }
+            SqlExecutionResult result = executeWithParameters(parameters);
             if (!result.isSuccess()) {
                 throw new SQLException("Query execution failed: " + result.getMessage());
             }
             return new MemGresTestResultSet(result.getRows(), result.getColumns());
-        } catch (com.memgres.sql.execution.SqlExecutionException e) {
+        } catch (SqlExecutionException e) {
             throw new SQLException("SQL execution failed: " + e.getMessage(), e);
         }
     }
@@ -77,23 +105,22 @@ public class MemGresTestPreparedStatement implements PreparedStatement {
     @Override
     public int executeUpdate() throws SQLException {
         checkClosed();
-        String processedSql = replaceParameters();
         connection.ensureTransaction();
         
         try {
-            SqlExecutionResult result = sqlEngine.execute(processedSql);
+            SqlExecutionResult result = executeWithParameters(parameters);
             if (!result.isSuccess()) {
                 throw new SQLException("Update execution failed: " + result.getMessage());
             }
             
             // Take snapshot after successful DML operations if in transaction
-            connection.ensureTransactionSnapshotAfterDML(processedSql);
+            connection.ensureTransactionSnapshotAfterDML(sql);
             
             // Capture generated keys for INSERT operations
-            captureGeneratedKeys(processedSql, result);
+            captureGeneratedKeys(sql, result);
             
             return result.getAffectedRows();
-        } catch (com.memgres.sql.execution.SqlExecutionException e) {
+        } catch (SqlExecutionException e) {
             throw new SQLException("SQL execution failed: " + e.getMessage(), e);
         }
     }
@@ -101,23 +128,22 @@ public class MemGresTestPreparedStatement implements PreparedStatement {
     @Override
     public boolean execute() throws SQLException {
         checkClosed();
-        String processedSql = replaceParameters();
         connection.ensureTransaction();
         
         try {
-            SqlExecutionResult result = sqlEngine.execute(processedSql);
+            SqlExecutionResult result = executeWithParameters(parameters);
             if (!result.isSuccess()) {
                 throw new SQLException("SQL execution failed: " + result.getMessage());
             }
             
             // Take snapshot after successful DML operations if in transaction
-            connection.ensureTransactionSnapshotAfterDML(processedSql);
+            connection.ensureTransactionSnapshotAfterDML(sql);
             
             // Capture generated keys for INSERT operations
-            captureGeneratedKeys(processedSql, result);
+            captureGeneratedKeys(sql, result);
             
             return result.getType() == SqlExecutionResult.ResultType.SELECT;
-        } catch (com.memgres.sql.execution.SqlExecutionException e) {
+        } catch (SqlExecutionException e) {
             throw new SQLException("SQL execution failed: " + e.getMessage(), e);
         }
     }
@@ -127,8 +153,7 @@ public class MemGresTestPreparedStatement implements PreparedStatement {
     @Override
     public void setNull(int parameterIndex, int sqlType) throws SQLException {
         checkClosed();
-        // ConcurrentHashMap doesn't allow null values, so we use a special marker
-        parameters.put(parameterIndex, "NULL_VALUE_MARKER");
+        parameters.put(parameterIndex, null);
     }
     
     @Override
@@ -618,12 +643,15 @@ public class MemGresTestPreparedStatement implements PreparedStatement {
     
     @Override
     public int getFetchSize() throws SQLException {
-        return 0;
+        return fetchSize;
     }
     
     @Override
     public void setFetchSize(int rows) throws SQLException {
-        // No-op
+        if (rows < 0) {
+            throw new SQLException("Fetch size must be >= 0: " + rows);
+        }
+        this.fetchSize = rows;
     }
     
     @Override
@@ -655,25 +683,29 @@ public class MemGresTestPreparedStatement implements PreparedStatement {
             return new int[0];
         }
         
-        List<Integer> results = new ArrayList<>();
         List<Map<Integer, Object>> currentBatch = new ArrayList<>(batchParameters);
         
+        if (preparedQuery != null) {
+            // Run the whole batch against the parsed SQL in one engine call
+            List<List<Object>> parameterSets = new ArrayList<>(currentBatch.size());
+            for (Map<Integer, Object> parameterSet : currentBatch) {
+                parameterSets.add(bindParameters(parameterSet));
+            }
+            try {
+                int[] counts = sqlEngine.executeBatch(preparedQuery, parameterSets);
+                batchParameters.clear();
+                return counts;
+            } catch (SqlExecutionException e) {
+                throw new BatchUpdateException("Batch execution failed", new int[0], e);
+            }
+        }
+        
+        List<Integer> results = new ArrayList<>();
         try {
             // Execute the prepared statement for each parameter set
             for (Map<Integer, Object> parameterSet : currentBatch) {
                 try {
-                    // Temporarily set parameters for this batch entry
-                    Map<Integer, Object> originalParameters = new HashMap<>(parameters);
-                    parameters.clear();
-                    parameters.putAll(parameterSet);
-                    
-                    // Replace placeholders and execute
-                    String executableSql = replaceParameters();
-                    SqlExecutionResult result = sqlEngine.execute(executableSql);
-                    
-                    // Restore original parameters
-                    parameters.clear();
-                    parameters.putAll(originalParameters);
+                    SqlExecutionResult result = executeWithParameters(parameterSet);
                     
                     // Return affected rows for DML operations, SUCCESS_NO_INFO for others
                     if (result.getType() == SqlExecutionResult.ResultType.INSERT ||
@@ -716,22 +748,80 @@ public class MemGresTestPreparedStatement implements PreparedStatement {
     }
     
     /**
-     * Replaces parameter placeholders (?) in the SQL with actual parameter values.
+     * Executes the statement with the given parameter values, bound to the parsed SQL or,
+     * if it could not be parsed with placeholders, substituted into the SQL text.
+     * 
+     * @param values the parameter values by 1-based index
+     * @return the execution result
+     */
+    private SqlExecutionResult executeWithParameters(Map<Integer, Object> values) throws SqlExecutionException {
+        if (preparedQuery == null) {
+            return sqlEngine.execute(replaceParameters(values));
+        }
+        return sqlEngine.execute(preparedQuery, bindParameters(values));
+    }
+    
+    /**
+     * Converts parameter values by index to the positional list bound to the parsed SQL.
+     * 
+     * @param values the parameter values by 1-based index
+     * @return the values in position order, with null for unset positions
+     */
+    private static List<Object> bindParameters(Map<Integer, Object> values) {
+        int count = values.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        List<Object> bound = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            bound.add(values.containsKey(i) ? bindValue(values.get(i)) : null);
+        }
+        return bound;
+    }
+    
+    /**
+     * Converts a parameter value to the type the engine stores for it.
+     * 
+     * @param value the value passed to a setter
+     * @return the value to bind
+     */
+    private static Object bindValue(Object value) {
+        if (value instanceof Date) {
+            return ((Date) value).toLocalDate();
+        } else if (value instanceof Time) {
+            return ((Time) value).toLocalTime();
+        } else if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime();
+        }
+        return value;
+    }
+    
+    /**
+     * Replaces parameter placeholders (?) in the SQL with actual parameter values. Question
+     * marks inside string literals and quoted identifiers are left alone.
      * 
+     * @param values the parameter values by 1-based index
      * @return the processed SQL string
      */
-    private String replaceParameters() {
-        String result = sql;
-        
-        // Replace parameters in positional order (1-based JDBC indexing)
-        for (int i = 1; i <= parameters.size(); i++) {
-            if (parameters.containsKey(i)) {
-                String value = formatParameterValue(parameters.get(i));
-                result = result.replaceFirst("\\?", value);
+    private String replaceParameters(Map<Integer, Object> values) {
+        StringBuilder result = new StringBuilder(sql.length() + 16 * values.size());
+        int index = 0;
+        char quote = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                // A doubled quote inside a quoted section closes and reopens it, which is harmless here
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '?' && values.containsKey(index + 1)) {
+                result.append(formatParameterValue(values.get(++index)));
+                continue;
+            } else if (c == '?') {
+                index++;
             }
+            result.append(c);
         }
-        
-        return result;
+        return result.toString();
     }
     
     /**
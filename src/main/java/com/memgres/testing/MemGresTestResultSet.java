@@ -1,5 +1,7 @@
 package com.memgres.testing;
 
+import com.memgres.sql.execution.RowCursor;
+import com.memgres.sql.execution.SqlExecutionException;
 import com.memgres.types.Column;
 import com.memgres.types.DataType;
 import com.memgres.types.Row;
@@ -19,12 +21,22 @@ import java.util.Map;
  * <p>This is a simplified ResultSet implementation that provides basic result
  * navigation and data access for testing scenarios.</p>
  * 
+ * <p>A result set over a cursor holds only the current batch of rows and fetches the
+ * next batch of {@code fetchSize} rows when it is reached; it can only move forward.
+ * Closing it closes the cursor.</p>
+ * 
  * @since 1.0.0
  */
 public class MemGresTestResultSet implements ResultSet {
     
-    private final List<Row> rows;
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+    
+    private List<Row> rows;
     private final List<Column> columns;
+    private final RowCursor cursor;
+    private int fetchSize;
+    // Index of the first row of the current batch among all rows
+    private int batchStart = 0;
     private int currentRowIndex = -1;
     private boolean closed = false;
     private boolean wasNull = false;
@@ -38,18 +50,44 @@ public class MemGresTestResultSet implements ResultSet {
     public MemGresTestResultSet(List<Row> rows, List<Column> columns) {
         this.rows = rows != null ? rows : List.of();
         this.columns = columns != null ? columns : List.of();
+        this.cursor = null;
+    }
+    
+    /**
+     * Creates a new MemGresTestResultSet that fetches its rows from a cursor in batches.
+     * 
+     * @param cursor the cursor of the result rows
+     * @param fetchSize the number of rows to fetch at a time, or 0 for the default
+     */
+    public MemGresTestResultSet(RowCursor cursor, int fetchSize) {
+        this.rows = List.of();
+        this.columns = cursor.getColumns();
+        this.cursor = cursor;
+        this.fetchSize = fetchSize;
     }
     
     @Override
     public boolean next() throws SQLException {
         checkClosed();
         currentRowIndex++;
-        return currentRowIndex < rows.size();
+        if (cursor != null && currentRowIndex - batchStart >= rows.size() && !cursor.isExhausted()) {
+            batchStart += rows.size();
+            try {
+                rows = cursor.fetch(fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE);
+            } catch (SqlExecutionException e) {
+                throw new SQLException("Failed to fetch rows: " + e.getMessage(), e);
+            }
+        }
+        return currentRowIndex - batchStart < rows.size();
     }
     
     @Override
     public void close() throws SQLException {
         closed = true;
+        if (cursor != null) {
+            cursor.close();
+            rows = List.of();
+        }
     }
     
     @Override
@@ -271,7 +309,7 @@ public class MemGresTestResultSet implements ResultSet {
     
     @Override
     public boolean isAfterLast() throws SQLException {
-        return currentRowIndex >= rows.size();
+        return currentRowIndex >= batchStart + rows.size() && (cursor == null || cursor.isExhausted());
     }
     
     @Override
@@ -281,21 +319,24 @@ public class MemGresTestResultSet implements ResultSet {
     
     @Override
     public boolean isLast() throws SQLException {
-        return currentRowIndex == rows.size() - 1;
+        return currentRowIndex == batchStart + rows.size() - 1 && (cursor == null || cursor.isExhausted());
     }
     
     @Override
     public void beforeFirst() throws SQLException {
+        checkScrollable();
         currentRowIndex = -1;
     }
     
     @Override
     public void afterLast() throws SQLException {
+        checkScrollable();
         currentRowIndex = rows.size();
     }
     
     @Override
     public boolean first() throws SQLException {
+        checkScrollable();
         if (rows.isEmpty()) {
             return false;
         }
@@ -305,6 +346,7 @@ public class MemGresTestResultSet implements ResultSet {
     
     @Override
     public boolean last() throws SQLException {
+        checkScrollable();
         if (rows.isEmpty()) {
             return false;
         }
@@ -314,7 +356,7 @@ public class MemGresTestResultSet implements ResultSet {
     
     @Override
     public int getRow() throws SQLException {
-        if (currentRowIndex < 0 || currentRowIndex >= rows.size()) {
+        if (currentRowIndex < 0 || currentRowIndex >= batchStart + rows.size()) {
             return 0;
         }
         return currentRowIndex + 1; // JDBC uses 1-based indexing
@@ -322,6 +364,7 @@ public class MemGresTestResultSet implements ResultSet {
     
     @Override
     public boolean absolute(int row) throws SQLException {
+        checkScrollable();
         if (row == 0) {
             beforeFirst();
             return false;
@@ -341,6 +384,7 @@ public class MemGresTestResultSet implements ResultSet {
     
     @Override
     public boolean previous() throws SQLException {
+        checkScrollable();
         currentRowIndex--;
         return currentRowIndex >= 0;
     }
@@ -359,11 +403,11 @@ public class MemGresTestResultSet implements ResultSet {
             throw new SQLException("Column index out of range: " + columnIndex);
         }
         
-        if (currentRowIndex < 0 || currentRowIndex >= rows.size()) {
+        if (currentRowIndex < batchStart || currentRowIndex >= batchStart + rows.size()) {
             throw new SQLException("No current row");
         }
         
-        Row currentRow = rows.get(currentRowIndex);
+        Row currentRow = rows.get(currentRowIndex - batchStart);
         return currentRow.getValue(columnIndex - 1); // Convert to 0-based
     }
     
@@ -373,6 +417,12 @@ public class MemGresTestResultSet implements ResultSet {
         }
     }
     
+    private void checkScrollable() throws SQLException {
+        if (cursor != null) {
+            throw new SQLException("Operation not allowed on a forward-only ResultSet fetched from a cursor");
+        }
+    }
+    
     // Unsupported methods (throwing SQLFeatureNotSupportedException)
     
     @Override
@@ -467,8 +517,13 @@ public class MemGresTestResultSet implements ResultSet {
     }
     @Override public void setFetchDirection(int direction) throws SQLException { }
     @Override public int getFetchDirection() throws SQLException { return ResultSet.FETCH_FORWARD; }
-    @Override public void setFetchSize(int rows) throws SQLException { }
-    @Override public int getFetchSize() throws SQLException { return 0; }
+    @Override public void setFetchSize(int rows) throws SQLException {
+        if (rows < 0) {
+            throw new SQLException("Fetch size must be >= 0: " + rows);
+        }
+        fetchSize = rows;
+    }
+    @Override public int getFetchSize() throws SQLException { return fetchSize; }
     @Override public int getType() throws SQLException { return ResultSet.TYPE_FORWARD_ONLY; }
     @Override public int getConcurrency() throws SQLException { return ResultSet.CONCUR_READ_ONLY; }
     @Override public boolean rowUpdated() throws SQLException { return false; }
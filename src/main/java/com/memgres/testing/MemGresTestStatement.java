@@ -29,6 +29,7 @@ public class MemGresTestStatement implements Statement {
     private int updateCount = -1;
     private int maxRows = 0;
     private int queryTimeout = 0;
+    private int fetchSize = 0;
     private final List<String> batchCommands = new ArrayList<>();
     private List<Object> lastGeneratedKeys = new ArrayList<>();
     
@@ -52,7 +53,7 @@ public class MemGresTestStatement implements Statement {
         
         SqlExecutionResult result;
         try {
-            result = sqlEngine.execute(sql);
+            result = executeSql(sql);
         } catch (com.memgres.sql.execution.SqlExecutionException e) {
             throw new SQLException("Query execution failed: " + e.getMessage(), e);
         }
@@ -60,7 +61,7 @@ public class MemGresTestStatement implements Statement {
             throw new SQLException("Query execution failed: " + result.getMessage());
         }
         
-        lastResultSet = new MemGresTestResultSet(result.getRows(), result.getColumns());
+        lastResultSet = createResultSet(result);
         updateCount = -1;
         
         return lastResultSet;
@@ -95,6 +96,30 @@ public class MemGresTestStatement implements Statement {
         return updateCount;
     }
     
+    /**
+     * Executes SQL, with the rows of a query left in a cursor when a fetch size is set.
+     */
+    private SqlExecutionResult executeSql(String sql) throws com.memgres.sql.execution.SqlExecutionException {
+        if (fetchSize > 0) {
+            return sqlEngine.executeCursor(sql);
+        }
+        return sqlEngine.execute(sql);
+    }
+    
+    /**
+     * Creates the result set of a query, fetched in batches when its rows are in a cursor. The
+     * previous result set of this statement is closed.
+     */
+    private ResultSet createResultSet(SqlExecutionResult result) throws SQLException {
+        if (lastResultSet != null) {
+            lastResultSet.close();
+        }
+        if (result.getCursor() != null) {
+            return new MemGresTestResultSet(result.getCursor(), fetchSize);
+        }
+        return new MemGresTestResultSet(result.getRows(), result.getColumns());
+    }
+    
     @Override
     public void close() throws SQLException {
         if (!closed) {
@@ -176,7 +201,7 @@ public class MemGresTestStatement implements Statement {
         
         SqlExecutionResult result;
         try {
-            result = sqlEngine.execute(sql);
+            result = executeSql(sql);
         } catch (com.memgres.sql.execution.SqlExecutionException e) {
             throw new SQLException("SQL execution failed: " + e.getMessage(), e);
         }
@@ -190,9 +215,9 @@ public class MemGresTestStatement implements Statement {
         // Capture generated keys for INSERT operations
         captureGeneratedKeys(sql, result);
         
-        if (result.getRows() != null) {
+        if (result.getCursor() != null || result.getRows() != null) {
             // Query that returns results
-            lastResultSet = new MemGresTestResultSet(result.getRows(), result.getColumns());
+            lastResultSet = createResultSet(result);
             updateCount = -1;
             return true;
         } else {
@@ -239,12 +264,15 @@ public class MemGresTestStatement implements Statement {
     @Override
     public void setFetchSize(int rows) throws SQLException {
         checkClosed();
-        // No-op
+        if (rows < 0) {
+            throw new SQLException("Fetch size must be >= 0: " + rows);
+        }
+        this.fetchSize = rows;
     }
     
     @Override
     public int getFetchSize() throws SQLException {
-        return 0;
+        return fetchSize;
     }
     
     @Override
@@ -8,6 +8,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.*;
 
@@ -284,4 +285,108 @@ public class ConnectionPoolTest {
         // After returning to pool, idle time should be positive
         assertTrue(pooledConn.getIdleTime() >= 0, "Returned connection should have idle time");
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testThreadReusesLastConnection() throws SQLException {
+        pool.initialize();
+        
+        Connection first = pool.getConnection();
+        long connectionId = ((PooledConnection) first).getConnectionId();
+        first.close();
+        
+        for (int i = 0; i < 10; i++) {
+            Connection conn = pool.getConnection();
+            assertEquals(connectionId, ((PooledConnection) conn).getConnectionId(), 
+                    "Thread should get back the connection it returned last");
+            conn.close();
+        }
+        assertEquals(2, pool.getStatistics().getTotalConnections(), "Should not have created connections");
+    }
+    
+    @Test
+    void testDoubleReturnIsIgnored() throws SQLException {
+        Connection conn = pool.getConnection();
+        conn.close();
+        conn.close();
+        
+        ConnectionPool.PoolStatistics stats = pool.getStatistics();
+        assertEquals(0, stats.getActiveConnections());
+        assertEquals(1, stats.getTotalConnectionsReleased(), "Second return should have no effect");
+        
+        Connection other = pool.getConnection();
+        assertEquals(1, pool.getStatistics().getActiveConnections());
+        other.close();
+    }
+    
+    @Test
+    void testReturnedConnectionIsHandedToWaiter() throws Exception {
+        List<Connection> connections = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            connections.add(pool.getConnection());
+        }
+        
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Connection> waiter = executor.submit(() -> pool.getConnection(5000));
+            // Give the waiter time to block on the pool
+            Thread.sleep(100);
+            assertFalse(waiter.isDone(), "Waiter should block while the pool is exhausted");
+            
+            Connection returned = connections.remove(0);
+            returned.close();
+            
+            Connection received = waiter.get(5, TimeUnit.SECONDS);
+            assertSame(returned, received, "Returned connection should be handed to the waiter");
+            connections.add(received);
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertEquals(5, pool.getStatistics().getTotalConnections());
+        for (Connection conn : connections) {
+            conn.close();
+        }
+    }
+    
+    @Test
+    void testAcquireLatencyHistogram() throws SQLException {
+        ConnectionPool.PoolStatistics emptyStats = pool.getStatistics();
+        assertEquals(0, emptyStats.getAcquireLatencyPercentileMicros(99));
+        
+        for (int i = 0; i < 20; i++) {
+            pool.getConnection().close();
+        }
+        
+        ConnectionPool.PoolStatistics stats = pool.getStatistics();
+        long[] histogram = stats.getAcquireLatencyHistogram();
+        assertEquals(ConnectionPool.PoolStatistics.LATENCY_BUCKETS, histogram.length);
+        assertEquals(20, Arrays.stream(histogram).sum(), "Every acquisition should be recorded");
+        
+        long p50 = stats.getAcquireLatencyPercentileMicros(50);
+        long p99 = stats.getAcquireLatencyPercentileMicros(99);
+        assertTrue(p50 > 0);
+        assertTrue(p99 >= p50);
+        assertTrue(stats.toString().contains("acquireP99"));
+    }
+
+    @Test
+    void testReturnedConnectionDoesNotKeepCursors() throws SQLException {
+        Connection conn = pool.getConnection();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE pool_items (id INTEGER)");
+            stmt.execute("INSERT INTO pool_items VALUES (1), (2)");
+            stmt.execute("DECLARE c CURSOR WITH HOLD FOR SELECT id FROM pool_items");
+        }
+        long connectionId = ((PooledConnection) conn).getConnectionId();
+        conn.close();
+
+        Connection next = pool.getConnection();
+        assertEquals(connectionId, ((PooledConnection) next).getConnectionId());
+        try (Statement stmt = next.createStatement()) {
+            assertThrows(SQLException.class, () -> stmt.executeQuery("FETCH c"));
+            // The name is free to declare again
+            stmt.execute("DECLARE c CURSOR FOR SELECT id FROM pool_items");
+        }
+        next.close();
+    }
+}
@@ -244,4 +244,80 @@ class AggregationIntegrationTest {
         
         logger.info("Simple aggregate without GROUP BY test passed");
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testCompositeGroupKeysAreNotConflated() throws Exception {
+        logger.info("Testing composite GROUP BY keys");
+        
+        sqlEngine.execute("CREATE TABLE tags (a VARCHAR(20), b VARCHAR(20), n INTEGER)", TransactionIsolationLevel.READ_COMMITTED);
+        // ('x|y', 'z') and ('x', 'y|z') would share the key "x|y|z" if the values were concatenated
+        sqlEngine.execute("INSERT INTO tags VALUES ('x|y', 'z', 1)", TransactionIsolationLevel.READ_COMMITTED);
+        sqlEngine.execute("INSERT INTO tags VALUES ('x', 'y|z', 2)", TransactionIsolationLevel.READ_COMMITTED);
+        sqlEngine.execute("INSERT INTO tags VALUES ('x', 'y|z', 3)", TransactionIsolationLevel.READ_COMMITTED);
+        // A NULL key and the string 'NULL' are different groups too
+        sqlEngine.execute("INSERT INTO tags VALUES (NULL, 'z', 4)", TransactionIsolationLevel.READ_COMMITTED);
+        sqlEngine.execute("INSERT INTO tags VALUES ('NULL', 'z', 5)", TransactionIsolationLevel.READ_COMMITTED);
+        sqlEngine.execute("INSERT INTO tags VALUES (NULL, 'z', 6)", TransactionIsolationLevel.READ_COMMITTED);
+        
+        SqlExecutionResult result = sqlEngine.execute(
+            "SELECT a, b, COUNT(*) AS cnt, SUM(n) AS total FROM tags GROUP BY a, b",
+            TransactionIsolationLevel.READ_COMMITTED);
+        
+        // Groups come out in first-seen order
+        List<Row> rows = result.getRows();
+        assertEquals(4, rows.size());
+        assertArrayEquals(new Object[]{"x|y", "z", 1L, 1.0}, rows.get(0).getData());
+        assertArrayEquals(new Object[]{"x", "y|z", 2L, 5.0}, rows.get(1).getData());
+        assertArrayEquals(new Object[]{null, "z", 2L, 10.0}, rows.get(2).getData());
+        assertArrayEquals(new Object[]{"NULL", "z", 1L, 5.0}, rows.get(3).getData());
+        
+        logger.info("Composite GROUP BY keys test passed");
+    }
+    
+    @Test
+    void testRunningAggregatesPerGroup() throws Exception {
+        logger.info("Testing running aggregates over many groups");
+        
+        sqlEngine.execute("CREATE TABLE readings (sensor INTEGER, reading INTEGER)", TransactionIsolationLevel.READ_COMMITTED);
+        com.memgres.storage.Table readings = engine.getTable("public", "readings");
+        for (int i = 0; i < 10000; i++) {
+            // Every 10th reading of a sensor is missing
+            readings.insertRow(new Object[]{i % 100, i % 1000 < 100 ? null : i});
+        }
+        
+        SqlExecutionResult result = sqlEngine.execute(
+            "SELECT sensor, COUNT(*) AS cnt, COUNT(reading) AS present, MIN(reading) AS lo, " +
+            "MAX(reading) AS hi, AVG(reading) AS mean FROM readings GROUP BY sensor",
+            TransactionIsolationLevel.READ_COMMITTED);
+        
+        List<Row> rows = result.getRows();
+        assertEquals(100, rows.size());
+        for (int sensor = 0; sensor < 100; sensor++) {
+            Object[] data = rows.get(sensor).getData();
+            double mean = 0;
+            for (int k = 0; k < 100; k++) {
+                if (k % 10 != 0) {
+                    mean += sensor + 100 * k;
+                }
+            }
+            assertEquals(sensor, data[0]);
+            assertEquals(100L, data[1]);
+            assertEquals(90L, data[2]);
+            assertEquals(100 + sensor, data[3]);
+            assertEquals(9900 + sensor, data[4]);
+            assertEquals(mean / 90, (Double) data[5], 0.0001);
+        }
+        
+        logger.info("Running aggregates test passed");
+    }
+    
+    @Test
+    void testAggregateWithoutGroupByOverEmptyInput() throws Exception {
+        String sql = "SELECT COUNT(*) AS total, SUM(salary) AS total_salary, AVG(salary) AS avg_salary, " +
+                     "MAX(salary) AS max_salary FROM employees WHERE salary > 1000000";
+        SqlExecutionResult result = sqlEngine.execute(sql, TransactionIsolationLevel.READ_COMMITTED);
+        
+        assertEquals(1, result.getRows().size());
+        assertArrayEquals(new Object[]{0L, 0.0, null, null}, result.getRows().get(0).getData());
+    }
+}
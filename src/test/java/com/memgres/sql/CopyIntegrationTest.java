@@ -0,0 +1,201 @@
+package com.memgres.sql;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.sql.execution.SqlErrorCode;
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionException;
+import com.memgres.sql.execution.SqlExecutionResult;
+import com.memgres.storage.Table;
+import com.memgres.testing.MemGresCopyManager;
+import com.memgres.testing.MemGresTestConnection;
+import com.memgres.types.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for COPY FROM and COPY TO in the text and CSV formats.
+ */
+public class CopyIntegrationTest {
+
+    private MemGresEngine engine;
+    private SqlExecutionEngine sqlEngine;
+    private MemGresTestConnection connection;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemGresEngine();
+        engine.initialize();
+        sqlEngine = new SqlExecutionEngine(engine);
+        connection = new MemGresTestConnection(engine, sqlEngine);
+        sqlEngine.execute("CREATE TABLE people (id INTEGER PRIMARY KEY, name VARCHAR(100), city VARCHAR(100))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void testCsvFileRoundTrip() throws Exception {
+        sqlEngine.execute("INSERT INTO people VALUES (1, 'Smith, John', 'Oslo'), (2, 'Say \"hi\"', NULL), (3, '', 'Bergen')");
+        Path file = tempDir.resolve("people.csv");
+
+        SqlExecutionResult result = sqlEngine.execute(
+            "COPY people TO '" + file + "' WITH (FORMAT csv, HEADER)");
+        assertEquals(SqlExecutionResult.ResultType.COPY, result.getType());
+        assertEquals(3, result.getAffectedRows());
+        assertEquals(List.of("id,name,city", "1,\"Smith, John\",Oslo", "2,\"Say \"\"hi\"\"\",", "3,\"\",Bergen"),
+            Files.readAllLines(file));
+
+        sqlEngine.execute("TRUNCATE TABLE people");
+        result = sqlEngine.execute("COPY people FROM '" + file + "' WITH (FORMAT csv, HEADER true)");
+        assertEquals(3, result.getAffectedRows());
+
+        Table table = engine.getTable("public", "people");
+        List<Row> rows = table.getAllRows();
+        rows.sort((a, b) -> Integer.compare((Integer) a.getData()[0], (Integer) b.getData()[0]));
+        assertArrayEquals(new Object[]{1, "Smith, John", "Oslo"}, rows.get(0).getData());
+        assertArrayEquals(new Object[]{2, "Say \"hi\"", null}, rows.get(1).getData());
+        assertArrayEquals(new Object[]{3, "", "Bergen"}, rows.get(2).getData());
+    }
+
+    @Test
+    void testTextFormatFromStdin() throws Exception {
+        MemGresCopyManager copyManager = connection.getCopyManager();
+        String data = "1\tAda\tLondon\n"
+            + "2\tTab\\there\t\\N\r\n"
+            + "3\tBack\\\\slash\tParis\n"
+            + "\\.\n"
+            + "4\tignored\tafter end marker\n";
+
+        long count = copyManager.copyIn("COPY people FROM STDIN", new StringReader(data));
+
+        assertEquals(3, count);
+        Table table = engine.getTable("public", "people");
+        assertEquals(3, table.getRowCount());
+        List<Row> rows = sqlEngine.execute("SELECT name, city FROM people WHERE id = 2").getRows();
+        assertEquals("Tab\there", rows.get(0).getData()[0]);
+        assertNull(rows.get(0).getData()[1]);
+        rows = sqlEngine.execute("SELECT name FROM people WHERE id = 3").getRows();
+        assertEquals("Back\\slash", rows.get(0).getData()[0]);
+    }
+
+    @Test
+    void testColumnListAndCsvToStdout() throws Exception {
+        MemGresCopyManager copyManager = connection.getCopyManager();
+        String data = "name|id\nMulti line|10\n\"Quoted\nline\"|11\n";
+        copyManager.copyIn("COPY people (name, id) FROM STDIN WITH (FORMAT csv, DELIMITER '|', HEADER)",
+            new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)));
+
+        StringWriter out = new StringWriter();
+        long count = copyManager.copyOut("COPY people (id, name) TO STDOUT WITH (FORMAT csv)", out);
+
+        assertEquals(2, count);
+        assertTrue(out.toString().contains("10,Multi line\n"));
+        assertTrue(out.toString().contains("11,\"Quoted\nline\"\n"));
+    }
+
+    @Test
+    void testLargeLoadIsInsertedInBatches() throws Exception {
+        StringBuilder data = new StringBuilder();
+        for (int i = 1; i <= 25_000; i++) {
+            data.append(i).append(",name").append(i).append(",city").append(i % 7).append('\n');
+        }
+
+        long count = sqlEngine.copyIn("COPY people FROM STDIN WITH (FORMAT csv)", new StringReader(data.toString()));
+
+        assertEquals(25_000, count);
+        assertEquals(25_000, engine.getTable("public", "people").getRowCount());
+        List<Row> rows = sqlEngine.execute("SELECT name FROM people WHERE id = 24999").getRows();
+        assertEquals("name24999", rows.get(0).getData()[0]);
+    }
+
+    @Test
+    void testFailedLoadAfterFirstBatchLoadsNothing() throws Exception {
+        sqlEngine.execute("INSERT INTO people VALUES (0, 'existing', 'Oslo')");
+        StringBuilder data = new StringBuilder();
+        for (int i = 1; i <= 10_005; i++) {
+            data.append(i).append(",name").append(i).append(",city\n");
+        }
+        data.append("oops,bad,row\n");
+
+        SqlExecutionException e = assertThrows(SqlExecutionException.class,
+            () -> sqlEngine.copyIn("COPY people FROM STDIN WITH (FORMAT csv)", new StringReader(data.toString())));
+        assertTrue(e.getMessage().contains("line 10006"), e.getMessage());
+
+        assertEquals(1, engine.getTable("public", "people").getRowCount());
+        assertEquals(1L, ((Number) sqlEngine.execute("SELECT COUNT(*) FROM people").getRows().get(0).getData()[0]).longValue());
+        assertTrue(sqlEngine.execute("SELECT name FROM people WHERE id = 1").getRows().isEmpty());
+
+        // The primary key index no longer holds the removed rows
+        sqlEngine.execute("INSERT INTO people VALUES (1, 'again', 'Rome')");
+        assertEquals(2, engine.getTable("public", "people").getRowCount());
+    }
+
+        @Test
+    void testErrorsNameTheLine() {
+        String data = "1,Ada,London\n2,Bob\n";
+        SqlExecutionException e = assertThrows(SqlExecutionException.class,
+            () -> sqlEngine.copyIn("COPY people FROM STDIN WITH (FORMAT csv)", new StringReader(data)));
+        assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+        assertTrue(e.getMessage().contains("missing data for column city"), e.getMessage());
+
+        String badNumber = "1,Ada,London\n2,Bob,Rome\nthree,Cy,Nice\n";
+        e = assertThrows(SqlExecutionException.class,
+            () -> sqlEngine.copyIn("COPY people FROM STDIN WITH (FORMAT csv)", new StringReader(badNumber)));
+        assertTrue(e.getMessage().contains("line 3"), e.getMessage());
+
+        e = assertThrows(SqlExecutionException.class,
+            () -> sqlEngine.copyIn("COPY people FROM STDIN WITH (FORMAT csv)", new StringReader("1,\"open,x\n")));
+        assertTrue(e.getMessage().contains("unterminated CSV quoted field"), e.getMessage());
+    }
+
+    @Test
+    void testCopyKeywordsAreNotReserved() throws Exception {
+        sqlEngine.execute("CREATE TABLE copy (id INTEGER, stdin VARCHAR(10), stdout VARCHAR(10))");
+        sqlEngine.execute("INSERT INTO copy (id, stdin, stdout) VALUES (1, 'in', 'out')");
+
+        List<Row> rows = sqlEngine.execute("SELECT stdin, stdout FROM copy WHERE id = 1").getRows();
+        assertArrayEquals(new Object[]{"in", "out"}, rows.get(0).getData());
+
+        long count = sqlEngine.copyIn("COPY copy (id, stdin) FROM STDIN WITH (FORMAT csv)", new StringReader("2,x\n"));
+        assertEquals(1, count);
+        StringWriter out = new StringWriter();
+        sqlEngine.copyOut("COPY copy (stdout) TO STDOUT", out);
+        assertTrue(out.toString().contains("out\n"), out.toString());
+    }
+
+        @Test
+    void testUnsupportedUsesAreRejected() {
+        SqlExecutionException e = assertThrows(SqlExecutionException.class,
+            () -> sqlEngine.copyIn("COPY people FROM STDIN WITH (FORMAT binary)", new StringReader("")));
+        assertEquals(SqlErrorCode.FEATURE_NOT_SUPPORTED, e.getErrorCodeEnum());
+
+        e = assertThrows(SqlExecutionException.class,
+            () -> sqlEngine.execute("COPY people FROM STDIN"));
+        assertEquals(SqlErrorCode.FEATURE_NOT_SUPPORTED, e.getErrorCodeEnum());
+
+        assertThrows(SqlExecutionException.class,
+            () -> sqlEngine.copyIn("COPY people FROM STDIN WITH (QUOTE '\"')", new StringReader("")));
+        assertThrows(SQLException.class,
+            () -> connection.getCopyManager().copyOut("COPY people FROM STDIN", new StringWriter()));
+    }
+}
@@ -0,0 +1,223 @@
+package com.memgres.sql;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.sql.execution.RowCursor;
+import com.memgres.sql.execution.SqlErrorCode;
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionException;
+import com.memgres.sql.execution.SqlExecutionResult;
+import com.memgres.testing.MemGresTestConnection;
+import com.memgres.types.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for query results fetched in batches: DECLARE, FETCH and CLOSE, and
+ * JDBC result sets with a fetch size.
+ */
+public class CursorIntegrationTest {
+
+    private MemGresEngine engine;
+    private SqlExecutionEngine sqlEngine;
+    private MemGresTestConnection connection;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemGresEngine();
+        engine.initialize();
+        sqlEngine = new SqlExecutionEngine(engine);
+        connection = new MemGresTestConnection(engine, sqlEngine);
+        sqlEngine.execute("CREATE TABLE items (id INTEGER PRIMARY KEY, name VARCHAR(50))");
+        StringBuilder data = new StringBuilder();
+        for (int i = 1; i <= 1_000; i++) {
+            data.append(i).append(",item").append(i).append('\n');
+        }
+        sqlEngine.copyIn("COPY items FROM STDIN WITH (FORMAT csv)", new StringReader(data.toString()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void testDeclareFetchAndClose() throws Exception {
+        sqlEngine.execute("DECLARE big CURSOR FOR SELECT id, name FROM items WHERE id > 990 ORDER BY id");
+
+        List<Row> rows = sqlEngine.execute("FETCH 3 FROM big").getRows();
+        assertEquals(3, rows.size());
+        assertArrayEquals(new Object[]{991, "item991"}, rows.get(0).getData());
+        assertEquals(993, rows.get(2).getData()[0]);
+
+        rows = sqlEngine.execute("FETCH NEXT IN big").getRows();
+        assertEquals(994, rows.get(0).getData()[0]);
+        assertEquals(1, sqlEngine.execute("FETCH big").getRows().size());
+        assertEquals(5, sqlEngine.execute("FETCH FORWARD ALL FROM big").getRows().size());
+        assertTrue(sqlEngine.execute("FETCH 10 FROM big").getRows().isEmpty());
+
+        SqlExecutionException e = assertThrows(SqlExecutionException.class,
+            () -> sqlEngine.execute("DECLARE BIG CURSOR FOR SELECT id FROM items"));
+        assertEquals(SqlErrorCode.CURSOR_ALREADY_EXISTS, e.getErrorCodeEnum());
+
+        sqlEngine.execute("CLOSE big");
+        e = assertThrows(SqlExecutionException.class, () -> sqlEngine.execute("FETCH 1 FROM big"));
+        assertEquals(SqlErrorCode.CURSOR_NOT_FOUND, e.getErrorCodeEnum());
+
+        sqlEngine.execute("DECLARE a CURSOR FOR SELECT * FROM items");
+        sqlEngine.execute("DECLARE b CURSOR FOR SELECT COUNT(*) FROM items");
+        assertEquals(1_000L, ((Number) sqlEngine.execute("FETCH ALL FROM b").getRows().get(0).getData()[0]).longValue());
+        sqlEngine.execute("CLOSE ALL");
+        assertThrows(SqlExecutionException.class, () -> sqlEngine.execute("FETCH a"));
+    }
+
+    @Test
+    void testCursorProjectsRowsAsTheyAreFetched() throws Exception {
+        SqlExecutionResult result = sqlEngine.executeCursor("SELECT id, name, 'x' FROM items WHERE id <= 250");
+        RowCursor cursor = result.getCursor();
+        assertNotNull(cursor);
+        assertEquals(250, result.getRowCount());
+        assertEquals(3, cursor.getColumns().size());
+
+        int fetched = 0;
+        List<Row> batch;
+        while (!(batch = cursor.fetch(100)).isEmpty()) {
+            assertTrue(batch.size() <= 100);
+            for (Row row : batch) {
+                assertEquals("item" + row.getData()[0], row.getData()[1]);
+                assertEquals("x", row.getData()[2]);
+            }
+            fetched += batch.size();
+        }
+        assertEquals(250, fetched);
+        assertTrue(cursor.isExhausted());
+
+        cursor.close();
+        assertTrue(cursor.isClosed());
+        assertThrows(SqlExecutionException.class, () -> cursor.fetch(1));
+
+        // Results that are not SELECTs are returned as usual
+        assertNull(sqlEngine.executeCursor("UPDATE items SET name = 'x' WHERE id = 1").getCursor());
+    }
+
+    @Test
+    void testCursorSeesTheSnapshotOfItsQuery() throws Exception {
+        sqlEngine.execute("CREATE TABLE t (id INTEGER PRIMARY KEY, v INTEGER)");
+        sqlEngine.execute("INSERT INTO t VALUES (1, 10), (2, 20)");
+        sqlEngine.execute("DECLARE c CURSOR FOR SELECT t1.id, (SELECT COUNT(*) FROM t) AS n, "
+            + "(SELECT MAX(t2.v) FROM t t2 WHERE t2.id = t1.id) AS m FROM t t1 ORDER BY t1.id");
+        RowCursor plain = sqlEngine.executeCursor("SELECT id, v FROM t ORDER BY id").getCursor();
+
+        sqlEngine.execute("INSERT INTO t VALUES (3, 30)");
+        sqlEngine.execute("UPDATE t SET v = 777");
+
+        List<Row> rows = sqlEngine.execute("FETCH ALL FROM c").getRows();
+        assertEquals(2, rows.size());
+        assertEquals(List.of(1, 2L, 10), List.of(rows.get(0).getData()[0],
+            ((Number) rows.get(0).getData()[1]).longValue(), rows.get(0).getData()[2]));
+        assertEquals(List.of(2, 2L, 20), List.of(rows.get(1).getData()[0],
+            ((Number) rows.get(1).getData()[1]).longValue(), rows.get(1).getData()[2]));
+
+        // Projections that only read the row are deferred, and still see the rows as queried
+        rows = plain.fetch(-1);
+        assertArrayEquals(new Object[]{1, 10}, rows.get(0).getData());
+        assertArrayEquals(new Object[]{2, 20}, rows.get(1).getData());
+    }
+
+    @Test
+    void testCursorKeywordsAreNotReserved() throws Exception {
+        sqlEngine.execute("CREATE TABLE prices (id INTEGER, close INTEGER, fetch INTEGER, cursor VARCHAR(10), "
+            + "forward INTEGER, declare INTEGER)");
+        sqlEngine.execute("INSERT INTO prices (id, close, fetch, cursor, forward, declare) VALUES (1, 2, 3, 'c', 4, 5)");
+
+        List<Row> rows = sqlEngine.execute(
+            "SELECT close, fetch, cursor, forward, declare FROM prices WHERE close = 2 ORDER BY fetch").getRows();
+        assertArrayEquals(new Object[]{2, 3, "c", 4, 5}, rows.get(0).getData());
+
+        // Cursors may be named with these words too
+        sqlEngine.execute("DECLARE forward CURSOR FOR SELECT close FROM prices");
+        assertEquals(2, sqlEngine.execute("FETCH forward").getRows().get(0).getData()[0]);
+        sqlEngine.execute("DECLARE close CURSOR FOR SELECT id FROM prices");
+        assertEquals(1, sqlEngine.execute("FETCH FORWARD ALL FROM close").getRows().size());
+        sqlEngine.execute("CLOSE close");
+        sqlEngine.execute("CLOSE forward");
+    }
+
+        @Test
+    void testConnectionClosesCursorsWhenTransactionOrConnectionEnds() throws Exception {
+        connection.setAutoCommit(false);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("DECLARE plain CURSOR FOR SELECT id FROM items");
+            stmt.execute("DECLARE kept CURSOR WITH HOLD FOR SELECT id FROM items");
+            stmt.execute("DECLARE other CURSOR WITHOUT HOLD FOR SELECT id FROM items");
+            connection.commit();
+
+            SqlExecutionException e = assertThrows(SqlExecutionException.class, () -> sqlEngine.execute("FETCH plain"));
+            assertEquals(SqlErrorCode.CURSOR_NOT_FOUND, e.getErrorCodeEnum());
+            assertThrows(SqlExecutionException.class, () -> sqlEngine.execute("FETCH other"));
+            assertEquals(1, sqlEngine.execute("FETCH kept").getRows().size());
+
+            stmt.execute("DECLARE plain CURSOR FOR SELECT id FROM items");
+            connection.rollback();
+            assertThrows(SqlExecutionException.class, () -> sqlEngine.execute("FETCH plain"));
+            assertEquals(1, sqlEngine.execute("FETCH kept").getRows().size());
+        }
+
+        connection.close();
+        assertThrows(SqlExecutionException.class, () -> sqlEngine.execute("FETCH kept"));
+    }
+
+        @Test
+    void testResultSetWithFetchSize() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.setFetchSize(64);
+            assertEquals(64, stmt.getFetchSize());
+
+            ResultSet rs = stmt.executeQuery("SELECT id, name FROM items");
+            assertEquals(64, rs.getFetchSize());
+            int count = 0;
+            long sum = 0;
+            while (rs.next()) {
+                count++;
+                sum += rs.getInt(1);
+                assertEquals("item" + rs.getInt("id"), rs.getString(2));
+                assertEquals(count, rs.getRow());
+            }
+            assertEquals(1_000, count);
+            assertEquals(500_500, sum);
+            assertTrue(rs.isAfterLast());
+
+            assertThrows(SQLException.class, rs::previous);
+            rs.close();
+            assertTrue(rs.isClosed());
+            assertThrows(SQLException.class, rs::next);
+        }
+    }
+
+    @Test
+    void testPreparedStatementWithFetchSize() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT name FROM items WHERE id > ?")) {
+            ps.setFetchSize(10);
+            ps.setInt(1, 975);
+            try (ResultSet rs = ps.executeQuery()) {
+                int count = 0;
+                while (rs.next()) {
+                    count++;
+                    assertEquals(count == 25, rs.isLast());
+                }
+                assertEquals(25, count);
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.memgres.sql;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionResult;
+import com.memgres.storage.Table;
+import com.memgres.transaction.TransactionIsolationLevel;
+import com.memgres.types.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for hash-based equi-joins, covering both the sequential
+ * path and the parallel radix-partitioned path used for large inputs.
+ */
+class HashJoinIntegrationTest {
+
+    private MemGresEngine engine;
+    private SqlExecutionEngine sqlEngine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemGresEngine();
+        engine.initialize();
+        sqlEngine = new SqlExecutionEngine(engine);
+
+        execute("CREATE TABLE customers (id INTEGER, name VARCHAR)");
+        execute("CREATE TABLE orders (id INTEGER, customer_id INTEGER, amount INTEGER)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    private SqlExecutionResult execute(String sql) throws Exception {
+        return sqlEngine.execute(sql, TransactionIsolationLevel.READ_COMMITTED);
+    }
+
+    /**
+     * Load customers 0..customerCount-1 and orders whose customer_id cycles through
+     * 0..customerCount+9, so the last ten customer ids have no matching customer.
+     */
+    private void load(int customerCount, int orderCount) {
+        Table customers = engine.getTable("public", "customers");
+        Table orders = engine.getTable("public", "orders");
+        for (int i = 0; i < customerCount; i++) {
+            customers.insertRow(new Object[]{i, "customer" + i});
+        }
+        for (int i = 0; i < orderCount; i++) {
+            orders.insertRow(new Object[]{i, i % (customerCount + 10), i});
+        }
+    }
+
+    @Test
+    void testInnerHashJoin() throws Exception {
+        load(200, 1000);
+
+        SqlExecutionResult result = execute(
+            "SELECT * FROM orders INNER JOIN customers ON orders.customer_id = customers.id");
+
+        // 1000 orders over 210 customer ids: ids 200..209 are unmatched
+        int expected = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (i % 210 < 200) {
+                expected++;
+            }
+        }
+        assertEquals(expected, result.getRows().size());
+        for (Row row : result.getRows()) {
+            assertEquals(row.getData()[1], row.getData()[3]);
+        }
+    }
+
+    @Test
+    void testOuterHashJoins() throws Exception {
+        load(300, 200);
+
+        SqlExecutionResult left = execute(
+            "SELECT * FROM orders LEFT JOIN customers ON orders.customer_id = customers.id");
+        assertEquals(200, left.getRows().size());
+
+        SqlExecutionResult right = execute(
+            "SELECT * FROM orders RIGHT JOIN customers ON orders.customer_id = customers.id");
+        // Every order matches one of 300 customers; 100 customers have no orders
+        assertEquals(300, right.getRows().size());
+        long unmatchedCustomers = right.getRows().stream().filter(r -> r.getData()[0] == null).count();
+        assertEquals(100, unmatchedCustomers);
+
+        execute("INSERT INTO orders VALUES (9999, 5000, 1)");
+        SqlExecutionResult full = execute(
+            "SELECT * FROM orders FULL OUTER JOIN customers ON orders.customer_id = customers.id");
+        assertEquals(201 + 100, full.getRows().size());
+    }
+
+    @Test
+    void testFullOuterHashJoinKeepsNullKeyRows() throws Exception {
+        execute("CREATE TABLE l (id INTEGER, k INTEGER)");
+        execute("CREATE TABLE r (id INTEGER, k INTEGER)");
+        Table leftTable = engine.getTable("public", "l");
+        Table rightTable = engine.getTable("public", "r");
+        for (int i = 0; i < 150; i++) {
+            // Every tenth row on each side has a NULL key; the other keys never match
+            leftTable.insertRow(new Object[]{i, i % 10 == 0 ? null : i});
+            rightTable.insertRow(new Object[]{i, i % 10 == 0 ? null : 1000 + i});
+        }
+
+        SqlExecutionResult full = execute("SELECT * FROM l FULL OUTER JOIN r ON l.k = r.k");
+        assertEquals(300, full.getRows().size());
+        long leftNullKeys = full.getRows().stream()
+            .filter(row -> row.getData()[0] != null && row.getData()[1] == null).count();
+        assertEquals(15, leftNullKeys);
+        for (Row row : full.getRows()) {
+            assertTrue(row.getData()[0] == null ^ row.getData()[2] == null, "No row should be matched");
+        }
+
+        SqlExecutionResult filtered = execute("SELECT * FROM l FULL OUTER JOIN r ON l.k = r.k WHERE l.id = 0");
+        assertEquals(1, filtered.getRows().size());
+        assertNull(filtered.getRows().get(0).getData()[2]);
+    }
+
+    @Test
+    void testHashJoinWithAliasesAndReversedCondition() throws Exception {
+        load(150, 150);
+
+        SqlExecutionResult result = execute(
+            "SELECT * FROM customers c INNER JOIN orders o ON o.customer_id = c.id");
+
+        assertEquals(150, result.getRows().size());
+        for (Row row : result.getRows()) {
+            assertEquals(row.getData()[0], row.getData()[3]);
+        }
+    }
+
+    @Test
+    void testHashJoinMatchesMixedNumericTypes() throws Exception {
+        execute("CREATE TABLE accounts (id BIGINT, label VARCHAR)");
+        Table accounts = engine.getTable("public", "accounts");
+        for (long i = 0; i < 200; i++) {
+            accounts.insertRow(new Object[]{i, "account" + i});
+        }
+        load(10, 200);
+
+        SqlExecutionResult result = execute(
+            "SELECT * FROM orders INNER JOIN accounts ON orders.id = accounts.id");
+
+        assertEquals(200, result.getRows().size());
+    }
+
+    @Test
+    void testCompositeKeyHashJoin() throws Exception {
+        load(50, 300);
+        execute("CREATE TABLE shipments (order_id INTEGER, customer_id INTEGER, carrier VARCHAR)");
+        Table shipments = engine.getTable("public", "shipments");
+        for (int i = 0; i < 300; i++) {
+            // Every third shipment carries a customer id that disagrees with its order
+            int customerId = i % 3 == 0 ? -1 : i % 60;
+            shipments.insertRow(new Object[]{i, customerId, "carrier" + (i % 4)});
+        }
+
+        SqlExecutionResult result = execute(
+            "SELECT * FROM orders INNER JOIN shipments " +
+            "ON orders.id = shipments.order_id AND orders.customer_id = shipments.customer_id");
+
+        assertEquals(200, result.getRows().size());
+        for (Row row : result.getRows()) {
+            assertEquals(row.getData()[0], row.getData()[3]);
+            assertEquals(row.getData()[1], row.getData()[4]);
+        }
+    }
+
+    @Test
+    void testHashJoinWithResidualPredicate() throws Exception {
+        load(200, 400);
+
+        SqlExecutionResult inner = execute(
+            "SELECT * FROM orders INNER JOIN customers " +
+            "ON orders.customer_id = customers.id AND orders.amount <> orders.customer_id");
+        // Only orders 210..399 have amount != customer_id; all of them reference customers 0..189
+        assertEquals(190, inner.getRows().size());
+
+        SqlExecutionResult left = execute(
+            "SELECT * FROM orders LEFT JOIN customers " +
+            "ON orders.customer_id = customers.id AND orders.amount <> orders.customer_id");
+        assertEquals(400, left.getRows().size());
+        long padded = left.getRows().stream().filter(r -> r.getData()[3] == null).count();
+        assertEquals(210, padded);
+
+        SqlExecutionResult full = execute(
+            "SELECT * FROM orders FULL OUTER JOIN customers " +
+            "ON orders.customer_id = customers.id AND orders.amount <> orders.customer_id");
+        // 190 matched pairs, 210 unmatched orders and customers 190..199 never matched
+        assertEquals(410, full.getRows().size());
+    }
+
+    @Test
+    void testParallelPartitionedHashJoin() throws Exception {
+        load(20_000, 60_000);
+
+        SqlExecutionResult result = execute(
+            "SELECT * FROM orders LEFT JOIN customers ON orders.customer_id = customers.id");
+
+        List<Row> rows = result.getRows();
+        assertEquals(60_000, rows.size());
+
+        // Output keeps the probe (left) order and pads unmatched orders with NULLs
+        Set<Object> seenOrders = new HashSet<>();
+        int unmatched = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] data = rows.get(i).getData();
+            assertEquals(i, data[0]);
+            assertTrue(seenOrders.add(data[0]));
+            if (data[3] == null) {
+                unmatched++;
+                assertTrue((Integer) data[1] >= 20_000);
+            } else {
+                assertEquals(data[1], data[3]);
+            }
+        }
+        assertEquals(60_000 - countMatched(20_000, 60_000), unmatched);
+    }
+
+    private int countMatched(int customerCount, int orderCount) {
+        int matched = 0;
+        for (int i = 0; i < orderCount; i++) {
+            if (i % (customerCount + 10) < customerCount) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
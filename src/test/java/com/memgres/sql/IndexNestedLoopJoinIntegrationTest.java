@@ -0,0 +1,147 @@
+package com.memgres.sql;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionResult;
+import com.memgres.storage.Table;
+import com.memgres.transaction.TransactionIsolationLevel;
+import com.memgres.types.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for index nested-loop joins, where a small outer side probes an index
+ * on a large inner table instead of scanning it.
+ */
+class IndexNestedLoopJoinIntegrationTest {
+
+    private MemGresEngine engine;
+    private SqlExecutionEngine sqlEngine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemGresEngine();
+        engine.initialize();
+        sqlEngine = new SqlExecutionEngine(engine);
+
+        execute("CREATE TABLE parents (id INTEGER, name VARCHAR)");
+        execute("CREATE TABLE children (id INTEGER, parent_id BIGINT, kind INTEGER)");
+
+        Table parents = engine.getTable("public", "parents");
+        for (int i = 0; i < 5; i++) {
+            parents.insertRow(new Object[]{i * 100, "parent" + i});
+        }
+        // Five children per parent id in 0..999 except 400, with kinds alternating 0, 1, 0, 1, 0
+        Table children = engine.getTable("public", "children");
+        for (int i = 0; i < 5000; i++) {
+            long parentId = i % 1000 == 400 ? 401 : i % 1000;
+            children.insertRow(new Object[]{i, parentId, (i / 1000) % 2});
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    private SqlExecutionResult execute(String sql) throws Exception {
+        return sqlEngine.execute(sql, TransactionIsolationLevel.READ_COMMITTED);
+    }
+
+    @Test
+    void testInnerJoinProbesSingleColumnIndex() throws Exception {
+        String sql = "SELECT * FROM parents INNER JOIN children ON parents.id = children.parent_id";
+        List<Row> scanned = execute(sql).getRows();
+
+        execute("CREATE INDEX idx_children_parent ON children (parent_id)");
+        List<Row> probed = execute(sql).getRows();
+
+        // Parents 0, 100, 200, 300 have five children each; the index probe keeps parent order
+        assertEquals(20, probed.size());
+        assertEquals(contents(scanned), contents(probed));
+        for (int i = 0; i < probed.size(); i++) {
+            assertEquals((i / 5) * 100, probed.get(i).getData()[0]);
+            assertEquals(((Integer) probed.get(i).getData()[0]).longValue(), probed.get(i).getData()[3]);
+        }
+    }
+
+    private static Set<String> contents(List<Row> rows) {
+        Set<String> contents = new HashSet<>();
+        for (Row row : rows) {
+            contents.add(Arrays.toString(row.getData()));
+        }
+        return contents;
+    }
+
+    @Test
+    void testLeftJoinWithResidualPadsUnmatchedParents() throws Exception {
+        execute("CREATE INDEX idx_children_parent ON children (parent_id)");
+
+        SqlExecutionResult result = execute(
+            "SELECT * FROM parents p LEFT JOIN children c ON c.parent_id = p.id AND c.kind <> 1");
+
+        // Three kind-0 children for each of parents 0..300; parent 400 has none
+        int matched = 0;
+        int padded = 0;
+        for (Row row : result.getRows()) {
+            Object[] data = row.getData();
+            if (data[2] == null) {
+                padded++;
+            } else {
+                matched++;
+                assertEquals(0, data[4]);
+            }
+        }
+        assertEquals(12, matched);
+        assertEquals(1, padded);
+        assertEquals(13, result.getRows().size());
+    }
+
+    @Test
+    void testCompositeIndexLookup() throws Exception {
+        execute("CREATE TABLE wanted (parent_id INTEGER, kind INTEGER)");
+        execute("INSERT INTO wanted VALUES (0, 1)");
+        execute("INSERT INTO wanted VALUES (200, 0)");
+        execute("INSERT INTO wanted VALUES (400, 0)");
+        execute("CREATE INDEX idx_children_parent_kind ON children (parent_id, kind)");
+
+        SqlExecutionResult result = execute(
+            "SELECT * FROM wanted INNER JOIN children " +
+            "ON wanted.parent_id = children.parent_id AND wanted.kind = children.kind");
+
+        // Parent 0 has two kind-1 children, parent 200 three kind-0 children, parent 400 none
+        assertEquals(5, result.getRows().size());
+        for (Row row : result.getRows()) {
+            Object[] data = row.getData();
+            assertEquals(((Integer) data[0]).longValue(), data[3]);
+            assertEquals(data[1], data[4]);
+        }
+    }
+
+    @Test
+    void testIndexProbeSeesUpdatesAndDeletes() throws Exception {
+        execute("CREATE INDEX idx_children_parent ON children (parent_id)");
+        execute("DELETE FROM children WHERE parent_id = 100");
+        execute("UPDATE children SET parent_id = 200 WHERE id = 300");
+
+        SqlExecutionResult result = execute(
+            "SELECT * FROM parents INNER JOIN children ON parents.id = children.parent_id");
+
+        long parent100 = result.getRows().stream().filter(r -> r.getData()[0].equals(100)).count();
+        long parent200 = result.getRows().stream().filter(r -> r.getData()[0].equals(200)).count();
+        long parent300 = result.getRows().stream().filter(r -> r.getData()[0].equals(300)).count();
+        assertEquals(0, parent100);
+        assertEquals(6, parent200);
+        assertEquals(4, parent300);
+    }
+}
@@ -0,0 +1,170 @@
+package com.memgres.sql;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionResult;
+import com.memgres.storage.Table;
+import com.memgres.transaction.TransactionIsolationLevel;
+import com.memgres.types.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for comma-separated FROM lists and cost-based ordering of INNER joins.
+ */
+class JoinOrderingIntegrationTest {
+
+    private MemGresEngine engine;
+    private SqlExecutionEngine sqlEngine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemGresEngine();
+        engine.initialize();
+        sqlEngine = new SqlExecutionEngine(engine);
+
+        execute("CREATE TABLE regions (id INTEGER, region_name VARCHAR)");
+        execute("CREATE TABLE stores (id INTEGER, region_id INTEGER, store_name VARCHAR)");
+        execute("CREATE TABLE products (id INTEGER, category VARCHAR)");
+        execute("CREATE TABLE sales (id INTEGER, store_id INTEGER, product_id INTEGER, quantity INTEGER)");
+
+        Table regions = engine.getTable("public", "regions");
+        for (int i = 0; i < 4; i++) {
+            regions.insertRow(new Object[]{i, "region" + i});
+        }
+        Table stores = engine.getTable("public", "stores");
+        for (int i = 0; i < 40; i++) {
+            stores.insertRow(new Object[]{i, i % 4, "store" + i});
+        }
+        Table products = engine.getTable("public", "products");
+        for (int i = 0; i < 200; i++) {
+            products.insertRow(new Object[]{i, "category" + (i % 5)});
+        }
+        Table sales = engine.getTable("public", "sales");
+        for (int i = 0; i < 5000; i++) {
+            sales.insertRow(new Object[]{i, i % 45, i % 200, i % 7});
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    private SqlExecutionResult execute(String sql) throws Exception {
+        return sqlEngine.execute(sql, TransactionIsolationLevel.READ_COMMITTED);
+    }
+
+    private static Set<String> contents(List<Row> rows) {
+        Set<String> contents = new HashSet<>();
+        for (Row row : rows) {
+            contents.add(Arrays.toString(row.getData()));
+        }
+        return contents;
+    }
+
+    @Test
+    void testCommaJoinWithWherePredicates() throws Exception {
+        SqlExecutionResult result = execute(
+            "SELECT * FROM sales, stores, regions " +
+            "WHERE sales.store_id = stores.id AND stores.region_id = regions.id AND regions.id = 2");
+
+        int expected = 0;
+        for (int i = 0; i < 5000; i++) {
+            if (i % 45 < 40 && (i % 45) % 4 == 2) {
+                expected++;
+            }
+        }
+        assertEquals(expected, result.getRows().size());
+        // Columns stay in FROM order: sales (4), stores (3), regions (2)
+        assertEquals(9, result.getColumns().size());
+        for (Row row : result.getRows()) {
+            Object[] data = row.getData();
+            assertEquals(data[1], data[4]);
+            assertEquals(data[5], data[7]);
+            assertEquals(2, data[7]);
+        }
+    }
+
+    @Test
+    void testCommaJoinProjection() throws Exception {
+        List<Row> rows = execute(
+            "SELECT sales.id, stores.store_name, products.category FROM sales, stores, products " +
+            "WHERE sales.store_id = stores.id AND sales.product_id = products.id").getRows();
+
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 5000; i++) {
+            if (i % 45 < 40) {
+                expected.add(Arrays.toString(new Object[]{i, "store" + (i % 45), "category" + (i % 200 % 5)}));
+            }
+        }
+        assertEquals(expected.size(), rows.size());
+        assertEquals(expected, contents(rows));
+    }
+
+    @Test
+    void testReorderedInnerJoinChain() throws Exception {
+        // Written fact-first; the planner starts from the small dimensions instead
+        SqlExecutionResult result = execute(
+            "SELECT * FROM sales s " +
+            "INNER JOIN products p ON s.product_id = p.id " +
+            "INNER JOIN stores st ON s.store_id = st.id " +
+            "INNER JOIN regions r ON st.region_id = r.id AND r.region_name <> 'region0'");
+
+        int expected = 0;
+        for (int i = 0; i < 5000; i++) {
+            if (i % 45 < 40 && (i % 45) % 4 != 0) {
+                expected++;
+            }
+        }
+        assertEquals(expected, result.getRows().size());
+        assertEquals(11, result.getColumns().size());
+        for (Row row : result.getRows()) {
+            Object[] data = row.getData();
+            assertEquals(data[2], data[4]);
+            assertEquals(data[1], data[6]);
+            assertEquals(data[7], data[9]);
+            assertNotEquals("region0", data[10]);
+        }
+
+        // Qualified references in WHERE and SELECT resolve against the written column order
+        SqlExecutionResult projected = execute(
+            "SELECT st.store_name, r.region_name FROM sales s " +
+            "INNER JOIN stores st ON s.store_id = st.id " +
+            "INNER JOIN regions r ON st.region_id = r.id WHERE s.id = 13");
+        assertEquals(1, projected.getRows().size());
+        assertEquals("store13", projected.getRows().get(0).getData()[0]);
+        assertEquals("region1", projected.getRows().get(0).getData()[1]);
+    }
+
+    @Test
+    void testCommaJoinWithOuterJoinedItem() throws Exception {
+        SqlExecutionResult result = execute(
+            "SELECT * FROM regions LEFT JOIN stores ON regions.id = stores.region_id AND stores.id < 4, products " +
+            "WHERE products.id < 3");
+
+        // Each region keeps exactly one store (ids 0..3), crossed with three products
+        assertEquals(12, result.getRows().size());
+        for (Row row : result.getRows()) {
+            Object[] data = row.getData();
+            assertEquals(data[0], data[3]);
+        }
+    }
+
+    @Test
+    void testCommaCrossProduct() throws Exception {
+        SqlExecutionResult result = execute("SELECT * FROM regions, stores");
+        assertEquals(4 * 40, result.getRows().size());
+        assertEquals(5, result.getColumns().size());
+    }
+}
@@ -0,0 +1,114 @@
+package com.memgres.sql;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionResult;
+import com.memgres.storage.Table;
+import com.memgres.transaction.TransactionIsolationLevel;
+import com.memgres.types.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for ORDER BY with a constant LIMIT, which keeps only the leading rows
+ * in a bounded heap instead of sorting the whole result.
+ */
+class OrderByLimitIntegrationTest {
+
+    private static final int ROWS = 10_000;
+
+    private MemGresEngine engine;
+    private SqlExecutionEngine sqlEngine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemGresEngine();
+        engine.initialize();
+        sqlEngine = new SqlExecutionEngine(engine);
+
+        execute("CREATE TABLE scores (id INTEGER, player VARCHAR, score INTEGER)");
+        Table scores = engine.getTable("public", "scores");
+        for (int i = 0; i < ROWS; i++) {
+            // Scores repeat every 1000 rows, so every score is shared by ten players
+            scores.insertRow(new Object[]{i, "player" + (i % 250), (i * 37) % 1000});
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    private SqlExecutionResult execute(String sql) throws Exception {
+        return sqlEngine.execute(sql, TransactionIsolationLevel.READ_COMMITTED);
+    }
+
+    private static void assertSameRows(List<Row> expected, List<Row> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i).getData(), actual.get(i).getData(), "row " + i);
+        }
+    }
+
+    @Test
+    void testLimitMatchesPrefixOfFullSort() throws Exception {
+        List<Row> sorted = execute("SELECT * FROM scores ORDER BY score DESC").getRows();
+        List<Row> top = execute("SELECT * FROM scores ORDER BY score DESC LIMIT 50").getRows();
+
+        assertSameRows(sorted.subList(0, 50), top);
+        assertEquals(999, top.get(0).getData()[2]);
+        assertEquals(995, top.get(49).getData()[2]);
+    }
+
+    @Test
+    void testTiesKeepInputOrder() throws Exception {
+        List<Row> top = execute("SELECT * FROM scores ORDER BY score LIMIT 25").getRows();
+
+        assertEquals(25, top.size());
+        int previousId = -1;
+        for (int i = 0; i < 25; i++) {
+            Object[] data = top.get(i).getData();
+            assertEquals(i / 10, data[2]);
+            int id = (Integer) data[0];
+            if (i % 10 != 0) {
+                assertTrue(id > previousId, "ties must stay in input order");
+            }
+            previousId = id;
+        }
+    }
+
+    @Test
+    void testLimitWithOffsetAndProjection() throws Exception {
+        List<Row> sorted = execute("SELECT id, score FROM scores ORDER BY score DESC, id").getRows();
+        List<Row> page = execute("SELECT id, score FROM scores ORDER BY score DESC, id LIMIT 10 OFFSET 95").getRows();
+
+        assertSameRows(sorted.subList(95, 105), page);
+    }
+
+    @Test
+    void testLimitOnAggregatedRows() throws Exception {
+        List<Row> rows = execute(
+            "SELECT player, MAX(score) AS best FROM scores GROUP BY player ORDER BY player DESC LIMIT 3").getRows();
+
+        assertEquals(3, rows.size());
+        assertEquals("player99", rows.get(0).getData()[0]);
+        assertEquals("player98", rows.get(1).getData()[0]);
+        assertEquals("player97", rows.get(2).getData()[0]);
+    }
+
+    @Test
+    void testZeroAndOversizedLimits() throws Exception {
+        assertEquals(0, execute("SELECT * FROM scores ORDER BY score LIMIT 0").getRows().size());
+
+        List<Row> sorted = execute("SELECT * FROM scores ORDER BY score, id").getRows();
+        List<Row> all = execute("SELECT * FROM scores ORDER BY score, id LIMIT 20000").getRows();
+        assertSameRows(sorted, all);
+    }
+}
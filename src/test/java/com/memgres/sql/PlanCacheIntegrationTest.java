@@ -0,0 +1,106 @@
+package com.memgres.sql;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.monitoring.PerformanceMonitor;
+import com.memgres.monitoring.PerformanceStatistics;
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionResult;
+import com.memgres.types.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for cached query rewrites over views, and their invalidation when a table
+ * or view the query names changes.
+ */
+class PlanCacheIntegrationTest {
+
+    private MemGresEngine engine;
+    private SqlExecutionEngine sqlEngine;
+    private PerformanceMonitor monitor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemGresEngine();
+        engine.initialize();
+        sqlEngine = new SqlExecutionEngine(engine);
+        monitor = PerformanceMonitor.getInstance();
+
+        sqlEngine.execute("CREATE TABLE items (id INTEGER, price INTEGER)");
+        for (int id = 1; id <= 6; id++) {
+            sqlEngine.execute("INSERT INTO items (id, price) VALUES (" + id + ", " + id * 10 + ")");
+        }
+        sqlEngine.execute("CREATE VIEW cheap_items AS SELECT id, price FROM items WHERE price < 40");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    private List<Integer> ids(String sql) throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (Row row : sqlEngine.execute(sql).getRows()) {
+            ids.add(((Number) row.getData()[0]).intValue());
+        }
+        return ids;
+    }
+
+    @Test
+    void testRewriteIsReusedUntilViewChanges() throws Exception {
+        String sql = "SELECT id FROM cheap_items WHERE id > 1 ORDER BY id";
+        assertEquals(List.of(2, 3), ids(sql));
+
+        PerformanceStatistics before = monitor.getStatistics();
+        assertEquals(List.of(2, 3), ids(sql));
+        assertEquals(List.of(2, 3), ids(sql));
+        PerformanceStatistics after = monitor.getStatistics();
+        assertEquals(2, after.getPlanCacheHits() - before.getPlanCacheHits());
+
+        sqlEngine.execute("DROP VIEW cheap_items");
+        sqlEngine.execute("CREATE VIEW cheap_items AS SELECT id, price FROM items WHERE price < 60");
+        assertEquals(List.of(2, 3, 4, 5), ids(sql));
+        assertTrue(monitor.getStatistics().getPlanCacheInvalidations() > after.getPlanCacheInvalidations());
+    }
+
+    @Test
+    void testTableReplacingViewIsRead() throws Exception {
+        String sql = "SELECT id FROM cheap_items ORDER BY id";
+        assertEquals(List.of(1, 2, 3), ids(sql));
+
+        sqlEngine.execute("DROP VIEW cheap_items");
+        sqlEngine.execute("CREATE TABLE cheap_items (id INTEGER, price INTEGER)");
+        sqlEngine.execute("INSERT INTO cheap_items (id, price) VALUES (9, 1)");
+        assertEquals(List.of(9), ids(sql));
+
+        sqlEngine.execute("DROP TABLE cheap_items");
+        sqlEngine.execute("CREATE VIEW cheap_items AS SELECT id, price FROM items WHERE price > 50");
+        assertEquals(List.of(6), ids(sql));
+    }
+
+    @Test
+    void testCachedRewriteAfterIndexAndAlter() throws Exception {
+        String sql = "SELECT id, price FROM cheap_items WHERE price > 10";
+        assertEquals(2, sqlEngine.execute(sql).getRows().size());
+
+        long version = engine.getSchema("public").getObjectVersion("items");
+        sqlEngine.execute("CREATE INDEX idx_items_price ON items (price)");
+        assertNotEquals(version, engine.getSchema("public").getObjectVersion("items"));
+
+        version = engine.getSchema("public").getObjectVersion("items");
+        sqlEngine.execute("ALTER TABLE items ADD COLUMN label VARCHAR");
+        assertNotEquals(version, engine.getSchema("public").getObjectVersion("items"));
+
+        SqlExecutionResult result = sqlEngine.execute(sql);
+        assertEquals(2, result.getRows().size());
+        assertEquals(2, result.getColumns().size());
+    }
+}
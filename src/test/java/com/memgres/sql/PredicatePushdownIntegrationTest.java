@@ -0,0 +1,192 @@
+package com.memgres.sql;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionResult;
+import com.memgres.storage.Table;
+import com.memgres.transaction.TransactionIsolationLevel;
+import com.memgres.types.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for WHERE conjuncts applied below joins and inside CTEs. Cancelled orders
+ * have a zero divisor, so a join condition or CTE dividing by it only succeeds when those rows
+ * are filtered out before the join or the CTE evaluates it.
+ */
+class PredicatePushdownIntegrationTest {
+
+    private static final int ORDERS = 2_000;
+    private static final int CUSTOMERS = 50;
+
+    private MemGresEngine engine;
+    private SqlExecutionEngine sqlEngine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemGresEngine();
+        engine.initialize();
+        sqlEngine = new SqlExecutionEngine(engine);
+
+        execute("CREATE TABLE regions (name VARCHAR, manager VARCHAR)");
+        execute("CREATE TABLE customers (id INTEGER, region VARCHAR)");
+        execute("CREATE TABLE orders (id INTEGER, customer_id INTEGER, status VARCHAR, amount INTEGER, divisor INTEGER)");
+        Table regions = engine.getTable("public", "regions");
+        for (int region = 0; region < 3; region++) {
+            regions.insertRow(new Object[]{"r" + region, "m" + region});
+        }
+        Table customers = engine.getTable("public", "customers");
+        for (int id = 0; id < CUSTOMERS; id++) {
+            customers.insertRow(new Object[]{id, region(id)});
+        }
+        Table orders = engine.getTable("public", "orders");
+        for (int id = 0; id < ORDERS; id++) {
+            orders.insertRow(new Object[]{id, id % CUSTOMERS, status(id), id % 100, divisor(id)});
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    private SqlExecutionResult execute(String sql) throws Exception {
+        return sqlEngine.execute(sql, TransactionIsolationLevel.READ_COMMITTED);
+    }
+
+    private static String region(int customerId) {
+        return "r" + customerId % 3;
+    }
+
+    private static String status(int orderId) {
+        return orderId % 4 == 0 ? "cancelled" : orderId % 4 == 1 ? "pending" : "active";
+    }
+
+    private static int divisor(int orderId) {
+        return orderId % 4 == 0 ? 0 : orderId % 7 + 1;
+    }
+
+    private Set<Integer> ids(String sql) throws Exception {
+        Set<Integer> ids = new HashSet<>();
+        for (Row row : execute(sql).getRows()) {
+            ids.add(((Number) row.getData()[0]).intValue());
+        }
+        return ids;
+    }
+
+    private static Set<Integer> expectedOrders(String status, String region) {
+        Set<Integer> ids = new HashSet<>();
+        for (int id = 0; id < ORDERS; id++) {
+            if (status(id).equals(status) && (region == null || region(id % CUSTOMERS).equals(region))) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    @Test
+    void testFilterIsAppliedToJoinInputs() throws Exception {
+        // Explicit join executed as written: the base table is filtered before the ON condition
+        Set<Integer> active = ids("""
+            SELECT o.id FROM orders o LEFT JOIN customers c ON c.id = o.customer_id AND 1000 / o.divisor > 0
+            WHERE o.status = 'active'
+            """);
+        assertEquals(expectedOrders("active", null), active);
+
+        // Reordered inner join chain: each table is filtered before the join order is planned
+        Set<Integer> pending = ids("""
+            SELECT o.id FROM orders o
+            JOIN customers c ON o.customer_id = c.id AND 1000 / o.divisor > 0
+            JOIN regions r ON r.name = c.region
+            WHERE o.status = 'pending' AND r.manager = 'm1' AND c.id >= 0
+            """);
+        assertEquals(expectedOrders("pending", "r1"), pending);
+
+        // Comma join with the filters and the join predicate all in WHERE
+        List<Row> rows = execute("""
+            SELECT o.id, c.region FROM orders o, customers c
+            WHERE o.customer_id = c.id AND o.amount = 42 AND c.region = 'r0'
+            """).getRows();
+        for (Row row : rows) {
+            int id = ((Number) row.getData()[0]).intValue();
+            assertEquals(42, id % 100);
+            assertEquals("r0", row.getData()[1]);
+        }
+        assertEquals(ORDERS / 100, rows.size());
+    }
+
+    @Test
+    void testFilterOnNullPaddedSideStaysAboveOuterJoin() throws Exception {
+        // Filtering orders first would keep a padded row for every customer without a large order
+        Set<Integer> withLargeOrders = ids("""
+            SELECT c.id FROM customers c LEFT JOIN orders o ON o.customer_id = c.id
+            WHERE o.amount > 98
+            """);
+        Set<Integer> expected = new HashSet<>();
+        for (int id = 0; id < ORDERS; id++) {
+            if (id % 100 > 98) {
+                expected.add(id % CUSTOMERS);
+            }
+        }
+        assertEquals(expected, withLargeOrders);
+
+        // The preserved side of a RIGHT join is still filtered
+        Set<Integer> customers = ids("""
+            SELECT c.id FROM orders o RIGHT JOIN customers c ON o.customer_id = c.id AND o.amount = 1000
+            WHERE c.region = 'r0'
+            """);
+        Set<Integer> r0 = new HashSet<>();
+        for (int customer = 0; customer < CUSTOMERS; customer += 3) {
+            r0.add(customer);
+        }
+        assertEquals(r0, customers);
+    }
+
+    @Test
+    void testPredicateIsPushedIntoCteReadOnce() throws Exception {
+        Set<Integer> pending = ids("""
+            WITH ratios AS (SELECT id, status, 1000 / divisor AS ratio FROM orders)
+            SELECT id, ratio FROM ratios WHERE status = 'pending'
+            """);
+        assertEquals(expectedOrders("pending", null), pending);
+
+        // A CTE with renamed columns, joined to a table
+        Set<Integer> active = ids("""
+            WITH ratios(order_id, order_status, customer, ratio) AS (
+                SELECT id, status, customer_id, 1000 / divisor FROM orders
+            )
+            SELECT r.order_id FROM ratios r JOIN customers c ON c.id = r.customer
+            WHERE r.order_status = 'active' AND c.region = 'r2'
+            """);
+        assertEquals(expectedOrders("active", "r2"), active);
+    }
+
+    @Test
+    void testCteReadTwiceIsNotFilteredForOneReference() throws Exception {
+        // Pushing a.status into the CTE would leave nothing for b to match
+        Set<Integer> ids = ids("""
+            WITH s AS (SELECT id, status FROM orders)
+            SELECT a.id FROM s a JOIN s b ON b.id = a.id + 1
+            WHERE a.status = 'pending' AND b.status = 'active'
+            """);
+        assertEquals(expectedOrders("pending", null), ids);
+
+        // Grouped CTE: only predicates on grouping columns move below the aggregation
+        List<Row> rows = execute("""
+            WITH totals AS (SELECT status, COUNT(*) AS orders FROM orders GROUP BY status)
+            SELECT status, orders FROM totals WHERE status <> 'cancelled' AND orders > 600
+            """).getRows();
+        assertEquals(1, rows.size());
+        assertEquals("active", rows.get(0).getData()[0]);
+        assertEquals(ORDERS / 2, ((Number) rows.get(0).getData()[1]).intValue());
+    }
+}
@@ -109,12 +109,12 @@ class RecursiveCteTest {
     
     @Test
     void testRecursiveCteWithUnionValidation() throws Exception {
-        // Test that UNION (not UNION ALL) is rejected for recursive CTEs
+        // Test that INTERSECT and EXCEPT are rejected for recursive CTEs
         assertThrows(Exception.class, () -> {
             sqlEngine.execute(
                 "WITH RECURSIVE invalid_cte(n) AS (" +
                     "SELECT 1 " +
-                    "UNION " + // Should fail - must be UNION ALL
+                    "EXCEPT " + // Should fail - must be UNION or UNION ALL
                     "SELECT n + 1 FROM invalid_cte WHERE n < 3" +
                 ") " +
                 "SELECT n FROM invalid_cte"
@@ -122,6 +122,63 @@ class RecursiveCteTest {
         });
     }
     
+    @Test
+    void testRecursiveCteWithUnionRemovesDuplicates() throws Exception {
+        // Every step revisits 1, which UNION keeps only once, so the recursion terminates
+        SqlExecutionResult result = sqlEngine.execute(
+            "WITH RECURSIVE cycle_cte(n) AS (" +
+                "SELECT 1 " +
+                "UNION " +
+                "SELECT n % 3 + 1 FROM cycle_cte" +
+            ") " +
+            "SELECT n FROM cycle_cte ORDER BY n"
+        );
+        
+        List<Row> rows = result.getRows();
+        assertEquals(3, rows.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i + 1, ((Number) rows.get(i).getData()[0]).intValue());
+        }
+    }
+    
+    @Test
+    void testRecursiveCteIterationLimitIsAnError() throws Exception {
+        engine.setMaxRecursiveIterations(50);
+        
+        // UNION ALL keeps the duplicates of a cycle, so it never terminates on its own
+        Exception error = assertThrows(Exception.class, () -> sqlEngine.execute(
+            "WITH RECURSIVE cycle_cte(n) AS (" +
+                "SELECT 1 " +
+                "UNION ALL " +
+                "SELECT n % 3 + 1 FROM cycle_cte" +
+            ") " +
+            "SELECT n FROM cycle_cte"
+        ));
+        assertTrue(error.getMessage().contains("50 iterations"), error.getMessage());
+        
+        // A recursion within the limit is unaffected
+        SqlExecutionResult result = sqlEngine.execute(
+            "WITH RECURSIVE numbers_cte(n) AS (" +
+                "SELECT 1 " +
+                "UNION ALL " +
+                "SELECT n + 1 FROM numbers_cte WHERE n < 50" +
+            ") " +
+            "SELECT n FROM numbers_cte"
+        );
+        assertEquals(50, result.getRows().size());
+        
+        engine.setMaxRecursiveRows(20);
+        error = assertThrows(Exception.class, () -> sqlEngine.execute(
+            "WITH RECURSIVE numbers_cte(n) AS (" +
+                "SELECT 1 " +
+                "UNION ALL " +
+                "SELECT n + 1 FROM numbers_cte WHERE n < 30" +
+            ") " +
+            "SELECT n FROM numbers_cte"
+        ));
+        assertTrue(error.getMessage().contains("20 rows"), error.getMessage());
+    }
+    
     @Test
     void testNonRecursiveCteStillWorks() throws Exception {
         // Test that non-recursive CTEs continue to work
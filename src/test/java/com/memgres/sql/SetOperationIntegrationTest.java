@@ -0,0 +1,157 @@
+package com.memgres.sql;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionResult;
+import com.memgres.storage.Table;
+import com.memgres.transaction.TransactionIsolationLevel;
+import com.memgres.types.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for hash-based DISTINCT, set operations and recursive CTE deduplication
+ * on inputs large enough that quadratic duplicate checks would dominate.
+ */
+class SetOperationIntegrationTest {
+
+    private static final int ROWS = 20_000;
+
+    private MemGresEngine engine;
+    private SqlExecutionEngine sqlEngine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemGresEngine();
+        engine.initialize();
+        sqlEngine = new SqlExecutionEngine(engine);
+
+        execute("CREATE TABLE a (x INTEGER, tag VARCHAR)");
+        execute("CREATE TABLE b (x INTEGER, tag VARCHAR)");
+        Table a = engine.getTable("public", "a");
+        Table b = engine.getTable("public", "b");
+        for (int i = 0; i < ROWS; i++) {
+            // a holds 0..4999 four times over, b holds the multiples of 3 below 9000 twice
+            a.insertRow(new Object[]{i % 5000, "t" + (i % 5000) % 2});
+            if (i % 3 == 0 && i % 18000 < 9000) {
+                b.insertRow(new Object[]{i % 9000, "t" + (i % 9000) % 2});
+            }
+        }
+        // Rows with NULLs, which are not distinct from each other
+        a.insertRow(new Object[]{null, "n"});
+        a.insertRow(new Object[]{null, "n"});
+        b.insertRow(new Object[]{null, "n"});
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    private SqlExecutionResult execute(String sql) throws Exception {
+        return sqlEngine.execute(sql, TransactionIsolationLevel.READ_COMMITTED);
+    }
+
+    private static Set<List<Object>> rowSet(List<Row> rows) {
+        Set<List<Object>> set = new LinkedHashSet<>();
+        for (Row row : rows) {
+            assertTrue(set.add(Arrays.asList(row.getData())), "duplicate row " + Arrays.toString(row.getData()));
+        }
+        return set;
+    }
+
+    @Test
+    void testIntersectAndExcept() throws Exception {
+        Set<List<Object>> intersect = rowSet(execute("SELECT x, tag FROM a INTERSECT SELECT x, tag FROM b").getRows());
+        Set<List<Object>> except = rowSet(execute("SELECT x, tag FROM a EXCEPT SELECT x, tag FROM b").getRows());
+
+        Set<List<Object>> expectedIntersect = new LinkedHashSet<>();
+        Set<List<Object>> expectedExcept = new LinkedHashSet<>();
+        for (int x = 0; x < 5000; x++) {
+            List<Object> row = Arrays.asList(x, "t" + x % 2);
+            (x % 3 == 0 ? expectedIntersect : expectedExcept).add(row);
+        }
+        expectedIntersect.add(Arrays.asList(null, "n"));
+
+        assertEquals(expectedIntersect, intersect);
+        assertEquals(expectedExcept, except);
+    }
+
+    @Test
+    void testUnionRemovesDuplicatesFromBothInputs() throws Exception {
+        List<Row> rows = execute("SELECT x FROM a UNION SELECT x FROM b").getRows();
+
+        Set<List<Object>> distinct = rowSet(rows);
+        // 0..4999, the multiples of 3 from 5001 to 8997, and NULL
+        assertEquals(5000 + 1333 + 1, distinct.size());
+        assertTrue(distinct.contains(Arrays.asList((Object) null)));
+        // First occurrences keep their input order
+        assertEquals(0, rows.get(0).getData()[0]);
+        assertEquals(1, rows.get(1).getData()[0]);
+    }
+
+    @Test
+    void testUnionAllKeepsEveryRowInOrder() throws Exception {
+        List<Row> a = execute("SELECT x, tag FROM a").getRows();
+        List<Row> b = execute("SELECT x, tag FROM b").getRows();
+        List<Row> all = execute("SELECT x, tag FROM a UNION ALL SELECT x, tag FROM b UNION ALL SELECT x, tag FROM a")
+            .getRows();
+
+        assertEquals(2 * a.size() + b.size(), all.size());
+        List<Row> expected = new ArrayList<>(a);
+        expected.addAll(b);
+        expected.addAll(a);
+        int i = 0;
+        for (Row row : all) {
+            assertArrayEquals(expected.get(i++).getData(), row.getData());
+        }
+    }
+
+    @Test
+    void testSelectDistinctWithOrderByAndLimit() throws Exception {
+        Set<List<Object>> tags = rowSet(execute("SELECT DISTINCT tag FROM a").getRows());
+        assertEquals(Set.of(List.of("t0"), List.of("t1"), List.of("n")), tags);
+
+        List<Row> top = execute("SELECT DISTINCT x FROM a ORDER BY x DESC LIMIT 3").getRows();
+        assertEquals(3, top.size());
+        assertEquals(4999, top.get(0).getData()[0]);
+        assertEquals(4998, top.get(1).getData()[0]);
+        assertEquals(4997, top.get(2).getData()[0]);
+    }
+
+    @Test
+    void testRecursiveCteOverCyclicGraphTerminates() throws Exception {
+        execute("CREATE TABLE edges (src INTEGER, dst INTEGER)");
+        Table edges = engine.getTable("public", "edges");
+        for (int node = 0; node < 2000; node++) {
+            // A binary tree whose leaves wrap around, plus a link back to the root from every
+            // node, so every node is reached repeatedly
+            edges.insertRow(new Object[]{node, (2 * node + 1) % 2000});
+            edges.insertRow(new Object[]{node, (2 * node + 2) % 2000});
+            edges.insertRow(new Object[]{node, 0});
+        }
+
+        List<Row> reached = execute("""
+            WITH RECURSIVE reach(n) AS (
+                SELECT 0
+                UNION
+                SELECT e.dst FROM edges e JOIN reach r ON e.src = r.n
+            )
+            SELECT n FROM reach
+            """).getRows();
+
+        Set<List<Object>> nodes = rowSet(reached);
+        assertEquals(2000, nodes.size());
+    }
+}
@@ -0,0 +1,155 @@
+package com.memgres.sql;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionResult;
+import com.memgres.storage.Table;
+import com.memgres.transaction.TransactionIsolationLevel;
+import com.memgres.types.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for merge joins on pre-sorted inputs and band joins on range conditions.
+ */
+class SortMergeJoinIntegrationTest {
+
+    private MemGresEngine engine;
+    private SqlExecutionEngine sqlEngine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemGresEngine();
+        engine.initialize();
+        sqlEngine = new SqlExecutionEngine(engine);
+
+        execute("CREATE TABLE events (id INTEGER, ts INTEGER)");
+        execute("CREATE TABLE windows (id INTEGER, start_ts INTEGER, end_ts INTEGER)");
+
+        // Events at ts = 0, 3, 6, ... 1497; windows [20w, 20w + 9] for w = 0..49 cover ts 0..989
+        Table events = engine.getTable("public", "events");
+        for (int i = 0; i < 500; i++) {
+            events.insertRow(new Object[]{i, i * 3});
+        }
+        Table windows = engine.getTable("public", "windows");
+        for (int w = 0; w < 50; w++) {
+            windows.insertRow(new Object[]{w, w * 20, w * 20 + 9});
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    private SqlExecutionResult execute(String sql) throws Exception {
+        return sqlEngine.execute(sql, TransactionIsolationLevel.READ_COMMITTED);
+    }
+
+    private int countEventsInWindows() {
+        int count = 0;
+        for (int i = 0; i < 500; i++) {
+            int ts = i * 3;
+            for (int w = 0; w < 50; w++) {
+                if (ts >= w * 20 && ts <= w * 20 + 9) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Test
+    void testBandJoinWithBetween() throws Exception {
+        SqlExecutionResult result = execute(
+            "SELECT * FROM events INNER JOIN windows ON events.ts BETWEEN windows.start_ts AND windows.end_ts");
+
+        assertEquals(countEventsInWindows(), result.getRows().size());
+        for (Row row : result.getRows()) {
+            int ts = (Integer) row.getData()[1];
+            assertTrue(ts >= (Integer) row.getData()[3] && ts <= (Integer) row.getData()[4]);
+        }
+    }
+
+    @Test
+    void testBandJoinWithBoundsOnLeftSide() throws Exception {
+        SqlExecutionResult result = execute(
+            "SELECT * FROM windows INNER JOIN events " +
+            "ON windows.start_ts <= events.ts AND windows.end_ts > events.ts");
+
+        int expected = 0;
+        for (int i = 0; i < 500; i++) {
+            for (int w = 0; w < 50; w++) {
+                if (w * 20 <= i * 3 && w * 20 + 9 > i * 3) {
+                    expected++;
+                }
+            }
+        }
+        assertEquals(expected, result.getRows().size());
+    }
+
+    @Test
+    void testSingleInequalityJoin() throws Exception {
+        SqlExecutionResult result = execute(
+            "SELECT * FROM windows INNER JOIN events ON events.ts < windows.start_ts");
+
+        int expected = 0;
+        for (int i = 0; i < 500; i++) {
+            for (int w = 0; w < 50; w++) {
+                if (i * 3 < w * 20) {
+                    expected++;
+                }
+            }
+        }
+        assertEquals(expected, result.getRows().size());
+    }
+
+    @Test
+    void testLeftOuterBandJoinWithResidual() throws Exception {
+        SqlExecutionResult result = execute(
+            "SELECT * FROM events LEFT JOIN windows " +
+            "ON events.ts BETWEEN windows.start_ts AND windows.end_ts AND windows.id <> 0");
+
+        int matched = 0;
+        for (int i = 0; i < 500; i++) {
+            int ts = i * 3;
+            for (int w = 1; w < 50; w++) {
+                if (ts >= w * 20 && ts <= w * 20 + 9) {
+                    matched++;
+                }
+            }
+        }
+        long padded = result.getRows().stream().filter(r -> r.getData()[2] == null).count();
+        assertEquals(500 - matched, padded);
+        assertEquals(500, result.getRows().size());
+    }
+
+    @Test
+    void testMergeJoinOnSortedInputs() throws Exception {
+        execute("CREATE TABLE readings (event_id INTEGER, reading INTEGER)");
+        Table readings = engine.getTable("public", "readings");
+        // Two readings per even event id, inserted in event order
+        for (int i = 0; i < 500; i += 2) {
+            readings.insertRow(new Object[]{i, 1});
+            readings.insertRow(new Object[]{i, 2});
+        }
+        readings.insertRow(new Object[]{10_000, 3});
+
+        SqlExecutionResult inner = execute(
+            "SELECT * FROM events INNER JOIN readings ON events.id = readings.event_id");
+        assertEquals(500, inner.getRows().size());
+        for (Row row : inner.getRows()) {
+            assertEquals(row.getData()[0], row.getData()[2]);
+        }
+
+        SqlExecutionResult full = execute(
+            "SELECT * FROM events FULL OUTER JOIN readings ON events.id = readings.event_id");
+        // 500 matched pairs, 250 odd events without readings, one orphan reading
+        assertEquals(751, full.getRows().size());
+    }
+}
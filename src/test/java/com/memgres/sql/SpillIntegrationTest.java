@@ -0,0 +1,209 @@
+package com.memgres.sql;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.sql.execution.RowCursor;
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionResult;
+import com.memgres.storage.Table;
+import com.memgres.transaction.TransactionIsolationLevel;
+import com.memgres.types.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for ORDER BY and GROUP BY running with a work-memory budget small
+ * enough to force spilling to temporary files.
+ */
+class SpillIntegrationTest {
+
+    private static final int ROWS = 20_000;
+
+    @TempDir
+    Path spillDirectory;
+
+    private MemGresEngine engine;
+    private SqlExecutionEngine sqlEngine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemGresEngine();
+        engine.initialize();
+        sqlEngine = new SqlExecutionEngine(engine);
+
+        execute("CREATE TABLE events (id INTEGER, bucket INTEGER, label VARCHAR, amount DECIMAL, day DATE, flag BOOLEAN)");
+        Table events = engine.getTable("public", "events");
+        for (int i = 0; i < ROWS; i++) {
+            events.insertRow(new Object[]{
+                i,
+                (i * 7919) % 5000,
+                i % 13 == 0 ? null : "label-" + (i % 97) + "-ü",
+                new BigDecimal(i).movePointLeft(2),
+                LocalDate.of(2024, 1, 1).plusDays(i % 366),
+                i % 2 == 0
+            });
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    private SqlExecutionResult execute(String sql) throws Exception {
+        return sqlEngine.execute(sql, TransactionIsolationLevel.READ_COMMITTED);
+    }
+
+    private void useSmallWorkMemory() {
+        engine.setSpillDirectory(spillDirectory);
+        engine.setWorkMemoryBytes(64 * 1024);
+    }
+
+    private long spillFileCount() throws Exception {
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void testSpilledSortMatchesInMemorySort() throws Exception {
+        String sql = "SELECT * FROM events ORDER BY label DESC, day";
+        List<Row> inMemory = execute(sql).getRows();
+
+        useSmallWorkMemory();
+        List<Row> spilled = execute(sql).getRows();
+
+        assertEquals(ROWS, spilled.size());
+        for (int i = 0; i < ROWS; i++) {
+            assertArrayEquals(inMemory.get(i).getData(), spilled.get(i).getData(), "row " + i);
+        }
+        assertEquals(0, spillFileCount());
+    }
+
+    @Test
+    void testSpilledSortIsStable() throws Exception {
+        useSmallWorkMemory();
+        List<Row> rows = execute("SELECT * FROM events ORDER BY flag").getRows();
+
+        assertEquals(ROWS, rows.size());
+        // Rows with equal keys keep their input order across spilled runs
+        int previousFalse = -1;
+        int previousTrue = -1;
+        for (int i = 0; i < ROWS; i++) {
+            Object[] data = rows.get(i).getData();
+            int id = (Integer) data[0];
+            if (Boolean.TRUE.equals(data[5])) {
+                assertTrue(i >= ROWS / 2);
+                assertTrue(id > previousTrue);
+                previousTrue = id;
+            } else {
+                assertTrue(id > previousFalse);
+                previousFalse = id;
+            }
+        }
+    }
+
+    @Test
+    void testSpilledGroupByAggregatesEveryGroupOnce() throws Exception {
+        useSmallWorkMemory();
+        SqlExecutionResult result = execute(
+            "SELECT bucket, COUNT(*) AS cnt, SUM(id) AS total, MIN(day) AS first_day FROM events GROUP BY bucket");
+
+        Map<Integer, long[]> expected = new HashMap<>();
+        for (int i = 0; i < ROWS; i++) {
+            long[] state = expected.computeIfAbsent((i * 7919) % 5000, k -> new long[2]);
+            state[0]++;
+            state[1] += i;
+        }
+
+        List<Row> rows = result.getRows();
+        assertEquals(5000, rows.size());
+        Map<Integer, Row> byBucket = new HashMap<>();
+        for (Row row : rows) {
+            assertNull(byBucket.put((Integer) row.getData()[0], row), "duplicate group");
+        }
+        for (Map.Entry<Integer, long[]> entry : expected.entrySet()) {
+            Object[] data = byBucket.get(entry.getKey()).getData();
+            assertEquals(entry.getValue()[0], data[1]);
+            assertEquals((double) entry.getValue()[1], (Double) data[2], 0.001);
+            assertTrue(data[3] instanceof LocalDate);
+        }
+        assertEquals(0, spillFileCount());
+    }
+
+    @Test
+    void testGroupByWithOrderByUnderSmallBudget() throws Exception {
+        useSmallWorkMemory();
+        List<Row> rows = execute(
+            "SELECT label, COUNT(*) AS cnt FROM events GROUP BY label ORDER BY label").getRows();
+
+        // 97 labels plus the NULL group, which sorts first
+        assertEquals(98, rows.size());
+        assertNull(rows.get(0).getData()[0]);
+        for (int i = 2; i < rows.size(); i++) {
+            String previous = (String) rows.get(i - 1).getData()[0];
+            String current = (String) rows.get(i).getData()[0];
+            assertTrue(previous.compareTo(current) < 0);
+        }
+    }
+
+    @Test
+    void testSpilledSortStreamsIntoCursor() throws Exception {
+        String sql = "SELECT id, label FROM events ORDER BY label, id";
+        List<Row> inMemory = execute(sql).getRows();
+
+        useSmallWorkMemory();
+        SqlExecutionResult result = sqlEngine.executeCursor(sql);
+        RowCursor cursor = result.getCursor();
+        assertEquals(ROWS, result.getRowCount());
+        // Sorted runs stay on disk and are merged as batches are fetched
+        assertTrue(spillFileCount() > 1);
+
+        int fetched = 0;
+        List<Row> batch;
+        while (!(batch = cursor.fetch(1_000)).isEmpty()) {
+            assertTrue(batch.size() <= 1_000);
+            for (Row row : batch) {
+                assertArrayEquals(inMemory.get(fetched).getData(), row.getData(), "row " + fetched);
+                fetched++;
+            }
+            if (!cursor.isExhausted()) {
+                assertTrue(spillFileCount() > 0);
+            }
+        }
+        assertEquals(ROWS, fetched);
+        // Exhausting the cursor removes the spill files
+        assertEquals(0, spillFileCount());
+    }
+
+    @Test
+    void testClosingSortedCursorRemovesSpillFiles() throws Exception {
+        useSmallWorkMemory();
+        RowCursor cursor = sqlEngine.executeCursor("SELECT * FROM events ORDER BY amount DESC").getCursor();
+        List<Row> first = cursor.fetch(10);
+
+        assertEquals(new BigDecimal(ROWS - 1).movePointLeft(2), first.get(0).getData()[3]);
+        assertTrue(spillFileCount() > 0);
+        cursor.close();
+        assertEquals(0, spillFileCount());
+    }
+
+    @Test
+    void testWorkMemoryMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> engine.setWorkMemoryBytes(0));
+    }
+}
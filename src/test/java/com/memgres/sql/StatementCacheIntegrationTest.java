@@ -0,0 +1,89 @@
+package com.memgres.sql;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.monitoring.PerformanceMonitor;
+import com.memgres.monitoring.PerformanceStatistics;
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionException;
+import com.memgres.sql.execution.SqlExecutionResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the engine-wide cache of parsed SQL statements.
+ */
+class StatementCacheIntegrationTest {
+
+    private MemGresEngine engine;
+    private SqlExecutionEngine sqlEngine;
+    private PerformanceMonitor monitor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemGresEngine();
+        engine.initialize();
+        sqlEngine = new SqlExecutionEngine(engine);
+        monitor = PerformanceMonitor.getInstance();
+        monitor.reset();
+
+        sqlEngine.execute("CREATE TABLE accounts (id INTEGER, balance INTEGER)");
+        sqlEngine.execute("INSERT INTO accounts (id, balance) VALUES (1, 100)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void testRepeatedSqlIsParsedOnce() throws Exception {
+        String sql = "SELECT balance FROM accounts WHERE id = 1";
+        PerformanceStatistics before = monitor.getStatistics();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, sqlEngine.execute(sql).getRows().size());
+        }
+        // Another connection of the same engine shares the cache
+        new SqlExecutionEngine(engine).execute(sql);
+
+        PerformanceStatistics after = monitor.getStatistics();
+        assertEquals(1, after.getStatementCacheMisses() - before.getStatementCacheMisses());
+        assertEquals(10, after.getStatementCacheHits() - before.getStatementCacheHits());
+        assertSame(sqlEngine.prepare(sql), sqlEngine.prepare(sql));
+    }
+
+    @Test
+    void testCachedStatementSeesSchemaChanges() throws Exception {
+        String sql = "SELECT * FROM accounts";
+        assertEquals(2, sqlEngine.execute(sql).getColumns().size());
+
+        sqlEngine.execute("DROP TABLE accounts");
+        assertThrows(SqlExecutionException.class, () -> sqlEngine.execute(sql));
+
+        sqlEngine.execute("CREATE TABLE accounts (id INTEGER, owner VARCHAR, balance INTEGER)");
+        sqlEngine.execute("INSERT INTO accounts (id, owner, balance) VALUES (7, 'ann', 5)");
+        SqlExecutionResult result = sqlEngine.execute(sql);
+        assertEquals(3, result.getColumns().size());
+        assertEquals("ann", result.getRows().get(0).getData()[1]);
+    }
+
+    @Test
+    void testCacheSizeIsConfigurable() throws Exception {
+        engine.setStatementCacheSize(0);
+        String sql = "SELECT id FROM accounts";
+        sqlEngine.execute(sql);
+        sqlEngine.execute(sql);
+        assertEquals(0, engine.getStatementCache().size());
+
+        engine.setStatementCacheSize(MemGresEngine.DEFAULT_STATEMENT_CACHE_SIZE);
+        sqlEngine.execute(sql);
+        assertEquals(1, engine.getStatementCache().size());
+
+        assertThrows(IllegalArgumentException.class, () -> engine.setStatementCacheSize(-1));
+        assertThrows(SqlExecutionException.class, () -> sqlEngine.execute("SELEC id FROM accounts"));
+    }
+}
@@ -0,0 +1,194 @@
+package com.memgres.sql;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionResult;
+import com.memgres.storage.Table;
+import com.memgres.transaction.TransactionIsolationLevel;
+import com.memgres.types.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for subqueries that are decorrelated into hash semi-joins, anti-joins
+ * and grouped lookups instead of being executed once per outer row.
+ */
+class SubqueryDecorrelationIntegrationTest {
+
+    private static final int CUSTOMERS = 2_000;
+    private static final int ORDERS = 20_000;
+
+    private MemGresEngine engine;
+    private SqlExecutionEngine sqlEngine;
+
+    /** Order count, total and maximum amount per customer id. */
+    private final Map<Integer, Integer> orderCounts = new HashMap<>();
+    private final Map<Integer, Long> orderTotals = new HashMap<>();
+    private final Map<Integer, Integer> maxAmounts = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemGresEngine();
+        engine.initialize();
+        sqlEngine = new SqlExecutionEngine(engine);
+
+        execute("CREATE TABLE customers (id INTEGER, region VARCHAR)");
+        execute("CREATE TABLE orders (order_id INTEGER, customer_id INTEGER, amount INTEGER)");
+        Table customers = engine.getTable("public", "customers");
+        for (int id = 0; id < CUSTOMERS; id++) {
+            customers.insertRow(new Object[]{id, "region" + (id % 5)});
+        }
+        Table orders = engine.getTable("public", "orders");
+        for (int i = 0; i < ORDERS; i++) {
+            // Customers 1500 and above never order
+            int customerId = (i * 7) % 1500;
+            int amount = (i * 13) % 1000;
+            orders.insertRow(new Object[]{i, customerId, amount});
+            orderCounts.merge(customerId, 1, Integer::sum);
+            orderTotals.merge(customerId, (long) amount, Long::sum);
+            maxAmounts.merge(customerId, amount, Math::max);
+        }
+        // An order without a customer
+        orders.insertRow(new Object[]{ORDERS, null, 0});
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    private SqlExecutionResult execute(String sql) throws Exception {
+        return sqlEngine.execute(sql, TransactionIsolationLevel.READ_COMMITTED);
+    }
+
+    private Set<Integer> ids(String sql) throws Exception {
+        Set<Integer> ids = new HashSet<>();
+        for (Row row : execute(sql).getRows()) {
+            ids.add((Integer) row.getData()[0]);
+        }
+        return ids;
+    }
+
+    @Test
+    void testCorrelatedExistsAndNotExists() throws Exception {
+        Set<Integer> withOrders = ids(
+            "SELECT c.id FROM customers c WHERE EXISTS (SELECT 1 FROM orders o WHERE o.customer_id = c.id)");
+        Set<Integer> withoutOrders = ids(
+            "SELECT c.id FROM customers c WHERE NOT EXISTS (SELECT 1 FROM orders o WHERE o.customer_id = c.id)");
+
+        assertEquals(orderCounts.keySet(), withOrders);
+        assertEquals(CUSTOMERS - orderCounts.size(), withoutOrders.size());
+        for (int id : withoutOrders) {
+            assertTrue(id >= 1500);
+        }
+    }
+
+    @Test
+    void testCorrelatedExistsWithInnerPredicate() throws Exception {
+        Set<Integer> bigSpenders = ids("""
+            SELECT c.id FROM customers c
+            WHERE c.region = 'region1'
+              AND EXISTS (SELECT 1 FROM orders o WHERE c.id = o.customer_id AND o.amount > 990)
+            """);
+
+        Set<Integer> expected = new HashSet<>();
+        for (Map.Entry<Integer, Integer> entry : maxAmounts.entrySet()) {
+            if (entry.getKey() % 5 == 1 && entry.getValue() > 990) {
+                expected.add(entry.getKey());
+            }
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, bigSpenders);
+    }
+
+    @Test
+    void testInAndNotInFollowNullSemantics() throws Exception {
+        Set<Integer> ordered = ids("SELECT id FROM customers WHERE id IN (SELECT customer_id FROM orders)");
+        assertEquals(orderCounts.keySet(), ordered);
+
+        // The NULL customer_id makes NOT IN unknown for every customer without orders
+        assertTrue(ids("SELECT id FROM customers WHERE id NOT IN (SELECT customer_id FROM orders)").isEmpty());
+
+        Set<Integer> neverOrdered = ids(
+            "SELECT id FROM customers WHERE id NOT IN (SELECT customer_id FROM orders WHERE amount > 0)");
+        assertEquals(CUSTOMERS - orderCounts.size(), neverOrdered.size());
+    }
+
+    @Test
+    void testCorrelatedIn() throws Exception {
+        Set<Integer> result = ids("""
+            SELECT c.id FROM customers c
+            WHERE 999 IN (SELECT o.amount FROM orders o WHERE o.customer_id = c.id)
+            """);
+
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < ORDERS; i++) {
+            if ((i * 13) % 1000 == 999) {
+                expected.add((i * 7) % 1500);
+            }
+        }
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void testCorrelatedScalarSubqueriesUseGroupedLookups() throws Exception {
+        List<Row> rows = execute("""
+            SELECT c.id,
+                   (SELECT COUNT(*) FROM orders o WHERE o.customer_id = c.id) AS order_count,
+                   (SELECT SUM(o.amount) FROM orders o WHERE o.customer_id = c.id) AS total
+            FROM customers c
+            """).getRows();
+
+        // Customers without orders get the aggregates over no rows
+        Object emptySum = execute("SELECT SUM(amount) FROM orders WHERE order_id < 0").getRows().get(0).getData()[0];
+
+        assertEquals(CUSTOMERS, rows.size());
+        for (Row row : rows) {
+            Object[] data = row.getData();
+            int id = (Integer) data[0];
+            assertEquals(orderCounts.getOrDefault(id, 0).longValue(), ((Number) data[1]).longValue(), "count of " + id);
+            if (orderTotals.containsKey(id)) {
+                assertEquals(orderTotals.get(id).doubleValue(), ((Number) data[2]).doubleValue(), "total of " + id);
+            } else {
+                assertEquals(emptySum, data[2], "total of " + id);
+            }
+        }
+
+        Set<Integer> filtered = ids(
+            "SELECT c.id FROM customers c WHERE (SELECT MAX(o.amount) FROM orders o WHERE o.customer_id = c.id) > 995");
+        Set<Integer> expected = new HashSet<>();
+        maxAmounts.forEach((id, max) -> {
+            if (max > 995) {
+                expected.add(id);
+            }
+        });
+        assertEquals(expected, filtered);
+    }
+
+    @Test
+    void testScalarSubqueryWithSeveralRowsStillFails() throws Exception {
+        assertThrows(Exception.class, () ->
+            execute("SELECT c.id, (SELECT o.amount FROM orders o WHERE o.customer_id = c.id) FROM customers c"));
+
+        List<Row> rows = execute("""
+            SELECT c.id, (SELECT o.amount FROM orders o WHERE o.order_id = c.id) AS amount
+            FROM customers c WHERE c.id < 10
+            """).getRows();
+        assertEquals(10, rows.size());
+        for (Row row : rows) {
+            int id = (Integer) row.getData()[0];
+            assertEquals((id * 13) % 1000, row.getData()[1]);
+        }
+    }
+}
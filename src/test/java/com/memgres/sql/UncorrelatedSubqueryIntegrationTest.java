@@ -0,0 +1,141 @@
+package com.memgres.sql;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionResult;
+import com.memgres.storage.Table;
+import com.memgres.transaction.TransactionIsolationLevel;
+import com.memgres.types.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for uncorrelated subqueries, which are executed once per statement
+ * execution wherever they appear.
+ */
+class UncorrelatedSubqueryIntegrationTest {
+
+    private static final int ITEMS = 1_000;
+
+    private MemGresEngine engine;
+    private SqlExecutionEngine sqlEngine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemGresEngine();
+        engine.initialize();
+        sqlEngine = new SqlExecutionEngine(engine);
+
+        execute("CREATE TABLE items (id INTEGER, category INTEGER, price INTEGER)");
+        Table items = engine.getTable("public", "items");
+        for (int i = 0; i < ITEMS; i++) {
+            items.insertRow(new Object[]{i, i % 10, (i * 31) % 500});
+        }
+        execute("CREATE TABLE featured (category INTEGER)");
+        execute("INSERT INTO featured VALUES (2)");
+        execute("INSERT INTO featured VALUES (7)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    private SqlExecutionResult execute(String sql) throws Exception {
+        return sqlEngine.execute(sql, TransactionIsolationLevel.READ_COMMITTED);
+    }
+
+    private Set<Integer> ids(String sql) throws Exception {
+        Set<Integer> ids = new HashSet<>();
+        for (Row row : execute(sql).getRows()) {
+            ids.add((Integer) row.getData()[0]);
+        }
+        return ids;
+    }
+
+    @Test
+    void testUpdateSeesSubqueryResultFromStatementStart() throws Exception {
+        SqlExecutionResult result = execute("UPDATE items SET price = (SELECT MAX(price) FROM items) + 1");
+        assertEquals(ITEMS, result.getAffectedRows());
+
+        // Every row gets the same value, not one that grows as earlier rows are updated
+        Object[] range = execute("SELECT MIN(price), MAX(price) FROM items").getRows().get(0).getData();
+        assertEquals(500, ((Number) range[0]).intValue());
+        assertEquals(500, ((Number) range[1]).intValue());
+    }
+
+    @Test
+    void testDeleteWithInSubquery() throws Exception {
+        SqlExecutionResult result = execute("DELETE FROM items WHERE category IN (SELECT category FROM featured)");
+        assertEquals(ITEMS / 5, result.getAffectedRows());
+
+        assertTrue(ids("SELECT id FROM items WHERE category = 2 OR category = 7").isEmpty());
+    }
+
+    @Test
+    void testUncorrelatedSubqueryNestedInCorrelatedSubquery() throws Exception {
+        Set<Integer> categories = ids("""
+            SELECT f.category FROM featured f
+            WHERE EXISTS (
+                SELECT 1 FROM items i
+                WHERE i.category = f.category
+                  AND i.price > (SELECT MAX(price) FROM items WHERE category = 2)
+            )
+            """);
+
+        int maxOfCategory2 = 0;
+        for (int i = 2; i < ITEMS; i += 10) {
+            maxOfCategory2 = Math.max(maxOfCategory2, (i * 31) % 500);
+        }
+        boolean category7Higher = false;
+        for (int i = 7; i < ITEMS; i += 10) {
+            category7Higher |= (i * 31) % 500 > maxOfCategory2;
+        }
+        assertEquals(category7Higher ? Set.of(7) : Set.of(), categories);
+    }
+
+    @Test
+    void testScalarSubqueriesInFilterAndProjection() throws Exception {
+        Set<Integer> aboveAverage = ids("SELECT id FROM items WHERE price > (SELECT AVG(price) FROM items)");
+        double average = 0;
+        for (int i = 0; i < ITEMS; i++) {
+            average += (i * 31) % 500;
+        }
+        average /= ITEMS;
+        for (int i = 0; i < ITEMS; i++) {
+            assertEquals((i * 31) % 500 > average, aboveAverage.contains(i), "item " + i);
+        }
+
+        List<Row> shares = execute(
+            "SELECT id, (SELECT COUNT(*) FROM featured) AS featured_count FROM items WHERE id < 5").getRows();
+        assertEquals(5, shares.size());
+        for (Row row : shares) {
+            assertEquals(2L, ((Number) row.getData()[1]).longValue());
+        }
+    }
+
+    @Test
+    void testSubqueryOverCte() throws Exception {
+        Set<Integer> ids = ids("""
+            WITH cheap AS (SELECT id FROM items WHERE price < 10)
+            SELECT id FROM items WHERE id IN (SELECT id FROM cheap)
+            """);
+
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < ITEMS; i++) {
+            if ((i * 31) % 500 < 10) {
+                expected.add(i);
+            }
+        }
+        assertEquals(expected, ids);
+    }
+}
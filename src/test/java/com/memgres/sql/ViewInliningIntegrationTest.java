@@ -0,0 +1,184 @@
+package com.memgres.sql;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionResult;
+import com.memgres.storage.Table;
+import com.memgres.transaction.TransactionIsolationLevel;
+import com.memgres.types.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for views that are merged into the query selecting from them, or that
+ * have the query's predicates pushed into them. Cancelled orders have a zero divisor, so a
+ * view dividing by it only succeeds when those rows are filtered out before it projects.
+ */
+class ViewInliningIntegrationTest {
+
+    private static final int ORDERS = 2_000;
+    private static final int CUSTOMERS = 50;
+
+    private MemGresEngine engine;
+    private SqlExecutionEngine sqlEngine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new MemGresEngine();
+        engine.initialize();
+        sqlEngine = new SqlExecutionEngine(engine);
+
+        execute("CREATE TABLE customers (id INTEGER, region VARCHAR)");
+        execute("CREATE TABLE orders (id INTEGER, customer_id INTEGER, status VARCHAR, amount INTEGER, divisor INTEGER)");
+        Table customers = engine.getTable("public", "customers");
+        for (int id = 0; id < CUSTOMERS; id++) {
+            customers.insertRow(new Object[]{id, region(id)});
+        }
+        Table orders = engine.getTable("public", "orders");
+        for (int id = 0; id < ORDERS; id++) {
+            orders.insertRow(new Object[]{id, id % CUSTOMERS, status(id), id % 100, divisor(id)});
+        }
+
+        execute("CREATE VIEW order_ratios AS SELECT id, status, 1000 / divisor AS ratio FROM orders");
+        execute("""
+            CREATE VIEW active_orders AS
+            SELECT o.id, o.amount, c.region FROM orders o JOIN customers c ON o.customer_id = c.id
+            WHERE o.status = 'active'
+            """);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    private SqlExecutionResult execute(String sql) throws Exception {
+        return sqlEngine.execute(sql, TransactionIsolationLevel.READ_COMMITTED);
+    }
+
+    private static String region(int customerId) {
+        return "r" + customerId % 3;
+    }
+
+    private static String status(int orderId) {
+        return orderId % 4 == 0 ? "cancelled" : orderId % 4 == 1 ? "pending" : "active";
+    }
+
+    private static int divisor(int orderId) {
+        return orderId % 4 == 0 ? 0 : orderId % 7 + 1;
+    }
+
+    private Set<Integer> ids(String sql) throws Exception {
+        Set<Integer> ids = new HashSet<>();
+        for (Row row : execute(sql).getRows()) {
+            ids.add(((Number) row.getData()[0]).intValue());
+        }
+        return ids;
+    }
+
+    @Test
+    void testMergedViewFiltersBeforeProjecting() throws Exception {
+        List<Row> rows = execute("SELECT id, ratio FROM order_ratios WHERE id = 7").getRows();
+        assertEquals(1, rows.size());
+        assertEquals(1000 / divisor(7), ((Number) rows.get(0).getData()[1]).intValue());
+
+        List<Row> pending = execute("SELECT * FROM order_ratios r WHERE r.status = 'pending' ORDER BY id").getRows();
+        assertEquals(ORDERS / 4, pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            Object[] data = pending.get(i).getData();
+            int id = 4 * i + 1;
+            assertEquals(id, data[0]);
+            assertEquals("pending", data[1]);
+            assertEquals(1000 / divisor(id), ((Number) data[2]).intValue());
+        }
+        List<String> names = execute("SELECT * FROM order_ratios WHERE id = 1").getColumns().stream()
+            .map(column -> column.getName()).toList();
+        assertEquals(List.of("id", "status", "ratio"), names);
+
+        // Without a predicate the view still divides by zero
+        assertThrows(Exception.class, () -> execute("SELECT id, ratio FROM order_ratios"));
+    }
+
+    @Test
+    void testAggregationOverMergedJoinView() throws Exception {
+        List<Row> rows = execute("""
+            SELECT region, COUNT(*) AS orders, SUM(amount) AS total FROM active_orders
+            WHERE amount >= 50 GROUP BY region ORDER BY region
+            """).getRows();
+
+        TreeMap<String, long[]> expected = new TreeMap<>();
+        for (int id = 0; id < ORDERS; id++) {
+            if (status(id).equals("active") && id % 100 >= 50) {
+                long[] totals = expected.computeIfAbsent(region(id % CUSTOMERS), region -> new long[2]);
+                totals[0]++;
+                totals[1] += id % 100;
+            }
+        }
+        assertEquals(expected.size(), rows.size());
+        int i = 0;
+        for (var entry : expected.entrySet()) {
+            Object[] data = rows.get(i++).getData();
+            assertEquals(entry.getKey(), data[0]);
+            assertEquals(entry.getValue()[0], ((Number) data[1]).longValue());
+            assertEquals(entry.getValue()[1], ((Number) data[2]).longValue());
+        }
+    }
+
+    @Test
+    void testViewOverView() throws Exception {
+        execute("CREATE VIEW big_active_orders AS SELECT * FROM active_orders WHERE amount > 90");
+
+        Set<Integer> ids = ids("SELECT b.id FROM big_active_orders b WHERE b.region = 'r1'");
+        Set<Integer> expected = new HashSet<>();
+        for (int id = 0; id < ORDERS; id++) {
+            if (status(id).equals("active") && id % 100 > 90 && region(id % CUSTOMERS).equals("r1")) {
+                expected.add(id);
+            }
+        }
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void testPredicateOnGroupingColumnIsPushedIntoAggregatedView() throws Exception {
+        execute("""
+            CREATE VIEW status_ratios AS
+            SELECT status, COUNT(*) AS orders, MAX(1000 / divisor) AS max_ratio FROM orders GROUP BY status
+            """);
+
+        List<Row> rows = execute("SELECT status, orders, max_ratio FROM status_ratios WHERE status = 'active'").getRows();
+        assertEquals(1, rows.size());
+        assertEquals("active", rows.get(0).getData()[0]);
+        assertEquals(ORDERS / 2, ((Number) rows.get(0).getData()[1]).intValue());
+        assertEquals(1000, ((Number) rows.get(0).getData()[2]).intValue());
+
+        // A predicate on an aggregate still needs every group
+        execute("CREATE VIEW status_counts AS SELECT status, COUNT(*) AS orders FROM orders GROUP BY status");
+        List<Row> large = execute("SELECT status FROM status_counts WHERE orders > 600 AND status <> 'pending'").getRows();
+        assertEquals(1, large.size());
+        assertEquals("active", large.get(0).getData()[0]);
+    }
+
+    @Test
+    void testViewsThatCannotBeRewrittenKeepTheirResults() throws Exception {
+        // Filtering below LIMIT would select different rows
+        execute("CREATE VIEW first_orders AS SELECT id, status FROM orders ORDER BY id LIMIT 10");
+        assertEquals(Set.of(2, 3, 6, 7), ids("SELECT id FROM first_orders WHERE status = 'active'"));
+
+        // A CTE of the same name hides the view
+        Set<Integer> ids = ids("""
+            WITH order_ratios AS (SELECT id FROM orders WHERE id < 3)
+            SELECT id FROM order_ratios WHERE id > 0
+            """);
+        assertEquals(Set.of(1, 2), ids);
+    }
+}
@@ -323,4 +323,87 @@ class WindowFunctionTest {
             }
         }
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testWindowOrderDiffersFromQueryOrder() throws Exception {
+        SqlExecutionResult result = sqlEngine.execute(
+            "SELECT name, ROW_NUMBER() OVER (ORDER BY salary DESC) as row_num, " +
+            "LAG(name) OVER (ORDER BY salary DESC) as richer FROM employees ORDER BY name"
+        );
+        
+        List<Row> rows = result.getRows();
+        assertEquals(5, rows.size());
+        // Alice, Bob, Charlie, Diana, Eve
+        assertArrayEquals(new Object[]{"Alice", 3L, "Bob"}, rows.get(0).getData());
+        assertArrayEquals(new Object[]{"Bob", 2L, "Eve"}, rows.get(1).getData());
+        assertArrayEquals(new Object[]{"Charlie", 5L, "Diana"}, rows.get(2).getData());
+        assertArrayEquals(new Object[]{"Diana", 4L, "Alice"}, rows.get(3).getData());
+        assertArrayEquals(new Object[]{"Eve", 1L, null}, rows.get(4).getData());
+    }
+    
+    @Test
+    void testRankingWithTies() throws Exception {
+        sqlEngine.execute("INSERT INTO employees VALUES (6, 'Frank', 'Engineering', 80000)");
+        sqlEngine.execute("INSERT INTO employees VALUES (7, 'Grace', 'Sales', 60000)");
+        
+        SqlExecutionResult result = sqlEngine.execute(
+            "SELECT name, RANK() OVER (PARTITION BY department ORDER BY salary) as rnk, " +
+            "DENSE_RANK() OVER (PARTITION BY department ORDER BY salary) as dense, " +
+            "CUME_DIST() OVER (PARTITION BY department ORDER BY salary) as dist " +
+            "FROM employees ORDER BY id"
+        );
+        
+        List<Row> rows = result.getRows();
+        assertEquals(7, rows.size());
+        // Engineering: Alice 75000, Bob 80000, Frank 80000, Eve 90000
+        assertArrayEquals(new Object[]{"Alice", 1L, 1L, 0.25}, rows.get(0).getData());
+        assertArrayEquals(new Object[]{"Bob", 2L, 2L, 0.75}, rows.get(1).getData());
+        assertArrayEquals(new Object[]{"Eve", 4L, 3L, 1.0}, rows.get(4).getData());
+        assertArrayEquals(new Object[]{"Frank", 2L, 2L, 0.75}, rows.get(5).getData());
+        // Sales: Charlie 60000, Grace 60000, Diana 65000
+        assertArrayEquals(new Object[]{"Charlie", 1L, 1L, 2.0 / 3}, rows.get(2).getData());
+        assertArrayEquals(new Object[]{"Diana", 3L, 2L, 1.0}, rows.get(3).getData());
+        assertArrayEquals(new Object[]{"Grace", 1L, 1L, 2.0 / 3}, rows.get(6).getData());
+    }
+    
+    @Test
+    void testRunningAggregateOverOrderedWindow() throws Exception {
+        SqlExecutionResult result = sqlEngine.execute(
+            "SELECT name, SUM(salary) OVER (PARTITION BY department ORDER BY salary) as running, " +
+            "COUNT(*) OVER (PARTITION BY department) as dept_size FROM employees ORDER BY id"
+        );
+        
+        List<Row> rows = result.getRows();
+        assertEquals(5, rows.size());
+        assertArrayEquals(new Object[]{"Alice", 75000.0, 3L}, rows.get(0).getData());
+        assertArrayEquals(new Object[]{"Bob", 155000.0, 3L}, rows.get(1).getData());
+        assertArrayEquals(new Object[]{"Charlie", 60000.0, 2L}, rows.get(2).getData());
+        assertArrayEquals(new Object[]{"Diana", 125000.0, 2L}, rows.get(3).getData());
+        assertArrayEquals(new Object[]{"Eve", 245000.0, 3L}, rows.get(4).getData());
+    }
+    
+    @Test
+    void testWindowFunctionsOverManyRows() throws Exception {
+        sqlEngine.execute("CREATE TABLE readings (id INTEGER, sensor INTEGER, reading INTEGER)");
+        com.memgres.storage.Table readings = engine.getTable("public", "readings");
+        int count = 100_000;
+        for (int i = 0; i < count; i++) {
+            readings.insertRow(new Object[]{i, i % 10, count - i});
+        }
+        
+        SqlExecutionResult result = sqlEngine.execute(
+            "SELECT id, ROW_NUMBER() OVER (PARTITION BY sensor ORDER BY reading) as rn, " +
+            "LEAD(id) OVER (PARTITION BY sensor ORDER BY reading) as next_id FROM readings"
+        );
+        
+        List<Row> rows = result.getRows();
+        assertEquals(count, rows.size());
+        for (Row row : rows) {
+            int id = (Integer) row.getData()[0];
+            // Readings fall as id grows, so each sensor's highest id comes first
+            long expectedRowNumber = (count - 1 - id) / 10 + 1;
+            assertEquals(expectedRowNumber, row.getData()[1]);
+            assertEquals(id < 10 ? null : id - 10, row.getData()[2]);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.memgres.sql.optimizer;
+
+import com.memgres.sql.optimizer.QueryPlanner.JoinEdge;
+import com.memgres.sql.optimizer.QueryPlanner.JoinOrder;
+import com.memgres.sql.optimizer.QueryPlanner.JoinRelation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for cost-based join ordering in QueryPlanner.
+ */
+public class QueryPlannerJoinOrderTest {
+
+    private final QueryPlanner planner = new QueryPlanner(null);
+
+    @Test
+    void testLargeTableIsJoinedLast() {
+        // big(100000) - mid(1000) - small(10), written starting from the big table
+        List<JoinRelation> relations = List.of(
+            new JoinRelation("big", 100_000),
+            new JoinRelation("mid", 1_000),
+            new JoinRelation("small", 10));
+        List<JoinEdge> edges = List.of(
+            new JoinEdge(0, "mid_id", 1_000, 1, "id", 1_000),
+            new JoinEdge(1, "small_id", 10, 2, "id", 10));
+
+        JoinOrder order = planner.planJoinOrder(relations, edges);
+
+        assertFalse(order.isWrittenOrder());
+        assertEquals(0, order.getOrder()[2]);
+        assertEquals(100_000.0, order.getEstimatedRows(), 1.0);
+    }
+
+    @Test
+    void testCrossProductsAreAvoided() {
+        // a and c are tiny but only connected through b
+        List<JoinRelation> relations = List.of(
+            new JoinRelation("a", 10),
+            new JoinRelation("b", 10_000),
+            new JoinRelation("c", 10));
+        List<JoinEdge> edges = List.of(
+            new JoinEdge(0, "id", 10, 1, "a_id", 10),
+            new JoinEdge(1, "c_id", 10, 2, "id", 10));
+
+        int[] order = planner.planJoinOrder(relations, edges).getOrder();
+
+        assertEquals(1, order[1]);
+    }
+
+    @Test
+    void testDisconnectedRelationsStillJoin() {
+        List<JoinRelation> relations = List.of(
+            new JoinRelation("a", 5),
+            new JoinRelation("b", 7));
+
+        JoinOrder order = planner.planJoinOrder(relations, List.of());
+
+        assertEquals(35.0, order.getEstimatedRows(), 0.001);
+        int[] sorted = order.getOrder();
+        Arrays.sort(sorted);
+        assertArrayEquals(new int[]{0, 1}, sorted);
+    }
+
+    @Test
+    void testGreedyOrderingForManyRelations() {
+        // A chain r0 - r1 - ... - r13; r7 is the smallest relation
+        int count = QueryPlanner.MAX_DP_RELATIONS + 4;
+        List<JoinRelation> relations = new ArrayList<>();
+        List<JoinEdge> edges = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            relations.add(new JoinRelation("r" + i, i == 7 ? 3 : 1_000 + i));
+            if (i > 0) {
+                edges.add(new JoinEdge(i - 1, "next_id", 100, i, "id", 100));
+            }
+        }
+
+        int[] order = planner.planJoinOrder(relations, edges).getOrder();
+
+        assertEquals(7, order[0]);
+        boolean[] seen = new boolean[count];
+        for (int step = 0; step < count; step++) {
+            assertFalse(seen[order[step]]);
+            seen[order[step]] = true;
+            if (step > 0) {
+                // Every relation joins a neighbour that is already part of the result
+                int relation = order[step];
+                boolean connected = (relation > 0 && seen[relation - 1]) || (relation < count - 1 && seen[relation + 1]);
+                assertTrue(connected);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.memgres.sql.parser;
+
+import com.memgres.sql.MemGresLexer;
+import com.memgres.sql.ast.statement.Statement;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the fast-path parser builds the same AST as the grammar for the statements it
+ * accepts, and leaves everything else to the grammar.
+ */
+class FastPathParserTest {
+
+    private final SqlParser grammarParser = new SqlParser(false);
+
+    private static List<Statement> fastPath(String sql) {
+        return FastPathParser.parse(new CommonTokenStream(new MemGresLexer(CharStreams.fromString(sql))));
+    }
+
+    @Test
+    void testSimpleStatementsMatchGrammar() throws Exception {
+        List<String> statements = List.of(
+            "INSERT INTO users (id, name, score, active, note) VALUES (1, 'ann', 2.5, TRUE, NULL)",
+            "insert into users values (?, ?, ?), (3, 'bob', .5);",
+            "INSERT INTO \"Users\" (\"Id\") VALUES (?)",
+            "SELECT * FROM users WHERE id = ?",
+            "SELECT id, name AS n, u.score s FROM users u WHERE u.id >= 10 AND name <> 'x' AND active = FALSE",
+            "SELECT name FROM users AS u",
+            "UPDATE users SET name = ?, score = 1 WHERE id = ? AND score < 5",
+            "UPDATE users SET active = TRUE",
+            "DELETE FROM users WHERE id = ?",
+            "DELETE FROM users -- all of them\n"
+        );
+        for (String sql : statements) {
+            List<Statement> fast = fastPath(sql);
+            assertNotNull(fast, sql);
+            assertSameTree(grammarParser.parse(sql), fast, sql);
+        }
+    }
+
+    @Test
+    void testOtherStatementsFallBackToGrammar() throws Exception {
+        List<String> statements = List.of(
+            "SELECT id FROM users WHERE id = 1 ORDER BY id",
+            "SELECT id FROM users WHERE id = 1 OR id = 2",
+            "SELECT COUNT(*) FROM users",
+            "SELECT DISTINCT name FROM users",
+            "SELECT u.id FROM users u JOIN orders o ON o.user_id = u.id",
+            "SELECT id FROM users WHERE name IS NULL",
+            "INSERT INTO users (id) SELECT id FROM old_users",
+            "INSERT INTO users (id) VALUES (1 + 2)",
+            "UPDATE users SET score = score + 1 WHERE id = 1",
+            "DELETE FROM users WHERE id IN (1, 2)",
+            "DELETE FROM users; DELETE FROM orders",
+            "CREATE TABLE users (id INTEGER)"
+        );
+        for (String sql : statements) {
+            assertNull(fastPath(sql), sql);
+            assertFalse(grammarParser.parse(sql).isEmpty(), sql);
+        }
+    }
+
+    @Test
+    void testInvalidStatementsFailWithSyntaxError() {
+        for (String sql : List.of("SELECT FROM users", "INSERT INTO users VALUES ()", "UPDATE users SET WHERE id = 1",
+                "DELETE FROM users WHERE", "SELECT id FROM users WHERE id = 1 AND")) {
+            assertNull(fastPath(sql), sql);
+            assertThrows(SqlParseException.class, () -> new SqlParser().parse(sql), sql);
+        }
+    }
+
+    /**
+     * Compare two ASTs field by field, since AST nodes do not implement equals.
+     */
+    private static void assertSameTree(Object expected, Object actual, String path) throws IllegalAccessException {
+        if (expected == null || actual == null) {
+            assertSame(expected, actual, path);
+            return;
+        }
+        assertEquals(expected.getClass(), actual.getClass(), path);
+        if (expected instanceof List) {
+            List<?> expectedList = (List<?>) expected;
+            List<?> actualList = (List<?>) actual;
+            assertEquals(expectedList.size(), actualList.size(), path);
+            for (int i = 0; i < expectedList.size(); i++) {
+                assertSameTree(expectedList.get(i), actualList.get(i), path + "[" + i + "]");
+            }
+        } else if (expected instanceof Optional) {
+            assertSameTree(((Optional<?>) expected).orElse(null), ((Optional<?>) actual).orElse(null), path);
+        } else if (expected.getClass().getName().startsWith("com.memgres.sql.ast")
+                && !expected.getClass().isEnum()) {
+            for (Class<?> type = expected.getClass(); type != Object.class; type = type.getSuperclass()) {
+                for (Field field : type.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    assertSameTree(field.get(expected), field.get(actual), path + "." + field.getName());
+                }
+            }
+        } else {
+            assertEquals(expected, actual, path);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.memgres.sql.parser;
+
+import com.memgres.sql.ast.expression.LiteralExpression;
+import com.memgres.sql.ast.statement.InsertStatement;
+import com.memgres.sql.ast.statement.SelectStatement;
+import com.memgres.sql.ast.statement.Statement;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for two-stage parsing with per-thread parser reuse, and for parser warm-up.
+ */
+class SqlParserTest {
+
+    private final SqlParser parser = new SqlParser();
+
+    @Test
+    void testWarmUpParsesWholeCorpus() {
+        assertEquals(SqlParser.WARM_UP_CORPUS.size(), SqlParser.warmUp());
+    }
+
+    @Test
+    void testSyntaxErrorIsReportedAfterFallback() throws Exception {
+        SqlParseException e = assertThrows(SqlParseException.class, () -> parser.parse("SELECT FROM WHERE"));
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        assertTrue(cause.getMessage().startsWith("Syntax error at line 1:"), cause.getMessage());
+
+        // The reused parser is usable again after a failed parse
+        List<Statement> statements = parser.parse("SELECT id FROM t WHERE id = 1; INSERT INTO t (id) VALUES (2)");
+        assertEquals(2, statements.size());
+        assertInstanceOf(SelectStatement.class, statements.get(0));
+        assertInstanceOf(InsertStatement.class, statements.get(1));
+    }
+
+    @Test
+    void testConcurrentParsesUseTheirOwnParser() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                int id = i;
+                results.add(executor.submit(() -> {
+                    List<Statement> statements = parser.parse("INSERT INTO t (id, name) VALUES (" + id + ", 'n" + id + "')");
+                    InsertStatement insert = (InsertStatement) statements.get(0);
+                    LiteralExpression value = (LiteralExpression) insert.getValuesList().get(0).get(0);
+                    return ((Number) value.getValue()).intValue() == id;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
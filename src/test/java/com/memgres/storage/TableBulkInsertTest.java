@@ -0,0 +1,92 @@
+package com.memgres.storage;
+
+import com.memgres.types.Column;
+import com.memgres.types.DataType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for inserting and deleting many rows of a table with one call.
+ */
+public class TableBulkInsertTest {
+
+    private Table table;
+
+    @BeforeEach
+    void setUp() {
+        List<Column> columns = Arrays.asList(
+            new Column.Builder().name("id").dataType(DataType.INTEGER).autoIncrement(true).build(),
+            Column.of("code", DataType.VARCHAR),
+            Column.of("city", DataType.VARCHAR)
+        );
+        table = new Table("places", columns);
+        table.createIndex("city", "idx_city");
+        table.createCompositeIndex("idx_code", List.of("code"), true, false);
+        table.insertRow(new Object[]{null, "a", "Oslo"});
+    }
+
+    @Test
+    void testInsertRowsUpdatesIndexesAndGeneratesKeys() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            rows.add(new Object[]{null, "code" + i, i % 2 == 0 ? "Bergen" : "Oslo"});
+        }
+
+        long[] rowIds = table.insertRows(rows);
+
+        assertEquals(1_000, rowIds.length);
+        assertEquals(1_001, table.getRowCount());
+        assertEquals(1_000, table.getLastGeneratedKeys().size());
+        assertEquals(2, table.getLastGeneratedKeys().get(0));
+        assertEquals(1_001, table.getLastGeneratedKeys().get(999));
+        assertEquals(501, table.getIndex("idx_city").findEqual("Oslo").size());
+        assertEquals(Set.of(rowIds[10]), table.getCompositeIndex("idx_code").findExact("code10"));
+        assertEquals("code999", table.getRow(rowIds[999]).getData()[1]);
+    }
+
+    @Test
+    void testDuplicateKeyInsertsNothing() {
+        List<Object[]> rows = List.of(
+            new Object[]{null, "b", "Oslo"},
+            new Object[]{null, "c", "Bergen"},
+            new Object[]{null, "b", "Bergen"}
+        );
+
+        assertThrows(IllegalStateException.class, () -> table.insertRows(rows));
+        assertEquals(1, table.getRowCount());
+        assertEquals(1, table.getIndex("idx_city").findEqual("Oslo").size());
+        assertTrue(table.getCompositeIndex("idx_code").findExact("c").isEmpty());
+
+        // An existing key is rejected the same way
+        assertThrows(IllegalStateException.class,
+            () -> table.insertRows(List.<Object[]>of(new Object[]{null, "a", "Oslo"})));
+        assertEquals(1, table.getRowCount());
+    }
+
+    @Test
+    void testDeleteRowsUndoesBulkInsert() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rows.add(new Object[]{null, "code" + i, "Bergen"});
+        }
+        long[] rowIds = table.insertRows(rows);
+
+        assertEquals(100, table.deleteRows(rowIds));
+        assertEquals(1, table.getRowCount());
+        assertTrue(table.getIndex("idx_city").findEqual("Bergen").isEmpty());
+        assertTrue(table.getCompositeIndex("idx_code").findExact("code10").isEmpty());
+        assertNull(table.getRow(rowIds[0]));
+        assertEquals(0, table.deleteRows(rowIds));
+
+        // The removed keys can be inserted again
+        table.insertRows(List.<Object[]>of(new Object[]{null, "code10", "Bergen"}));
+        assertEquals(2, table.getRowCount());
+    }
+}
@@ -0,0 +1,170 @@
+package com.memgres.testing;
+
+import com.memgres.core.MemGresEngine;
+import com.memgres.sql.execution.PreparedQuery;
+import com.memgres.sql.execution.SqlExecutionEngine;
+import com.memgres.sql.execution.SqlExecutionException;
+import com.memgres.types.Row;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for prepared statements parsed once and executed with bound parameter values.
+ */
+public class PreparedStatementTest {
+
+    private MemGresEngine engine;
+    private SqlExecutionEngine sqlEngine;
+    private MemGresTestConnection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        engine = new MemGresEngine();
+        engine.initialize();
+
+        sqlEngine = new SqlExecutionEngine(engine);
+        connection = new MemGresTestConnection(engine, sqlEngine);
+
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE items (id INTEGER, name TEXT, price INTEGER, added DATE)");
+            for (int id = 1; id <= 10; id++) {
+                stmt.execute("INSERT INTO items (id, name, price) VALUES (" + id + ", 'item" + id + "', " + id * 10 + ")");
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void testPreparedQueryExecutedWithDifferentValues() throws Exception {
+        PreparedQuery query = sqlEngine.prepare("SELECT name FROM items WHERE id = ?");
+        for (int id = 1; id <= 10; id++) {
+            List<Row> rows = sqlEngine.execute(query, List.of(id)).getRows();
+            assertEquals(1, rows.size());
+            assertEquals("item" + id, rows.get(0).getData()[0]);
+        }
+
+        SqlExecutionException e = assertThrows(SqlExecutionException.class,
+            () -> sqlEngine.execute(query, List.of()));
+        assertTrue(e.getMessage().contains("No value specified for parameter 1")
+            || (e.getCause() != null && e.getCause().getMessage().contains("No value specified for parameter 1")));
+    }
+
+    @Test
+    void testParametersInLimitAndBetween() throws Exception {
+        PreparedQuery query = sqlEngine.prepare(
+            "SELECT id FROM items WHERE price BETWEEN ? AND ? ORDER BY id LIMIT ?");
+        List<Row> rows = sqlEngine.execute(query, List.of(30, 80, 2)).getRows();
+        assertEquals(2, rows.size());
+        assertEquals(3, ((Number) rows.get(0).getData()[0]).intValue());
+        assertEquals(4, ((Number) rows.get(1).getData()[0]).intValue());
+
+        rows = sqlEngine.execute(query, List.of(70, 100, 10)).getRows();
+        assertEquals(4, rows.size());
+    }
+
+    @Test
+    void testJdbcPreparedStatementBindsValues() throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO items (id, name, price, added) VALUES (?, ?, ?, ?)")) {
+            insert.setInt(1, 11);
+            insert.setString(2, "it's ?");
+            insert.setNull(3, Types.INTEGER);
+            insert.setDate(4, Date.valueOf(LocalDate.of(2024, 2, 29)));
+            assertEquals(1, insert.executeUpdate());
+
+            insert.setInt(1, 12);
+            insert.setString(2, "plain");
+            insert.setInt(3, 120);
+            insert.setDate(4, Date.valueOf(LocalDate.of(2024, 3, 1)));
+            assertEquals(1, insert.executeUpdate());
+        }
+
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT name, price, added FROM items WHERE id = ? AND name <> '?'")) {
+            select.setInt(1, 11);
+            try (ResultSet rs = select.executeQuery()) {
+                assertTrue(rs.next());
+                assertEquals("it's ?", rs.getString(1));
+                rs.getInt(2);
+                assertTrue(rs.wasNull());
+                assertEquals(LocalDate.of(2024, 2, 29), rs.getObject(3));
+                assertFalse(rs.next());
+            }
+
+            select.setInt(1, 12);
+            try (ResultSet rs = select.executeQuery()) {
+                assertTrue(rs.next());
+                assertEquals("plain", rs.getString(1));
+                assertEquals(120, rs.getInt(2));
+            }
+        }
+    }
+
+    @Test
+    void testPreparedStatementBatch() throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement("UPDATE items SET price = ? WHERE id = ?")) {
+            for (int id = 1; id <= 3; id++) {
+                update.setInt(1, id * 1000);
+                update.setInt(2, id);
+                update.addBatch();
+            }
+            int[] counts = update.executeBatch();
+            assertEquals(List.of(1, 1, 1), Arrays.stream(counts).boxed().toList());
+        }
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT price FROM items WHERE id = 3")) {
+            assertTrue(rs.next());
+            assertEquals(3000, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void testInsertBatchReportsFailedEntries() throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO items (id, name, price) VALUES (?, ?, ?)")) {
+            for (int id = 100; id < 10_100; id++) {
+                insert.setInt(1, id);
+                insert.setString(2, "bulk" + id);
+                if (id == 5_000) {
+                    insert.setString(3, "not a price");
+                } else {
+                    insert.setInt(3, id);
+                }
+                insert.addBatch();
+            }
+            int[] counts = insert.executeBatch();
+            assertEquals(10_000, counts.length);
+            assertEquals(Statement.EXECUTE_FAILED, counts[4_900]);
+            assertEquals(9_999, Arrays.stream(counts).filter(count -> count == 1).count());
+        }
+
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM items")) {
+            assertTrue(rs.next());
+            assertEquals(10 + 9_999, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void testEngineBatchOfDeletes() throws Exception {
+        PreparedQuery query = sqlEngine.prepare("DELETE FROM items WHERE id = ?");
+        int[] counts = sqlEngine.executeBatch(query, List.of(List.of(1), List.of(2), List.of(42)));
+        assertEquals(List.of(1, 1, 0), Arrays.stream(counts).boxed().toList());
+        assertEquals(8, engine.getTable("public", "items").getRowCount());
+    }
+}